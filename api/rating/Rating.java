@@ -2460,6 +2460,4443 @@ public final class Rating extends com.google.protobuf.GeneratedFile {
 
   }
 
+  public interface GetRatesBatchRequestOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:rating.GetRatesBatchRequest)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return A list containing the modIds.
+     */
+    java.util.List<java.lang.Long> getModIdsList();
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return The count of modIds.
+     */
+    int getModIdsCount();
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @param index The index of the element to return.
+     * @return The modIds at the given index.
+     */
+    long getModIds(int index);
+  }
+  /**
+   * Protobuf type {@code rating.GetRatesBatchRequest}
+   */
+  public static final class GetRatesBatchRequest extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:rating.GetRatesBatchRequest)
+      GetRatesBatchRequestOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 32,
+        /* patch= */ 1,
+        /* suffix= */ "",
+        GetRatesBatchRequest.class.getName());
+    }
+    // Use GetRatesBatchRequest.newBuilder() to construct.
+    private GetRatesBatchRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private GetRatesBatchRequest() {
+      modIds_ = emptyLongList();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return rating.Rating.internal_static_rating_GetRatesBatchRequest_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return rating.Rating.internal_static_rating_GetRatesBatchRequest_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              rating.Rating.GetRatesBatchRequest.class, rating.Rating.GetRatesBatchRequest.Builder.class);
+    }
+
+    public static final int MOD_IDS_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private com.google.protobuf.Internal.LongList modIds_ =
+        emptyLongList();
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return A list containing the modIds.
+     */
+    @java.lang.Override
+    public java.util.List<java.lang.Long>
+        getModIdsList() {
+      return modIds_;
+    }
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return The count of modIds.
+     */
+    public int getModIdsCount() {
+      return modIds_.size();
+    }
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @param index The index of the element to return.
+     * @return The modIds at the given index.
+     */
+    public long getModIds(int index) {
+      return modIds_.getLong(index);
+    }
+    private int modIdsMemoizedSerializedSize = -1;
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (getModIdsList().size() > 0) {
+        output.writeUInt32NoTag(10);
+        output.writeUInt32NoTag(modIdsMemoizedSerializedSize);
+      }
+      for (int i = 0; i < modIds_.size(); i++) {
+        output.writeInt64NoTag(modIds_.getLong(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      {
+        int dataSize = 0;
+        for (int i = 0; i < modIds_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt64SizeNoTag(modIds_.getLong(i));
+        }
+        size += dataSize;
+        if (!getModIdsList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        modIdsMemoizedSerializedSize = dataSize;
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof rating.Rating.GetRatesBatchRequest)) {
+        return super.equals(obj);
+      }
+      rating.Rating.GetRatesBatchRequest other = (rating.Rating.GetRatesBatchRequest) obj;
+
+      if (!getModIdsList()
+          .equals(other.getModIdsList())) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getModIdsCount() > 0) {
+        hash = (37 * hash) + MOD_IDS_FIELD_NUMBER;
+        hash = (53 * hash) + getModIdsList().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static rating.Rating.GetRatesBatchRequest parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static rating.Rating.GetRatesBatchRequest parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.GetRatesBatchRequest parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(rating.Rating.GetRatesBatchRequest prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code rating.GetRatesBatchRequest}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:rating.GetRatesBatchRequest)
+        rating.Rating.GetRatesBatchRequestOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return rating.Rating.internal_static_rating_GetRatesBatchRequest_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return rating.Rating.internal_static_rating_GetRatesBatchRequest_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                rating.Rating.GetRatesBatchRequest.class, rating.Rating.GetRatesBatchRequest.Builder.class);
+      }
+
+      // Construct using rating.Rating.GetRatesBatchRequest.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        modIds_ = emptyLongList();
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return rating.Rating.internal_static_rating_GetRatesBatchRequest_descriptor;
+      }
+
+      @java.lang.Override
+      public rating.Rating.GetRatesBatchRequest getDefaultInstanceForType() {
+        return rating.Rating.GetRatesBatchRequest.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public rating.Rating.GetRatesBatchRequest build() {
+        rating.Rating.GetRatesBatchRequest result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public rating.Rating.GetRatesBatchRequest buildPartial() {
+        rating.Rating.GetRatesBatchRequest result = new rating.Rating.GetRatesBatchRequest(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(rating.Rating.GetRatesBatchRequest result) {
+        int from_bitField0_ = bitField0_;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          modIds_.makeImmutable();
+          result.modIds_ = modIds_;
+        }
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof rating.Rating.GetRatesBatchRequest) {
+          return mergeFrom((rating.Rating.GetRatesBatchRequest)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(rating.Rating.GetRatesBatchRequest other) {
+        if (other == rating.Rating.GetRatesBatchRequest.getDefaultInstance()) return this;
+        if (!other.modIds_.isEmpty()) {
+          if (modIds_.isEmpty()) {
+            modIds_ = other.modIds_;
+            modIds_.makeImmutable();
+            bitField0_ |= 0x00000001;
+          } else {
+            ensureModIdsIsMutable();
+            modIds_.addAll(other.modIds_);
+          }
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+                long v = input.readInt64();
+                ensureModIdsIsMutable();
+                modIds_.addLong(v);
+                break;
+              } // case 8
+              case 10: {
+                int length = input.readRawVarint32();
+                int limit = input.pushLimit(length);
+                ensureModIdsIsMutable();
+                while (input.getBytesUntilLimit() > 0) {
+                  modIds_.addLong(input.readInt64());
+                }
+                input.popLimit(limit);
+                break;
+              } // case 10
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private com.google.protobuf.Internal.LongList modIds_ = emptyLongList();
+      private void ensureModIdsIsMutable() {
+        if (!modIds_.isModifiable()) {
+          modIds_ = makeMutableCopy(modIds_);
+        }
+        bitField0_ |= 0x00000001;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @return A list containing the modIds.
+       */
+      public java.util.List<java.lang.Long>
+          getModIdsList() {
+        modIds_.makeImmutable();
+        return modIds_;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @return The count of modIds.
+       */
+      public int getModIdsCount() {
+        return modIds_.size();
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param index The index of the element to return.
+       * @return The modIds at the given index.
+       */
+      public long getModIds(int index) {
+        return modIds_.getLong(index);
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param index The index to set the value at.
+       * @param value The modIds to set.
+       * @return This builder for chaining.
+       */
+      public Builder setModIds(
+          int index, long value) {
+
+        ensureModIdsIsMutable();
+        modIds_.setLong(index, value);
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param value The modIds to add.
+       * @return This builder for chaining.
+       */
+      public Builder addModIds(long value) {
+
+        ensureModIdsIsMutable();
+        modIds_.addLong(value);
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param values The modIds to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllModIds(
+          java.lang.Iterable<? extends java.lang.Long> values) {
+        ensureModIdsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, modIds_);
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearModIds() {
+        modIds_ = emptyLongList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:rating.GetRatesBatchRequest)
+    }
+
+    // @@protoc_insertion_point(class_scope:rating.GetRatesBatchRequest)
+    private static final rating.Rating.GetRatesBatchRequest DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new rating.Rating.GetRatesBatchRequest();
+    }
+
+    public static rating.Rating.GetRatesBatchRequest getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<GetRatesBatchRequest>
+        PARSER = new com.google.protobuf.AbstractParser<GetRatesBatchRequest>() {
+      @java.lang.Override
+      public GetRatesBatchRequest parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<GetRatesBatchRequest> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<GetRatesBatchRequest> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public rating.Rating.GetRatesBatchRequest getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface GetRatesBatchResponseOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:rating.GetRatesBatchResponse)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    int getRatesCount();
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    boolean containsRates(
+        long key);
+    /**
+     * Use {@link #getRatesMap()} instead.
+     */
+    @java.lang.Deprecated
+    java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse>
+    getRates();
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse>
+    getRatesMap();
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    /* nullable */
+rating.Rating.GetRatesResponse getRatesOrDefault(
+        long key,
+        /* nullable */
+rating.Rating.GetRatesResponse defaultValue);
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    rating.Rating.GetRatesResponse getRatesOrThrow(
+        long key);
+  }
+  /**
+   * Protobuf type {@code rating.GetRatesBatchResponse}
+   */
+  public static final class GetRatesBatchResponse extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:rating.GetRatesBatchResponse)
+      GetRatesBatchResponseOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 32,
+        /* patch= */ 1,
+        /* suffix= */ "",
+        GetRatesBatchResponse.class.getName());
+    }
+    // Use GetRatesBatchResponse.newBuilder() to construct.
+    private GetRatesBatchResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private GetRatesBatchResponse() {
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return rating.Rating.internal_static_rating_GetRatesBatchResponse_descriptor;
+    }
+
+    @SuppressWarnings({"rawtypes"})
+    @java.lang.Override
+    protected com.google.protobuf.MapFieldReflectionAccessor internalGetMapFieldReflection(
+        int number) {
+      switch (number) {
+        case 1:
+          return internalGetRates();
+        default:
+          throw new RuntimeException(
+              "Invalid map field number: " + number);
+      }
+    }
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return rating.Rating.internal_static_rating_GetRatesBatchResponse_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              rating.Rating.GetRatesBatchResponse.class, rating.Rating.GetRatesBatchResponse.Builder.class);
+    }
+
+    public static final int RATES_FIELD_NUMBER = 1;
+    private static final class RatesDefaultEntryHolder {
+      static final com.google.protobuf.MapEntry<
+          java.lang.Long, rating.Rating.GetRatesResponse> defaultEntry =
+              com.google.protobuf.MapEntry
+              .<java.lang.Long, rating.Rating.GetRatesResponse>newDefaultInstance(
+                  rating.Rating.internal_static_rating_GetRatesBatchResponse_RatesEntry_descriptor, 
+                  com.google.protobuf.WireFormat.FieldType.INT64,
+                  0L,
+                  com.google.protobuf.WireFormat.FieldType.MESSAGE,
+                  rating.Rating.GetRatesResponse.getDefaultInstance());
+    }
+    @SuppressWarnings("serial")
+    private com.google.protobuf.MapField<
+        java.lang.Long, rating.Rating.GetRatesResponse> rates_;
+    private com.google.protobuf.MapField<java.lang.Long, rating.Rating.GetRatesResponse>
+    internalGetRates() {
+      if (rates_ == null) {
+        return com.google.protobuf.MapField.emptyMapField(
+            RatesDefaultEntryHolder.defaultEntry);
+      }
+      return rates_;
+    }
+    public int getRatesCount() {
+      return internalGetRates().getMap().size();
+    }
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    @java.lang.Override
+    public boolean containsRates(
+        long key) {
+
+      return internalGetRates().getMap().containsKey(key);
+    }
+    /**
+     * Use {@link #getRatesMap()} instead.
+     */
+    @java.lang.Override
+    @java.lang.Deprecated
+    public java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse> getRates() {
+      return getRatesMap();
+    }
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    @java.lang.Override
+    public java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse> getRatesMap() {
+      return internalGetRates().getMap();
+    }
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    @java.lang.Override
+    public /* nullable */
+rating.Rating.GetRatesResponse getRatesOrDefault(
+        long key,
+        /* nullable */
+rating.Rating.GetRatesResponse defaultValue) {
+
+      java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse> map =
+          internalGetRates().getMap();
+      return map.containsKey(key) ? map.get(key) : defaultValue;
+    }
+    /**
+     * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+     */
+    @java.lang.Override
+    public rating.Rating.GetRatesResponse getRatesOrThrow(
+        long key) {
+
+      java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse> map =
+          internalGetRates().getMap();
+      if (!map.containsKey(key)) {
+        throw new java.lang.IllegalArgumentException();
+      }
+      return map.get(key);
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      com.google.protobuf.GeneratedMessage
+        .serializeLongMapTo(
+          output,
+          internalGetRates(),
+          RatesDefaultEntryHolder.defaultEntry,
+          1);
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      for (java.util.Map.Entry<java.lang.Long, rating.Rating.GetRatesResponse> entry
+           : internalGetRates().getMap().entrySet()) {
+        com.google.protobuf.MapEntry<java.lang.Long, rating.Rating.GetRatesResponse>
+        rates__ = RatesDefaultEntryHolder.defaultEntry.newBuilderForType()
+            .setKey(entry.getKey())
+            .setValue(entry.getValue())
+            .build();
+        size += com.google.protobuf.CodedOutputStream
+            .computeMessageSize(1, rates__);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof rating.Rating.GetRatesBatchResponse)) {
+        return super.equals(obj);
+      }
+      rating.Rating.GetRatesBatchResponse other = (rating.Rating.GetRatesBatchResponse) obj;
+
+      if (!internalGetRates().equals(
+          other.internalGetRates())) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (!internalGetRates().getMap().isEmpty()) {
+        hash = (37 * hash) + RATES_FIELD_NUMBER;
+        hash = (53 * hash) + internalGetRates().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static rating.Rating.GetRatesBatchResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static rating.Rating.GetRatesBatchResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.GetRatesBatchResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(rating.Rating.GetRatesBatchResponse prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code rating.GetRatesBatchResponse}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:rating.GetRatesBatchResponse)
+        rating.Rating.GetRatesBatchResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return rating.Rating.internal_static_rating_GetRatesBatchResponse_descriptor;
+      }
+
+      @SuppressWarnings({"rawtypes"})
+      protected com.google.protobuf.MapFieldReflectionAccessor internalGetMapFieldReflection(
+          int number) {
+        switch (number) {
+          case 1:
+            return internalGetRates();
+          default:
+            throw new RuntimeException(
+                "Invalid map field number: " + number);
+        }
+      }
+      @SuppressWarnings({"rawtypes"})
+      protected com.google.protobuf.MapFieldReflectionAccessor internalGetMutableMapFieldReflection(
+          int number) {
+        switch (number) {
+          case 1:
+            return internalGetMutableRates();
+          default:
+            throw new RuntimeException(
+                "Invalid map field number: " + number);
+        }
+      }
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return rating.Rating.internal_static_rating_GetRatesBatchResponse_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                rating.Rating.GetRatesBatchResponse.class, rating.Rating.GetRatesBatchResponse.Builder.class);
+      }
+
+      // Construct using rating.Rating.GetRatesBatchResponse.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        internalGetMutableRates().clear();
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return rating.Rating.internal_static_rating_GetRatesBatchResponse_descriptor;
+      }
+
+      @java.lang.Override
+      public rating.Rating.GetRatesBatchResponse getDefaultInstanceForType() {
+        return rating.Rating.GetRatesBatchResponse.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public rating.Rating.GetRatesBatchResponse build() {
+        rating.Rating.GetRatesBatchResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public rating.Rating.GetRatesBatchResponse buildPartial() {
+        rating.Rating.GetRatesBatchResponse result = new rating.Rating.GetRatesBatchResponse(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(rating.Rating.GetRatesBatchResponse result) {
+        int from_bitField0_ = bitField0_;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.rates_ = internalGetRates().build(RatesDefaultEntryHolder.defaultEntry);
+        }
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof rating.Rating.GetRatesBatchResponse) {
+          return mergeFrom((rating.Rating.GetRatesBatchResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(rating.Rating.GetRatesBatchResponse other) {
+        if (other == rating.Rating.GetRatesBatchResponse.getDefaultInstance()) return this;
+        internalGetMutableRates().mergeFrom(
+            other.internalGetRates());
+        bitField0_ |= 0x00000001;
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                com.google.protobuf.MapEntry<java.lang.Long, rating.Rating.GetRatesResponse>
+                rates__ = input.readMessage(
+                    RatesDefaultEntryHolder.defaultEntry.getParserForType(), extensionRegistry);
+                internalGetMutableRates().ensureBuilderMap().put(
+                    rates__.getKey(), rates__.getValue());
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 10
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private static final class RatesConverter implements com.google.protobuf.MapFieldBuilder.Converter<java.lang.Long, rating.Rating.GetRatesResponseOrBuilder, rating.Rating.GetRatesResponse> {
+        @java.lang.Override
+        public rating.Rating.GetRatesResponse build(rating.Rating.GetRatesResponseOrBuilder val) {
+          if (val instanceof rating.Rating.GetRatesResponse) { return (rating.Rating.GetRatesResponse) val; }
+          return ((rating.Rating.GetRatesResponse.Builder) val).build();
+        }
+
+        @java.lang.Override
+        public com.google.protobuf.MapEntry<java.lang.Long, rating.Rating.GetRatesResponse> defaultEntry() {
+          return RatesDefaultEntryHolder.defaultEntry;
+        }
+      };
+      private static final RatesConverter ratesConverter = new RatesConverter();
+
+      private com.google.protobuf.MapFieldBuilder<
+          java.lang.Long, rating.Rating.GetRatesResponseOrBuilder, rating.Rating.GetRatesResponse, rating.Rating.GetRatesResponse.Builder> rates_;
+      private com.google.protobuf.MapFieldBuilder<java.lang.Long, rating.Rating.GetRatesResponseOrBuilder, rating.Rating.GetRatesResponse, rating.Rating.GetRatesResponse.Builder>
+          internalGetRates() {
+        if (rates_ == null) {
+          return new com.google.protobuf.MapFieldBuilder<>(ratesConverter);
+        }
+        return rates_;
+      }
+      private com.google.protobuf.MapFieldBuilder<java.lang.Long, rating.Rating.GetRatesResponseOrBuilder, rating.Rating.GetRatesResponse, rating.Rating.GetRatesResponse.Builder>
+          internalGetMutableRates() {
+        if (rates_ == null) {
+          rates_ = new com.google.protobuf.MapFieldBuilder<>(ratesConverter);
+        }
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return rates_;
+      }
+      public int getRatesCount() {
+        return internalGetRates().ensureBuilderMap().size();
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      @java.lang.Override
+      public boolean containsRates(
+          long key) {
+
+        return internalGetRates().ensureBuilderMap().containsKey(key);
+      }
+      /**
+       * Use {@link #getRatesMap()} instead.
+       */
+      @java.lang.Override
+      @java.lang.Deprecated
+      public java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse> getRates() {
+        return getRatesMap();
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      @java.lang.Override
+      public java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse> getRatesMap() {
+        return internalGetRates().getImmutableMap();
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      @java.lang.Override
+      public /* nullable */
+rating.Rating.GetRatesResponse getRatesOrDefault(
+          long key,
+          /* nullable */
+rating.Rating.GetRatesResponse defaultValue) {
+
+        java.util.Map<java.lang.Long, rating.Rating.GetRatesResponseOrBuilder> map = internalGetMutableRates().ensureBuilderMap();
+        return map.containsKey(key) ? ratesConverter.build(map.get(key)) : defaultValue;
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      @java.lang.Override
+      public rating.Rating.GetRatesResponse getRatesOrThrow(
+          long key) {
+
+        java.util.Map<java.lang.Long, rating.Rating.GetRatesResponseOrBuilder> map = internalGetMutableRates().ensureBuilderMap();
+        if (!map.containsKey(key)) {
+          throw new java.lang.IllegalArgumentException();
+        }
+        return ratesConverter.build(map.get(key));
+      }
+      public Builder clearRates() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        internalGetMutableRates().clear();
+        return this;
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      public Builder removeRates(
+          long key) {
+
+        internalGetMutableRates().ensureBuilderMap()
+            .remove(key);
+        return this;
+      }
+      /**
+       * Use alternate mutation accessors instead.
+       */
+      @java.lang.Deprecated
+      public java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse>
+          getMutableRates() {
+        bitField0_ |= 0x00000001;
+        return internalGetMutableRates().ensureMessageMap();
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      public Builder putRates(
+          long key,
+          rating.Rating.GetRatesResponse value) {
+
+        if (value == null) { throw new NullPointerException("map value"); }
+        internalGetMutableRates().ensureBuilderMap()
+            .put(key, value);
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      public Builder putAllRates(
+          java.util.Map<java.lang.Long, rating.Rating.GetRatesResponse> values) {
+        for (java.util.Map.Entry<java.lang.Long, rating.Rating.GetRatesResponse> e : values.entrySet()) {
+          if (e.getKey() == null || e.getValue() == null) {
+            throw new NullPointerException();
+          }
+        }
+        internalGetMutableRates().ensureBuilderMap()
+            .putAll(values);
+        bitField0_ |= 0x00000001;
+        return this;
+      }
+      /**
+       * <code>map&lt;int64, .rating.GetRatesResponse&gt; rates = 1;</code>
+       */
+      public rating.Rating.GetRatesResponse.Builder putRatesBuilderIfAbsent(
+          long key) {
+        java.util.Map<java.lang.Long, rating.Rating.GetRatesResponseOrBuilder> builderMap = internalGetMutableRates().ensureBuilderMap();
+        rating.Rating.GetRatesResponseOrBuilder entry = builderMap.get(key);
+        if (entry == null) {
+          entry = rating.Rating.GetRatesResponse.newBuilder();
+          builderMap.put(key, entry);
+        }
+        if (entry instanceof rating.Rating.GetRatesResponse) {
+          entry = ((rating.Rating.GetRatesResponse) entry).toBuilder();
+          builderMap.put(key, entry);
+        }
+        return (rating.Rating.GetRatesResponse.Builder) entry;
+      }
+
+      // @@protoc_insertion_point(builder_scope:rating.GetRatesBatchResponse)
+    }
+
+    // @@protoc_insertion_point(class_scope:rating.GetRatesBatchResponse)
+    private static final rating.Rating.GetRatesBatchResponse DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new rating.Rating.GetRatesBatchResponse();
+    }
+
+    public static rating.Rating.GetRatesBatchResponse getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<GetRatesBatchResponse>
+        PARSER = new com.google.protobuf.AbstractParser<GetRatesBatchResponse>() {
+      @java.lang.Override
+      public GetRatesBatchResponse parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<GetRatesBatchResponse> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<GetRatesBatchResponse> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public rating.Rating.GetRatesBatchResponse getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface WatchRatesRequestOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:rating.WatchRatesRequest)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return A list containing the modIds.
+     */
+    java.util.List<java.lang.Long> getModIdsList();
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return The count of modIds.
+     */
+    int getModIdsCount();
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @param index The index of the element to return.
+     * @return The modIds at the given index.
+     */
+    long getModIds(int index);
+  }
+  /**
+   * Protobuf type {@code rating.WatchRatesRequest}
+   */
+  public static final class WatchRatesRequest extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:rating.WatchRatesRequest)
+      WatchRatesRequestOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 32,
+        /* patch= */ 1,
+        /* suffix= */ "",
+        WatchRatesRequest.class.getName());
+    }
+    // Use WatchRatesRequest.newBuilder() to construct.
+    private WatchRatesRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private WatchRatesRequest() {
+      modIds_ = emptyLongList();
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return rating.Rating.internal_static_rating_WatchRatesRequest_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return rating.Rating.internal_static_rating_WatchRatesRequest_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              rating.Rating.WatchRatesRequest.class, rating.Rating.WatchRatesRequest.Builder.class);
+    }
+
+    public static final int MOD_IDS_FIELD_NUMBER = 1;
+    @SuppressWarnings("serial")
+    private com.google.protobuf.Internal.LongList modIds_ =
+        emptyLongList();
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return A list containing the modIds.
+     */
+    @java.lang.Override
+    public java.util.List<java.lang.Long>
+        getModIdsList() {
+      return modIds_;
+    }
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @return The count of modIds.
+     */
+    public int getModIdsCount() {
+      return modIds_.size();
+    }
+    /**
+     * <code>repeated int64 mod_ids = 1;</code>
+     * @param index The index of the element to return.
+     * @return The modIds at the given index.
+     */
+    public long getModIds(int index) {
+      return modIds_.getLong(index);
+    }
+    private int modIdsMemoizedSerializedSize = -1;
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (getModIdsList().size() > 0) {
+        output.writeUInt32NoTag(10);
+        output.writeUInt32NoTag(modIdsMemoizedSerializedSize);
+      }
+      for (int i = 0; i < modIds_.size(); i++) {
+        output.writeInt64NoTag(modIds_.getLong(i));
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      {
+        int dataSize = 0;
+        for (int i = 0; i < modIds_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt64SizeNoTag(modIds_.getLong(i));
+        }
+        size += dataSize;
+        if (!getModIdsList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        modIdsMemoizedSerializedSize = dataSize;
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof rating.Rating.WatchRatesRequest)) {
+        return super.equals(obj);
+      }
+      rating.Rating.WatchRatesRequest other = (rating.Rating.WatchRatesRequest) obj;
+
+      if (!getModIdsList()
+          .equals(other.getModIdsList())) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      if (getModIdsCount() > 0) {
+        hash = (37 * hash) + MOD_IDS_FIELD_NUMBER;
+        hash = (53 * hash) + getModIdsList().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static rating.Rating.WatchRatesRequest parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static rating.Rating.WatchRatesRequest parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.WatchRatesRequest parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(rating.Rating.WatchRatesRequest prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code rating.WatchRatesRequest}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:rating.WatchRatesRequest)
+        rating.Rating.WatchRatesRequestOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return rating.Rating.internal_static_rating_WatchRatesRequest_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return rating.Rating.internal_static_rating_WatchRatesRequest_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                rating.Rating.WatchRatesRequest.class, rating.Rating.WatchRatesRequest.Builder.class);
+      }
+
+      // Construct using rating.Rating.WatchRatesRequest.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        modIds_ = emptyLongList();
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return rating.Rating.internal_static_rating_WatchRatesRequest_descriptor;
+      }
+
+      @java.lang.Override
+      public rating.Rating.WatchRatesRequest getDefaultInstanceForType() {
+        return rating.Rating.WatchRatesRequest.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public rating.Rating.WatchRatesRequest build() {
+        rating.Rating.WatchRatesRequest result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public rating.Rating.WatchRatesRequest buildPartial() {
+        rating.Rating.WatchRatesRequest result = new rating.Rating.WatchRatesRequest(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(rating.Rating.WatchRatesRequest result) {
+        int from_bitField0_ = bitField0_;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          modIds_.makeImmutable();
+          result.modIds_ = modIds_;
+        }
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof rating.Rating.WatchRatesRequest) {
+          return mergeFrom((rating.Rating.WatchRatesRequest)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(rating.Rating.WatchRatesRequest other) {
+        if (other == rating.Rating.WatchRatesRequest.getDefaultInstance()) return this;
+        if (!other.modIds_.isEmpty()) {
+          if (modIds_.isEmpty()) {
+            modIds_ = other.modIds_;
+            modIds_.makeImmutable();
+            bitField0_ |= 0x00000001;
+          } else {
+            ensureModIdsIsMutable();
+            modIds_.addAll(other.modIds_);
+          }
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+                long v = input.readInt64();
+                ensureModIdsIsMutable();
+                modIds_.addLong(v);
+                break;
+              } // case 8
+              case 10: {
+                int length = input.readRawVarint32();
+                int limit = input.pushLimit(length);
+                ensureModIdsIsMutable();
+                while (input.getBytesUntilLimit() > 0) {
+                  modIds_.addLong(input.readInt64());
+                }
+                input.popLimit(limit);
+                break;
+              } // case 10
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private com.google.protobuf.Internal.LongList modIds_ = emptyLongList();
+      private void ensureModIdsIsMutable() {
+        if (!modIds_.isModifiable()) {
+          modIds_ = makeMutableCopy(modIds_);
+        }
+        bitField0_ |= 0x00000001;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @return A list containing the modIds.
+       */
+      public java.util.List<java.lang.Long>
+          getModIdsList() {
+        modIds_.makeImmutable();
+        return modIds_;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @return The count of modIds.
+       */
+      public int getModIdsCount() {
+        return modIds_.size();
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param index The index of the element to return.
+       * @return The modIds at the given index.
+       */
+      public long getModIds(int index) {
+        return modIds_.getLong(index);
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param index The index to set the value at.
+       * @param value The modIds to set.
+       * @return This builder for chaining.
+       */
+      public Builder setModIds(
+          int index, long value) {
+
+        ensureModIdsIsMutable();
+        modIds_.setLong(index, value);
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param value The modIds to add.
+       * @return This builder for chaining.
+       */
+      public Builder addModIds(long value) {
+
+        ensureModIdsIsMutable();
+        modIds_.addLong(value);
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @param values The modIds to add.
+       * @return This builder for chaining.
+       */
+      public Builder addAllModIds(
+          java.lang.Iterable<? extends java.lang.Long> values) {
+        ensureModIdsIsMutable();
+        com.google.protobuf.AbstractMessageLite.Builder.addAll(
+            values, modIds_);
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int64 mod_ids = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearModIds() {
+        modIds_ = emptyLongList();
+        bitField0_ = (bitField0_ & ~0x00000001);
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:rating.WatchRatesRequest)
+    }
+
+    // @@protoc_insertion_point(class_scope:rating.WatchRatesRequest)
+    private static final rating.Rating.WatchRatesRequest DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new rating.Rating.WatchRatesRequest();
+    }
+
+    public static rating.Rating.WatchRatesRequest getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<WatchRatesRequest>
+        PARSER = new com.google.protobuf.AbstractParser<WatchRatesRequest>() {
+      @java.lang.Override
+      public WatchRatesRequest parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<WatchRatesRequest> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<WatchRatesRequest> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public rating.Rating.WatchRatesRequest getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface WatchRatesResponseOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:rating.WatchRatesResponse)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>int64 mod_id = 1;</code>
+     * @return The modId.
+     */
+    long getModId();
+
+    /**
+     * <code>.rating.GetRatesResponse rates = 2;</code>
+     * @return Whether the rates field is set.
+     */
+    boolean hasRates();
+    /**
+     * <code>.rating.GetRatesResponse rates = 2;</code>
+     * @return The rates.
+     */
+    rating.Rating.GetRatesResponse getRates();
+    /**
+     * <code>.rating.GetRatesResponse rates = 2;</code>
+     */
+    rating.Rating.GetRatesResponseOrBuilder getRatesOrBuilder();
+  }
+  /**
+   * Protobuf type {@code rating.WatchRatesResponse}
+   */
+  public static final class WatchRatesResponse extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:rating.WatchRatesResponse)
+      WatchRatesResponseOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 32,
+        /* patch= */ 1,
+        /* suffix= */ "",
+        WatchRatesResponse.class.getName());
+    }
+    // Use WatchRatesResponse.newBuilder() to construct.
+    private WatchRatesResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private WatchRatesResponse() {
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return rating.Rating.internal_static_rating_WatchRatesResponse_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return rating.Rating.internal_static_rating_WatchRatesResponse_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              rating.Rating.WatchRatesResponse.class, rating.Rating.WatchRatesResponse.Builder.class);
+    }
+
+    private int bitField0_;
+    public static final int MOD_ID_FIELD_NUMBER = 1;
+    private long modId_ = 0L;
+    /**
+     * <code>int64 mod_id = 1;</code>
+     * @return The modId.
+     */
+    @java.lang.Override
+    public long getModId() {
+      return modId_;
+    }
+
+    public static final int RATES_FIELD_NUMBER = 2;
+    private rating.Rating.GetRatesResponse rates_;
+    /**
+     * <code>.rating.GetRatesResponse rates = 2;</code>
+     * @return Whether the rates field is set.
+     */
+    @java.lang.Override
+    public boolean hasRates() {
+      return ((bitField0_ & 0x00000001) != 0);
+    }
+    /**
+     * <code>.rating.GetRatesResponse rates = 2;</code>
+     * @return The rates.
+     */
+    @java.lang.Override
+    public rating.Rating.GetRatesResponse getRates() {
+      return rates_ == null ? rating.Rating.GetRatesResponse.getDefaultInstance() : rates_;
+    }
+    /**
+     * <code>.rating.GetRatesResponse rates = 2;</code>
+     */
+    @java.lang.Override
+    public rating.Rating.GetRatesResponseOrBuilder getRatesOrBuilder() {
+      return rates_ == null ? rating.Rating.GetRatesResponse.getDefaultInstance() : rates_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (modId_ != 0L) {
+        output.writeInt64(1, modId_);
+      }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        output.writeMessage(2, getRates());
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (modId_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, modId_);
+      }
+      if (((bitField0_ & 0x00000001) != 0)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, getRates());
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof rating.Rating.WatchRatesResponse)) {
+        return super.equals(obj);
+      }
+      rating.Rating.WatchRatesResponse other = (rating.Rating.WatchRatesResponse) obj;
+
+      if (getModId()
+          != other.getModId()) return false;
+      if (hasRates() != other.hasRates()) return false;
+      if (hasRates()) {
+        if (!getRates()
+            .equals(other.getRates())) return false;
+      }
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + MOD_ID_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getModId());
+      if (hasRates()) {
+        hash = (37 * hash) + RATES_FIELD_NUMBER;
+        hash = (53 * hash) + getRates().hashCode();
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static rating.Rating.WatchRatesResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static rating.Rating.WatchRatesResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.WatchRatesResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(rating.Rating.WatchRatesResponse prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code rating.WatchRatesResponse}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:rating.WatchRatesResponse)
+        rating.Rating.WatchRatesResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return rating.Rating.internal_static_rating_WatchRatesResponse_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return rating.Rating.internal_static_rating_WatchRatesResponse_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                rating.Rating.WatchRatesResponse.class, rating.Rating.WatchRatesResponse.Builder.class);
+      }
+
+      // Construct using rating.Rating.WatchRatesResponse.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage
+                .alwaysUseFieldBuilders) {
+          internalGetRatesFieldBuilder();
+        }
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        modId_ = 0L;
+        rates_ = null;
+        if (ratesBuilder_ != null) {
+          ratesBuilder_.dispose();
+          ratesBuilder_ = null;
+        }
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return rating.Rating.internal_static_rating_WatchRatesResponse_descriptor;
+      }
+
+      @java.lang.Override
+      public rating.Rating.WatchRatesResponse getDefaultInstanceForType() {
+        return rating.Rating.WatchRatesResponse.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public rating.Rating.WatchRatesResponse build() {
+        rating.Rating.WatchRatesResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public rating.Rating.WatchRatesResponse buildPartial() {
+        rating.Rating.WatchRatesResponse result = new rating.Rating.WatchRatesResponse(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(rating.Rating.WatchRatesResponse result) {
+        int from_bitField0_ = bitField0_;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.modId_ = modId_;
+        }
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.rates_ = ratesBuilder_ == null
+              ? rates_
+              : ratesBuilder_.build();
+          to_bitField0_ |= 0x00000001;
+        }
+        result.bitField0_ |= to_bitField0_;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof rating.Rating.WatchRatesResponse) {
+          return mergeFrom((rating.Rating.WatchRatesResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(rating.Rating.WatchRatesResponse other) {
+        if (other == rating.Rating.WatchRatesResponse.getDefaultInstance()) return this;
+        if (other.getModId() != 0L) {
+          setModId(other.getModId());
+        }
+        if (other.hasRates()) {
+          mergeRates(other.getRates());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+                modId_ = input.readInt64();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 8
+              case 18: {
+                input.readMessage(
+                    internalGetRatesFieldBuilder().getBuilder(),
+                    extensionRegistry);
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 18
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private long modId_ ;
+      /**
+       * <code>int64 mod_id = 1;</code>
+       * @return The modId.
+       */
+      @java.lang.Override
+      public long getModId() {
+        return modId_;
+      }
+      /**
+       * <code>int64 mod_id = 1;</code>
+       * @param value The modId to set.
+       * @return This builder for chaining.
+       */
+      public Builder setModId(long value) {
+
+        modId_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 mod_id = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearModId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        modId_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private rating.Rating.GetRatesResponse rates_;
+      private com.google.protobuf.SingleFieldBuilder<
+          rating.Rating.GetRatesResponse, rating.Rating.GetRatesResponse.Builder, rating.Rating.GetRatesResponseOrBuilder> ratesBuilder_;
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       * @return Whether the rates field is set.
+       */
+      public boolean hasRates() {
+        return ((bitField0_ & 0x00000002) != 0);
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       * @return The rates.
+       */
+      public rating.Rating.GetRatesResponse getRates() {
+        if (ratesBuilder_ == null) {
+          return rates_ == null ? rating.Rating.GetRatesResponse.getDefaultInstance() : rates_;
+        } else {
+          return ratesBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       */
+      public Builder setRates(rating.Rating.GetRatesResponse value) {
+        if (ratesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          rates_ = value;
+        } else {
+          ratesBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       */
+      public Builder setRates(
+          rating.Rating.GetRatesResponse.Builder builderForValue) {
+        if (ratesBuilder_ == null) {
+          rates_ = builderForValue.build();
+        } else {
+          ratesBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       */
+      public Builder mergeRates(rating.Rating.GetRatesResponse value) {
+        if (ratesBuilder_ == null) {
+          if (((bitField0_ & 0x00000002) != 0) &&
+            rates_ != null &&
+            rates_ != rating.Rating.GetRatesResponse.getDefaultInstance()) {
+            getRatesBuilder().mergeFrom(value);
+          } else {
+            rates_ = value;
+          }
+        } else {
+          ratesBuilder_.mergeFrom(value);
+        }
+        if (rates_ != null) {
+          bitField0_ |= 0x00000002;
+          onChanged();
+        }
+        return this;
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       */
+      public Builder clearRates() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        rates_ = null;
+        if (ratesBuilder_ != null) {
+          ratesBuilder_.dispose();
+          ratesBuilder_ = null;
+        }
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       */
+      public rating.Rating.GetRatesResponse.Builder getRatesBuilder() {
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return internalGetRatesFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       */
+      public rating.Rating.GetRatesResponseOrBuilder getRatesOrBuilder() {
+        if (ratesBuilder_ != null) {
+          return ratesBuilder_.getMessageOrBuilder();
+        } else {
+          return rates_ == null ?
+              rating.Rating.GetRatesResponse.getDefaultInstance() : rates_;
+        }
+      }
+      /**
+       * <code>.rating.GetRatesResponse rates = 2;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          rating.Rating.GetRatesResponse, rating.Rating.GetRatesResponse.Builder, rating.Rating.GetRatesResponseOrBuilder> 
+          internalGetRatesFieldBuilder() {
+        if (ratesBuilder_ == null) {
+          ratesBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              rating.Rating.GetRatesResponse, rating.Rating.GetRatesResponse.Builder, rating.Rating.GetRatesResponseOrBuilder>(
+                  getRates(),
+                  getParentForChildren(),
+                  isClean());
+          rates_ = null;
+        }
+        return ratesBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:rating.WatchRatesResponse)
+    }
+
+    // @@protoc_insertion_point(class_scope:rating.WatchRatesResponse)
+    private static final rating.Rating.WatchRatesResponse DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new rating.Rating.WatchRatesResponse();
+    }
+
+    public static rating.Rating.WatchRatesResponse getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<WatchRatesResponse>
+        PARSER = new com.google.protobuf.AbstractParser<WatchRatesResponse>() {
+      @java.lang.Override
+      public WatchRatesResponse parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<WatchRatesResponse> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<WatchRatesResponse> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public rating.Rating.WatchRatesResponse getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface RateModStreamResponseOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:rating.RateModStreamResponse)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>.rating.RateModChunkAck chunk = 1;</code>
+     * @return Whether the chunk field is set.
+     */
+    boolean hasChunk();
+    /**
+     * <code>.rating.RateModChunkAck chunk = 1;</code>
+     * @return The chunk.
+     */
+    rating.Rating.RateModChunkAck getChunk();
+    /**
+     * <code>.rating.RateModChunkAck chunk = 1;</code>
+     */
+    rating.Rating.RateModChunkAckOrBuilder getChunkOrBuilder();
+
+    /**
+     * <code>.rating.RateModStreamSummary summary = 2;</code>
+     * @return Whether the summary field is set.
+     */
+    boolean hasSummary();
+    /**
+     * <code>.rating.RateModStreamSummary summary = 2;</code>
+     * @return The summary.
+     */
+    rating.Rating.RateModStreamSummary getSummary();
+    /**
+     * <code>.rating.RateModStreamSummary summary = 2;</code>
+     */
+    rating.Rating.RateModStreamSummaryOrBuilder getSummaryOrBuilder();
+
+    rating.Rating.RateModStreamResponse.ResultCase getResultCase();
+  }
+  /**
+   * Protobuf type {@code rating.RateModStreamResponse}
+   */
+  public static final class RateModStreamResponse extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:rating.RateModStreamResponse)
+      RateModStreamResponseOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 32,
+        /* patch= */ 1,
+        /* suffix= */ "",
+        RateModStreamResponse.class.getName());
+    }
+    // Use RateModStreamResponse.newBuilder() to construct.
+    private RateModStreamResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private RateModStreamResponse() {
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return rating.Rating.internal_static_rating_RateModStreamResponse_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return rating.Rating.internal_static_rating_RateModStreamResponse_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              rating.Rating.RateModStreamResponse.class, rating.Rating.RateModStreamResponse.Builder.class);
+    }
+
+    private int resultCase_ = 0;
+    @SuppressWarnings("serial")
+    private java.lang.Object result_;
+    public enum ResultCase
+        implements com.google.protobuf.Internal.EnumLite,
+            com.google.protobuf.AbstractMessage.InternalOneOfEnum {
+      CHUNK(1),
+      SUMMARY(2),
+      RESULT_NOT_SET(0);
+      private final int value;
+      private ResultCase(int value) {
+        this.value = value;
+      }
+      /**
+       * @param value The number of the enum to look for.
+       * @return The enum associated with the given number.
+       * @deprecated Use {@link #forNumber(int)} instead.
+       */
+      @java.lang.Deprecated
+      public static ResultCase valueOf(int value) {
+        return forNumber(value);
+      }
+
+      public static ResultCase forNumber(int value) {
+        switch (value) {
+          case 1: return CHUNK;
+          case 2: return SUMMARY;
+          case 0: return RESULT_NOT_SET;
+          default: return null;
+        }
+      }
+      public int getNumber() {
+        return this.value;
+      }
+    };
+
+    public ResultCase
+    getResultCase() {
+      return ResultCase.forNumber(
+          resultCase_);
+    }
+
+    public static final int CHUNK_FIELD_NUMBER = 1;
+    /**
+     * <code>.rating.RateModChunkAck chunk = 1;</code>
+     * @return Whether the chunk field is set.
+     */
+    @java.lang.Override
+    public boolean hasChunk() {
+      return resultCase_ == 1;
+    }
+    /**
+     * <code>.rating.RateModChunkAck chunk = 1;</code>
+     * @return The chunk.
+     */
+    @java.lang.Override
+    public rating.Rating.RateModChunkAck getChunk() {
+      if (resultCase_ == 1) {
+         return (rating.Rating.RateModChunkAck) result_;
+      }
+      return rating.Rating.RateModChunkAck.getDefaultInstance();
+    }
+    /**
+     * <code>.rating.RateModChunkAck chunk = 1;</code>
+     */
+    @java.lang.Override
+    public rating.Rating.RateModChunkAckOrBuilder getChunkOrBuilder() {
+      if (resultCase_ == 1) {
+         return (rating.Rating.RateModChunkAck) result_;
+      }
+      return rating.Rating.RateModChunkAck.getDefaultInstance();
+    }
+
+    public static final int SUMMARY_FIELD_NUMBER = 2;
+    /**
+     * <code>.rating.RateModStreamSummary summary = 2;</code>
+     * @return Whether the summary field is set.
+     */
+    @java.lang.Override
+    public boolean hasSummary() {
+      return resultCase_ == 2;
+    }
+    /**
+     * <code>.rating.RateModStreamSummary summary = 2;</code>
+     * @return The summary.
+     */
+    @java.lang.Override
+    public rating.Rating.RateModStreamSummary getSummary() {
+      if (resultCase_ == 2) {
+         return (rating.Rating.RateModStreamSummary) result_;
+      }
+      return rating.Rating.RateModStreamSummary.getDefaultInstance();
+    }
+    /**
+     * <code>.rating.RateModStreamSummary summary = 2;</code>
+     */
+    @java.lang.Override
+    public rating.Rating.RateModStreamSummaryOrBuilder getSummaryOrBuilder() {
+      if (resultCase_ == 2) {
+         return (rating.Rating.RateModStreamSummary) result_;
+      }
+      return rating.Rating.RateModStreamSummary.getDefaultInstance();
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (resultCase_ == 1) {
+        output.writeMessage(1, (rating.Rating.RateModChunkAck) result_);
+      }
+      if (resultCase_ == 2) {
+        output.writeMessage(2, (rating.Rating.RateModStreamSummary) result_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (resultCase_ == 1) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(1, (rating.Rating.RateModChunkAck) result_);
+      }
+      if (resultCase_ == 2) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(2, (rating.Rating.RateModStreamSummary) result_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof rating.Rating.RateModStreamResponse)) {
+        return super.equals(obj);
+      }
+      rating.Rating.RateModStreamResponse other = (rating.Rating.RateModStreamResponse) obj;
+
+      if (!getResultCase().equals(other.getResultCase())) return false;
+      switch (resultCase_) {
+        case 1:
+          if (!getChunk()
+              .equals(other.getChunk())) return false;
+          break;
+        case 2:
+          if (!getSummary()
+              .equals(other.getSummary())) return false;
+          break;
+        case 0:
+        default:
+      }
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      switch (resultCase_) {
+        case 1:
+          hash = (37 * hash) + CHUNK_FIELD_NUMBER;
+          hash = (53 * hash) + getChunk().hashCode();
+          break;
+        case 2:
+          hash = (37 * hash) + SUMMARY_FIELD_NUMBER;
+          hash = (53 * hash) + getSummary().hashCode();
+          break;
+        case 0:
+        default:
+      }
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static rating.Rating.RateModStreamResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static rating.Rating.RateModStreamResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.RateModStreamResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(rating.Rating.RateModStreamResponse prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code rating.RateModStreamResponse}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:rating.RateModStreamResponse)
+        rating.Rating.RateModStreamResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return rating.Rating.internal_static_rating_RateModStreamResponse_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return rating.Rating.internal_static_rating_RateModStreamResponse_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                rating.Rating.RateModStreamResponse.class, rating.Rating.RateModStreamResponse.Builder.class);
+      }
+
+      // Construct using rating.Rating.RateModStreamResponse.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        if (chunkBuilder_ != null) {
+          chunkBuilder_.clear();
+        }
+        if (summaryBuilder_ != null) {
+          summaryBuilder_.clear();
+        }
+        resultCase_ = 0;
+        result_ = null;
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return rating.Rating.internal_static_rating_RateModStreamResponse_descriptor;
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModStreamResponse getDefaultInstanceForType() {
+        return rating.Rating.RateModStreamResponse.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModStreamResponse build() {
+        rating.Rating.RateModStreamResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModStreamResponse buildPartial() {
+        rating.Rating.RateModStreamResponse result = new rating.Rating.RateModStreamResponse(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        buildPartialOneofs(result);
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(rating.Rating.RateModStreamResponse result) {
+        int from_bitField0_ = bitField0_;
+      }
+
+      private void buildPartialOneofs(rating.Rating.RateModStreamResponse result) {
+        result.resultCase_ = resultCase_;
+        result.result_ = this.result_;
+        if (resultCase_ == 1 &&
+            chunkBuilder_ != null) {
+          result.result_ = chunkBuilder_.build();
+        }
+        if (resultCase_ == 2 &&
+            summaryBuilder_ != null) {
+          result.result_ = summaryBuilder_.build();
+        }
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof rating.Rating.RateModStreamResponse) {
+          return mergeFrom((rating.Rating.RateModStreamResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(rating.Rating.RateModStreamResponse other) {
+        if (other == rating.Rating.RateModStreamResponse.getDefaultInstance()) return this;
+        switch (other.getResultCase()) {
+          case CHUNK: {
+            mergeChunk(other.getChunk());
+            break;
+          }
+          case SUMMARY: {
+            mergeSummary(other.getSummary());
+            break;
+          }
+          case RESULT_NOT_SET: {
+            break;
+          }
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 10: {
+                input.readMessage(
+                    internalGetChunkFieldBuilder().getBuilder(),
+                    extensionRegistry);
+                resultCase_ = 1;
+                break;
+              } // case 10
+              case 18: {
+                input.readMessage(
+                    internalGetSummaryFieldBuilder().getBuilder(),
+                    extensionRegistry);
+                resultCase_ = 2;
+                break;
+              } // case 18
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int resultCase_ = 0;
+      private java.lang.Object result_;
+      public ResultCase
+          getResultCase() {
+        return ResultCase.forNumber(
+            resultCase_);
+      }
+
+      public Builder clearResult() {
+        resultCase_ = 0;
+        result_ = null;
+        onChanged();
+        return this;
+      }
+
+      private int bitField0_;
+
+      private com.google.protobuf.SingleFieldBuilder<
+          rating.Rating.RateModChunkAck, rating.Rating.RateModChunkAck.Builder, rating.Rating.RateModChunkAckOrBuilder> chunkBuilder_;
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       * @return Whether the chunk field is set.
+       */
+      @java.lang.Override
+      public boolean hasChunk() {
+        return resultCase_ == 1;
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       * @return The chunk.
+       */
+      @java.lang.Override
+      public rating.Rating.RateModChunkAck getChunk() {
+        if (chunkBuilder_ == null) {
+          if (resultCase_ == 1) {
+            return (rating.Rating.RateModChunkAck) result_;
+          }
+          return rating.Rating.RateModChunkAck.getDefaultInstance();
+        } else {
+          if (resultCase_ == 1) {
+            return chunkBuilder_.getMessage();
+          }
+          return rating.Rating.RateModChunkAck.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       */
+      public Builder setChunk(rating.Rating.RateModChunkAck value) {
+        if (chunkBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          result_ = value;
+          onChanged();
+        } else {
+          chunkBuilder_.setMessage(value);
+        }
+        resultCase_ = 1;
+        return this;
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       */
+      public Builder setChunk(
+          rating.Rating.RateModChunkAck.Builder builderForValue) {
+        if (chunkBuilder_ == null) {
+          result_ = builderForValue.build();
+          onChanged();
+        } else {
+          chunkBuilder_.setMessage(builderForValue.build());
+        }
+        resultCase_ = 1;
+        return this;
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       */
+      public Builder mergeChunk(rating.Rating.RateModChunkAck value) {
+        if (chunkBuilder_ == null) {
+          if (resultCase_ == 1 &&
+              result_ != rating.Rating.RateModChunkAck.getDefaultInstance()) {
+            result_ = rating.Rating.RateModChunkAck.newBuilder((rating.Rating.RateModChunkAck) result_)
+                .mergeFrom(value).buildPartial();
+          } else {
+            result_ = value;
+          }
+          onChanged();
+        } else {
+          if (resultCase_ == 1) {
+            chunkBuilder_.mergeFrom(value);
+          } else {
+            chunkBuilder_.setMessage(value);
+          }
+        }
+        resultCase_ = 1;
+        return this;
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       */
+      public Builder clearChunk() {
+        if (chunkBuilder_ == null) {
+          if (resultCase_ == 1) {
+            resultCase_ = 0;
+            result_ = null;
+            onChanged();
+          }
+        } else {
+          if (resultCase_ == 1) {
+            resultCase_ = 0;
+            result_ = null;
+          }
+          chunkBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       */
+      public rating.Rating.RateModChunkAck.Builder getChunkBuilder() {
+        return internalGetChunkFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       */
+      @java.lang.Override
+      public rating.Rating.RateModChunkAckOrBuilder getChunkOrBuilder() {
+        if ((resultCase_ == 1) && (chunkBuilder_ != null)) {
+          return chunkBuilder_.getMessageOrBuilder();
+        } else {
+          if (resultCase_ == 1) {
+            return (rating.Rating.RateModChunkAck) result_;
+          }
+          return rating.Rating.RateModChunkAck.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>.rating.RateModChunkAck chunk = 1;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          rating.Rating.RateModChunkAck, rating.Rating.RateModChunkAck.Builder, rating.Rating.RateModChunkAckOrBuilder> 
+          internalGetChunkFieldBuilder() {
+        if (chunkBuilder_ == null) {
+          if (!(resultCase_ == 1)) {
+            result_ = rating.Rating.RateModChunkAck.getDefaultInstance();
+          }
+          chunkBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              rating.Rating.RateModChunkAck, rating.Rating.RateModChunkAck.Builder, rating.Rating.RateModChunkAckOrBuilder>(
+                  (rating.Rating.RateModChunkAck) result_,
+                  getParentForChildren(),
+                  isClean());
+          result_ = null;
+        }
+        resultCase_ = 1;
+        onChanged();
+        return chunkBuilder_;
+      }
+
+      private com.google.protobuf.SingleFieldBuilder<
+          rating.Rating.RateModStreamSummary, rating.Rating.RateModStreamSummary.Builder, rating.Rating.RateModStreamSummaryOrBuilder> summaryBuilder_;
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       * @return Whether the summary field is set.
+       */
+      @java.lang.Override
+      public boolean hasSummary() {
+        return resultCase_ == 2;
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       * @return The summary.
+       */
+      @java.lang.Override
+      public rating.Rating.RateModStreamSummary getSummary() {
+        if (summaryBuilder_ == null) {
+          if (resultCase_ == 2) {
+            return (rating.Rating.RateModStreamSummary) result_;
+          }
+          return rating.Rating.RateModStreamSummary.getDefaultInstance();
+        } else {
+          if (resultCase_ == 2) {
+            return summaryBuilder_.getMessage();
+          }
+          return rating.Rating.RateModStreamSummary.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       */
+      public Builder setSummary(rating.Rating.RateModStreamSummary value) {
+        if (summaryBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          result_ = value;
+          onChanged();
+        } else {
+          summaryBuilder_.setMessage(value);
+        }
+        resultCase_ = 2;
+        return this;
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       */
+      public Builder setSummary(
+          rating.Rating.RateModStreamSummary.Builder builderForValue) {
+        if (summaryBuilder_ == null) {
+          result_ = builderForValue.build();
+          onChanged();
+        } else {
+          summaryBuilder_.setMessage(builderForValue.build());
+        }
+        resultCase_ = 2;
+        return this;
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       */
+      public Builder mergeSummary(rating.Rating.RateModStreamSummary value) {
+        if (summaryBuilder_ == null) {
+          if (resultCase_ == 2 &&
+              result_ != rating.Rating.RateModStreamSummary.getDefaultInstance()) {
+            result_ = rating.Rating.RateModStreamSummary.newBuilder((rating.Rating.RateModStreamSummary) result_)
+                .mergeFrom(value).buildPartial();
+          } else {
+            result_ = value;
+          }
+          onChanged();
+        } else {
+          if (resultCase_ == 2) {
+            summaryBuilder_.mergeFrom(value);
+          } else {
+            summaryBuilder_.setMessage(value);
+          }
+        }
+        resultCase_ = 2;
+        return this;
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       */
+      public Builder clearSummary() {
+        if (summaryBuilder_ == null) {
+          if (resultCase_ == 2) {
+            resultCase_ = 0;
+            result_ = null;
+            onChanged();
+          }
+        } else {
+          if (resultCase_ == 2) {
+            resultCase_ = 0;
+            result_ = null;
+          }
+          summaryBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       */
+      public rating.Rating.RateModStreamSummary.Builder getSummaryBuilder() {
+        return internalGetSummaryFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       */
+      @java.lang.Override
+      public rating.Rating.RateModStreamSummaryOrBuilder getSummaryOrBuilder() {
+        if ((resultCase_ == 2) && (summaryBuilder_ != null)) {
+          return summaryBuilder_.getMessageOrBuilder();
+        } else {
+          if (resultCase_ == 2) {
+            return (rating.Rating.RateModStreamSummary) result_;
+          }
+          return rating.Rating.RateModStreamSummary.getDefaultInstance();
+        }
+      }
+      /**
+       * <code>.rating.RateModStreamSummary summary = 2;</code>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          rating.Rating.RateModStreamSummary, rating.Rating.RateModStreamSummary.Builder, rating.Rating.RateModStreamSummaryOrBuilder> 
+          internalGetSummaryFieldBuilder() {
+        if (summaryBuilder_ == null) {
+          if (!(resultCase_ == 2)) {
+            result_ = rating.Rating.RateModStreamSummary.getDefaultInstance();
+          }
+          summaryBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              rating.Rating.RateModStreamSummary, rating.Rating.RateModStreamSummary.Builder, rating.Rating.RateModStreamSummaryOrBuilder>(
+                  (rating.Rating.RateModStreamSummary) result_,
+                  getParentForChildren(),
+                  isClean());
+          result_ = null;
+        }
+        resultCase_ = 2;
+        onChanged();
+        return summaryBuilder_;
+      }
+
+      // @@protoc_insertion_point(builder_scope:rating.RateModStreamResponse)
+    }
+
+    // @@protoc_insertion_point(class_scope:rating.RateModStreamResponse)
+    private static final rating.Rating.RateModStreamResponse DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new rating.Rating.RateModStreamResponse();
+    }
+
+    public static rating.Rating.RateModStreamResponse getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<RateModStreamResponse>
+        PARSER = new com.google.protobuf.AbstractParser<RateModStreamResponse>() {
+      @java.lang.Override
+      public RateModStreamResponse parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<RateModStreamResponse> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RateModStreamResponse> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public rating.Rating.RateModStreamResponse getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface RateModChunkAckOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:rating.RateModChunkAck)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>int64 chunk = 1;</code>
+     * @return The chunk.
+     */
+    long getChunk();
+
+    /**
+     * <code>int64 written = 2;</code>
+     * @return The written.
+     */
+    long getWritten();
+
+    /**
+     * <code>int64 next_offset = 3;</code>
+     * @return The nextOffset.
+     */
+    long getNextOffset();
+  }
+  /**
+   * <pre>
+   * Sent after each chunk is committed. next_offset is the number of requests durably
+   * written so far; a client can resume from there after a failure.
+   * </pre>
+   *
+   * Protobuf type {@code rating.RateModChunkAck}
+   */
+  public static final class RateModChunkAck extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:rating.RateModChunkAck)
+      RateModChunkAckOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 32,
+        /* patch= */ 1,
+        /* suffix= */ "",
+        RateModChunkAck.class.getName());
+    }
+    // Use RateModChunkAck.newBuilder() to construct.
+    private RateModChunkAck(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private RateModChunkAck() {
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return rating.Rating.internal_static_rating_RateModChunkAck_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return rating.Rating.internal_static_rating_RateModChunkAck_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              rating.Rating.RateModChunkAck.class, rating.Rating.RateModChunkAck.Builder.class);
+    }
+
+    public static final int CHUNK_FIELD_NUMBER = 1;
+    private long chunk_ = 0L;
+    /**
+     * <code>int64 chunk = 1;</code>
+     * @return The chunk.
+     */
+    @java.lang.Override
+    public long getChunk() {
+      return chunk_;
+    }
+
+    public static final int WRITTEN_FIELD_NUMBER = 2;
+    private long written_ = 0L;
+    /**
+     * <code>int64 written = 2;</code>
+     * @return The written.
+     */
+    @java.lang.Override
+    public long getWritten() {
+      return written_;
+    }
+
+    public static final int NEXT_OFFSET_FIELD_NUMBER = 3;
+    private long nextOffset_ = 0L;
+    /**
+     * <code>int64 next_offset = 3;</code>
+     * @return The nextOffset.
+     */
+    @java.lang.Override
+    public long getNextOffset() {
+      return nextOffset_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (chunk_ != 0L) {
+        output.writeInt64(1, chunk_);
+      }
+      if (written_ != 0L) {
+        output.writeInt64(2, written_);
+      }
+      if (nextOffset_ != 0L) {
+        output.writeInt64(3, nextOffset_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (chunk_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, chunk_);
+      }
+      if (written_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, written_);
+      }
+      if (nextOffset_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(3, nextOffset_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof rating.Rating.RateModChunkAck)) {
+        return super.equals(obj);
+      }
+      rating.Rating.RateModChunkAck other = (rating.Rating.RateModChunkAck) obj;
+
+      if (getChunk()
+          != other.getChunk()) return false;
+      if (getWritten()
+          != other.getWritten()) return false;
+      if (getNextOffset()
+          != other.getNextOffset()) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + CHUNK_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getChunk());
+      hash = (37 * hash) + WRITTEN_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getWritten());
+      hash = (37 * hash) + NEXT_OFFSET_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getNextOffset());
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static rating.Rating.RateModChunkAck parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static rating.Rating.RateModChunkAck parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static rating.Rating.RateModChunkAck parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.RateModChunkAck parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(rating.Rating.RateModChunkAck prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * <pre>
+     * Sent after each chunk is committed. next_offset is the number of requests durably
+     * written so far; a client can resume from there after a failure.
+     * </pre>
+     *
+     * Protobuf type {@code rating.RateModChunkAck}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:rating.RateModChunkAck)
+        rating.Rating.RateModChunkAckOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return rating.Rating.internal_static_rating_RateModChunkAck_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return rating.Rating.internal_static_rating_RateModChunkAck_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                rating.Rating.RateModChunkAck.class, rating.Rating.RateModChunkAck.Builder.class);
+      }
+
+      // Construct using rating.Rating.RateModChunkAck.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        chunk_ = 0L;
+        written_ = 0L;
+        nextOffset_ = 0L;
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return rating.Rating.internal_static_rating_RateModChunkAck_descriptor;
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModChunkAck getDefaultInstanceForType() {
+        return rating.Rating.RateModChunkAck.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModChunkAck build() {
+        rating.Rating.RateModChunkAck result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModChunkAck buildPartial() {
+        rating.Rating.RateModChunkAck result = new rating.Rating.RateModChunkAck(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(rating.Rating.RateModChunkAck result) {
+        int from_bitField0_ = bitField0_;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.chunk_ = chunk_;
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.written_ = written_;
+        }
+        if (((from_bitField0_ & 0x00000004) != 0)) {
+          result.nextOffset_ = nextOffset_;
+        }
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof rating.Rating.RateModChunkAck) {
+          return mergeFrom((rating.Rating.RateModChunkAck)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(rating.Rating.RateModChunkAck other) {
+        if (other == rating.Rating.RateModChunkAck.getDefaultInstance()) return this;
+        if (other.getChunk() != 0L) {
+          setChunk(other.getChunk());
+        }
+        if (other.getWritten() != 0L) {
+          setWritten(other.getWritten());
+        }
+        if (other.getNextOffset() != 0L) {
+          setNextOffset(other.getNextOffset());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+                chunk_ = input.readInt64();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 8
+              case 16: {
+                written_ = input.readInt64();
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 16
+              case 24: {
+                nextOffset_ = input.readInt64();
+                bitField0_ |= 0x00000004;
+                break;
+              } // case 24
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private long chunk_ ;
+      /**
+       * <code>int64 chunk = 1;</code>
+       * @return The chunk.
+       */
+      @java.lang.Override
+      public long getChunk() {
+        return chunk_;
+      }
+      /**
+       * <code>int64 chunk = 1;</code>
+       * @param value The chunk to set.
+       * @return This builder for chaining.
+       */
+      public Builder setChunk(long value) {
+
+        chunk_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 chunk = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearChunk() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        chunk_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long written_ ;
+      /**
+       * <code>int64 written = 2;</code>
+       * @return The written.
+       */
+      @java.lang.Override
+      public long getWritten() {
+        return written_;
+      }
+      /**
+       * <code>int64 written = 2;</code>
+       * @param value The written to set.
+       * @return This builder for chaining.
+       */
+      public Builder setWritten(long value) {
+
+        written_ = value;
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 written = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearWritten() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        written_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long nextOffset_ ;
+      /**
+       * <code>int64 next_offset = 3;</code>
+       * @return The nextOffset.
+       */
+      @java.lang.Override
+      public long getNextOffset() {
+        return nextOffset_;
+      }
+      /**
+       * <code>int64 next_offset = 3;</code>
+       * @param value The nextOffset to set.
+       * @return This builder for chaining.
+       */
+      public Builder setNextOffset(long value) {
+
+        nextOffset_ = value;
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 next_offset = 3;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearNextOffset() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        nextOffset_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:rating.RateModChunkAck)
+    }
+
+    // @@protoc_insertion_point(class_scope:rating.RateModChunkAck)
+    private static final rating.Rating.RateModChunkAck DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new rating.Rating.RateModChunkAck();
+    }
+
+    public static rating.Rating.RateModChunkAck getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<RateModChunkAck>
+        PARSER = new com.google.protobuf.AbstractParser<RateModChunkAck>() {
+      @java.lang.Override
+      public RateModChunkAck parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<RateModChunkAck> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RateModChunkAck> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public rating.Rating.RateModChunkAck getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
+  public interface RateModStreamSummaryOrBuilder extends
+      // @@protoc_insertion_point(interface_extends:rating.RateModStreamSummary)
+      com.google.protobuf.MessageOrBuilder {
+
+    /**
+     * <code>int64 written = 1;</code>
+     * @return The written.
+     */
+    long getWritten();
+
+    /**
+     * <code>int64 chunks = 2;</code>
+     * @return The chunks.
+     */
+    long getChunks();
+  }
+  /**
+   * Protobuf type {@code rating.RateModStreamSummary}
+   */
+  public static final class RateModStreamSummary extends
+      com.google.protobuf.GeneratedMessage implements
+      // @@protoc_insertion_point(message_implements:rating.RateModStreamSummary)
+      RateModStreamSummaryOrBuilder {
+  private static final long serialVersionUID = 0L;
+    static {
+      com.google.protobuf.RuntimeVersion.validateProtobufGencodeVersion(
+        com.google.protobuf.RuntimeVersion.RuntimeDomain.PUBLIC,
+        /* major= */ 4,
+        /* minor= */ 32,
+        /* patch= */ 1,
+        /* suffix= */ "",
+        RateModStreamSummary.class.getName());
+    }
+    // Use RateModStreamSummary.newBuilder() to construct.
+    private RateModStreamSummary(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+    }
+    private RateModStreamSummary() {
+    }
+
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return rating.Rating.internal_static_rating_RateModStreamSummary_descriptor;
+    }
+
+    @java.lang.Override
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return rating.Rating.internal_static_rating_RateModStreamSummary_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              rating.Rating.RateModStreamSummary.class, rating.Rating.RateModStreamSummary.Builder.class);
+    }
+
+    public static final int WRITTEN_FIELD_NUMBER = 1;
+    private long written_ = 0L;
+    /**
+     * <code>int64 written = 1;</code>
+     * @return The written.
+     */
+    @java.lang.Override
+    public long getWritten() {
+      return written_;
+    }
+
+    public static final int CHUNKS_FIELD_NUMBER = 2;
+    private long chunks_ = 0L;
+    /**
+     * <code>int64 chunks = 2;</code>
+     * @return The chunks.
+     */
+    @java.lang.Override
+    public long getChunks() {
+      return chunks_;
+    }
+
+    private byte memoizedIsInitialized = -1;
+    @java.lang.Override
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized == 1) return true;
+      if (isInitialized == 0) return false;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    @java.lang.Override
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      if (written_ != 0L) {
+        output.writeInt64(1, written_);
+      }
+      if (chunks_ != 0L) {
+        output.writeInt64(2, chunks_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    @java.lang.Override
+    public int getSerializedSize() {
+      int size = memoizedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (written_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(1, written_);
+      }
+      if (chunks_ != 0L) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeInt64Size(2, chunks_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSize = size;
+      return size;
+    }
+
+    @java.lang.Override
+    public boolean equals(final java.lang.Object obj) {
+      if (obj == this) {
+       return true;
+      }
+      if (!(obj instanceof rating.Rating.RateModStreamSummary)) {
+        return super.equals(obj);
+      }
+      rating.Rating.RateModStreamSummary other = (rating.Rating.RateModStreamSummary) obj;
+
+      if (getWritten()
+          != other.getWritten()) return false;
+      if (getChunks()
+          != other.getChunks()) return false;
+      if (!getUnknownFields().equals(other.getUnknownFields())) return false;
+      return true;
+    }
+
+    @java.lang.Override
+    public int hashCode() {
+      if (memoizedHashCode != 0) {
+        return memoizedHashCode;
+      }
+      int hash = 41;
+      hash = (19 * hash) + getDescriptor().hashCode();
+      hash = (37 * hash) + WRITTEN_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getWritten());
+      hash = (37 * hash) + CHUNKS_FIELD_NUMBER;
+      hash = (53 * hash) + com.google.protobuf.Internal.hashLong(
+          getChunks());
+      hash = (29 * hash) + getUnknownFields().hashCode();
+      memoizedHashCode = hash;
+      return hash;
+    }
+
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        java.nio.ByteBuffer data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        java.nio.ByteBuffer data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    public static rating.Rating.RateModStreamSummary parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input);
+    }
+
+    public static rating.Rating.RateModStreamSummary parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseDelimitedWithIOException(PARSER, input, extensionRegistry);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input);
+    }
+    public static rating.Rating.RateModStreamSummary parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return com.google.protobuf.GeneratedMessage
+          .parseWithIOException(PARSER, input, extensionRegistry);
+    }
+
+    @java.lang.Override
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder() {
+      return DEFAULT_INSTANCE.toBuilder();
+    }
+    public static Builder newBuilder(rating.Rating.RateModStreamSummary prototype) {
+      return DEFAULT_INSTANCE.toBuilder().mergeFrom(prototype);
+    }
+    @java.lang.Override
+    public Builder toBuilder() {
+      return this == DEFAULT_INSTANCE
+          ? new Builder() : new Builder().mergeFrom(this);
+    }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code rating.RateModStreamSummary}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder> implements
+        // @@protoc_insertion_point(builder_implements:rating.RateModStreamSummary)
+        rating.Rating.RateModStreamSummaryOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return rating.Rating.internal_static_rating_RateModStreamSummary_descriptor;
+      }
+
+      @java.lang.Override
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return rating.Rating.internal_static_rating_RateModStreamSummary_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                rating.Rating.RateModStreamSummary.class, rating.Rating.RateModStreamSummary.Builder.class);
+      }
+
+      // Construct using rating.Rating.RateModStreamSummary.newBuilder()
+      private Builder() {
+
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+
+      }
+      @java.lang.Override
+      public Builder clear() {
+        super.clear();
+        bitField0_ = 0;
+        written_ = 0L;
+        chunks_ = 0L;
+        return this;
+      }
+
+      @java.lang.Override
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return rating.Rating.internal_static_rating_RateModStreamSummary_descriptor;
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModStreamSummary getDefaultInstanceForType() {
+        return rating.Rating.RateModStreamSummary.getDefaultInstance();
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModStreamSummary build() {
+        rating.Rating.RateModStreamSummary result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      @java.lang.Override
+      public rating.Rating.RateModStreamSummary buildPartial() {
+        rating.Rating.RateModStreamSummary result = new rating.Rating.RateModStreamSummary(this);
+        if (bitField0_ != 0) { buildPartial0(result); }
+        onBuilt();
+        return result;
+      }
+
+      private void buildPartial0(rating.Rating.RateModStreamSummary result) {
+        int from_bitField0_ = bitField0_;
+        if (((from_bitField0_ & 0x00000001) != 0)) {
+          result.written_ = written_;
+        }
+        if (((from_bitField0_ & 0x00000002) != 0)) {
+          result.chunks_ = chunks_;
+        }
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof rating.Rating.RateModStreamSummary) {
+          return mergeFrom((rating.Rating.RateModStreamSummary)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(rating.Rating.RateModStreamSummary other) {
+        if (other == rating.Rating.RateModStreamSummary.getDefaultInstance()) return this;
+        if (other.getWritten() != 0L) {
+          setWritten(other.getWritten());
+        }
+        if (other.getChunks() != 0L) {
+          setChunks(other.getChunks());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        onChanged();
+        return this;
+      }
+
+      @java.lang.Override
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      @java.lang.Override
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        if (extensionRegistry == null) {
+          throw new java.lang.NullPointerException();
+        }
+        try {
+          boolean done = false;
+          while (!done) {
+            int tag = input.readTag();
+            switch (tag) {
+              case 0:
+                done = true;
+                break;
+              case 8: {
+                written_ = input.readInt64();
+                bitField0_ |= 0x00000001;
+                break;
+              } // case 8
+              case 16: {
+                chunks_ = input.readInt64();
+                bitField0_ |= 0x00000002;
+                break;
+              } // case 16
+              default: {
+                if (!super.parseUnknownField(input, extensionRegistry, tag)) {
+                  done = true; // was an endgroup tag
+                }
+                break;
+              } // default:
+            } // switch (tag)
+          } // while (!done)
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.unwrapIOException();
+        } finally {
+          onChanged();
+        } // finally
+        return this;
+      }
+      private int bitField0_;
+
+      private long written_ ;
+      /**
+       * <code>int64 written = 1;</code>
+       * @return The written.
+       */
+      @java.lang.Override
+      public long getWritten() {
+        return written_;
+      }
+      /**
+       * <code>int64 written = 1;</code>
+       * @param value The written to set.
+       * @return This builder for chaining.
+       */
+      public Builder setWritten(long value) {
+
+        written_ = value;
+        bitField0_ |= 0x00000001;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 written = 1;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearWritten() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        written_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      private long chunks_ ;
+      /**
+       * <code>int64 chunks = 2;</code>
+       * @return The chunks.
+       */
+      @java.lang.Override
+      public long getChunks() {
+        return chunks_;
+      }
+      /**
+       * <code>int64 chunks = 2;</code>
+       * @param value The chunks to set.
+       * @return This builder for chaining.
+       */
+      public Builder setChunks(long value) {
+
+        chunks_ = value;
+        bitField0_ |= 0x00000002;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>int64 chunks = 2;</code>
+       * @return This builder for chaining.
+       */
+      public Builder clearChunks() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        chunks_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:rating.RateModStreamSummary)
+    }
+
+    // @@protoc_insertion_point(class_scope:rating.RateModStreamSummary)
+    private static final rating.Rating.RateModStreamSummary DEFAULT_INSTANCE;
+    static {
+      DEFAULT_INSTANCE = new rating.Rating.RateModStreamSummary();
+    }
+
+    public static rating.Rating.RateModStreamSummary getDefaultInstance() {
+      return DEFAULT_INSTANCE;
+    }
+
+    private static final com.google.protobuf.Parser<RateModStreamSummary>
+        PARSER = new com.google.protobuf.AbstractParser<RateModStreamSummary>() {
+      @java.lang.Override
+      public RateModStreamSummary parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        Builder builder = newBuilder();
+        try {
+          builder.mergeFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          throw e.setUnfinishedMessage(builder.buildPartial());
+        } catch (com.google.protobuf.UninitializedMessageException e) {
+          throw e.asInvalidProtocolBufferException().setUnfinishedMessage(builder.buildPartial());
+        } catch (java.io.IOException e) {
+          throw new com.google.protobuf.InvalidProtocolBufferException(e)
+              .setUnfinishedMessage(builder.buildPartial());
+        }
+        return builder.buildPartial();
+      }
+    };
+
+    public static com.google.protobuf.Parser<RateModStreamSummary> parser() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<RateModStreamSummary> getParserForType() {
+      return PARSER;
+    }
+
+    @java.lang.Override
+    public rating.Rating.RateModStreamSummary getDefaultInstanceForType() {
+      return DEFAULT_INSTANCE;
+    }
+
+  }
+
   private static final com.google.protobuf.Descriptors.Descriptor
     internal_static_rating_RateModRequest_descriptor;
   private static final 
@@ -2480,6 +6917,46 @@ public final class Rating extends com.google.protobuf.GeneratedFile {
   private static final 
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_rating_GetRatesResponse_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_GetRatesBatchRequest_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_GetRatesBatchRequest_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_GetRatesBatchResponse_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_GetRatesBatchResponse_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_GetRatesBatchResponse_RatesEntry_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_GetRatesBatchResponse_RatesEntry_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_WatchRatesRequest_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_WatchRatesRequest_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_WatchRatesResponse_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_WatchRatesResponse_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_RateModStreamResponse_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_RateModStreamResponse_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_RateModChunkAck_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_RateModChunkAck_fieldAccessorTable;
+  private static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_rating_RateModStreamSummary_descriptor;
+  private static final 
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_rating_RateModStreamSummary_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -2496,13 +6973,33 @@ public final class Rating extends com.google.protobuf.GeneratedFile {
       "\n\006mod_id\030\001 \001(\003\"w\n\020GetRatesResponse\022\023\n\013ra" +
       "tes_total\030\001 \001(\003\022\016\n\006rate_1\030\002 \001(\003\022\016\n\006rate_" +
       "2\030\003 \001(\003\022\016\n\006rate_3\030\004 \001(\003\022\016\n\006rate_4\030\005 \001(\003\022" +
-      "\016\n\006rate_5\030\006 \001(\003*X\n\004Rate\022\024\n\020RATE_UNSPECIF" +
-      "IED\020\000\022\n\n\006RATE_1\020\001\022\n\n\006RATE_2\020\002\022\n\n\006RATE_3\020" +
-      "\003\022\n\n\006RATE_4\020\004\022\n\n\006RATE_5\020\0052\212\001\n\rRatingServ" +
-      "ice\022:\n\007RateMod\022\026.rating.RateModRequest\032\027" +
-      ".rating.RateModResponse\022=\n\010GetRates\022\027.ra" +
-      "ting.GetRatesRequest\032\030.rating.GetRatesRe" +
-      "sponseb\006proto3"
+      "\016\n\006rate_5\030\006 \001(\003\"\'\n\024GetRatesBatchRequest\022" +
+      "\017\n\007mod_ids\030\001 \003(\003\"\230\001\n\025GetRatesBatchRespon" +
+      "se\0227\n\005rates\030\001 \003(\0132(.rating.GetRatesBatch" +
+      "Response.RatesEntry\032F\n\nRatesEntry\022\013\n\003key" +
+      "\030\001 \001(\003\022\'\n\005value\030\002 \001(\0132\030.rating.GetRatesR" +
+      "esponse:\0028\001\"$\n\021WatchRatesRequest\022\017\n\007mod_" +
+      "ids\030\001 \003(\003\"M\n\022WatchRatesResponse\022\016\n\006mod_i" +
+      "d\030\001 \001(\003\022\'\n\005rates\030\002 \001(\0132\030.rating.GetRates" +
+      "Response\"|\n\025RateModStreamResponse\022(\n\005chu" +
+      "nk\030\001 \001(\0132\027.rating.RateModChunkAckH\000\022/\n\007s" +
+      "ummary\030\002 \001(\0132\034.rating.RateModStreamSumma" +
+      "ryH\000B\010\n\006result\"F\n\017RateModChunkAck\022\r\n\005chu" +
+      "nk\030\001 \001(\003\022\017\n\007written\030\002 \001(\003\022\023\n\013next_offset" +
+      "\030\003 \001(\003\"7\n\024RateModStreamSummary\022\017\n\007writte" +
+      "n\030\001 \001(\003\022\016\n\006chunks\030\002 \001(\003*X\n\004Rate\022\024\n\020RATE_" +
+      "UNSPECIFIED\020\000\022\n\n\006RATE_1\020\001\022\n\n\006RATE_2\020\002\022\n\n" +
+      "\006RATE_3\020\003\022\n\n\006RATE_4\020\004\022\n\n\006RATE_5\020\0052\353\002\n\rRa" +
+      "tingService\022:\n\007RateMod\022\026.rating.RateModR" +
+      "equest\032\027.rating.RateModResponse\022=\n\010GetRa" +
+      "tes\022\027.rating.GetRatesRequest\032\030.rating.Ge" +
+      "tRatesResponse\022L\n\rGetRatesBatch\022\034.rating" +
+      ".GetRatesBatchRequest\032\035.rating.GetRatesB" +
+      "atchResponse\022E\n\nWatchRates\022\031.rating.Watc" +
+      "hRatesRequest\032\032.rating.WatchRatesRespons" +
+      "e0\001\022J\n\rRateModStream\022\026.rating.RateModReq" +
+      "uest\032\035.rating.RateModStreamResponse(\0010\001b" +
+      "\006proto3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -2532,6 +7029,54 @@ public final class Rating extends com.google.protobuf.GeneratedFile {
       com.google.protobuf.GeneratedMessage.FieldAccessorTable(
         internal_static_rating_GetRatesResponse_descriptor,
         new java.lang.String[] { "RatesTotal", "Rate1", "Rate2", "Rate3", "Rate4", "Rate5", });
+    internal_static_rating_GetRatesBatchRequest_descriptor =
+      getDescriptor().getMessageTypes().get(4);
+    internal_static_rating_GetRatesBatchRequest_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_GetRatesBatchRequest_descriptor,
+        new java.lang.String[] { "ModIds", });
+    internal_static_rating_GetRatesBatchResponse_descriptor =
+      getDescriptor().getMessageTypes().get(5);
+    internal_static_rating_GetRatesBatchResponse_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_GetRatesBatchResponse_descriptor,
+        new java.lang.String[] { "Rates", });
+    internal_static_rating_GetRatesBatchResponse_RatesEntry_descriptor =
+      internal_static_rating_GetRatesBatchResponse_descriptor.getNestedTypes().get(0);
+    internal_static_rating_GetRatesBatchResponse_RatesEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_GetRatesBatchResponse_RatesEntry_descriptor,
+        new java.lang.String[] { "Key", "Value", });
+    internal_static_rating_WatchRatesRequest_descriptor =
+      getDescriptor().getMessageTypes().get(6);
+    internal_static_rating_WatchRatesRequest_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_WatchRatesRequest_descriptor,
+        new java.lang.String[] { "ModIds", });
+    internal_static_rating_WatchRatesResponse_descriptor =
+      getDescriptor().getMessageTypes().get(7);
+    internal_static_rating_WatchRatesResponse_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_WatchRatesResponse_descriptor,
+        new java.lang.String[] { "ModId", "Rates", });
+    internal_static_rating_RateModStreamResponse_descriptor =
+      getDescriptor().getMessageTypes().get(8);
+    internal_static_rating_RateModStreamResponse_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_RateModStreamResponse_descriptor,
+        new java.lang.String[] { "Chunk", "Summary", "Result", });
+    internal_static_rating_RateModChunkAck_descriptor =
+      getDescriptor().getMessageTypes().get(9);
+    internal_static_rating_RateModChunkAck_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_RateModChunkAck_descriptor,
+        new java.lang.String[] { "Chunk", "Written", "NextOffset", });
+    internal_static_rating_RateModStreamSummary_descriptor =
+      getDescriptor().getMessageTypes().get(10);
+    internal_static_rating_RateModStreamSummary_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+        internal_static_rating_RateModStreamSummary_descriptor,
+        new java.lang.String[] { "Written", "Chunks", });
     descriptor.resolveAllFeaturesImmutable();
   }
 
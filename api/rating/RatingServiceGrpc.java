@@ -91,6 +91,102 @@ public final class RatingServiceGrpc {
      }
      return getGetRatesMethod;
   }
+  @io.grpc.ExperimentalApi("https://github.com/grpc/grpc-java/issues/1901")
+  @java.lang.Deprecated // Use {@link #getGetRatesBatchMethod()} instead. 
+  public static final io.grpc.MethodDescriptor<rating.Rating.GetRatesBatchRequest,
+      rating.Rating.GetRatesBatchResponse> METHOD_GET_RATES_BATCH = getGetRatesBatchMethod();
+
+  private static volatile io.grpc.MethodDescriptor<rating.Rating.GetRatesBatchRequest,
+      rating.Rating.GetRatesBatchResponse> getGetRatesBatchMethod;
+
+  @io.grpc.ExperimentalApi("https://github.com/grpc/grpc-java/issues/1901")
+  public static io.grpc.MethodDescriptor<rating.Rating.GetRatesBatchRequest,
+      rating.Rating.GetRatesBatchResponse> getGetRatesBatchMethod() {
+    io.grpc.MethodDescriptor<rating.Rating.GetRatesBatchRequest, rating.Rating.GetRatesBatchResponse> getGetRatesBatchMethod;
+    if ((getGetRatesBatchMethod = RatingServiceGrpc.getGetRatesBatchMethod) == null) {
+      synchronized (RatingServiceGrpc.class) {
+        if ((getGetRatesBatchMethod = RatingServiceGrpc.getGetRatesBatchMethod) == null) {
+          RatingServiceGrpc.getGetRatesBatchMethod = getGetRatesBatchMethod = 
+              io.grpc.MethodDescriptor.<rating.Rating.GetRatesBatchRequest, rating.Rating.GetRatesBatchResponse>newBuilder()
+              .setType(io.grpc.MethodDescriptor.MethodType.UNARY)
+              .setFullMethodName(generateFullMethodName(
+                  "rating.RatingService", "GetRatesBatch"))
+              .setSampledToLocalTracing(true)
+              .setRequestMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  rating.Rating.GetRatesBatchRequest.getDefaultInstance()))
+              .setResponseMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  rating.Rating.GetRatesBatchResponse.getDefaultInstance()))
+                  .setSchemaDescriptor(new RatingServiceMethodDescriptorSupplier("GetRatesBatch"))
+                  .build();
+          }
+        }
+     }
+     return getGetRatesBatchMethod;
+  }
+  @io.grpc.ExperimentalApi("https://github.com/grpc/grpc-java/issues/1901")
+  @java.lang.Deprecated // Use {@link #getWatchRatesMethod()} instead. 
+  public static final io.grpc.MethodDescriptor<rating.Rating.WatchRatesRequest,
+      rating.Rating.WatchRatesResponse> METHOD_WATCH_RATES = getWatchRatesMethod();
+
+  private static volatile io.grpc.MethodDescriptor<rating.Rating.WatchRatesRequest,
+      rating.Rating.WatchRatesResponse> getWatchRatesMethod;
+
+  @io.grpc.ExperimentalApi("https://github.com/grpc/grpc-java/issues/1901")
+  public static io.grpc.MethodDescriptor<rating.Rating.WatchRatesRequest,
+      rating.Rating.WatchRatesResponse> getWatchRatesMethod() {
+    io.grpc.MethodDescriptor<rating.Rating.WatchRatesRequest, rating.Rating.WatchRatesResponse> getWatchRatesMethod;
+    if ((getWatchRatesMethod = RatingServiceGrpc.getWatchRatesMethod) == null) {
+      synchronized (RatingServiceGrpc.class) {
+        if ((getWatchRatesMethod = RatingServiceGrpc.getWatchRatesMethod) == null) {
+          RatingServiceGrpc.getWatchRatesMethod = getWatchRatesMethod = 
+              io.grpc.MethodDescriptor.<rating.Rating.WatchRatesRequest, rating.Rating.WatchRatesResponse>newBuilder()
+              .setType(io.grpc.MethodDescriptor.MethodType.SERVER_STREAMING)
+              .setFullMethodName(generateFullMethodName(
+                  "rating.RatingService", "WatchRates"))
+              .setSampledToLocalTracing(true)
+              .setRequestMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  rating.Rating.WatchRatesRequest.getDefaultInstance()))
+              .setResponseMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  rating.Rating.WatchRatesResponse.getDefaultInstance()))
+                  .setSchemaDescriptor(new RatingServiceMethodDescriptorSupplier("WatchRates"))
+                  .build();
+          }
+        }
+     }
+     return getWatchRatesMethod;
+  }
+  @io.grpc.ExperimentalApi("https://github.com/grpc/grpc-java/issues/1901")
+  @java.lang.Deprecated // Use {@link #getRateModStreamMethod()} instead. 
+  public static final io.grpc.MethodDescriptor<rating.Rating.RateModRequest,
+      rating.Rating.RateModStreamResponse> METHOD_RATE_MOD_STREAM = getRateModStreamMethod();
+
+  private static volatile io.grpc.MethodDescriptor<rating.Rating.RateModRequest,
+      rating.Rating.RateModStreamResponse> getRateModStreamMethod;
+
+  @io.grpc.ExperimentalApi("https://github.com/grpc/grpc-java/issues/1901")
+  public static io.grpc.MethodDescriptor<rating.Rating.RateModRequest,
+      rating.Rating.RateModStreamResponse> getRateModStreamMethod() {
+    io.grpc.MethodDescriptor<rating.Rating.RateModRequest, rating.Rating.RateModStreamResponse> getRateModStreamMethod;
+    if ((getRateModStreamMethod = RatingServiceGrpc.getRateModStreamMethod) == null) {
+      synchronized (RatingServiceGrpc.class) {
+        if ((getRateModStreamMethod = RatingServiceGrpc.getRateModStreamMethod) == null) {
+          RatingServiceGrpc.getRateModStreamMethod = getRateModStreamMethod = 
+              io.grpc.MethodDescriptor.<rating.Rating.RateModRequest, rating.Rating.RateModStreamResponse>newBuilder()
+              .setType(io.grpc.MethodDescriptor.MethodType.BIDI_STREAMING)
+              .setFullMethodName(generateFullMethodName(
+                  "rating.RatingService", "RateModStream"))
+              .setSampledToLocalTracing(true)
+              .setRequestMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  rating.Rating.RateModRequest.getDefaultInstance()))
+              .setResponseMarshaller(io.grpc.protobuf.ProtoUtils.marshaller(
+                  rating.Rating.RateModStreamResponse.getDefaultInstance()))
+                  .setSchemaDescriptor(new RatingServiceMethodDescriptorSupplier("RateModStream"))
+                  .build();
+          }
+        }
+     }
+     return getRateModStreamMethod;
+  }
 
   /**
    * Creates a new async stub that supports all call types for the service
@@ -133,6 +229,27 @@ public final class RatingServiceGrpc {
       asyncUnimplementedUnaryCall(getGetRatesMethod(), responseObserver);
     }
 
+    /**
+     */
+    public void getRatesBatch(rating.Rating.GetRatesBatchRequest request,
+        io.grpc.stub.StreamObserver<rating.Rating.GetRatesBatchResponse> responseObserver) {
+      asyncUnimplementedUnaryCall(getGetRatesBatchMethod(), responseObserver);
+    }
+
+    /**
+     */
+    public void watchRates(rating.Rating.WatchRatesRequest request,
+        io.grpc.stub.StreamObserver<rating.Rating.WatchRatesResponse> responseObserver) {
+      asyncUnimplementedUnaryCall(getWatchRatesMethod(), responseObserver);
+    }
+
+    /**
+     */
+    public io.grpc.stub.StreamObserver<rating.Rating.RateModRequest> rateModStream(
+        io.grpc.stub.StreamObserver<rating.Rating.RateModStreamResponse> responseObserver) {
+      return asyncUnimplementedStreamingCall(getRateModStreamMethod(), responseObserver);
+    }
+
     @java.lang.Override public final io.grpc.ServerServiceDefinition bindService() {
       return io.grpc.ServerServiceDefinition.builder(getServiceDescriptor())
           .addMethod(
@@ -149,6 +266,27 @@ public final class RatingServiceGrpc {
                 rating.Rating.GetRatesRequest,
                 rating.Rating.GetRatesResponse>(
                   this, METHODID_GET_RATES)))
+          .addMethod(
+            getGetRatesBatchMethod(),
+            asyncUnaryCall(
+              new MethodHandlers<
+                rating.Rating.GetRatesBatchRequest,
+                rating.Rating.GetRatesBatchResponse>(
+                  this, METHODID_GET_RATES_BATCH)))
+          .addMethod(
+            getWatchRatesMethod(),
+            asyncServerStreamingCall(
+              new MethodHandlers<
+                rating.Rating.WatchRatesRequest,
+                rating.Rating.WatchRatesResponse>(
+                  this, METHODID_WATCH_RATES)))
+          .addMethod(
+            getRateModStreamMethod(),
+            asyncBidiStreamingCall(
+              new MethodHandlers<
+                rating.Rating.RateModRequest,
+                rating.Rating.RateModStreamResponse>(
+                  this, METHODID_RATE_MOD_STREAM)))
           .build();
     }
   }
@@ -186,6 +324,30 @@ public final class RatingServiceGrpc {
       asyncUnaryCall(
           getChannel().newCall(getGetRatesMethod(), getCallOptions()), request, responseObserver);
     }
+
+    /**
+     */
+    public void getRatesBatch(rating.Rating.GetRatesBatchRequest request,
+        io.grpc.stub.StreamObserver<rating.Rating.GetRatesBatchResponse> responseObserver) {
+      asyncUnaryCall(
+          getChannel().newCall(getGetRatesBatchMethod(), getCallOptions()), request, responseObserver);
+    }
+
+    /**
+     */
+    public void watchRates(rating.Rating.WatchRatesRequest request,
+        io.grpc.stub.StreamObserver<rating.Rating.WatchRatesResponse> responseObserver) {
+      asyncServerStreamingCall(
+          getChannel().newCall(getWatchRatesMethod(), getCallOptions()), request, responseObserver);
+    }
+
+    /**
+     */
+    public io.grpc.stub.StreamObserver<rating.Rating.RateModRequest> rateModStream(
+        io.grpc.stub.StreamObserver<rating.Rating.RateModStreamResponse> responseObserver) {
+      return asyncBidiStreamingCall(
+          getChannel().newCall(getRateModStreamMethod(), getCallOptions()), responseObserver);
+    }
   }
 
   /**
@@ -219,6 +381,21 @@ public final class RatingServiceGrpc {
       return blockingUnaryCall(
           getChannel(), getGetRatesMethod(), getCallOptions(), request);
     }
+
+    /**
+     */
+    public rating.Rating.GetRatesBatchResponse getRatesBatch(rating.Rating.GetRatesBatchRequest request) {
+      return blockingUnaryCall(
+          getChannel(), getGetRatesBatchMethod(), getCallOptions(), request);
+    }
+
+    /**
+     */
+    public java.util.Iterator<rating.Rating.WatchRatesResponse> watchRates(
+        rating.Rating.WatchRatesRequest request) {
+      return blockingServerStreamingCall(
+          getChannel(), getWatchRatesMethod(), getCallOptions(), request);
+    }
   }
 
   /**
@@ -254,10 +431,21 @@ public final class RatingServiceGrpc {
       return futureUnaryCall(
           getChannel().newCall(getGetRatesMethod(), getCallOptions()), request);
     }
+
+    /**
+     */
+    public com.google.common.util.concurrent.ListenableFuture<rating.Rating.GetRatesBatchResponse> getRatesBatch(
+        rating.Rating.GetRatesBatchRequest request) {
+      return futureUnaryCall(
+          getChannel().newCall(getGetRatesBatchMethod(), getCallOptions()), request);
+    }
   }
 
   private static final int METHODID_RATE_MOD = 0;
   private static final int METHODID_GET_RATES = 1;
+  private static final int METHODID_GET_RATES_BATCH = 2;
+  private static final int METHODID_WATCH_RATES = 3;
+  private static final int METHODID_RATE_MOD_STREAM = 4;
 
   private static final class MethodHandlers<Req, Resp> implements
       io.grpc.stub.ServerCalls.UnaryMethod<Req, Resp>,
@@ -284,6 +472,14 @@ public final class RatingServiceGrpc {
           serviceImpl.getRates((rating.Rating.GetRatesRequest) request,
               (io.grpc.stub.StreamObserver<rating.Rating.GetRatesResponse>) responseObserver);
           break;
+        case METHODID_GET_RATES_BATCH:
+          serviceImpl.getRatesBatch((rating.Rating.GetRatesBatchRequest) request,
+              (io.grpc.stub.StreamObserver<rating.Rating.GetRatesBatchResponse>) responseObserver);
+          break;
+        case METHODID_WATCH_RATES:
+          serviceImpl.watchRates((rating.Rating.WatchRatesRequest) request,
+              (io.grpc.stub.StreamObserver<rating.Rating.WatchRatesResponse>) responseObserver);
+          break;
         default:
           throw new AssertionError();
       }
@@ -294,6 +490,9 @@ public final class RatingServiceGrpc {
     public io.grpc.stub.StreamObserver<Req> invoke(
         io.grpc.stub.StreamObserver<Resp> responseObserver) {
       switch (methodId) {
+        case METHODID_RATE_MOD_STREAM:
+          return (io.grpc.stub.StreamObserver<Req>) serviceImpl.rateModStream(
+              (io.grpc.stub.StreamObserver<rating.Rating.RateModStreamResponse>) responseObserver);
         default:
           throw new AssertionError();
       }
@@ -347,6 +546,9 @@ public final class RatingServiceGrpc {
               .setSchemaDescriptor(new RatingServiceFileDescriptorSupplier())
               .addMethod(getRateModMethod())
               .addMethod(getGetRatesMethod())
+              .addMethod(getGetRatesBatchMethod())
+              .addMethod(getWatchRatesMethod())
+              .addMethod(getRateModStreamMethod())
               .build();
         }
       }
@@ -0,0 +1,96 @@
+package ratingservice.bench;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.postgresql.ds.PGSimpleDataSource;
+import ratingservice.repository.BulkLoader;
+import ratingservice.repository.Repository;
+
+/**
+ * Loads the same ratings with {@link BulkLoader} and with a loop over {@link Repository#addRate}.
+ * Scores are per row, so rows/s is {@code 1e6 / score}.
+ *
+ * <p>Needs a migrated scratch database in {@code BENCH_DATABASE_URL} (a JDBC URL including
+ * credentials); its {@code rates} and {@code mod_rating_counters} are truncated before every
+ * iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BulkLoadBenchmark {
+
+  private static final int ROWS = 20_000;
+  private static final int MODS = 500;
+
+  private PGSimpleDataSource dataSource;
+  private long[][] ratings;
+  private byte[] csv;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    String url = System.getenv("BENCH_DATABASE_URL");
+    if (url == null || url.isBlank()) {
+      throw new IllegalStateException("Set BENCH_DATABASE_URL to a migrated scratch database");
+    }
+    dataSource = new PGSimpleDataSource();
+    dataSource.setURL(url);
+
+    SplittableRandom random = new SplittableRandom(42);
+    ratings = new long[ROWS][];
+    StringBuilder rows = new StringBuilder(ROWS * 16);
+    for (int i = 0; i < ROWS; i++) {
+      long authorId = i + 1L;
+      long modId = random.nextInt(MODS) + 1L;
+      long rate = random.nextInt(5) + 1L;
+      ratings[i] = new long[] {authorId, modId, rate};
+      rows.append(authorId).append(',').append(modId).append(',').append(rate).append('\n');
+    }
+    csv = rows.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  @Setup(Level.Iteration)
+  public void truncate() throws SQLException {
+    try (Connection conn = dataSource.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("TRUNCATE rates, mod_rating_counters");
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public BulkLoader.Result copy() throws Exception {
+    return new BulkLoader(dataSource, 1 << 16)
+        .load(new ByteArrayInputStream(csv), BulkLoader.Format.CSV, false, false);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public long addRateLoop() throws SQLException {
+    Repository repository = new Repository(dataSource);
+    long last = 0;
+    for (long[] rating : ratings) {
+      last = repository.addRate(rating[1], rating[0], (int) rating[2]);
+    }
+    return last;
+  }
+}
@@ -0,0 +1,94 @@
+package ratingservice.bench;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ratingservice.datasource.ConnectionPool;
+import ratingservice.executor.VirtualThreadExecutor;
+import ratingservice.repository.Repository;
+import ratingservice.service.Service;
+
+/**
+ * Fixed platform-thread pool versus semaphore-limited virtual threads for a burst of concurrent
+ * GetRates calls against a connection pool whose queries block for {@code queryMicros}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutorModeBenchmark {
+
+  private static final int BURST = 2_000;
+
+  @Param({"fixed", "virtual"})
+  private String mode;
+
+  @Param({"16"})
+  private int workerThreads;
+
+  @Param({"64"})
+  private int poolSize;
+
+  @Param({"2000"})
+  private long queryMicros;
+
+  private ConnectionPool pool;
+  private ExecutorService executor;
+  private Service service;
+  private final AtomicLong nextModId = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool =
+        new ConnectionPool(
+            new StubDataSource(queryMicros),
+            new ConnectionPool.Options(
+                poolSize,
+                poolSize,
+                Duration.ofMinutes(10),
+                Duration.ofMinutes(30),
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30)));
+    executor =
+        "virtual".equals(mode)
+            ? new VirtualThreadExecutor(poolSize)
+            : Executors.newFixedThreadPool(workerThreads);
+    service = new Service(new Repository(pool), executor);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdownNow();
+    pool.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public void getRatingsBurst() {
+    CompletableFuture<?>[] calls = new CompletableFuture<?>[BURST];
+    for (int i = 0; i < BURST; i++) {
+      calls[i] = service.getRatings(nextModId.incrementAndGet()).toCompletableFuture();
+    }
+    CompletableFuture.allOf(calls).join();
+  }
+}
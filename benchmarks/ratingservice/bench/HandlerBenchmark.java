@@ -0,0 +1,88 @@
+package ratingservice.bench;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import rating.Rating;
+import rating.RatingServiceGrpc;
+import ratingservice.handler.Handler;
+import ratingservice.repository.Repository;
+import ratingservice.service.Service;
+
+/**
+ * End-to-end RateMod and GetRates through an in-process gRPC transport, the real handler, service
+ * and repository, with JDBC replaced by {@link StubDataSource}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HandlerBenchmark {
+
+  private static final Rating.RateModRequest RATE_MOD_REQUEST =
+      Rating.RateModRequest.newBuilder()
+          .setModId(42L)
+          .setAuthorId(7L)
+          .setRate(Rating.Rate.RATE_4)
+          .build();
+  private static final Rating.GetRatesRequest GET_RATES_REQUEST =
+      Rating.GetRatesRequest.newBuilder().setModId(42L).build();
+
+  private ExecutorService workerPool;
+  private Server server;
+  private ManagedChannel channel;
+  private RatingServiceGrpc.RatingServiceBlockingStub stub;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String name = InProcessServerBuilder.generateName();
+    workerPool = Executors.newFixedThreadPool(4);
+    Service service = new Service(new Repository(new StubDataSource(0)), workerPool);
+    server =
+        InProcessServerBuilder.forName(name)
+            .directExecutor()
+            .addService(new Handler(service))
+            .build()
+            .start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    stub = RatingServiceGrpc.newBlockingStub(channel);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    workerPool.shutdownNow();
+  }
+
+  @Benchmark
+  public Rating.RateModResponse rateMod() {
+    return stub.rateMod(RATE_MOD_REQUEST);
+  }
+
+  @Benchmark
+  public Rating.GetRatesResponse getRates() {
+    return stub.getRates(GET_RATES_REQUEST);
+  }
+}
@@ -0,0 +1,109 @@
+package ratingservice.bench;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ratingservice.repository.Repository;
+import ratingservice.service.HistogramStore;
+import ratingservice.service.OffHeapHistogramStore;
+import ratingservice.service.RatingHistogramStore;
+
+/**
+ * Contended updates and allocation-free reads of the heap and off-heap {@link HistogramStore}:
+ * every thread rates the same hot mod, or a random one out of {@code mods}. The setup logs each
+ * table's footprint per mod.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=4g")
+public class HistogramStoreBenchmark {
+
+  private static final long HOT_MOD = 42L;
+  private static final long[] NEW_FOUR_STAR = {1, 0, 0, 0, 1, 0};
+
+  @Param({"heap", "offheap"})
+  public String layout;
+
+  @Param({"1000000"})
+  public int mods;
+
+  private HistogramStore store;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    store = create(layout, mods);
+    HistogramStore.Stats stats = store.stats();
+    System.out.printf(
+        "%n%s: %d mods in %d KiB, %d bytes per mod%n",
+        layout, stats.mods(), stats.footprintBytes() / 1024, stats.bytesPerMod());
+  }
+
+  /** Builds a warmed store of {@code mods} mods with ten ratings each. */
+  static HistogramStore create(final String layout, final int mods) throws SQLException {
+    HistogramStore store =
+        switch (layout) {
+          case "heap" -> new RatingHistogramStore(mods);
+          case "offheap" -> new OffHeapHistogramStore(mods);
+          default -> throw new IllegalArgumentException("Unknown layout: " + layout);
+        };
+    store.warm(
+        new Repository((DataSource) null) {
+          @Override
+          public void scanRateHistograms(final RateCountConsumer consumer) {
+            for (long modId = 1; modId <= mods; modId++) {
+              consumer.accept(modId, modId % 5 + 1, 10);
+            }
+          }
+        });
+    return store;
+  }
+
+  @State(Scope.Thread)
+  public static class Counts {
+    final long[] counts = new long[HistogramStore.RATES];
+  }
+
+  @Benchmark
+  public void rateHotMod() {
+    store.countersChanged(HOT_MOD, NEW_FOUR_STAR, 1L);
+  }
+
+  @Benchmark
+  public void rateRandomMod() {
+    store.countersChanged(randomModId(), NEW_FOUR_STAR, 1L);
+  }
+
+  @Benchmark
+  public long readHotMod(final Counts counts) {
+    store.read(HOT_MOD, counts.counts);
+    return counts.counts[3];
+  }
+
+  @Benchmark
+  public long readRandomMod(final Counts counts) {
+    store.read(randomModId(), counts.counts);
+    return counts.counts[3];
+  }
+
+  private long randomModId() {
+    return ThreadLocalRandom.current().nextLong(1, mods + 1L);
+  }
+}
@@ -0,0 +1,155 @@
+package ratingservice.bench;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.postgresql.ds.PGSimpleDataSource;
+import ratingservice.model.Data;
+import ratingservice.repository.Repository;
+
+/**
+ * Per-mod query latency against a plain and a hash-partitioned {@code rates} table of growing size.
+ * Each trial builds its own schema, so the migrations do not need to have been applied.
+ *
+ * <p>Needs a scratch database in {@code BENCH_DATABASE_URL} (a JDBC URL including credentials); the
+ * {@code bench_partition} schema is dropped and recreated for every trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PartitionBenchmark {
+
+  private static final String SCHEMA = "bench_partition";
+  private static final int MODS = 10_000;
+
+  @Param({"single", "hash"})
+  public String layout;
+
+  @Param({"1000000", "10000000"})
+  public long rows;
+
+  @Param({"16"})
+  public int partitions;
+
+  private PGSimpleDataSource dataSource;
+  private Repository repository;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    String url = System.getenv("BENCH_DATABASE_URL");
+    if (url == null || url.isBlank()) {
+      throw new IllegalStateException("Set BENCH_DATABASE_URL to a scratch database");
+    }
+    dataSource = new PGSimpleDataSource();
+    dataSource.setURL(url);
+    dataSource.setCurrentSchema(SCHEMA);
+    try (Connection conn = dataSource.getConnection();
+        Statement stmt = conn.createStatement()) {
+      stmt.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+      stmt.execute("CREATE SCHEMA " + SCHEMA);
+      if ("hash".equals(layout)) {
+        stmt.execute(
+            """
+            CREATE TABLE rates (
+                id BIGSERIAL,
+                author_id BIGINT NOT NULL,
+                mod_id BIGINT NOT NULL,
+                rate BIGINT NOT NULL,
+                PRIMARY KEY (mod_id, id),
+                CONSTRAINT uq_rates_mod_author UNIQUE (mod_id, author_id)
+            ) PARTITION BY HASH (mod_id)
+            """);
+        for (int remainder = 0; remainder < partitions; remainder++) {
+          stmt.execute(
+              "CREATE TABLE rates_p"
+                  + remainder
+                  + " PARTITION OF rates FOR VALUES WITH (MODULUS "
+                  + partitions
+                  + ", REMAINDER "
+                  + remainder
+                  + ")");
+        }
+      } else {
+        stmt.execute(
+            """
+            CREATE TABLE rates (
+                id BIGSERIAL PRIMARY KEY,
+                author_id BIGINT NOT NULL,
+                mod_id BIGINT NOT NULL,
+                rate BIGINT NOT NULL,
+                CONSTRAINT uq_rates_mod_author UNIQUE (mod_id, author_id)
+            )
+            """);
+      }
+      stmt.execute("CREATE INDEX idx_rates_mod_rate ON rates (mod_id, rate)");
+      stmt.execute(
+          """
+          CREATE TABLE mod_rating_counters (
+              mod_id BIGINT PRIMARY KEY,
+              total BIGINT NOT NULL DEFAULT 0,
+              rate1 BIGINT NOT NULL DEFAULT 0,
+              rate2 BIGINT NOT NULL DEFAULT 0,
+              rate3 BIGINT NOT NULL DEFAULT 0,
+              rate4 BIGINT NOT NULL DEFAULT 0,
+              rate5 BIGINT NOT NULL DEFAULT 0
+          )
+          """);
+      stmt.execute(
+          "INSERT INTO rates (author_id, mod_id, rate)"
+              + " SELECT g, g % "
+              + MODS
+              + " + 1, g % 5 + 1 FROM generate_series(1, "
+              + rows
+              + ") g");
+      stmt.execute(
+          """
+          INSERT INTO mod_rating_counters (mod_id, total, rate1, rate2, rate3, rate4, rate5)
+          SELECT mod_id,
+                 COUNT(*),
+                 COUNT(*) FILTER (WHERE rate = 1),
+                 COUNT(*) FILTER (WHERE rate = 2),
+                 COUNT(*) FILTER (WHERE rate = 3),
+                 COUNT(*) FILTER (WHERE rate = 4),
+                 COUNT(*) FILTER (WHERE rate = 5)
+            FROM rates
+           GROUP BY mod_id
+          """);
+      stmt.execute("VACUUM ANALYZE rates");
+    }
+    repository = new Repository(dataSource);
+  }
+
+  /** Aggregates one mod's rows, the query whose cost grows with the table. */
+  @Benchmark
+  public Data countRatingSummary() throws SQLException {
+    return repository.countRatingSummary(randomModId());
+  }
+
+  /** Locates and upserts one author's rating through the production statement. */
+  @Benchmark
+  public long addRate() throws SQLException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return repository.addRate(randomModId(), random.nextLong(1, rows + 1), random.nextInt(1, 6));
+  }
+
+  private static long randomModId() {
+    return ThreadLocalRandom.current().nextLong(1, MODS + 1);
+  }
+}
@@ -0,0 +1,170 @@
+package ratingservice.bench;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ratingservice.datasource.ConnectionPool;
+import ratingservice.datasource.ReplicaRouter;
+import ratingservice.metrics.Histogram;
+import ratingservice.model.Data;
+import ratingservice.repository.QueryLimiter;
+import ratingservice.repository.Repository;
+
+/**
+ * Load test of the adaptive {@link QueryLimiter}: 64 clients issue GetRates queries against a
+ * database that runs {@code capacity} statements at full speed and slows down in proportion beyond
+ * that. Before the clients start, the repository serves {@code capacity} concurrent callers for a
+ * while, so the limiter knows the latency of a healthy database when the overload hits, as it would
+ * in a running service. Clients back off for a millisecond after a rejection. The accepted/rejected
+ * counters give the throughput of each outcome; the latency of accepted queries is printed after
+ * every iteration. Without the limiter every query waits behind the overload, with it accepted
+ * queries should stay near {@code queryMicros}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class QueryLimiterBenchmark {
+
+  private static final long REJECTED_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final int PRIMING_QUERIES = 1_600;
+
+  @Param({"unlimited", "adaptive"})
+  private String limit;
+
+  @Param({"8"})
+  private int capacity;
+
+  @Param({"2000"})
+  private long queryMicros;
+
+  private ConnectionPool pool;
+  private QueryLimiter limiter;
+  private Repository repository;
+  private volatile Histogram acceptedMicros;
+
+  /** Per-thread outcome counts, reported by JMH as operations per second. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Outcomes {
+    public long accepted;
+    public long rejected;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      accepted = 0;
+      rejected = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    pool =
+        new ConnectionPool(
+            new StubDataSource(queryMicros, capacity),
+            new ConnectionPool.Options(
+                64,
+                64,
+                Duration.ofMinutes(10),
+                Duration.ofMinutes(30),
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30)));
+    limiter = "adaptive".equals(limit) ? new QueryLimiter(64, 1, 64) : null;
+    repository = Repository.builder(ReplicaRouter.primaryOnly(pool)).limiter(limiter).build();
+    prime();
+  }
+
+  /**
+   * Runs {@link #PRIMING_QUERIES} queries from {@code capacity} threads: the load before the spike.
+   */
+  private void prime() {
+    ExecutorService clients = Executors.newFixedThreadPool(capacity);
+    try {
+      List<Callable<Object>> tasks = new ArrayList<>();
+      for (int i = 0; i < capacity; i++) {
+        tasks.add(
+            () -> {
+              for (int query = 0; query < PRIMING_QUERIES / capacity; query++) {
+                repository.getRatingSummary(query + 1);
+              }
+              return null;
+            });
+      }
+      for (Future<Object> result : clients.invokeAll(tasks)) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      clients.shutdown();
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void startIteration() {
+    acceptedMicros = Histogram.exponential(100, 2, 16);
+  }
+
+  @TearDown(Level.Iteration)
+  public void reportIteration() {
+    Histogram.Snapshot snapshot = acceptedMicros.snapshot();
+    System.out.printf(
+        "  accepted p50 <= %d us, p99 <= %d us, mean %.0f us%s%n",
+        snapshot.quantileUpperBound(0.5),
+        snapshot.quantileUpperBound(0.99),
+        snapshot.mean(),
+        limiter == null ? "" : ", limit " + limiter.limit());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.close();
+  }
+
+  @Benchmark
+  public Data getRatingSummary(final Outcomes outcomes) throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      Data data = repository.getRatingSummary(ThreadLocalRandom.current().nextLong(1, 1_000_000));
+      acceptedMicros.record((System.nanoTime() - startedAt) / 1_000);
+      outcomes.accepted++;
+      return data;
+    } catch (RejectedExecutionException e) {
+      outcomes.rejected++;
+      LockSupport.parkNanos(REJECTED_BACKOFF_NANOS);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package ratingservice.bench;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ratingservice.model.Data;
+import ratingservice.repository.Repository;
+
+/** Client-side JDBC overhead of each repository call against a zero-latency stub. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+  private Repository repository;
+  private List<Long> batchModIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    repository = new Repository(new StubDataSource(0));
+    batchModIds = new ArrayList<>();
+    for (long modId = 1; modId <= 100; modId++) {
+      batchModIds.add(modId);
+    }
+  }
+
+  @Benchmark
+  public long addRate() throws SQLException {
+    return repository.addRate(42L, 7L, 4);
+  }
+
+  @Benchmark
+  public Data getRatingSummary() throws SQLException {
+    return repository.getRatingSummary(42L);
+  }
+
+  @Benchmark
+  public Map<Long, Data> getRatingSummaries() throws SQLException {
+    return repository.getRatingSummaries(batchModIds);
+  }
+}
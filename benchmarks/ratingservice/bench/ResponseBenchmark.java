@@ -0,0 +1,47 @@
+package ratingservice.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rating.Rating;
+import ratingservice.model.Data;
+
+/** Cost of turning a {@link Data} summary into a GetRatesResponse and its wire bytes. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseBenchmark {
+
+  private final Data data = new Data(1_234_567, 123, 4_567, 89_012, 345_678, 795_187);
+
+  @Benchmark
+  public Rating.GetRatesResponse build() {
+    return toResponse(data);
+  }
+
+  @Benchmark
+  public byte[] buildAndSerialize() {
+    return toResponse(data).toByteArray();
+  }
+
+  private static Rating.GetRatesResponse toResponse(final Data data) {
+    return Rating.GetRatesResponse.newBuilder()
+        .setRatesTotal(data.getTotalRates())
+        .setRate1(data.getRate1Count())
+        .setRate2(data.getRate2Count())
+        .setRate3(data.getRate3Count())
+        .setRate4(data.getRate4Count())
+        .setRate5(data.getRate5Count())
+        .build();
+  }
+}
@@ -0,0 +1,65 @@
+package ratingservice.bench;
+
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ratingservice.Settings.LoggingConfigurator;
+import ratingservice.model.Data;
+import ratingservice.repository.Repository;
+import ratingservice.service.Service;
+
+/**
+ * Service overhead on its own: request logging context and future plumbing around an in-memory
+ * repository, run on the calling thread so no executor hand-off is measured. Logging is configured
+ * as in production so the gc profiler's B/op includes the logging context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+  private static final Data SUMMARY = new Data(15, 1, 2, 3, 4, 5);
+
+  private Service service;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    new LoggingConfigurator("INFO", "rating-service", "bench").configure();
+    Repository repository =
+        new Repository((DataSource) null) {
+          @Override
+          public long addRate(final long modId, final long authorId, final int rate) {
+            return modId;
+          }
+
+          @Override
+          public Data getRatingSummary(final long modId) {
+            return SUMMARY;
+          }
+        };
+    service = new Service(repository, Runnable::run);
+  }
+
+  @Benchmark
+  public Integer rateMod() {
+    return service.rateMod(42L, 7L, 4).toCompletableFuture().join();
+  }
+
+  @Benchmark
+  public Data getRatings() {
+    return service.getRatings(42L).toCompletableFuture().join();
+  }
+}
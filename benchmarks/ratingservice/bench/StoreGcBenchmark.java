@@ -0,0 +1,127 @@
+package ratingservice.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ratingservice.model.Data;
+import ratingservice.service.HistogramStore;
+
+/**
+ * GC cost of holding every mod's summary on the heap. A mixed GetRates/RateMod workload, nine reads
+ * to one rating, runs against a {@code ConcurrentHashMap<Long, Data>} replaced on every rating, the
+ * primitive heap table and the off-heap table. Each iteration prints the collections and pause time
+ * from the GC beans; run with {@code -prof gc} for allocation rates, and compare the sample-time
+ * tails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms3g", "-Xmx3g", "-XX:+UseG1GC", "-XX:MaxDirectMemorySize=2g"})
+public class StoreGcBenchmark {
+
+  @Param({"boxed", "heap", "offheap"})
+  public String layout;
+
+  @Param({"5000000"})
+  public int mods;
+
+  private ConcurrentHashMap<Long, Data> boxed;
+  private HistogramStore store;
+  private long gcCount;
+  private long gcMillis;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    if (layout.equals("boxed")) {
+      boxed = new ConcurrentHashMap<>(mods * 2);
+      for (long modId = 1; modId <= mods; modId++) {
+        boxed.put(modId, new Data(10, 0, 0, 10, 0, 0));
+      }
+    } else {
+      store = HistogramStoreBenchmark.create(layout, mods);
+    }
+    System.gc();
+  }
+
+  @Setup(Level.Iteration)
+  public void startIteration() {
+    gcCount = totalCollections();
+    gcMillis = totalCollectionMillis();
+  }
+
+  @TearDown(Level.Iteration)
+  public void endIteration() {
+    System.out.printf(
+        "%n%s: %d collections, %d ms in GC%n",
+        layout, totalCollections() - gcCount, totalCollectionMillis() - gcMillis);
+  }
+
+  @State(Scope.Thread)
+  public static class Counts {
+    final long[] counts = new long[HistogramStore.RATES];
+    final long[] delta = {1, 0, 0, 0, 1, 0};
+  }
+
+  @Benchmark
+  public Object mixed(final Counts counts) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long modId = random.nextLong(1, mods + 1L);
+    if (random.nextInt(10) == 0) {
+      if (boxed != null) {
+        return boxed.compute(modId, (id, data) -> plusFourStar(data));
+      }
+      store.countersChanged(modId, counts.delta, 1L);
+      return null;
+    }
+    if (boxed != null) {
+      return boxed.get(modId);
+    }
+    return store.read(modId, counts.counts) ? HistogramStore.toData(counts.counts) : null;
+  }
+
+  private static Data plusFourStar(final Data data) {
+    return new Data(
+        data.getTotalRates() + 1,
+        data.getRate1Count(),
+        data.getRate2Count(),
+        data.getRate3Count(),
+        data.getRate4Count() + 1,
+        data.getRate5Count());
+  }
+
+  private static long totalCollections() {
+    long total = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0, bean.getCollectionCount());
+    }
+    return total;
+  }
+
+  private static long totalCollectionMillis() {
+    long total = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      total += Math.max(0, bean.getCollectionTime());
+    }
+    return total;
+  }
+}
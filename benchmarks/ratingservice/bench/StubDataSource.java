@@ -0,0 +1,149 @@
+package ratingservice.bench;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * In-memory {@link DataSource} whose statements succeed after a fixed delay and return a single row
+ * in which every numeric column reads as {@code 1}. Good enough to drive {@code Repository} without
+ * a database.
+ */
+public final class StubDataSource implements DataSource {
+
+  private final long queryLatencyNanos;
+  private final int capacity;
+  private final AtomicInteger running = new AtomicInteger();
+
+  public StubDataSource(final long queryLatencyMicros) {
+    this(queryLatencyMicros, 0);
+  }
+
+  /**
+   * Models a database that runs {@code capacity} statements at full speed: beyond that every
+   * statement slows down in proportion to the number running, as if sharing its cores. Zero means
+   * unlimited.
+   */
+  public StubDataSource(final long queryLatencyMicros, final int capacity) {
+    this.queryLatencyNanos = TimeUnit.MICROSECONDS.toNanos(queryLatencyMicros);
+    this.capacity = capacity;
+  }
+
+  @Override
+  public Connection getConnection() {
+    return proxy(
+        Connection.class,
+        (proxy, method, args) ->
+            switch (method.getName()) {
+              case "prepareStatement" -> statement();
+              case "getAutoCommit", "isValid" -> true;
+              case "isClosed" -> false;
+              case "createArrayOf" -> null;
+              default -> null;
+            });
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password) {
+    return getConnection();
+  }
+
+  private PreparedStatement statement() {
+    return proxy(
+        PreparedStatement.class,
+        (proxy, method, args) ->
+            switch (method.getName()) {
+              case "executeQuery", "getGeneratedKeys" -> {
+                pause();
+                yield resultSet();
+              }
+              case "executeUpdate" -> {
+                pause();
+                yield 1;
+              }
+              case "executeBatch" -> {
+                pause();
+                yield new int[] {1};
+              }
+              default -> null;
+            });
+  }
+
+  private ResultSet resultSet() {
+    boolean[] consumed = {false};
+    return proxy(
+        ResultSet.class,
+        (proxy, method, args) ->
+            switch (method.getName()) {
+              case "next" -> {
+                boolean hasRow = !consumed[0];
+                consumed[0] = true;
+                yield hasRow;
+              }
+              case "getLong" -> 1L;
+              case "getInt" -> 1;
+              case "wasNull" -> false;
+              default -> null;
+            });
+  }
+
+  private void pause() {
+    if (queryLatencyNanos <= 0) {
+      return;
+    }
+    if (capacity <= 0) {
+      LockSupport.parkNanos(queryLatencyNanos);
+      return;
+    }
+    int concurrent = running.incrementAndGet();
+    try {
+      LockSupport.parkNanos(queryLatencyNanos * Math.max(capacity, concurrent) / capacity);
+    } finally {
+      running.decrementAndGet();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(
+      final Class<T> type, final java.lang.reflect.InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() {
+    return null;
+  }
+
+  @Override
+  public void setLogWriter(final PrintWriter out) {}
+
+  @Override
+  public void setLoginTimeout(final int seconds) {}
+
+  @Override
+  public int getLoginTimeout() {
+    return 0;
+  }
+
+  @Override
+  public Logger getParentLogger() {
+    return Logger.getGlobal();
+  }
+
+  @Override
+  public <T> T unwrap(final Class<T> iface) {
+    return null;
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> iface) {
+    return false;
+  }
+}
@@ -0,0 +1,33 @@
+-- +goose Up
+CREATE TABLE IF NOT EXISTS mod_rating_counters (
+    mod_id BIGINT PRIMARY KEY,
+    total BIGINT NOT NULL DEFAULT 0,
+    rate1 BIGINT NOT NULL DEFAULT 0,
+    rate2 BIGINT NOT NULL DEFAULT 0,
+    rate3 BIGINT NOT NULL DEFAULT 0,
+    rate4 BIGINT NOT NULL DEFAULT 0,
+    rate5 BIGINT NOT NULL DEFAULT 0
+);
+
+LOCK TABLE rates IN SHARE MODE;
+
+INSERT INTO mod_rating_counters (mod_id, total, rate1, rate2, rate3, rate4, rate5)
+SELECT mod_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE rate = 1),
+       COUNT(*) FILTER (WHERE rate = 2),
+       COUNT(*) FILTER (WHERE rate = 3),
+       COUNT(*) FILTER (WHERE rate = 4),
+       COUNT(*) FILTER (WHERE rate = 5)
+  FROM rates
+ GROUP BY mod_id
+ON CONFLICT (mod_id) DO UPDATE
+   SET total = EXCLUDED.total,
+       rate1 = EXCLUDED.rate1,
+       rate2 = EXCLUDED.rate2,
+       rate3 = EXCLUDED.rate3,
+       rate4 = EXCLUDED.rate4,
+       rate5 = EXCLUDED.rate5;
+
+-- +goose Down
+DROP TABLE IF EXISTS mod_rating_counters;
@@ -0,0 +1,33 @@
+-- +goose Up
+LOCK TABLE rates IN SHARE ROW EXCLUSIVE MODE;
+LOCK TABLE mod_rating_counters IN SHARE ROW EXCLUSIVE MODE;
+
+-- Keep only the latest rating per author and mod.
+DELETE FROM rates older
+ USING rates newer
+ WHERE newer.mod_id = older.mod_id
+   AND newer.author_id = older.author_id
+   AND newer.id > older.id;
+
+DELETE FROM mod_rating_counters;
+
+INSERT INTO mod_rating_counters (mod_id, total, rate1, rate2, rate3, rate4, rate5)
+SELECT mod_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE rate = 1),
+       COUNT(*) FILTER (WHERE rate = 2),
+       COUNT(*) FILTER (WHERE rate = 3),
+       COUNT(*) FILTER (WHERE rate = 4),
+       COUNT(*) FILTER (WHERE rate = 5)
+  FROM rates
+ GROUP BY mod_id;
+
+ALTER TABLE rates ADD CONSTRAINT uq_rates_mod_author UNIQUE (mod_id, author_id);
+
+-- The unique constraint's index covers the same columns.
+DROP INDEX IF EXISTS idx_rates_mod_author;
+
+-- +goose Down
+-- Removed duplicate ratings are not restored.
+CREATE INDEX IF NOT EXISTS idx_rates_mod_author ON rates(mod_id, author_id);
+ALTER TABLE rates DROP CONSTRAINT IF EXISTS uq_rates_mod_author;
@@ -0,0 +1,145 @@
+-- Online conversion of rates into a table hash-partitioned on mod_id, in three steps:
+--
+-- 1. This migration creates rates_partitioned next to rates and mirrors every
+--    write into it with a trigger. The partition count comes from the
+--    ratingservice.rates_partitions setting (default 16), e.g.
+--      PGOPTIONS='-c ratingservice.rates_partitions=64' goose up-to 20261018120000
+-- 2. Existing rows are copied in small committed batches while the service
+--    keeps running; the procedure can be interrupted and called again:
+--      CALL rates_partition_backfill(10000);
+-- 3. 20261018120100_swap_partitioned_rates copies whatever the backfill has not
+--    reached yet and swaps the tables under a short exclusive lock. It fails while
+--    the backfill is far behind, so on a large table a plain `goose up` stops after
+--    step 1 until `just rates-partition-backfill` has run.
+
+-- +goose Up
+CREATE TABLE rates_partitioned (
+    id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    mod_id BIGINT NOT NULL,
+    rate BIGINT NOT NULL,
+    CONSTRAINT rates_partitioned_pkey PRIMARY KEY (mod_id, id),
+    CONSTRAINT uq_rates_partitioned_mod_author UNIQUE (mod_id, author_id)
+) PARTITION BY HASH (mod_id);
+
+-- +goose StatementBegin
+DO $$
+DECLARE
+    partitions INT := COALESCE(
+        NULLIF(current_setting('ratingservice.rates_partitions', true), '')::INT, 16);
+BEGIN
+    IF partitions < 1 THEN
+        RAISE EXCEPTION 'ratingservice.rates_partitions must be positive, got %', partitions;
+    END IF;
+    FOR remainder IN 0 .. partitions - 1 LOOP
+        EXECUTE format(
+            'CREATE TABLE rates_p%s PARTITION OF rates_partitioned'
+            ' FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+            remainder, partitions, remainder);
+    END LOOP;
+END
+$$;
+-- +goose StatementEnd
+
+-- Rows up to high_water existed before mirroring started and are copied by the backfill.
+CREATE TABLE rates_partition_backfill_state (
+    high_water BIGINT NOT NULL,
+    copied_through BIGINT NOT NULL
+);
+
+-- +goose StatementBegin
+CREATE FUNCTION rates_partition_mirror() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        IF TG_OP = 'DELETE'
+           OR (OLD.mod_id, OLD.author_id) IS DISTINCT FROM (NEW.mod_id, NEW.author_id) THEN
+            DELETE FROM rates_partitioned
+             WHERE mod_id = OLD.mod_id AND author_id = OLD.author_id;
+        END IF;
+        IF TG_OP = 'DELETE' THEN
+            RETURN OLD;
+        END IF;
+    END IF;
+    -- An upsert rather than an update: the backfill may not have copied the old row yet.
+    INSERT INTO rates_partitioned (id, author_id, mod_id, rate)
+    VALUES (NEW.id, NEW.author_id, NEW.mod_id, NEW.rate)
+    ON CONFLICT (mod_id, author_id) DO UPDATE
+       SET id = EXCLUDED.id,
+           rate = EXCLUDED.rate;
+    RETURN NEW;
+END
+$$;
+-- +goose StatementEnd
+
+-- +goose StatementBegin
+CREATE FUNCTION rates_partition_truncate() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    TRUNCATE rates_partitioned;
+    RETURN NULL;
+END
+$$;
+-- +goose StatementEnd
+
+-- Copies rates with from_id < id <= to_id. Rows already mirrored are newer and win; FOR SHARE
+-- makes a concurrent update or delete of a copied row wait, so its trigger runs after the copy.
+-- +goose StatementBegin
+CREATE FUNCTION rates_partition_copy(from_id BIGINT, to_id BIGINT) RETURNS BIGINT
+LANGUAGE plpgsql AS $$
+DECLARE
+    copied BIGINT;
+BEGIN
+    INSERT INTO rates_partitioned (id, author_id, mod_id, rate)
+    SELECT id, author_id, mod_id, rate
+      FROM rates
+     WHERE id > from_id AND id <= to_id
+       FOR SHARE
+    ON CONFLICT (mod_id, author_id) DO NOTHING;
+    GET DIAGNOSTICS copied = ROW_COUNT;
+    RETURN copied;
+END
+$$;
+-- +goose StatementEnd
+
+-- +goose StatementBegin
+CREATE PROCEDURE rates_partition_backfill(batch_size BIGINT DEFAULT 10000)
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_id BIGINT;
+    to_id BIGINT;
+    target BIGINT;
+BEGIN
+    SELECT copied_through, high_water INTO from_id, target FROM rates_partition_backfill_state;
+    WHILE from_id < target LOOP
+        to_id := LEAST(from_id + batch_size, target);
+        PERFORM rates_partition_copy(from_id, to_id);
+        UPDATE rates_partition_backfill_state SET copied_through = to_id;
+        COMMIT;
+        from_id := to_id;
+    END LOOP;
+END
+$$;
+-- +goose StatementEnd
+
+-- Waits for in-flight writes so every row up to high_water is committed before mirroring starts.
+LOCK TABLE rates IN SHARE ROW EXCLUSIVE MODE;
+
+INSERT INTO rates_partition_backfill_state (high_water, copied_through)
+SELECT COALESCE(MAX(id), 0), 0 FROM rates;
+
+CREATE TRIGGER rates_partition_mirror
+AFTER INSERT OR UPDATE OR DELETE ON rates
+FOR EACH ROW EXECUTE FUNCTION rates_partition_mirror();
+
+CREATE TRIGGER rates_partition_truncate
+AFTER TRUNCATE ON rates
+FOR EACH STATEMENT EXECUTE FUNCTION rates_partition_truncate();
+
+-- +goose Down
+DROP TRIGGER IF EXISTS rates_partition_truncate ON rates;
+DROP TRIGGER IF EXISTS rates_partition_mirror ON rates;
+DROP PROCEDURE IF EXISTS rates_partition_backfill(BIGINT);
+DROP FUNCTION IF EXISTS rates_partition_copy(BIGINT, BIGINT);
+DROP FUNCTION IF EXISTS rates_partition_truncate();
+DROP FUNCTION IF EXISTS rates_partition_mirror();
+DROP TABLE IF EXISTS rates_partition_backfill_state;
+DROP TABLE IF EXISTS rates_partitioned;
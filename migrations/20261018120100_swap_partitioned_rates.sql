@@ -0,0 +1,72 @@
+-- Completes the conversion started in 20261018120000_partition_rates_by_mod. Only rows the
+-- backfill has not copied yet are copied here while writes are blocked, so the migration
+-- refuses to run while more than ratingservice.rates_swap_max_uncopied ids (default 10000)
+-- are left; run CALL rates_partition_backfill() first. The old table is kept as
+-- rates_unpartitioned for rollback and can be dropped once the new one has been verified.
+
+-- +goose Up
+-- +goose StatementBegin
+DO $$
+DECLARE
+    max_uncopied BIGINT := COALESCE(
+        NULLIF(current_setting('ratingservice.rates_swap_max_uncopied', true), '')::BIGINT, 10000);
+    uncopied BIGINT;
+BEGIN
+    SELECT high_water - copied_through INTO uncopied FROM rates_partition_backfill_state;
+    IF uncopied > max_uncopied THEN
+        RAISE EXCEPTION 'rates backfill has % ids left to copy, more than the % allowed under the swap lock',
+                uncopied, max_uncopied
+            USING HINT = 'Run CALL rates_partition_backfill(); first, or raise'
+                         ' ratingservice.rates_swap_max_uncopied.';
+    END IF;
+END
+$$;
+-- +goose StatementEnd
+
+LOCK TABLE rates IN ACCESS EXCLUSIVE MODE;
+
+SELECT rates_partition_copy(copied_through, high_water) FROM rates_partition_backfill_state;
+
+DROP TRIGGER rates_partition_truncate ON rates;
+DROP TRIGGER rates_partition_mirror ON rates;
+
+ALTER TABLE rates RENAME TO rates_unpartitioned;
+ALTER TABLE rates_unpartitioned RENAME CONSTRAINT rates_pkey TO rates_unpartitioned_pkey;
+ALTER TABLE rates_unpartitioned
+    RENAME CONSTRAINT uq_rates_mod_author TO uq_rates_unpartitioned_mod_author;
+ALTER INDEX idx_rates_mod_id RENAME TO idx_rates_unpartitioned_mod_id;
+ALTER TABLE rates_unpartitioned ALTER COLUMN id DROP DEFAULT;
+
+ALTER TABLE rates_partitioned RENAME TO rates;
+ALTER TABLE rates RENAME CONSTRAINT rates_partitioned_pkey TO rates_pkey;
+ALTER TABLE rates RENAME CONSTRAINT uq_rates_partitioned_mod_author TO uq_rates_mod_author;
+ALTER SEQUENCE rates_id_seq OWNED BY rates.id;
+ALTER TABLE rates ALTER COLUMN id SET DEFAULT nextval('rates_id_seq');
+
+DROP PROCEDURE rates_partition_backfill(BIGINT);
+DROP FUNCTION rates_partition_copy(BIGINT, BIGINT);
+DROP FUNCTION rates_partition_truncate();
+DROP FUNCTION rates_partition_mirror();
+DROP TABLE rates_partition_backfill_state;
+
+-- +goose Down
+-- Ratings written since the swap are copied back; the partitioned table is kept as
+-- rates_partitioned so the previous migration's Down can drop it.
+LOCK TABLE rates IN ACCESS EXCLUSIVE MODE;
+
+TRUNCATE rates_unpartitioned;
+INSERT INTO rates_unpartitioned (id, author_id, mod_id, rate)
+SELECT id, author_id, mod_id, rate FROM rates;
+
+ALTER TABLE rates ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE rates RENAME CONSTRAINT uq_rates_mod_author TO uq_rates_partitioned_mod_author;
+ALTER TABLE rates RENAME CONSTRAINT rates_pkey TO rates_partitioned_pkey;
+ALTER TABLE rates RENAME TO rates_partitioned;
+
+ALTER TABLE rates_unpartitioned RENAME TO rates;
+ALTER INDEX idx_rates_unpartitioned_mod_id RENAME TO idx_rates_mod_id;
+ALTER TABLE rates
+    RENAME CONSTRAINT uq_rates_unpartitioned_mod_author TO uq_rates_mod_author;
+ALTER TABLE rates RENAME CONSTRAINT rates_unpartitioned_pkey TO rates_pkey;
+ALTER SEQUENCE rates_id_seq OWNED BY rates.id;
+ALTER TABLE rates ALTER COLUMN id SET DEFAULT nextval('rates_id_seq');
@@ -0,0 +1,8 @@
+-- +goose Up
+-- Lets per-mod histograms (GROUP BY rate) and counter rebuilds run as index-only scans.
+-- idx_rates_mod_id was left behind on rates_unpartitioned by the partition swap; mod_id
+-- lookups are covered by this index and uq_rates_mod_author.
+CREATE INDEX IF NOT EXISTS idx_rates_mod_rate ON rates (mod_id, rate);
+
+-- +goose Down
+DROP INDEX IF EXISTS idx_rates_mod_rate;
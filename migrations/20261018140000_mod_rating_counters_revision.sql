@@ -0,0 +1,29 @@
+-- +goose Up
+-- Every change to a mod's counters gets a new revision, so a rating snapshot tagged with a
+-- revision can be brought up to date by re-reading only the mods changed after it. Ratings are
+-- updated in place, so rates.id alone cannot tell which mods changed.
+CREATE SEQUENCE IF NOT EXISTS mod_rating_counters_revision_seq;
+
+ALTER TABLE mod_rating_counters ADD COLUMN IF NOT EXISTS revision BIGINT NOT NULL DEFAULT 0;
+
+-- +goose StatementBegin
+CREATE OR REPLACE FUNCTION mod_rating_counters_bump_revision() RETURNS trigger AS $$
+BEGIN
+    NEW.revision := nextval('mod_rating_counters_revision_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+-- +goose StatementEnd
+
+CREATE TRIGGER mod_rating_counters_revision
+    BEFORE INSERT OR UPDATE ON mod_rating_counters
+    FOR EACH ROW EXECUTE FUNCTION mod_rating_counters_bump_revision();
+
+CREATE INDEX IF NOT EXISTS idx_mod_rating_counters_revision ON mod_rating_counters (revision);
+
+-- +goose Down
+DROP INDEX IF EXISTS idx_mod_rating_counters_revision;
+DROP TRIGGER IF EXISTS mod_rating_counters_revision ON mod_rating_counters;
+DROP FUNCTION IF EXISTS mod_rating_counters_bump_revision();
+ALTER TABLE mod_rating_counters DROP COLUMN IF EXISTS revision;
+DROP SEQUENCE IF EXISTS mod_rating_counters_revision_seq;
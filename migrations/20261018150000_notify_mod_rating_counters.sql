@@ -0,0 +1,54 @@
+-- +goose Up
+-- Tells every node listening on mod_rating_counters which mods' counters a committed statement
+-- changed, so they can drop cached summaries. One notification per statement carries the
+-- comma-separated mod ids; statements touching more mods than fit in a payload, deletes and
+-- truncates send '*' instead, which makes listeners drop everything.
+-- +goose StatementBegin
+CREATE OR REPLACE FUNCTION mod_rating_counters_notify() RETURNS trigger AS $$
+DECLARE
+    changed_mods BIGINT;
+    payload TEXT;
+BEGIN
+    SELECT COUNT(*), string_agg(mod_id::text, ',')
+      INTO changed_mods, payload
+      FROM changed;
+    IF changed_mods > 300 THEN
+        payload := '*';
+    END IF;
+    IF payload IS NOT NULL THEN
+        PERFORM pg_notify('mod_rating_counters', payload);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+-- +goose StatementEnd
+
+-- +goose StatementBegin
+CREATE OR REPLACE FUNCTION mod_rating_counters_notify_all() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('mod_rating_counters', '*');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+-- +goose StatementEnd
+
+CREATE TRIGGER mod_rating_counters_notify_insert
+    AFTER INSERT ON mod_rating_counters
+    REFERENCING NEW TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION mod_rating_counters_notify();
+
+CREATE TRIGGER mod_rating_counters_notify_update
+    AFTER UPDATE ON mod_rating_counters
+    REFERENCING NEW TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION mod_rating_counters_notify();
+
+CREATE TRIGGER mod_rating_counters_notify_delete
+    AFTER DELETE OR TRUNCATE ON mod_rating_counters
+    FOR EACH STATEMENT EXECUTE FUNCTION mod_rating_counters_notify_all();
+
+-- +goose Down
+DROP TRIGGER IF EXISTS mod_rating_counters_notify_delete ON mod_rating_counters;
+DROP TRIGGER IF EXISTS mod_rating_counters_notify_update ON mod_rating_counters;
+DROP TRIGGER IF EXISTS mod_rating_counters_notify_insert ON mod_rating_counters;
+DROP FUNCTION IF EXISTS mod_rating_counters_notify_all();
+DROP FUNCTION IF EXISTS mod_rating_counters_notify();
@@ -0,0 +1,115 @@
+package ratingservice;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratingservice.Settings.AppConfig;
+import ratingservice.Settings.DataSourceFactory;
+import ratingservice.Settings.LoggingConfigurator;
+import ratingservice.repository.BulkLoader;
+
+/**
+ * Offline loader for {@code rates}, configured from the same environment as {@link Server}.
+ *
+ * <pre>
+ * BulkLoad FILE [--format=csv|binary] [--header] [--replace] [--buffer-bytes=N]
+ * </pre>
+ */
+public final class BulkLoad {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BulkLoad.class);
+  private static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+  private BulkLoad() {}
+
+  public static void main(final String[] args) {
+    Options options;
+    try {
+      options = Options.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println(
+          "Usage: BulkLoad FILE [--format=csv|binary] [--header] [--replace]"
+              + " [--buffer-bytes=N]");
+      System.exit(2);
+      return;
+    }
+
+    AppConfig config;
+    try {
+      config = AppConfig.load();
+    } catch (Exception e) {
+      System.err.println("Failed to load configuration: " + e.getMessage());
+      System.exit(1);
+      return;
+    }
+    new LoggingConfigurator(config.logLevel(), config.serviceName(), config.environment())
+        .configure();
+
+    BulkLoader loader =
+        new BulkLoader(DataSourceFactory.createUnpooled(config), options.bufferBytes());
+    LOGGER.info(
+        "Loading {} as {}{}",
+        options.file(),
+        options.format().name().toLowerCase(Locale.ROOT),
+        options.replace() ? " (replacing existing ratings)" : "");
+    try (InputStream input =
+        new BufferedInputStream(Files.newInputStream(options.file()), options.bufferBytes())) {
+      BulkLoader.Result result =
+          loader.load(input, options.format(), options.header(), options.replace());
+      LOGGER.info("Bulk load finished: {}", result);
+    } catch (Exception e) {
+      LOGGER.error("Bulk load failed; no changes were committed", e);
+      System.exit(1);
+    }
+  }
+
+  record Options(
+      Path file, BulkLoader.Format format, boolean header, boolean replace, int bufferBytes) {
+
+    static Options parse(final String[] args) {
+      Path file = null;
+      BulkLoader.Format format = BulkLoader.Format.CSV;
+      boolean header = false;
+      boolean replace = false;
+      int bufferBytes = DEFAULT_BUFFER_BYTES;
+      for (String arg : args) {
+        if (arg.startsWith("--format=")) {
+          String value = arg.substring("--format=".length());
+          try {
+            format = BulkLoader.Format.valueOf(value.toUpperCase(Locale.ROOT));
+          } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format: " + value, e);
+          }
+        } else if (arg.equals("--header")) {
+          header = true;
+        } else if (arg.equals("--replace")) {
+          replace = true;
+        } else if (arg.startsWith("--buffer-bytes=")) {
+          try {
+            bufferBytes = Integer.parseInt(arg.substring("--buffer-bytes=".length()));
+          } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid buffer size: " + arg, e);
+          }
+          if (bufferBytes < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive: " + arg);
+          }
+        } else if (arg.startsWith("--")) {
+          throw new IllegalArgumentException("Unknown option: " + arg);
+        } else if (file == null) {
+          file = Path.of(arg);
+        } else {
+          throw new IllegalArgumentException("Only one input file may be given");
+        }
+      }
+      if (file == null) {
+        throw new IllegalArgumentException("Missing input file");
+      }
+      return new Options(file, format, header, replace, bufferBytes);
+    }
+  }
+}
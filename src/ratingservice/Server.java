@@ -1,22 +1,53 @@
 package ratingservice;
 
+import io.grpc.ServerInterceptors;
 import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
 import io.grpc.protobuf.services.ProtoReflectionService;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ratingservice.Settings.AppConfig;
 import ratingservice.Settings.DataSourceFactory;
+import ratingservice.Settings.ExecutorMode;
 import ratingservice.Settings.LoggingConfigurator;
+import ratingservice.datasource.ConnectionPool;
+import ratingservice.datasource.ReplicaRouter;
+import ratingservice.executor.AdmissionControl;
+import ratingservice.executor.VirtualThreadExecutor;
 import ratingservice.handler.Handler;
+import ratingservice.metrics.AdminServer;
+import ratingservice.metrics.GrpcServerMetrics;
+import ratingservice.metrics.Histogram;
+import ratingservice.metrics.MetricsRegistry;
+import ratingservice.repository.CounterChangeFeed;
+import ratingservice.repository.QueryLimiter;
 import ratingservice.repository.Repository;
+import ratingservice.service.HistogramStore;
+import ratingservice.service.OffHeapHistogramStore;
+import ratingservice.service.RateWriteBatcher;
+import ratingservice.service.RatesWatchHub;
+import ratingservice.service.RatingHistogramStore;
+import ratingservice.service.RatingSnapshot;
 import ratingservice.service.Service;
+import ratingservice.service.SummaryCache;
 
 public final class Server {
 
@@ -40,16 +71,111 @@ public final class Server {
     loggingConfigurator.configure();
 
     ExecutorService workerPool = createWorkerPool(config);
+    MetricsRegistry metrics = new MetricsRegistry();
+    registerWorkerPoolMetrics(metrics, workerPool);
+    AdmissionControl admission = createAdmissionControl(config, workerPool);
+    registerAdmissionMetrics(metrics, admission);
+    AdminServer adminServer = null;
     DataSource dataSource = null;
+    ReplicaRouter router = null;
+    RateWriteBatcher writeBatcher = null;
+    RatesWatchHub watchHub = null;
+    ScheduledExecutorService snapshotWriter = null;
+    CounterChangeFeed changeFeed = null;
     try {
       dataSource = DataSourceFactory.create(config);
-      Repository repository = new Repository(dataSource);
-      Service service = new Service(repository, workerPool);
-      Handler handler = new Handler(service);
+      LOGGER.info(
+          "Database connection pool configured (min={}, max={})",
+          config.pool().minSize(),
+          config.pool().maxSize());
+      List<DataSource> replicas = DataSourceFactory.createReplicas(config);
+      registerPoolMetrics(metrics, dataSource, replicas);
+      router =
+          new ReplicaRouter(
+              dataSource,
+              replicas,
+              Duration.ofMillis(Math.max(0, config.replicas().stalenessMillis())));
+      if (!config.replicas().urls().isEmpty()) {
+        LOGGER.info(
+            "Routing rating reads to {} replicas (stalenessMs={})",
+            config.replicas().urls().size(),
+            config.replicas().stalenessMillis());
+      }
+      registerReplicaMetrics(metrics, router);
+      HistogramStore store = createStore(config);
+      QueryLimiter limiter = createQueryLimiter(config);
+      Repository repository =
+          Repository.builder(router).counterListener(store).limiter(limiter).build();
+      registerRepositoryMetrics(metrics, repository);
+      if (limiter != null) {
+        registerLimiterMetrics(metrics, limiter);
+      }
+      if (store != null) {
+        Path snapshotPath =
+            config.memoryStore().snapshotPath() == null
+                ? null
+                : Path.of(config.memoryStore().snapshotPath());
+        boolean restored = warmStore(store, repository, snapshotPath);
+        registerStoreMetrics(metrics, store);
+        if (snapshotPath != null) {
+          snapshotWriter =
+              startSnapshotWriter(
+                  repository,
+                  snapshotPath,
+                  Math.max(1_000, config.memoryStore().snapshotIntervalMillis()),
+                  restored);
+        }
+      }
+      SummaryCache cache =
+          new SummaryCache(
+              Math.max(0, config.cache().maxEntries()),
+              Duration.ofMillis(config.cache().ttlMillis()));
+      if (cache.isEnabled()) {
+        registerCacheMetrics(metrics, cache);
+      }
+      if (config.writeBatch().enabled()) {
+        writeBatcher =
+            new RateWriteBatcher(
+                repository,
+                config.writeBatch().maxSize(),
+                Duration.ofMillis(config.writeBatch().maxDelayMillis()),
+                workerQueueDepth(config));
+        LOGGER.info(
+            "RateMod write batching enabled (maxSize={}, maxDelayMs={}, maxPending={})",
+            config.writeBatch().maxSize(),
+            config.writeBatch().maxDelayMillis(),
+            workerQueueDepth(config));
+        registerWriteBatchMetrics(metrics, writeBatcher);
+      }
+      watchHub =
+          new RatesWatchHub(
+              repository, Duration.ofMillis(Math.max(1, config.watch().intervalMillis())));
+      Service service =
+          Service.builder(repository, workerPool)
+              .cache(cache)
+              .writeBatcher(writeBatcher)
+              .watchHub(watchHub)
+              .store(store)
+              .admission(admission)
+              .build();
+      // The store answers for every mod it is asked about, so it must see other nodes' ratings.
+      if (config.cache().listenForChanges() || store != null) {
+        changeFeed = new CounterChangeFeed(DataSourceFactory.createUnpooled(config), service);
+        LOGGER.info("Listening for rating changes from other nodes");
+      }
+      Handler handler = new Handler(service, Math.max(1, config.rateStream().chunkSize()));
+
+      GrpcServerMetrics grpcMetrics =
+          new GrpcServerMetrics(
+              metrics, Duration.ofMillis(Math.max(0, config.slowRequestThresholdMillis())));
+      if (config.adminPort() > 0) {
+        adminServer = new AdminServer(config.adminPort(), metrics);
+        LOGGER.info("Metrics served on http://0.0.0.0:{}/metrics", adminServer.port());
+      }
 
       io.grpc.Server grpcServer = null;
       try {
-        grpcServer = startServer(config.grpcPort(), handler);
+        grpcServer = startServer(config.grpcPort(), handler, watchHub, grpcMetrics);
         grpcServer.awaitTermination();
       } finally {
         shutdownServer(grpcServer);
@@ -58,16 +184,36 @@ public final class Server {
       LOGGER.error("Application terminated due to error", e);
       System.exit(1);
     } finally {
+      if (adminServer != null) {
+        adminServer.close();
+      }
+      if (changeFeed != null) {
+        changeFeed.close();
+      }
+      if (snapshotWriter != null) {
+        snapshotWriter.shutdownNow();
+      }
+      if (watchHub != null) {
+        watchHub.close();
+      }
+      closeWriteBatcher(writeBatcher);
+      if (router != null) {
+        router.close();
+      }
       closeDataSource(dataSource);
       shutdownExecutor(workerPool);
     }
   }
 
-  private static io.grpc.Server startServer(final int port, final Handler handler)
+  private static io.grpc.Server startServer(
+      final int port,
+      final Handler handler,
+      final RatesWatchHub watchHub,
+      final GrpcServerMetrics grpcMetrics)
       throws IOException {
     io.grpc.Server server =
         NettyServerBuilder.forPort(port)
-            .addService(handler)
+            .addService(ServerInterceptors.intercept(handler, grpcMetrics))
             .addService(ProtoReflectionService.newInstance())
             .build();
     server.start();
@@ -77,6 +223,8 @@ public final class Server {
             new Thread(
                 () -> {
                   LOGGER.info("Shutdown requested - stopping gRPC server");
+                  // Complete WatchRates streams so the graceful shutdown is not held open by them.
+                  watchHub.close();
                   shutdownServer(server);
                 },
                 "grpc-shutdown-hook"));
@@ -98,17 +246,376 @@ public final class Server {
     }
   }
 
+  private static HistogramStore createStore(final AppConfig config) {
+    if (!config.memoryStore().enabled()) {
+      return null;
+    }
+    int maxMods = Math.max(1, config.memoryStore().maxMods());
+    if (config.memoryStore().offHeap()) {
+      return new OffHeapHistogramStore(maxMods);
+    }
+    return new RatingHistogramStore(maxMods);
+  }
+
+  /**
+   * Loads the store from the snapshot at {@code snapshotPath} when there is a usable one, otherwise
+   * from a full scan of {@code rates}. Returns whether the snapshot was used.
+   */
+  private static boolean warmStore(
+      final HistogramStore store, final Repository repository, final Path snapshotPath)
+      throws IOException, SQLException {
+    long startedAt = System.nanoTime();
+    RatingSnapshot snapshot = null;
+    if (snapshotPath != null && Files.exists(snapshotPath)) {
+      try {
+        snapshot = RatingSnapshot.open(snapshotPath);
+      } catch (IOException e) {
+        LOGGER.warn("Ignoring unusable rating snapshot {}: {}", snapshotPath, e.getMessage());
+      }
+    }
+    HistogramStore.Stats stats =
+        snapshot == null ? store.warm(repository) : store.restore(snapshot, repository);
+    LOGGER.info(
+        "{} rating store warmed with {} mods {} in {} ms ({} KiB, {} bytes per mod)",
+        store instanceof OffHeapHistogramStore ? "Off-heap" : "In-memory",
+        stats.mods(),
+        snapshot == null
+            ? "from rates"
+            : "from snapshot at revision " + snapshot.revision() + " and later changes",
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+        stats.footprintBytes() / 1024,
+        stats.bytesPerMod());
+    if (stats.overflowed()) {
+      LOGGER.warn(
+          "Rating store cannot hold every mod (capacity {}); the rest are read from the database",
+          stats.capacity());
+    }
+    return snapshot != null;
+  }
+
+  /** Rewrites the snapshot every {@code intervalMillis}, right away if startup did not use one. */
+  private static ScheduledExecutorService startSnapshotWriter(
+      final Repository repository,
+      final Path snapshotPath,
+      final long intervalMillis,
+      final boolean restored) {
+    ScheduledExecutorService writer =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "rating-snapshot-writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    writer.scheduleWithFixedDelay(
+        () -> {
+          long startedAt = System.nanoTime();
+          try {
+            RatingSnapshot snapshot = RatingSnapshot.write(snapshotPath, repository);
+            LOGGER.info(
+                "Wrote rating snapshot of {} mods at revision {} in {} ms ({} KiB)",
+                snapshot.mods(),
+                snapshot.revision(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+                snapshot.bytes() / 1024);
+          } catch (Exception e) {
+            LOGGER.warn("Failed to write rating snapshot {}", snapshotPath, e);
+          }
+        },
+        restored ? intervalMillis : 0,
+        intervalMillis,
+        TimeUnit.MILLISECONDS);
+    return writer;
+  }
+
   private static ExecutorService createWorkerPool(final AppConfig config) {
+    if (config.executorMode() == ExecutorMode.VIRTUAL) {
+      int maxConcurrency = Math.max(1, config.pool().maxSize());
+      LOGGER.info("Using virtual-thread workers limited to {} concurrent tasks", maxConcurrency);
+      return new VirtualThreadExecutor(maxConcurrency);
+    }
     int poolSize = Math.max(1, config.workerThreads());
     ThreadFactory delegate = Executors.defaultThreadFactory();
     AtomicInteger threadIndex = new AtomicInteger(1);
-    return Executors.newFixedThreadPool(
+    // Every task is admitted through Service, which sheds it before the queue fills; batched
+    // writes complete on the batcher's own thread and never take a queue slot.
+    return new ThreadPoolExecutor(
+        poolSize,
         poolSize,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(workerQueueDepth(config)),
         runnable -> {
           Thread thread = delegate.newThread(runnable);
           thread.setName(config.serviceName() + "-worker-" + threadIndex.getAndIncrement());
           thread.setDaemon(true);
           return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  private static AdmissionControl createAdmissionControl(
+      final AppConfig config, final ExecutorService workerPool) {
+    int workers =
+        workerPool instanceof VirtualThreadExecutor virtual
+            ? virtual.maxConcurrency()
+            : Math.max(1, config.workerThreads());
+    return new AdmissionControl(workers, workerQueueDepth(config));
+  }
+
+  private static int workerQueueDepth(final AppConfig config) {
+    return Math.max(1, config.workerQueueDepth());
+  }
+
+  private static void registerWorkerPoolMetrics(
+      final MetricsRegistry metrics, final ExecutorService workerPool) {
+    if (workerPool instanceof ThreadPoolExecutor fixed) {
+      metrics.gauge(
+          "worker_pool_queue_depth",
+          "Tasks waiting for a worker thread.",
+          () -> fixed.getQueue().size());
+      metrics.gauge(
+          "worker_pool_active_threads", "Worker threads running a task.", fixed::getActiveCount);
+    } else if (workerPool instanceof VirtualThreadExecutor virtual) {
+      metrics.gauge(
+          "worker_pool_queue_depth",
+          "Tasks waiting for a concurrency permit.",
+          virtual::waitingCount);
+      metrics.gauge(
+          "worker_pool_active_threads",
+          "Tasks holding a concurrency permit.",
+          virtual::activeCount);
+    }
+  }
+
+  private static void registerAdmissionMetrics(
+      final MetricsRegistry metrics, final AdmissionControl admission) {
+    metrics.register(
+        "worker_pool_shed_total",
+        MetricsRegistry.Type.COUNTER,
+        "Tasks rejected before reaching a worker, by reason.",
+        samples -> {
+          for (AdmissionControl.Reason reason : AdmissionControl.Reason.values()) {
+            samples.value(
+                MetricsRegistry.label("reason", reason.name().toLowerCase(Locale.ROOT)),
+                admission.shedCount(reason));
+          }
+        });
+  }
+
+  private static QueryLimiter createQueryLimiter(final AppConfig config) {
+    if (!config.concurrencyLimit().enabled()) {
+      return null;
+    }
+    int maxLimit =
+        config.concurrencyLimit().maxLimit() > 0
+            ? config.concurrencyLimit().maxLimit()
+            : Math.max(1, config.pool().maxSize());
+    int minLimit = Math.max(1, Math.min(maxLimit, config.concurrencyLimit().minLimit()));
+    LOGGER.info("Adaptive database concurrency limit between {} and {}", minLimit, maxLimit);
+    return new QueryLimiter(maxLimit, minLimit, maxLimit);
+  }
+
+  private static void registerLimiterMetrics(
+      final MetricsRegistry metrics, final QueryLimiter limiter) {
+    metrics.gauge(
+        "repository_concurrency_limit",
+        "Current adaptive limit on single-request queries in flight.",
+        limiter::limit);
+    metrics.gauge(
+        "repository_queries_in_flight", "Single-request queries in flight.", limiter::inFlight);
+    metrics.register(
+        "repository_limit_rejected_total",
+        MetricsRegistry.Type.COUNTER,
+        "Queries rejected at the concurrency limit.",
+        samples -> samples.value("", limiter.rejectedCount()));
+  }
+
+  /** Pools are labelled {@code primary} and {@code replica-<n>}, in configuration order. */
+  private static void registerPoolMetrics(
+      final MetricsRegistry metrics, final DataSource primary, final List<DataSource> replicas) {
+    Map<String, ConnectionPool> pools = new LinkedHashMap<>();
+    if (primary instanceof ConnectionPool pool) {
+      pools.put("primary", pool);
+    }
+    for (int i = 0; i < replicas.size(); i++) {
+      if (replicas.get(i) instanceof ConnectionPool pool) {
+        pools.put("replica-" + i, pool);
+      }
+    }
+    registerPoolFamily(
+        metrics,
+        pools,
+        MetricsRegistry.Type.GAUGE,
+        "db_pool_active_connections",
+        "Connections handed out.",
+        ConnectionPool.Stats::active);
+    registerPoolFamily(
+        metrics,
+        pools,
+        MetricsRegistry.Type.GAUGE,
+        "db_pool_idle_connections",
+        "Connections ready to hand out.",
+        ConnectionPool.Stats::idle);
+    registerPoolFamily(
+        metrics,
+        pools,
+        MetricsRegistry.Type.GAUGE,
+        "db_pool_waiting_threads",
+        "Callers waiting for a connection.",
+        ConnectionPool.Stats::waiting);
+    registerPoolFamily(
+        metrics,
+        pools,
+        MetricsRegistry.Type.GAUGE,
+        "db_pool_max_borrow_seconds",
+        "Longest wait for a connection since startup.",
+        stats -> stats.maxBorrowNanos() * 1e-9);
+    registerPoolFamily(
+        metrics,
+        pools,
+        MetricsRegistry.Type.COUNTER,
+        "db_pool_borrows_total",
+        "Connections handed out.",
+        ConnectionPool.Stats::borrowCount);
+    registerPoolFamily(
+        metrics,
+        pools,
+        MetricsRegistry.Type.COUNTER,
+        "db_pool_borrow_seconds_total",
+        "Time callers spent waiting for a connection.",
+        stats -> stats.borrowNanos() * 1e-9);
+    registerPoolFamily(
+        metrics,
+        pools,
+        MetricsRegistry.Type.COUNTER,
+        "db_pool_timeouts_total",
+        "Callers that gave up waiting for a connection.",
+        ConnectionPool.Stats::timeoutCount);
+  }
+
+  private static void registerPoolFamily(
+      final MetricsRegistry metrics,
+      final Map<String, ConnectionPool> pools,
+      final MetricsRegistry.Type type,
+      final String name,
+      final String help,
+      final ToDoubleFunction<ConnectionPool.Stats> value) {
+    metrics.register(
+        name,
+        type,
+        help,
+        samples ->
+            pools.forEach(
+                (label, pool) ->
+                    samples.value(
+                        MetricsRegistry.label("pool", label), value.applyAsDouble(pool.stats()))));
+  }
+
+  private static void registerReplicaMetrics(
+      final MetricsRegistry metrics, final ReplicaRouter router) {
+    metrics.register(
+        "replica_reads_total",
+        MetricsRegistry.Type.COUNTER,
+        "Read connections handed out, by target.",
+        samples -> {
+          ReplicaRouter.Stats stats = router.stats();
+          samples.value(MetricsRegistry.label("target", "primary"), stats.primaryReads());
+          samples.value(MetricsRegistry.label("target", "replica"), stats.replicaReads());
+        });
+    metrics.register(
+        "replica_failures_total",
+        MetricsRegistry.Type.COUNTER,
+        "Replica connections that failed and fell back to the primary.",
+        samples -> samples.value("", router.stats().replicaFailures()));
+    metrics.register(
+        "replica_outstanding_connections",
+        MetricsRegistry.Type.GAUGE,
+        "Connections currently checked out, by replica.",
+        samples -> {
+          int[] outstanding = router.stats().outstanding();
+          for (int i = 0; i < outstanding.length; i++) {
+            samples.value(MetricsRegistry.label("replica", String.valueOf(i)), outstanding[i]);
+          }
+        });
+    metrics.register(
+        "replica_in_rotation",
+        MetricsRegistry.Type.GAUGE,
+        "1 while a replica takes reads, 0 while it backs off after a failure.",
+        samples -> {
+          boolean[] inRotation = router.stats().inRotation();
+          for (int i = 0; i < inRotation.length; i++) {
+            samples.value(
+                MetricsRegistry.label("replica", String.valueOf(i)), inRotation[i] ? 1 : 0);
+          }
+        });
+  }
+
+  private static void registerCacheMetrics(
+      final MetricsRegistry metrics, final SummaryCache cache) {
+    metrics.register(
+        "summary_cache_hits_total",
+        MetricsRegistry.Type.COUNTER,
+        "Rating summaries served from the cache.",
+        samples -> samples.value("", cache.stats().hits()));
+    metrics.register(
+        "summary_cache_misses_total",
+        MetricsRegistry.Type.COUNTER,
+        "Rating summary lookups the cache could not answer.",
+        samples -> samples.value("", cache.stats().misses()));
+    metrics.register(
+        "summary_cache_evictions_total",
+        MetricsRegistry.Type.COUNTER,
+        "Cached summaries dropped on expiry or to stay within the entry limit.",
+        samples -> samples.value("", cache.stats().evictions()));
+    metrics.gauge(
+        "summary_cache_entries", "Summaries currently cached.", () -> cache.stats().size());
+  }
+
+  private static void registerWriteBatchMetrics(
+      final MetricsRegistry metrics, final RateWriteBatcher writeBatcher) {
+    metrics.register(
+        "write_batch_size",
+        MetricsRegistry.Type.HISTOGRAM,
+        "Ratings written per batched flush.",
+        samples -> samples.histogram("", writeBatcher.batchSizes().snapshot(), 1));
+    metrics.register(
+        "write_batch_flush_seconds",
+        MetricsRegistry.Type.HISTOGRAM,
+        "Time spent writing one batch of ratings.",
+        samples -> samples.histogram("", writeBatcher.flushLatencyMicros().snapshot(), 1e-6));
+  }
+
+  private static void registerStoreMetrics(
+      final MetricsRegistry metrics, final HistogramStore store) {
+    metrics.gauge(
+        "rating_store_mods", "Mods held by the rating store.", () -> store.stats().mods());
+    metrics.gauge(
+        "rating_store_capacity",
+        "Mods the rating store can hold: a count on the heap, the highest mod id off it.",
+        () -> store.stats().capacity());
+    metrics.gauge(
+        "rating_store_footprint_bytes",
+        "Memory allocated to the rating store tables.",
+        () -> store.stats().footprintBytes());
+    metrics.gauge(
+        "rating_store_overflowed",
+        "1 once mods were left out of the rating store and are read from the database.",
+        () -> store.stats().overflowed() ? 1 : 0);
+  }
+
+  private static void registerRepositoryMetrics(
+      final MetricsRegistry metrics, final Repository repository) {
+    metrics.register(
+        "repository_query_seconds",
+        MetricsRegistry.Type.HISTOGRAM,
+        "Time spent in each repository query, including waiting for a connection.",
+        samples -> {
+          for (Repository.Query query : Repository.Query.values()) {
+            samples.histogram(
+                MetricsRegistry.label("query", query.name().toLowerCase(Locale.ROOT)),
+                repository.queryLatencyMicros(query).snapshot(),
+                1e-6);
+          }
         });
   }
 
@@ -127,6 +634,20 @@ public final class Server {
     }
   }
 
+  private static void closeWriteBatcher(final RateWriteBatcher writeBatcher) {
+    if (writeBatcher == null) {
+      return;
+    }
+    writeBatcher.close();
+    Histogram.Snapshot sizes = writeBatcher.batchSizes().snapshot();
+    Histogram.Snapshot latency = writeBatcher.flushLatencyMicros().snapshot();
+    LOGGER.info(
+        "Write batcher stopped after {} flushes (mean batch {}, p99 flush <= {} us)",
+        sizes.count(),
+        String.format(Locale.ROOT, "%.1f", sizes.mean()),
+        latency.quantileUpperBound(0.99));
+  }
+
   private static void closeDataSource(final DataSource dataSource) {
     if (dataSource instanceof AutoCloseable closeable) {
       try {
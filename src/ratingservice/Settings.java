@@ -13,9 +13,12 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -23,6 +26,8 @@ import javax.sql.DataSource;
 import org.postgresql.ds.PGSimpleDataSource;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import ratingservice.datasource.ConnectionPool;
+import ratingservice.logging.RequestContextTurboFilter;
 
 public final class Settings {
 
@@ -33,17 +38,48 @@ public final class Settings {
       String databaseUsername,
       String databasePassword,
       int grpcPort,
+      int adminPort,
+      long slowRequestThresholdMillis,
       String logLevel,
       String serviceName,
       String environment,
-      int workerThreads) {
+      ExecutorMode executorMode,
+      int workerThreads,
+      int workerQueueDepth,
+      PoolConfig pool,
+      ConcurrencyLimitConfig concurrencyLimit,
+      CacheConfig cache,
+      WriteBatchConfig writeBatch,
+      WatchConfig watch,
+      RateStreamConfig rateStream,
+      ReplicaConfig replicas,
+      MemoryStoreConfig memoryStore) {
 
     private static final int DEFAULT_GRPC_PORT = 6565;
+    private static final int DEFAULT_ADMIN_PORT = 9090;
+    private static final long DEFAULT_SLOW_REQUEST_THRESHOLD_MS = 1_000L;
     private static final String DEFAULT_LOG_LEVEL = "INFO";
     private static final String DEFAULT_SERVICE_NAME = "rating-service";
     private static final String DEFAULT_ENVIRONMENT = "development";
     private static final int DEFAULT_WORKER_THREADS =
         Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int DEFAULT_WORKER_QUEUE_DEPTH = 1_000;
+    private static final int DEFAULT_POOL_MIN_SIZE = 2;
+    private static final int DEFAULT_POOL_MAX_SIZE = 10;
+    private static final long DEFAULT_POOL_IDLE_TIMEOUT_MS = 600_000L;
+    private static final long DEFAULT_POOL_MAX_LIFETIME_MS = 1_800_000L;
+    private static final long DEFAULT_POOL_ACQUIRE_TIMEOUT_MS = 5_000L;
+    private static final long DEFAULT_POOL_VALIDATION_TIMEOUT_MS = 1_000L;
+    private static final int DEFAULT_CONCURRENCY_LIMIT_MIN = 2;
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 10_000;
+    private static final long DEFAULT_CACHE_TTL_MS = 5_000L;
+    private static final int DEFAULT_WRITE_BATCH_MAX_SIZE = 100;
+    private static final long DEFAULT_WRITE_BATCH_MAX_DELAY_MS = 5L;
+    private static final long DEFAULT_WATCH_INTERVAL_MS = 1_000L;
+    private static final int DEFAULT_RATE_STREAM_CHUNK_SIZE = 5_000;
+    private static final long DEFAULT_REPLICA_STALENESS_MS = 5_000L;
+    private static final int DEFAULT_MEMORY_STORE_MAX_MODS = 1_000_000;
+    private static final long DEFAULT_MEMORY_STORE_SNAPSHOT_INTERVAL_MS = 300_000L;
 
     public static AppConfig load() {
       Map<String, String> values = loadEnvironment();
@@ -57,23 +93,155 @@ public final class Settings {
               "SPRING_DATASOURCE_PASSWORD", values, optional("DATABASE_PASSWORD", values, null));
 
       int grpcPort = parseInt(optional("PORT", values, null), DEFAULT_GRPC_PORT, "PORT");
+      int adminPort =
+          parseInt(optional("ADMIN_PORT", values, null), DEFAULT_ADMIN_PORT, "ADMIN_PORT");
+      long slowRequestThresholdMillis =
+          parseLong(
+              optional("SLOW_REQUEST_THRESHOLD_MS", values, null),
+              DEFAULT_SLOW_REQUEST_THRESHOLD_MS,
+              "SLOW_REQUEST_THRESHOLD_MS");
       String logLevel = optional("LOG_LEVEL", values, DEFAULT_LOG_LEVEL).toUpperCase(Locale.ROOT);
       String serviceName = optional("SPRING_APPLICATION_NAME", values, DEFAULT_SERVICE_NAME);
       String environment = optional("ENVIRONMENT", values, DEFAULT_ENVIRONMENT);
 
+      ExecutorMode executorMode =
+          ExecutorMode.parse(optional("EXECUTOR_MODE", values, ExecutorMode.FIXED.name()));
       int workerThreads =
           parseInt(
               optional("WORKER_THREADS", values, null), DEFAULT_WORKER_THREADS, "WORKER_THREADS");
+      int workerQueueDepth =
+          parseInt(
+              optional("WORKER_QUEUE_DEPTH", values, null),
+              DEFAULT_WORKER_QUEUE_DEPTH,
+              "WORKER_QUEUE_DEPTH");
+
+      PoolConfig pool =
+          new PoolConfig(
+              parseInt(
+                  optional("DB_POOL_MIN_SIZE", values, null),
+                  DEFAULT_POOL_MIN_SIZE,
+                  "DB_POOL_MIN_SIZE"),
+              parseInt(
+                  optional("DB_POOL_MAX_SIZE", values, null),
+                  DEFAULT_POOL_MAX_SIZE,
+                  "DB_POOL_MAX_SIZE"),
+              parseLong(
+                  optional("DB_POOL_IDLE_TIMEOUT_MS", values, null),
+                  DEFAULT_POOL_IDLE_TIMEOUT_MS,
+                  "DB_POOL_IDLE_TIMEOUT_MS"),
+              parseLong(
+                  optional("DB_POOL_MAX_LIFETIME_MS", values, null),
+                  DEFAULT_POOL_MAX_LIFETIME_MS,
+                  "DB_POOL_MAX_LIFETIME_MS"),
+              parseLong(
+                  optional("DB_POOL_ACQUIRE_TIMEOUT_MS", values, null),
+                  DEFAULT_POOL_ACQUIRE_TIMEOUT_MS,
+                  "DB_POOL_ACQUIRE_TIMEOUT_MS"),
+              parseLong(
+                  optional("DB_POOL_VALIDATION_TIMEOUT_MS", values, null),
+                  DEFAULT_POOL_VALIDATION_TIMEOUT_MS,
+                  "DB_POOL_VALIDATION_TIMEOUT_MS"));
+
+      ConcurrencyLimitConfig concurrencyLimit =
+          new ConcurrencyLimitConfig(
+              parseBoolean(
+                  optional("DB_CONCURRENCY_LIMIT_ENABLED", values, null),
+                  false,
+                  "DB_CONCURRENCY_LIMIT_ENABLED"),
+              parseInt(
+                  optional("DB_CONCURRENCY_LIMIT_MIN", values, null),
+                  DEFAULT_CONCURRENCY_LIMIT_MIN,
+                  "DB_CONCURRENCY_LIMIT_MIN"),
+              parseInt(
+                  optional("DB_CONCURRENCY_LIMIT_MAX", values, null),
+                  0,
+                  "DB_CONCURRENCY_LIMIT_MAX"));
+
+      CacheConfig cache =
+          new CacheConfig(
+              parseInt(
+                  optional("CACHE_MAX_ENTRIES", values, null),
+                  DEFAULT_CACHE_MAX_ENTRIES,
+                  "CACHE_MAX_ENTRIES"),
+              parseLong(
+                  optional("CACHE_TTL_MS", values, null), DEFAULT_CACHE_TTL_MS, "CACHE_TTL_MS"),
+              parseBoolean(
+                  optional("CACHE_LISTEN_FOR_CHANGES", values, null),
+                  false,
+                  "CACHE_LISTEN_FOR_CHANGES"));
+
+      WriteBatchConfig writeBatch =
+          new WriteBatchConfig(
+              parseBoolean(
+                  optional("WRITE_BATCH_ENABLED", values, null), false, "WRITE_BATCH_ENABLED"),
+              parseInt(
+                  optional("WRITE_BATCH_MAX_SIZE", values, null),
+                  DEFAULT_WRITE_BATCH_MAX_SIZE,
+                  "WRITE_BATCH_MAX_SIZE"),
+              parseLong(
+                  optional("WRITE_BATCH_MAX_DELAY_MS", values, null),
+                  DEFAULT_WRITE_BATCH_MAX_DELAY_MS,
+                  "WRITE_BATCH_MAX_DELAY_MS"));
+
+      WatchConfig watch =
+          new WatchConfig(
+              parseLong(
+                  optional("WATCH_INTERVAL_MS", values, null),
+                  DEFAULT_WATCH_INTERVAL_MS,
+                  "WATCH_INTERVAL_MS"));
+
+      RateStreamConfig rateStream =
+          new RateStreamConfig(
+              parseInt(
+                  optional("RATE_STREAM_CHUNK_SIZE", values, null),
+                  DEFAULT_RATE_STREAM_CHUNK_SIZE,
+                  "RATE_STREAM_CHUNK_SIZE"));
+
+      ReplicaConfig replicas =
+          new ReplicaConfig(
+              parseList(optional("DATABASE_REPLICA_URLS", values, null)),
+              parseLong(
+                  optional("DATABASE_REPLICA_STALENESS_MS", values, null),
+                  DEFAULT_REPLICA_STALENESS_MS,
+                  "DATABASE_REPLICA_STALENESS_MS"));
+
+      MemoryStoreConfig memoryStore =
+          new MemoryStoreConfig(
+              parseBoolean(
+                  optional("MEMORY_STORE_ENABLED", values, null), false, "MEMORY_STORE_ENABLED"),
+              parseInt(
+                  optional("MEMORY_STORE_MAX_MODS", values, null),
+                  DEFAULT_MEMORY_STORE_MAX_MODS,
+                  "MEMORY_STORE_MAX_MODS"),
+              parseBoolean(
+                  optional("MEMORY_STORE_OFF_HEAP", values, null), false, "MEMORY_STORE_OFF_HEAP"),
+              optional("MEMORY_STORE_SNAPSHOT_PATH", values, null),
+              parseLong(
+                  optional("MEMORY_STORE_SNAPSHOT_INTERVAL_MS", values, null),
+                  DEFAULT_MEMORY_STORE_SNAPSHOT_INTERVAL_MS,
+                  "MEMORY_STORE_SNAPSHOT_INTERVAL_MS"));
 
       return new AppConfig(
           databaseUrl,
           blankToNull(databaseUsername),
           blankToNull(databasePassword),
           grpcPort,
+          adminPort,
+          slowRequestThresholdMillis,
           logLevel,
           serviceName,
           environment,
-          workerThreads);
+          executorMode,
+          workerThreads,
+          workerQueueDepth,
+          pool,
+          concurrencyLimit,
+          cache,
+          writeBatch,
+          watch,
+          rateStream,
+          replicas,
+          memoryStore);
     }
 
     private static Map<String, String> loadEnvironment() {
@@ -142,6 +310,45 @@ public final class Settings {
       }
     }
 
+    private static long parseLong(final String value, final long defaultValue, final String name) {
+      if (value == null || value.isBlank()) {
+        return defaultValue;
+      }
+      try {
+        return Long.parseLong(value.trim());
+      } catch (NumberFormatException e) {
+        throw new IllegalStateException("Invalid integer value for '" + name + "'", e);
+      }
+    }
+
+    private static boolean parseBoolean(
+        final String value, final boolean defaultValue, final String name) {
+      if (value == null || value.isBlank()) {
+        return defaultValue;
+      }
+      String normalized = value.trim().toLowerCase(Locale.ROOT);
+      if ("true".equals(normalized) || "1".equals(normalized)) {
+        return true;
+      }
+      if ("false".equals(normalized) || "0".equals(normalized)) {
+        return false;
+      }
+      throw new IllegalStateException("Invalid boolean value for '" + name + "'");
+    }
+
+    private static List<String> parseList(final String value) {
+      if (value == null) {
+        return List.of();
+      }
+      List<String> items = new ArrayList<>();
+      for (String item : value.split(",")) {
+        if (!item.isBlank()) {
+          items.add(item.trim());
+        }
+      }
+      return List.copyOf(items);
+    }
+
     private static String blankToNull(final String value) {
       if (value == null || value.isBlank()) {
         return null;
@@ -150,15 +357,122 @@ public final class Settings {
     }
   }
 
+  /**
+   * How {@code Service} work is scheduled: {@code FIXED} uses {@code WORKER_THREADS} platform
+   * threads, {@code VIRTUAL} uses one virtual thread per task limited by the connection pool size.
+   */
+  public enum ExecutorMode {
+    FIXED,
+    VIRTUAL;
+
+    static ExecutorMode parse(final String value) {
+      try {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalStateException(
+            "Invalid value for 'EXECUTOR_MODE': " + value + " (expected fixed or virtual)", e);
+      }
+    }
+  }
+
+  public record PoolConfig(
+      int minSize,
+      int maxSize,
+      long idleTimeoutMillis,
+      long maxLifetimeMillis,
+      long acquireTimeoutMillis,
+      long validationTimeoutMillis) {}
+
+  /**
+   * Adapts the number of single-request queries in flight to the latency the database delivers,
+   * between {@code minLimit} and {@code maxLimit}; queries over the limit fail with
+   * RESOURCE_EXHAUSTED. A {@code maxLimit} of zero uses the connection pool's maximum size.
+   */
+  public record ConcurrencyLimitConfig(boolean enabled, int minLimit, int maxLimit) {}
+
+  /**
+   * A {@code maxEntries} of zero disables the summary cache. With {@code listenForChanges} every
+   * node holds a {@code LISTEN} connection and drops cached summaries as soon as any node rates the
+   * mod, instead of serving them until {@code ttlMillis}. An enabled {@link MemoryStoreConfig
+   * memory store} always listens, whatever this is set to.
+   */
+  public record CacheConfig(int maxEntries, long ttlMillis, boolean listenForChanges) {}
+
+  public record WriteBatchConfig(boolean enabled, int maxSize, long maxDelayMillis) {}
+
+  /** {@code intervalMillis} is the minimum time between two WatchRates updates for one mod. */
+  public record WatchConfig(long intervalMillis) {}
+
+  /** Number of RateModStream requests written per transaction. */
+  public record RateStreamConfig(int chunkSize) {}
+
+  /**
+   * Read replicas use the primary's credentials and pool settings unless their URL carries its own.
+   * A mod written on this node is read from the primary for {@code stalenessMillis}.
+   */
+  public record ReplicaConfig(List<String> urls, long stalenessMillis) {}
+
+  /**
+   * Serves GetRates from memory; the table is allocated at startup. On the heap it holds {@code
+   * maxMods} mods of any id in 64-byte slots, at least 4/3 slots per mod rounded up to a power of
+   * two: about 128 MiB for the default million mods. Off the heap it holds mod ids up to {@code
+   * maxMods} at 56 bytes per id, outside the garbage-collected heap.
+   *
+   * <p>The store listens for ratings written through other nodes as with {@link
+   * CacheConfig#listenForChanges}, which holds one more database connection per node.
+   *
+   * <p>With a {@code snapshotPath} the counters are written there every {@code
+   * snapshotIntervalMillis}, and a restarting node loads that file instead of scanning {@code
+   * rates}.
+   */
+  public record MemoryStoreConfig(
+      boolean enabled,
+      int maxMods,
+      boolean offHeap,
+      String snapshotPath,
+      long snapshotIntervalMillis) {}
+
   public static final class DataSourceFactory {
 
+    private static final Duration HOUSEKEEPING_INTERVAL = Duration.ofSeconds(30);
+
     private DataSourceFactory() {
       // Utility class
     }
 
-    public static DataSource create(final AppConfig config) {
-      DatabaseUrlParser.DatabaseUrlComponents components =
-          DatabaseUrlParser.parse(config.databaseUrl());
+    public static ConnectionPool create(final AppConfig config) {
+      return createPool(config, createUnpooled(config));
+    }
+
+    /** One pool per configured replica, in the order given by {@code DATABASE_REPLICA_URLS}. */
+    public static List<DataSource> createReplicas(final AppConfig config) {
+      List<DataSource> replicas = new ArrayList<>();
+      for (String url : config.replicas().urls()) {
+        replicas.add(createPool(config, createUnpooled(config, url)));
+      }
+      return replicas;
+    }
+
+    private static ConnectionPool createPool(final AppConfig config, final DataSource unpooled) {
+      PoolConfig pool = config.pool();
+      return new ConnectionPool(
+          unpooled,
+          new ConnectionPool.Options(
+              pool.minSize(),
+              pool.maxSize(),
+              Duration.ofMillis(pool.idleTimeoutMillis()),
+              Duration.ofMillis(pool.maxLifetimeMillis()),
+              Duration.ofMillis(pool.acquireTimeoutMillis()),
+              Duration.ofMillis(pool.validationTimeoutMillis()),
+              HOUSEKEEPING_INTERVAL));
+    }
+
+    public static DataSource createUnpooled(final AppConfig config) {
+      return createUnpooled(config, config.databaseUrl());
+    }
+
+    private static DataSource createUnpooled(final AppConfig config, final String databaseUrl) {
+      DatabaseUrlParser.DatabaseUrlComponents components = DatabaseUrlParser.parse(databaseUrl);
 
       PGSimpleDataSource pgDataSource = new PGSimpleDataSource();
       pgDataSource.setServerNames(new String[] {components.host()});
@@ -352,6 +666,11 @@ public final class Settings {
       LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
       context.reset();
 
+      RequestContextTurboFilter requestContextFilter = new RequestContextTurboFilter();
+      requestContextFilter.setContext(context);
+      requestContextFilter.start();
+      context.addTurboFilter(requestContextFilter);
+
       PatternLayoutEncoder encoder = new PatternLayoutEncoder();
       encoder.setContext(context);
       encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %-5level [%thread] %logger{36} - %msg%n");
@@ -7,4 +7,6 @@ public final class Constants {
   public static final int RATE_3 = 3;
   public static final int RATE_4 = 4;
   public static final int RATE_5 = 5;
+
+  public static final int MAX_BATCH_MOD_IDS = 1000;
 }
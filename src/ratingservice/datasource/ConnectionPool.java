@@ -0,0 +1,421 @@
+package ratingservice.datasource;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded JDBC connection pool in front of a non-pooling {@link DataSource}.
+ *
+ * <p>At most {@code maxSize} connections are handed out at once; callers beyond that wait up to
+ * {@code acquireTimeout} and then fail with {@link SQLTransientConnectionException}. Idle
+ * connections above {@code minSize} are closed after {@code idleTimeout}, and every connection is
+ * retired once it is older than {@code maxLifetime}.
+ */
+public final class ConnectionPool implements DataSource, AutoCloseable {
+
+  private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(ConnectionPool.class);
+
+  /** Connections used more recently than this are handed out without a validation round trip. */
+  private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+  /** How often a borrower waiting on the housekeeper's connection checks whether it was opened. */
+  private static final long OPEN_RECHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final DataSource delegate;
+  private final Options options;
+  private final Semaphore permits;
+  private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+  private final AtomicInteger totalConnections = new AtomicInteger();
+  private final AtomicInteger activeConnections = new AtomicInteger();
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private final LongAdder borrowCount = new LongAdder();
+  private final LongAdder borrowNanos = new LongAdder();
+  private final LongAccumulator maxBorrowNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder timeoutCount = new LongAdder();
+  private final ScheduledExecutorService housekeeper;
+
+  public ConnectionPool(final DataSource delegate, final Options options) {
+    this.delegate = Objects.requireNonNull(delegate, "delegate");
+    this.options = Objects.requireNonNull(options, "options");
+    this.permits = new Semaphore(options.maxSize(), true);
+    this.housekeeper =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long intervalMillis = options.housekeepingInterval().toMillis();
+    housekeeper.scheduleWithFixedDelay(this::housekeep, 0, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    ensureOpen();
+    long startedAt = System.nanoTime();
+    long deadline = startedAt + options.acquireTimeout().toNanos();
+    try {
+      if (!permits.tryAcquire(options.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+        timeoutCount.increment();
+        throw new SQLTransientConnectionException(
+            "Connection pool exhausted: no connection available within "
+                + options.acquireTimeout().toMillis()
+                + " ms (active="
+                + activeConnections.get()
+                + ", max="
+                + options.maxSize()
+                + ")");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    }
+
+    try {
+      PooledConnection pooled = borrow(deadline);
+      activeConnections.incrementAndGet();
+      long elapsed = System.nanoTime() - startedAt;
+      borrowCount.increment();
+      borrowNanos.add(elapsed);
+      maxBorrowNanos.accumulate(elapsed);
+      return pooled.lease();
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password)
+      throws SQLException {
+    throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials");
+  }
+
+  public Stats stats() {
+    long borrows = borrowCount.sum();
+    return new Stats(
+        activeConnections.get(),
+        idle.size(),
+        permits.getQueueLength(),
+        totalConnections.get(),
+        borrows,
+        timeoutCount.sum(),
+        borrowNanos.sum(),
+        borrows == 0 ? 0 : borrowNanos.sum() / borrows,
+        maxBorrowNanos.get());
+  }
+
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    housekeeper.shutdownNow();
+    PooledConnection pooled;
+    while ((pooled = idle.pollFirst()) != null) {
+      destroy(pooled);
+    }
+    LOGGER.info("Connection pool closed ({})", stats());
+  }
+
+  private PooledConnection borrow(final long deadline) throws SQLException {
+    while (true) {
+      PooledConnection pooled = idle.pollFirst();
+      if (pooled == null) {
+        if (reserveSlot()) {
+          return open();
+        }
+        pooled = awaitHousekeeper(deadline);
+        if (pooled == null) {
+          continue;
+        }
+      }
+      if (isUsable(pooled)) {
+        return pooled;
+      }
+      destroy(pooled);
+    }
+  }
+
+  /**
+   * The housekeeper holds the slot this borrower's permit is owed while it opens a connection;
+   * blocks until that connection is offered, or returns null after a short wait so the caller can
+   * take the slot itself if the open failed.
+   */
+  private PooledConnection awaitHousekeeper(final long deadline) throws SQLException {
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0) {
+      timeoutCount.increment();
+      throw new SQLTransientConnectionException("Connection pool exhausted while opening");
+    }
+    try {
+      return idle.pollFirst(Math.min(remaining, OPEN_RECHECK_NANOS), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    }
+  }
+
+  private boolean isUsable(final PooledConnection pooled) {
+    long now = System.nanoTime();
+    if (pooled.isExpired(now, options.maxLifetime())) {
+      return false;
+    }
+    if (now - pooled.lastUsedAt < VALIDATION_BYPASS_NANOS) {
+      return true;
+    }
+    try {
+      int timeoutSeconds =
+          (int)
+              Math.max(1, TimeUnit.MILLISECONDS.toSeconds(options.validationTimeout().toMillis()));
+      return pooled.physical.isValid(timeoutSeconds);
+    } catch (SQLException e) {
+      LOGGER.debug("Discarding connection that failed validation", e);
+      return false;
+    }
+  }
+
+  private boolean reserveSlot() {
+    while (true) {
+      int current = totalConnections.get();
+      if (current >= options.maxSize()) {
+        return false;
+      }
+      if (totalConnections.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private PooledConnection open() throws SQLException {
+    try {
+      return new PooledConnection(delegate.getConnection());
+    } catch (SQLException | RuntimeException e) {
+      totalConnections.decrementAndGet();
+      throw e;
+    }
+  }
+
+  private void release(final PooledConnection pooled) {
+    activeConnections.decrementAndGet();
+    try {
+      if (closed.get()
+          || pooled.physical.isClosed()
+          || pooled.isExpired(System.nanoTime(), options.maxLifetime())) {
+        destroy(pooled);
+        return;
+      }
+      if (!pooled.physical.getAutoCommit()) {
+        pooled.physical.rollback();
+        pooled.physical.setAutoCommit(true);
+      }
+      pooled.lastUsedAt = System.nanoTime();
+      idle.offerFirst(pooled);
+    } catch (SQLException e) {
+      LOGGER.warn("Discarding connection that could not be reset", e);
+      destroy(pooled);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void destroy(final PooledConnection pooled) {
+    totalConnections.decrementAndGet();
+    try {
+      pooled.physical.close();
+    } catch (SQLException e) {
+      LOGGER.debug("Failed to close pooled connection", e);
+    }
+  }
+
+  private void housekeep() {
+    try {
+      long now = System.nanoTime();
+      long idleTimeoutNanos = options.idleTimeout().toNanos();
+      Iterator<PooledConnection> iterator = idle.descendingIterator();
+      while (iterator.hasNext()) {
+        PooledConnection pooled = iterator.next();
+        boolean expired = pooled.isExpired(now, options.maxLifetime());
+        boolean idleTooLong =
+            now - pooled.lastUsedAt > idleTimeoutNanos
+                && totalConnections.get() > options.minSize();
+        if ((expired || idleTooLong) && idle.removeLastOccurrence(pooled)) {
+          destroy(pooled);
+        }
+      }
+      while (!closed.get() && totalConnections.get() < options.minSize() && reserveSlot()) {
+        PooledConnection pooled = open();
+        pooled.lastUsedAt = System.nanoTime();
+        idle.offerLast(pooled);
+      }
+      LOGGER.debug("Connection pool stats: {}", stats());
+    } catch (SQLException | RuntimeException e) {
+      LOGGER.warn("Connection pool housekeeping failed", e);
+    }
+  }
+
+  private void ensureOpen() throws SQLException {
+    if (closed.get()) {
+      throw new SQLException("Connection pool is closed");
+    }
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return delegate.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(final PrintWriter out) throws SQLException {
+    delegate.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(final int seconds) throws SQLException {
+    delegate.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return delegate.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(final Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    return delegate.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || delegate.isWrapperFor(iface);
+  }
+
+  public record Options(
+      int minSize,
+      int maxSize,
+      Duration idleTimeout,
+      Duration maxLifetime,
+      Duration acquireTimeout,
+      Duration validationTimeout,
+      Duration housekeepingInterval) {
+
+    public Options {
+      if (maxSize < 1) {
+        throw new IllegalArgumentException("maxSize must be positive");
+      }
+      if (minSize < 0 || minSize > maxSize) {
+        throw new IllegalArgumentException("minSize must be between 0 and maxSize");
+      }
+      Objects.requireNonNull(idleTimeout, "idleTimeout");
+      Objects.requireNonNull(maxLifetime, "maxLifetime");
+      Objects.requireNonNull(acquireTimeout, "acquireTimeout");
+      Objects.requireNonNull(validationTimeout, "validationTimeout");
+      Objects.requireNonNull(housekeepingInterval, "housekeepingInterval");
+    }
+  }
+
+  /** Point-in-time pool counters; borrow latency figures are cumulative since startup. */
+  public record Stats(
+      int active,
+      int idle,
+      int waiting,
+      int total,
+      long borrowCount,
+      long timeoutCount,
+      long borrowNanos,
+      long meanBorrowNanos,
+      long maxBorrowNanos) {}
+
+  private final class PooledConnection {
+
+    private final Connection physical;
+    private final long createdAt = System.nanoTime();
+    private volatile long lastUsedAt = createdAt;
+
+    private PooledConnection(final Connection physical) {
+      this.physical = physical;
+    }
+
+    private boolean isExpired(final long now, final Duration maxLifetime) {
+      return now - createdAt > maxLifetime.toNanos();
+    }
+
+    private Connection lease() {
+      return (Connection)
+          Proxy.newProxyInstance(
+              Connection.class.getClassLoader(),
+              new Class<?>[] {Connection.class},
+              new Lease(this));
+    }
+  }
+
+  private final class Lease implements InvocationHandler {
+
+    private final PooledConnection pooled;
+    private final AtomicBoolean returned = new AtomicBoolean();
+
+    private Lease(final PooledConnection pooled) {
+      this.pooled = pooled;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args)
+        throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (returned.compareAndSet(false, true)) {
+            release(pooled);
+          }
+          return null;
+        case "isClosed":
+          return returned.get() || pooled.physical.isClosed();
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "PooledConnection[" + pooled.physical + "]";
+        default:
+          break;
+      }
+      if (returned.get()) {
+        throw new SQLException("Connection has already been returned to the pool");
+      }
+      try {
+        return method.invoke(pooled.physical, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
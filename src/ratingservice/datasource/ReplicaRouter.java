@@ -0,0 +1,331 @@
+package ratingservice.datasource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Splits connections between the primary and read replicas. Writes always use the primary; reads go
+ * to the replica with the fewest connections currently checked out.
+ *
+ * <p>Replicas lag the primary, so a mod written through this router is read from the primary until
+ * {@code staleness} has passed, giving this node read-your-writes for its own ratings. If a replica
+ * cannot hand out a connection the read falls back to the primary and the replica is taken out of
+ * rotation. One read tries it again after a backoff that doubles with every failed retry, from one
+ * second up to thirty; the first success puts it back.
+ */
+public final class ReplicaRouter implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaRouter.class);
+
+  /**
+   * Recent-write entries are swept once the map grows past this many mods, and after that once it
+   * has doubled since the last sweep, so sweeping costs amortized constant time per write.
+   */
+  private static final int SWEEP_THRESHOLD = 4_096;
+
+  private static final long MIN_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private final DataSource primary;
+  private final List<Replica> replicas;
+  private final long stalenessNanos;
+  private final LongSupplier clock;
+  private final ConcurrentHashMap<Long, Long> recentWrites = new ConcurrentHashMap<>();
+  private final AtomicInteger nextStart = new AtomicInteger();
+  private final AtomicInteger nextSweepSize = new AtomicInteger(SWEEP_THRESHOLD);
+  private final LongAdder primaryReads = new LongAdder();
+  private final LongAdder replicaReads = new LongAdder();
+  private final LongAdder replicaFailures = new LongAdder();
+
+  public ReplicaRouter(
+      final DataSource primary, final List<DataSource> replicas, final Duration staleness) {
+    this(primary, replicas, staleness, System::nanoTime);
+  }
+
+  ReplicaRouter(
+      final DataSource primary,
+      final List<DataSource> replicas,
+      final Duration staleness,
+      final LongSupplier clock) {
+    if (staleness.isNegative()) {
+      throw new IllegalArgumentException("staleness must not be negative");
+    }
+    this.primary = primary;
+    List<Replica> wrapped = new ArrayList<>(replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      wrapped.add(new Replica(i, Objects.requireNonNull(replicas.get(i), "replica")));
+    }
+    this.replicas = List.copyOf(wrapped);
+    this.stalenessNanos = staleness.toNanos();
+    this.clock = clock;
+  }
+
+  /** A router without replicas; every connection comes from {@code primary}. */
+  public static ReplicaRouter primaryOnly(final DataSource primary) {
+    return new ReplicaRouter(primary, List.of(), Duration.ZERO);
+  }
+
+  public Connection writeConnection() throws SQLException {
+    return primary.getConnection();
+  }
+
+  /** Connection for reading {@code modId}. */
+  public Connection readConnection(final long modId) throws SQLException {
+    if (replicas.isEmpty() || recentlyWritten(modId)) {
+      return readFromPrimary();
+    }
+    return readFromReplica();
+  }
+
+  /** Connection for reading all of {@code modIds}; the primary is used if any was just written. */
+  public Connection readConnection(final Collection<Long> modIds) throws SQLException {
+    if (replicas.isEmpty()) {
+      return readFromPrimary();
+    }
+    for (Long modId : modIds) {
+      if (recentlyWritten(modId)) {
+        return readFromPrimary();
+      }
+    }
+    return readFromReplica();
+  }
+
+  /** Called after a write touching {@code modId} has been committed on the primary. */
+  public void recordWrite(final long modId) {
+    if (replicas.isEmpty() || stalenessNanos == 0) {
+      return;
+    }
+    long now = clock.getAsLong();
+    recentWrites.put(modId, now + stalenessNanos);
+    int sweepSize = nextSweepSize.get();
+    // Claiming the sweep keeps concurrent writers from sweeping the same entries.
+    if (recentWrites.size() > sweepSize
+        && nextSweepSize.compareAndSet(sweepSize, Integer.MAX_VALUE)) {
+      recentWrites.values().removeIf(expiresAt -> expiresAt - now <= 0);
+      nextSweepSize.set(
+          (int) Math.min(Integer.MAX_VALUE, Math.max(SWEEP_THRESHOLD, 2L * recentWrites.size())));
+    }
+  }
+
+  /** Mods currently tracked as recently written, expired or not. */
+  int trackedWrites() {
+    return recentWrites.size();
+  }
+
+  public Stats stats() {
+    int[] outstanding = new int[replicas.size()];
+    boolean[] inRotation = new boolean[replicas.size()];
+    for (Replica replica : replicas) {
+      outstanding[replica.index] = replica.outstanding.get();
+      inRotation[replica.index] = replica.failures.get() == 0;
+    }
+    return new Stats(
+        primaryReads.sum(), replicaReads.sum(), replicaFailures.sum(), outstanding, inRotation);
+  }
+
+  /** Closes the replica data sources; the primary is owned by the caller. */
+  @Override
+  public void close() {
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception e) {
+          LOGGER.warn("Failed to close replica {} data source", replica.index, e);
+        }
+      }
+    }
+  }
+
+  private boolean recentlyWritten(final long modId) {
+    Long expiresAt = recentWrites.get(modId);
+    if (expiresAt == null) {
+      return false;
+    }
+    if (expiresAt - clock.getAsLong() > 0) {
+      return true;
+    }
+    recentWrites.remove(modId, expiresAt);
+    return false;
+  }
+
+  private Connection readFromPrimary() throws SQLException {
+    primaryReads.increment();
+    return primary.getConnection();
+  }
+
+  private Connection readFromReplica() throws SQLException {
+    Replica replica = leastOutstanding();
+    if (replica == null) {
+      return readFromPrimary();
+    }
+    boolean retry = replica.failures.get() > 0;
+    replica.outstanding.incrementAndGet();
+    Connection connection;
+    try {
+      connection = replica.dataSource.getConnection();
+    } catch (SQLException | RuntimeException e) {
+      replica.outstanding.decrementAndGet();
+      replicaFailures.increment();
+      takeOutOfRotation(replica, retry, e);
+      return readFromPrimary();
+    }
+    if (replica.failures.getAndSet(0) > 0) {
+      LOGGER.info("Replica {} is available again", replica.index);
+    }
+    replicaReads.increment();
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new Tracked(replica, connection));
+  }
+
+  /**
+   * Starts the scan at a rotating offset so ties are spread evenly across replicas. A replica out
+   * of rotation whose backoff has run out is returned to the one read that claims its retry; null
+   * when every replica is out of rotation.
+   */
+  private Replica leastOutstanding() {
+    int count = replicas.size();
+    int start = Math.floorMod(nextStart.getAndIncrement(), count);
+    long now = clock.getAsLong();
+    Replica best = null;
+    int bestOutstanding = Integer.MAX_VALUE;
+    for (int i = 0; i < count && bestOutstanding > 0; i++) {
+      Replica candidate = replicas.get((start + i) % count);
+      if (candidate.failures.get() > 0) {
+        long retryAt = candidate.retryAt.get();
+        // Pushing the retry time out keeps other reads off the replica while this one tries it.
+        if (retryAt - now <= 0
+            && candidate.retryAt.compareAndSet(retryAt, now + MAX_BACKOFF_NANOS)) {
+          return candidate;
+        }
+        continue;
+      }
+      int outstanding = candidate.outstanding.get();
+      if (outstanding < bestOutstanding) {
+        best = candidate;
+        bestOutstanding = outstanding;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Backs off from {@code replica} after a failed connection. Reads that were already on their way
+   * to a replica just taken out neither extend the backoff nor log again.
+   */
+  private void takeOutOfRotation(final Replica replica, final boolean retry, final Exception e) {
+    int failures;
+    if (retry) {
+      failures = replica.failures.incrementAndGet();
+    } else if (replica.failures.compareAndSet(0, 1)) {
+      failures = 1;
+    } else {
+      return;
+    }
+    long backoff = Math.min(MAX_BACKOFF_NANOS, MIN_BACKOFF_NANOS << Math.min(failures - 1, 5));
+    replica.retryAt.set(clock.getAsLong() + backoff);
+    if (failures == 1) {
+      LOGGER.warn(
+          "Replica {} unavailable; reading from primary, retrying in {} ms",
+          replica.index,
+          TimeUnit.NANOSECONDS.toMillis(backoff),
+          e);
+    } else {
+      LOGGER.warn(
+          "Replica {} still unavailable after {} attempts, retrying in {} ms: {}",
+          replica.index,
+          failures,
+          TimeUnit.NANOSECONDS.toMillis(backoff),
+          e.toString());
+    }
+  }
+
+  /**
+   * @param outstanding connections currently checked out per replica, in configuration order
+   * @param inRotation whether each replica is taking reads, or is backing off after a failure
+   */
+  public record Stats(
+      long primaryReads,
+      long replicaReads,
+      long replicaFailures,
+      int[] outstanding,
+      boolean[] inRotation) {}
+
+  private static final class Replica {
+    private final int index;
+    private final DataSource dataSource;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // Consecutive failed connection attempts; out of rotation while positive.
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong retryAt = new AtomicLong();
+
+    private Replica(final int index, final DataSource dataSource) {
+      this.index = index;
+      this.dataSource = dataSource;
+    }
+  }
+
+  /** Keeps the replica's outstanding count until the connection is closed. */
+  private static final class Tracked implements InvocationHandler {
+
+    private final Replica replica;
+    private final Connection connection;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Tracked(final Replica replica, final Connection connection) {
+      this.replica = replica;
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args)
+        throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          if (closed.compareAndSet(false, true)) {
+            try {
+              connection.close();
+            } finally {
+              replica.outstanding.decrementAndGet();
+            }
+          }
+          return null;
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "toString":
+          return "ReplicaConnection[" + replica.index + ", " + connection + "]";
+        default:
+          break;
+      }
+      try {
+        return method.invoke(connection, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package ratingservice.executor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the tasks waiting for a worker and turns away tasks that would not start before their
+ * caller gives up. The wait is estimated from the tasks already queued and the average run time of
+ * recent tasks, spread over the workers. An empty queue always admits, so a slow period cannot
+ * leave the estimate stuck above every deadline.
+ */
+public final class AdmissionControl {
+
+  /** Why a task was shed. */
+  public enum Reason {
+    QUEUE_FULL,
+    DEADLINE
+  }
+
+  /** Weight of a new run time in the average, as a right shift: 1/8. */
+  private static final int AVERAGE_SHIFT = 3;
+
+  private final int workers;
+  private final int maxQueued;
+  private final AtomicInteger queued = new AtomicInteger();
+  private final LongAdder[] shed = new LongAdder[Reason.values().length];
+  // Updated without synchronization: a lost sample only delays the average slightly.
+  private volatile long averageRunNanos;
+
+  public AdmissionControl(final int workers, final int maxQueued) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("workers must be positive");
+    }
+    if (maxQueued < 1) {
+      throw new IllegalArgumentException("maxQueued must be positive");
+    }
+    this.workers = workers;
+    this.maxQueued = maxQueued;
+    for (int i = 0; i < shed.length; i++) {
+      shed[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * Takes a queue slot for a task whose caller waits at most {@code budgetNanos} more; {@link
+   * Long#MAX_VALUE} when it has no deadline. Every admitted task must be {@link #dequeued} once.
+   *
+   * @throws RejectedExecutionException when the queue is full or the task would not start in time
+   */
+  public void admit(final long budgetNanos) {
+    while (true) {
+      int ahead = queued.get();
+      if (ahead >= maxQueued) {
+        shed[Reason.QUEUE_FULL.ordinal()].increment();
+        throw new RejectedExecutionException(
+            "Worker queue is full (" + maxQueued + " tasks waiting)");
+      }
+      long waitNanos = estimatedWaitNanos(ahead);
+      if (waitNanos > budgetNanos) {
+        shed[Reason.DEADLINE.ordinal()].increment();
+        throw new RejectedExecutionException(
+            "Estimated queue wait of "
+                + TimeUnit.NANOSECONDS.toMillis(waitNanos)
+                + " ms exceeds the remaining deadline of "
+                + TimeUnit.NANOSECONDS.toMillis(Math.max(0, budgetNanos))
+                + " ms");
+      }
+      if (queued.compareAndSet(ahead, ahead + 1)) {
+        return;
+      }
+    }
+  }
+
+  /** The task started, or was never handed to a worker. */
+  public void dequeued() {
+    queued.decrementAndGet();
+  }
+
+  /** A task ran for {@code runNanos}. */
+  public void finished(final long runNanos) {
+    long average = averageRunNanos;
+    averageRunNanos = average == 0 ? runNanos : average + ((runNanos - average) >> AVERAGE_SHIFT);
+  }
+
+  /** Time until a worker frees up for a task with {@code ahead} tasks queued in front of it. */
+  long estimatedWaitNanos(final int ahead) {
+    return ahead * averageRunNanos / workers;
+  }
+
+  public int queued() {
+    return queued.get();
+  }
+
+  public int maxQueued() {
+    return maxQueued;
+  }
+
+  public long shedCount(final Reason reason) {
+    return shed[reason.ordinal()].sum();
+  }
+}
@@ -0,0 +1,81 @@
+package ratingservice.executor;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each task on its own virtual thread, allowing at most {@code maxConcurrency} of them to run
+ * at once. Callers size the limit to the database connection pool so blocked JDBC calls park cheap
+ * virtual threads instead of occupying a fixed set of platform threads.
+ */
+public final class VirtualThreadExecutor extends AbstractExecutorService {
+
+  private final ExecutorService delegate = Executors.newVirtualThreadPerTaskExecutor();
+  private final Semaphore permits;
+  private final int maxConcurrency;
+
+  public VirtualThreadExecutor(final int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("maxConcurrency must be positive");
+    }
+    this.maxConcurrency = maxConcurrency;
+    this.permits = new Semaphore(maxConcurrency, true);
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    delegate.execute(
+        () -> {
+          permits.acquireUninterruptibly();
+          try {
+            command.run();
+          } finally {
+            permits.release();
+          }
+        });
+  }
+
+  public int maxConcurrency() {
+    return maxConcurrency;
+  }
+
+  /** Tasks currently holding a permit. */
+  public int activeCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  /** Tasks whose virtual thread is parked waiting for a permit. */
+  public int waitingCount() {
+    return permits.getQueueLength();
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
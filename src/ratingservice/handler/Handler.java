@@ -1,22 +1,48 @@
 package ratingservice.handler;
 
+import io.grpc.Context;
+import io.grpc.Deadline;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import rating.Rating;
 import rating.RatingServiceGrpc;
 import ratingservice.constants.Constants;
+import ratingservice.model.Data;
+import ratingservice.repository.QueryDeadline;
+import ratingservice.repository.Repository;
+import ratingservice.service.RatesWatchHub;
 import ratingservice.service.Service;
 
 @SuppressWarnings("checkstyle:RedundantModifier")
 public final class Handler extends RatingServiceGrpc.RatingServiceImplBase {
 
+  private static final int DEFAULT_STREAM_CHUNK_SIZE = 5_000;
+
   private final Service service;
+  private final int streamChunkSize;
 
   public Handler(final Service service) {
+    this(service, DEFAULT_STREAM_CHUNK_SIZE);
+  }
+
+  /**
+   * @param streamChunkSize number of RateModStream requests written per database transaction
+   */
+  public Handler(final Service service, final int streamChunkSize) {
+    if (streamChunkSize < 1) {
+      throw new IllegalArgumentException("streamChunkSize must be positive");
+    }
     this.service = service;
+    this.streamChunkSize = streamChunkSize;
   }
 
   @Override
@@ -54,7 +80,7 @@ public final class Handler extends RatingServiceGrpc.RatingServiceImplBase {
     }
 
     service
-        .rateMod(modId, authorId, rateValue)
+        .rateMod(modId, authorId, rateValue, callDeadline())
         .whenComplete(
             (rateId, throwable) -> {
               if (throwable != null) {
@@ -87,7 +113,7 @@ public final class Handler extends RatingServiceGrpc.RatingServiceImplBase {
     }
 
     service
-        .getRatings(modId)
+        .getRatings(modId, callDeadline())
         .whenComplete(
             (data, throwable) -> {
               if (throwable != null) {
@@ -98,20 +124,315 @@ public final class Handler extends RatingServiceGrpc.RatingServiceImplBase {
                     "Unexpected error occurred while processing getRates request");
                 return;
               }
-              Rating.GetRatesResponse response =
-                  Rating.GetRatesResponse.newBuilder()
-                      .setRatesTotal(data.getTotalRates())
-                      .setRate1(data.getRate1Count())
-                      .setRate2(data.getRate2Count())
-                      .setRate3(data.getRate3Count())
-                      .setRate4(data.getRate4Count())
-                      .setRate5(data.getRate5Count())
-                      .build();
-              responseObserver.onNext(response);
+              responseObserver.onNext(toResponse(data));
+              responseObserver.onCompleted();
+            });
+  }
+
+  @Override
+  public void getRatesBatch(
+      final Rating.GetRatesBatchRequest request,
+      final StreamObserver<Rating.GetRatesBatchResponse> responseObserver) {
+    if (request.getModIdsCount() > Constants.MAX_BATCH_MOD_IDS) {
+      respondWithStatus(
+          responseObserver,
+          Status.INVALID_ARGUMENT,
+          "Invalid request parameters: at most "
+              + Constants.MAX_BATCH_MOD_IDS
+              + " modIds may be requested at once",
+          new IllegalArgumentException("too many modIds"));
+      return;
+    }
+    for (long modId : request.getModIdsList()) {
+      if (modId <= 0) {
+        respondWithStatus(
+            responseObserver,
+            Status.INVALID_ARGUMENT,
+            "Invalid request parameters: modId must be positive",
+            new IllegalArgumentException("modId must be positive"));
+        return;
+      }
+    }
+
+    service
+        .getRatingsBatch(request.getModIdsList(), callDeadline())
+        .whenComplete(
+            (summaries, throwable) -> {
+              if (throwable != null) {
+                handleError(
+                    "getRatesBatch",
+                    throwable,
+                    responseObserver,
+                    "Unexpected error occurred while processing getRatesBatch request");
+                return;
+              }
+              Rating.GetRatesBatchResponse.Builder response =
+                  Rating.GetRatesBatchResponse.newBuilder();
+              summaries.forEach((modId, data) -> response.putRates(modId, toResponse(data)));
+              responseObserver.onNext(response.build());
               responseObserver.onCompleted();
             });
   }
 
+  /**
+   * Streams summary updates for the requested mods until the client cancels. Updates are only
+   * written while the transport is ready; pending updates wait in the subscription, which keeps
+   * just the latest summary per mod.
+   */
+  @Override
+  public void watchRates(
+      final Rating.WatchRatesRequest request,
+      final StreamObserver<Rating.WatchRatesResponse> responseObserver) {
+    if (request.getModIdsCount() == 0 || request.getModIdsCount() > Constants.MAX_BATCH_MOD_IDS) {
+      respondWithStatus(
+          responseObserver,
+          Status.INVALID_ARGUMENT,
+          "Invalid request parameters: between 1 and "
+              + Constants.MAX_BATCH_MOD_IDS
+              + " modIds must be watched",
+          new IllegalArgumentException("invalid number of modIds"));
+      return;
+    }
+    for (long modId : request.getModIdsList()) {
+      if (modId <= 0) {
+        respondWithStatus(
+            responseObserver,
+            Status.INVALID_ARGUMENT,
+            "Invalid request parameters: modId must be positive",
+            new IllegalArgumentException("modId must be positive"));
+        return;
+      }
+    }
+
+    ServerCallStreamObserver<Rating.WatchRatesResponse> call =
+        (ServerCallStreamObserver<Rating.WatchRatesResponse>) responseObserver;
+    WatchStream stream = new WatchStream(call);
+    RatesWatchHub.Subscription subscription;
+    try {
+      subscription = service.watchRates(request.getModIdsList(), stream::drain);
+    } catch (RuntimeException e) {
+      handleError(
+          "watchRates",
+          e,
+          responseObserver,
+          "Unexpected error occurred while processing watchRates request");
+      return;
+    }
+    call.setOnCancelHandler(subscription::close);
+    call.setOnReadyHandler(() -> stream.drain(subscription));
+    stream.drain(subscription);
+  }
+
+  /**
+   * Bulk ingestion. Requests are written in chunks of {@code streamChunkSize}, each acknowledged
+   * once committed, followed by a summary when the client half-closes. Inbound messages are only
+   * requested while at most one chunk is being written and one more is buffering, so a producer
+   * that outpaces the database is held back by gRPC flow control.
+   */
+  @Override
+  public StreamObserver<Rating.RateModRequest> rateModStream(
+      final StreamObserver<Rating.RateModStreamResponse> responseObserver) {
+    ServerCallStreamObserver<Rating.RateModStreamResponse> call =
+        (ServerCallStreamObserver<Rating.RateModStreamResponse>) responseObserver;
+    call.disableAutoRequest();
+    RateModIngest ingest = new RateModIngest(call);
+    call.request(streamChunkSize);
+    return ingest;
+  }
+
+  private final class RateModIngest implements StreamObserver<Rating.RateModRequest> {
+
+    private final ServerCallStreamObserver<Rating.RateModStreamResponse> call;
+    private List<Repository.RateInsert> buffer = new ArrayList<>();
+    private List<Repository.RateInsert> queued;
+    private boolean writing;
+    private boolean halfClosed;
+    private boolean finished;
+    private long received;
+    private long written;
+    private long chunks;
+
+    private RateModIngest(final ServerCallStreamObserver<Rating.RateModStreamResponse> call) {
+      this.call = call;
+    }
+
+    @Override
+    public synchronized void onNext(final Rating.RateModRequest request) {
+      if (finished) {
+        return;
+      }
+      int rateValue;
+      try {
+        if (request.getModId() <= 0) {
+          throw new IllegalArgumentException("modId must be positive");
+        }
+        if (request.getAuthorId() <= 0) {
+          throw new IllegalArgumentException("authorId must be positive");
+        }
+        rateValue = convertRateEnumToInteger(request.getRate());
+      } catch (IllegalArgumentException e) {
+        finished = true;
+        respondWithStatus(
+            call,
+            Status.INVALID_ARGUMENT,
+            "Invalid request parameters at offset " + received + ": " + e.getMessage(),
+            e);
+        return;
+      }
+      received++;
+      buffer.add(new Repository.RateInsert(request.getModId(), request.getAuthorId(), rateValue));
+      if (buffer.size() >= streamChunkSize) {
+        submitBuffer();
+      }
+    }
+
+    @Override
+    public synchronized void onError(final Throwable t) {
+      // The client cancelled; a chunk already being written still commits but is not acked.
+      finished = true;
+    }
+
+    @Override
+    public synchronized void onCompleted() {
+      if (finished) {
+        return;
+      }
+      halfClosed = true;
+      if (!buffer.isEmpty()) {
+        submitBuffer();
+      } else if (!writing) {
+        finish();
+      }
+    }
+
+    private void submitBuffer() {
+      List<Repository.RateInsert> chunk = buffer;
+      buffer = new ArrayList<>();
+      if (writing) {
+        queued = chunk;
+      } else {
+        write(chunk);
+        call.request(streamChunkSize);
+      }
+    }
+
+    private void write(final List<Repository.RateInsert> chunk) {
+      writing = true;
+      service.rateModChunk(chunk).whenComplete((count, throwable) -> onWritten(count, throwable));
+    }
+
+    private synchronized void onWritten(final Integer count, final Throwable throwable) {
+      writing = false;
+      if (finished) {
+        return;
+      }
+      if (throwable != null) {
+        finished = true;
+        handleError(
+            "rateModStream",
+            throwable,
+            call,
+            "Unexpected error occurred while processing rateModStream request");
+        return;
+      }
+      written += count;
+      chunks++;
+      call.onNext(
+          Rating.RateModStreamResponse.newBuilder()
+              .setChunk(
+                  Rating.RateModChunkAck.newBuilder()
+                      .setChunk(chunks)
+                      .setWritten(count)
+                      .setNextOffset(written))
+              .build());
+      if (queued != null) {
+        List<Repository.RateInsert> chunk = queued;
+        queued = null;
+        write(chunk);
+        call.request(streamChunkSize);
+      } else if (halfClosed) {
+        if (buffer.isEmpty()) {
+          finish();
+        } else {
+          submitBuffer();
+        }
+      }
+    }
+
+    private void finish() {
+      finished = true;
+      call.onNext(
+          Rating.RateModStreamResponse.newBuilder()
+              .setSummary(
+                  Rating.RateModStreamSummary.newBuilder().setWritten(written).setChunks(chunks))
+              .build());
+      call.onCompleted();
+    }
+  }
+
+  /** Writes pending updates to one WatchRates call without overrunning its flow-control window. */
+  private final class WatchStream {
+
+    private final ServerCallStreamObserver<Rating.WatchRatesResponse> call;
+    private boolean completed;
+
+    private WatchStream(final ServerCallStreamObserver<Rating.WatchRatesResponse> call) {
+      this.call = call;
+    }
+
+    private synchronized void drain(final RatesWatchHub.Subscription subscription) {
+      if (completed) {
+        return;
+      }
+      if (call.isCancelled()) {
+        completed = true;
+        subscription.close();
+        return;
+      }
+      while (call.isReady()) {
+        RatesWatchHub.Update update = subscription.poll();
+        if (update == null) {
+          if (subscription.isClosed()) {
+            completed = true;
+            call.onCompleted();
+          }
+          return;
+        }
+        call.onNext(
+            Rating.WatchRatesResponse.newBuilder()
+                .setModId(update.modId())
+                .setRates(toResponse(update.data()))
+                .build());
+      }
+    }
+  }
+
+  /**
+   * The deadline of the current call for its database work. It is cancelled with the call, which
+   * gRPC also does when the deadline passes, so a running statement is cancelled on time.
+   */
+  private static QueryDeadline callDeadline() {
+    Context context = Context.current();
+    Deadline deadline = context.getDeadline();
+    QueryDeadline queryDeadline =
+        deadline == null
+            ? QueryDeadline.unbounded()
+            : QueryDeadline.after(deadline.timeRemaining(TimeUnit.NANOSECONDS));
+    context.addListener(cancelled -> queryDeadline.cancel(), Runnable::run);
+    return queryDeadline;
+  }
+
+  private Rating.GetRatesResponse toResponse(final Data data) {
+    return Rating.GetRatesResponse.newBuilder()
+        .setRatesTotal(data.getTotalRates())
+        .setRate1(data.getRate1Count())
+        .setRate2(data.getRate2Count())
+        .setRate3(data.getRate3Count())
+        .setRate4(data.getRate4Count())
+        .setRate5(data.getRate5Count())
+        .build();
+  }
+
   private void handleError(
       final String operation,
       final Throwable throwable,
@@ -138,6 +459,22 @@ public final class Handler extends RatingServiceGrpc.RatingServiceImplBase {
           cause);
       return;
     }
+    if (cause instanceof TimeoutException) {
+      respondWithStatus(
+          responseObserver,
+          Status.DEADLINE_EXCEEDED,
+          "Deadline exceeded: " + cause.getMessage(),
+          cause);
+      return;
+    }
+    if (cause instanceof RejectedExecutionException) {
+      respondWithStatus(
+          responseObserver,
+          Status.RESOURCE_EXHAUSTED,
+          "Service overloaded: " + cause.getMessage(),
+          cause);
+      return;
+    }
     respondWithStatus(responseObserver, Status.INTERNAL, defaultMessage, cause);
   }
 
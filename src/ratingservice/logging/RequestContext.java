@@ -0,0 +1,119 @@
+package ratingservice.logging;
+
+import java.util.function.Supplier;
+import org.slf4j.MDC;
+
+/**
+ * Per-request logging fields kept as primitives in a thread-local instead of MDC strings. They are
+ * copied into the MDC by {@link RequestContextTurboFilter} only when a log event is about to be
+ * written, so requests that log nothing never format ids or touch the MDC.
+ */
+public final class RequestContext {
+
+  public static final String MDC_GRPC_METHOD = "grpc_method";
+  public static final String MDC_MOD_ID = "mod_id";
+  public static final String MDC_AUTHOR_ID = "author_id";
+  public static final String MDC_RATE = "rate";
+  public static final String MDC_MOD_COUNT = "mod_count";
+  public static final String MDC_RATE_COUNT = "rate_count";
+
+  private static final long ABSENT = Long.MIN_VALUE;
+  private static final ThreadLocal<RequestContext> CURRENT = new ThreadLocal<>();
+
+  private final String grpcMethod;
+  private final long modId;
+  private final long authorId;
+  private final long rate;
+  private final long modCount;
+  private final long rateCount;
+  private boolean materialized;
+
+  private RequestContext(
+      final String grpcMethod,
+      final long modId,
+      final long authorId,
+      final long rate,
+      final long modCount,
+      final long rateCount) {
+    this.grpcMethod = grpcMethod;
+    this.modId = modId;
+    this.authorId = authorId;
+    this.rate = rate;
+    this.modCount = modCount;
+    this.rateCount = rateCount;
+  }
+
+  public static RequestContext rateMod(final long modId, final long authorId, final int rate) {
+    return new RequestContext("rate_mod", modId, authorId, rate, ABSENT, ABSENT);
+  }
+
+  public static RequestContext getRatings(final long modId) {
+    return new RequestContext("get_ratings", modId, ABSENT, ABSENT, ABSENT, ABSENT);
+  }
+
+  public static RequestContext getRatingsBatch(final int modCount) {
+    return new RequestContext("get_ratings_batch", ABSENT, ABSENT, ABSENT, modCount, ABSENT);
+  }
+
+  public static RequestContext rateModStream(final int rateCount) {
+    return new RequestContext("rate_mod_stream", ABSENT, ABSENT, ABSENT, ABSENT, rateCount);
+  }
+
+  /** Context of the request running on the calling thread, or {@code null}. */
+  public static RequestContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Runs {@code supplier} with this context attached to the calling thread, restoring the previous
+   * context afterwards and removing any MDC entries materialized in between.
+   */
+  public <T> T call(final Supplier<T> supplier) {
+    RequestContext previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return supplier.get();
+    } finally {
+      if (materialized) {
+        clearMdc();
+        materialized = false;
+      }
+      CURRENT.set(previous);
+      if (previous != null && previous.materialized) {
+        previous.putMdc();
+      }
+    }
+  }
+
+  /** Copies the fields into the MDC once per attachment. */
+  void materialize() {
+    if (!materialized) {
+      putMdc();
+      materialized = true;
+    }
+  }
+
+  private void putMdc() {
+    MDC.put(MDC_GRPC_METHOD, grpcMethod);
+    putIfPresent(MDC_MOD_ID, modId);
+    putIfPresent(MDC_AUTHOR_ID, authorId);
+    putIfPresent(MDC_RATE, rate);
+    putIfPresent(MDC_MOD_COUNT, modCount);
+    putIfPresent(MDC_RATE_COUNT, rateCount);
+  }
+
+  private void clearMdc() {
+    MDC.remove(MDC_GRPC_METHOD);
+    MDC.remove(MDC_MOD_ID);
+    MDC.remove(MDC_AUTHOR_ID);
+    MDC.remove(MDC_RATE);
+    MDC.remove(MDC_MOD_COUNT);
+    MDC.remove(MDC_RATE_COUNT);
+  }
+
+  private static void putIfPresent(final String key, final long value) {
+    if (value != ABSENT) {
+      MDC.put(key, Long.toString(value));
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package ratingservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * Materializes the current {@link RequestContext} into the MDC just before an enabled log event is
+ * created. Calls below the logger's effective level, including {@code isDebugEnabled()} checks,
+ * leave the MDC untouched.
+ */
+public final class RequestContextTurboFilter extends TurboFilter {
+
+  @Override
+  public FilterReply decide(
+      final Marker marker,
+      final Logger logger,
+      final Level level,
+      final String format,
+      final Object[] params,
+      final Throwable t) {
+    if (format != null && level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      RequestContext context = RequestContext.current();
+      if (context != null) {
+        context.materialize();
+      }
+    }
+    return FilterReply.NEUTRAL;
+  }
+}
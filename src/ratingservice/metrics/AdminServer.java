@@ -0,0 +1,65 @@
+package ratingservice.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plain HTTP listener for operators, separate from the gRPC port. {@code GET /metrics} returns the
+ * registry in the Prometheus text format. Scrapes are served one at a time on a dedicated thread.
+ */
+public final class AdminServer implements AutoCloseable {
+
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  public AdminServer(final int port, final MetricsRegistry registry) throws IOException {
+    Objects.requireNonNull(registry, "registry");
+    this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "admin-http");
+              thread.setDaemon(true);
+              return thread;
+            });
+    server.createContext("/metrics", exchange -> serveMetrics(exchange, registry));
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  /** Bound port, useful when constructed with port 0. */
+  public int port() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  private static void serveMetrics(final HttpExchange exchange, final MetricsRegistry registry)
+      throws IOException {
+    try (exchange) {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package ratingservice.metrics;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts started and completed calls per method and status code and records their latency, from the
+ * start of the call to its close. Per-method state is created on a method's first call; after that
+ * recording is a map lookup, two adder increments and a {@link Histogram#record} for the latency
+ * and each recorded stage.
+ *
+ * <p>Each call also carries {@link RequestTimings} in its gRPC context. The recorded stages feed
+ * per-stage histograms when the call closes, and unary calls slower than the configured threshold
+ * are logged with the breakdown.
+ */
+public final class GrpcServerMetrics implements ServerInterceptor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GrpcServerMetrics.class);
+  private static final Status.Code[] CODES = Status.Code.values();
+  private static final RequestTimings.Stage[] STAGES = RequestTimings.Stage.values();
+
+  private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+  private final long slowRequestNanos;
+
+  /** Without slow-request logging. */
+  public GrpcServerMetrics(final MetricsRegistry registry) {
+    this(registry, Duration.ZERO);
+  }
+
+  /** Logs calls slower than {@code slowRequestThreshold}; zero disables the log. */
+  public GrpcServerMetrics(final MetricsRegistry registry, final Duration slowRequestThreshold) {
+    this.slowRequestNanos =
+        slowRequestThreshold.isZero() || slowRequestThreshold.isNegative()
+            ? Long.MAX_VALUE
+            : slowRequestThreshold.toNanos();
+    registry.register(
+        "grpc_server_started_total",
+        MetricsRegistry.Type.COUNTER,
+        "RPCs started on the server.",
+        samples -> methods.forEach((method, m) -> samples.value(m.label, m.started.sum())));
+    registry.register(
+        "grpc_server_handled_total",
+        MetricsRegistry.Type.COUNTER,
+        "RPCs completed on the server, by status code.",
+        samples ->
+            methods.forEach(
+                (method, m) -> {
+                  for (Status.Code code : CODES) {
+                    long handled = m.handled[code.ordinal()].sum();
+                    if (handled > 0) {
+                      samples.value(
+                          m.label + "," + MetricsRegistry.label("code", code.name()), handled);
+                    }
+                  }
+                }));
+    registry.register(
+        "grpc_server_handling_seconds",
+        MetricsRegistry.Type.HISTOGRAM,
+        "Time from the start of an RPC to its completion.",
+        samples ->
+            methods.forEach(
+                (method, m) -> samples.histogram(m.label, m.latencyMicros.snapshot(), 1e-6)));
+    registry.register(
+        "grpc_server_stage_seconds",
+        MetricsRegistry.Type.HISTOGRAM,
+        "Time RPCs spent in each stage: queue wait, connection acquire, query execute and"
+            + " response serialize.",
+        samples ->
+            methods.forEach(
+                (method, m) -> {
+                  for (RequestTimings.Stage stage : STAGES) {
+                    Histogram.Snapshot snapshot = m.stageMicros[stage.ordinal()].snapshot();
+                    if (snapshot.count() > 0) {
+                      samples.histogram(m.stageLabels[stage.ordinal()], snapshot, 1e-6);
+                    }
+                  }
+                }));
+  }
+
+  @Override
+  public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+      final ServerCall<ReqT, RespT> call,
+      final Metadata headers,
+      final ServerCallHandler<ReqT, RespT> next) {
+    String fullMethodName = call.getMethodDescriptor().getFullMethodName();
+    MethodMetrics metrics = methods.get(fullMethodName);
+    if (metrics == null) {
+      metrics = methods.computeIfAbsent(fullMethodName, MethodMetrics::new);
+    }
+    metrics.started.increment();
+    RequestTimings timings = new RequestTimings();
+    return Contexts.interceptCall(
+        Context.current().withValue(RequestTimings.KEY, timings),
+        new RecordingCall<>(
+            call,
+            metrics,
+            timings,
+            System.nanoTime(),
+            // Streams stay open for as long as the client wants; only unary calls can be slow.
+            call.getMethodDescriptor().getType() == MethodDescriptor.MethodType.UNARY
+                ? slowRequestNanos
+                : Long.MAX_VALUE),
+        headers,
+        next);
+  }
+
+  /** Latency histogram of {@code fullMethodName}, or {@code null} before its first call. */
+  public Histogram latencyMicros(final String fullMethodName) {
+    MethodMetrics metrics = methods.get(fullMethodName);
+    return metrics == null ? null : metrics.latencyMicros;
+  }
+
+  /**
+   * Histogram of {@code stage} for {@code fullMethodName}, or {@code null} before its first call.
+   */
+  public Histogram stageMicros(final String fullMethodName, final RequestTimings.Stage stage) {
+    MethodMetrics metrics = methods.get(fullMethodName);
+    return metrics == null ? null : metrics.stageMicros[stage.ordinal()];
+  }
+
+  private static final class MethodMetrics {
+
+    final String label;
+    final LongAdder started = new LongAdder();
+    final LongAdder[] handled = new LongAdder[CODES.length];
+    final Histogram latencyMicros = Histogram.exponential(10, 2, 20);
+    final Histogram[] stageMicros = new Histogram[STAGES.length];
+    final String[] stageLabels = new String[STAGES.length];
+
+    MethodMetrics(final String fullMethodName) {
+      this.label = MetricsRegistry.label("method", fullMethodName);
+      for (int i = 0; i < handled.length; i++) {
+        handled[i] = new LongAdder();
+      }
+      for (RequestTimings.Stage stage : STAGES) {
+        stageMicros[stage.ordinal()] = Histogram.exponential(1, 2, 24);
+        stageLabels[stage.ordinal()] =
+            label + "," + MetricsRegistry.label("stage", stage.name().toLowerCase(Locale.ROOT));
+      }
+    }
+  }
+
+  private static final class RecordingCall<ReqT, RespT>
+      extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+    private final MethodMetrics metrics;
+    private final RequestTimings timings;
+    private final long startedAt;
+    private final long slowRequestNanos;
+
+    RecordingCall(
+        final ServerCall<ReqT, RespT> delegate,
+        final MethodMetrics metrics,
+        final RequestTimings timings,
+        final long startedAt,
+        final long slowRequestNanos) {
+      super(delegate);
+      this.metrics = metrics;
+      this.timings = timings;
+      this.startedAt = startedAt;
+      this.slowRequestNanos = slowRequestNanos;
+    }
+
+    /** The message is marshalled synchronously here, before it is queued for the transport. */
+    @Override
+    public void sendMessage(final RespT message) {
+      long sendStartedAt = System.nanoTime();
+      super.sendMessage(message);
+      timings.add(RequestTimings.Stage.RESPONSE_SERIALIZE, System.nanoTime() - sendStartedAt);
+    }
+
+    @Override
+    public void close(final Status status, final Metadata trailers) {
+      long elapsedNanos = System.nanoTime() - startedAt;
+      metrics.handled[status.getCode().ordinal()].increment();
+      metrics.latencyMicros.record(elapsedNanos / 1_000);
+      for (RequestTimings.Stage stage : STAGES) {
+        if (timings.recorded(stage)) {
+          metrics.stageMicros[stage.ordinal()].record(timings.nanos(stage) / 1_000);
+        }
+      }
+      if (elapsedNanos >= slowRequestNanos) {
+        LOGGER.warn(
+            "Slow request {} took {} ms with status {}: {}",
+            getMethodDescriptor().getFullMethodName(),
+            elapsedNanos / 1_000_000,
+            status.getCode(),
+            timings.describe());
+      }
+      super.close(status, trailers);
+    }
+  }
+}
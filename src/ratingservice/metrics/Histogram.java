@@ -0,0 +1,83 @@
+package ratingservice.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram. Recording is lock-free and does not allocate; values above the last bound
+ * land in an overflow bucket.
+ */
+public final class Histogram {
+
+  private final long[] upperBounds;
+  private final AtomicLongArray buckets;
+  private final LongAdder sum = new LongAdder();
+
+  public Histogram(final long... upperBounds) {
+    if (upperBounds.length == 0) {
+      throw new IllegalArgumentException("At least one bucket bound is required");
+    }
+    for (int i = 1; i < upperBounds.length; i++) {
+      if (upperBounds[i] <= upperBounds[i - 1]) {
+        throw new IllegalArgumentException("Bucket bounds must be strictly increasing");
+      }
+    }
+    this.upperBounds = upperBounds.clone();
+    this.buckets = new AtomicLongArray(upperBounds.length + 1);
+  }
+
+  /** Bounds {@code start, start * factor, ...} with {@code count} entries. */
+  public static Histogram exponential(final long start, final int factor, final int count) {
+    long[] bounds = new long[count];
+    long bound = start;
+    for (int i = 0; i < count; i++) {
+      bounds[i] = bound;
+      bound *= factor;
+    }
+    return new Histogram(bounds);
+  }
+
+  public void record(final long value) {
+    int index = Arrays.binarySearch(upperBounds, value);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    buckets.incrementAndGet(index);
+    sum.add(value);
+  }
+
+  public Snapshot snapshot() {
+    long[] counts = new long[buckets.length()];
+    long total = 0;
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    return new Snapshot(upperBounds.clone(), counts, total, sum.sum());
+  }
+
+  /**
+   * Bucket counts are per bucket, not cumulative; {@code counts} has one more element than {@code
+   * upperBounds} for values above the last bound.
+   */
+  public record Snapshot(long[] upperBounds, long[] counts, long count, long sum) {
+
+    public double mean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /** Upper bound of the bucket holding the given quantile, or -1 for the overflow bucket. */
+    public long quantileUpperBound(final double quantile) {
+      long rank = (long) Math.ceil(quantile * count);
+      long seen = 0;
+      for (int i = 0; i < upperBounds.length; i++) {
+        seen += counts[i];
+        if (seen >= rank && seen > 0) {
+          return upperBounds[i];
+        }
+      }
+      return -1;
+    }
+  }
+}
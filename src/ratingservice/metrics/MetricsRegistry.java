@@ -0,0 +1,128 @@
+package ratingservice.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Metric families rendered in the Prometheus text exposition format. Nothing is recorded here:
+ * owners record into their own lock-free {@link Histogram}s and counters, and each family's {@link
+ * Collector} reads them when the registry is scraped.
+ */
+public final class MetricsRegistry {
+
+  private final List<Family> families = new ArrayList<>();
+
+  public enum Type {
+    COUNTER,
+    GAUGE,
+    HISTOGRAM
+  }
+
+  /** Registers a family whose samples {@code collector} writes on every scrape. */
+  public synchronized void register(
+      final String name, final Type type, final String help, final Collector collector) {
+    for (Family family : families) {
+      if (family.name.equals(name)) {
+        throw new IllegalArgumentException("Metric already registered: " + name);
+      }
+    }
+    families.add(new Family(name, type, help, collector));
+  }
+
+  /** Registers an unlabelled gauge read from {@code value}. */
+  public void gauge(final String name, final String help, final LongSupplier value) {
+    register(name, Type.GAUGE, help, samples -> samples.value("", value.getAsLong()));
+  }
+
+  /** Renders every family; families are written in registration order. */
+  public synchronized String scrape() {
+    StringBuilder out = new StringBuilder(4096);
+    for (Family family : families) {
+      out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+      out.append("# TYPE ")
+          .append(family.name)
+          .append(' ')
+          .append(family.type.name().toLowerCase(Locale.ROOT))
+          .append('\n');
+      family.collector.collect(new Samples(family.name, out));
+    }
+    return out.toString();
+  }
+
+  /** Formats one {@code name="value"} label pair, escaping the value. */
+  public static String label(final String name, final String value) {
+    StringBuilder out = new StringBuilder(name.length() + value.length() + 3);
+    out.append(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '\\' -> out.append("\\\\");
+        case '"' -> out.append("\\\"");
+        case '\n' -> out.append("\\n");
+        default -> out.append(c);
+      }
+    }
+    return out.append('"').toString();
+  }
+
+  @FunctionalInterface
+  public interface Collector {
+    void collect(Samples samples);
+  }
+
+  /**
+   * Writes the samples of one family. {@code labels} are comma-separated pairs from {@link #label},
+   * or empty.
+   */
+  public static final class Samples {
+
+    private final String name;
+    private final StringBuilder out;
+
+    private Samples(final String name, final StringBuilder out) {
+      this.name = name;
+      this.out = out;
+    }
+
+    public void value(final String labels, final double value) {
+      sample(name, labels, value);
+    }
+
+    /**
+     * Writes cumulative buckets, sum and count of {@code snapshot}; bounds and sum are multiplied
+     * by {@code scale}, e.g. {@code 1e-6} for microsecond histograms exposed in seconds.
+     */
+    public void histogram(
+        final String labels, final Histogram.Snapshot snapshot, final double scale) {
+      String prefix = labels.isEmpty() ? "" : labels + ",";
+      long cumulative = 0;
+      long[] bounds = snapshot.upperBounds();
+      for (int i = 0; i < bounds.length; i++) {
+        cumulative += snapshot.counts()[i];
+        sample(name + "_bucket", prefix + "le=\"" + format(bounds[i] * scale) + "\"", cumulative);
+      }
+      sample(name + "_bucket", prefix + "le=\"+Inf\"", snapshot.count());
+      sample(name + "_sum", labels, snapshot.sum() * scale);
+      sample(name + "_count", labels, snapshot.count());
+    }
+
+    private void sample(final String sampleName, final String labels, final double value) {
+      out.append(sampleName);
+      if (!labels.isEmpty()) {
+        out.append('{').append(labels).append('}');
+      }
+      out.append(' ').append(format(value)).append('\n');
+    }
+  }
+
+  private static String format(final double value) {
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      return Long.toString((long) value);
+    }
+    return Double.toString(value);
+  }
+
+  private record Family(String name, Type type, String help, Collector collector) {}
+}
@@ -0,0 +1,87 @@
+package ratingservice.metrics;
+
+import io.grpc.Context;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Where one RPC spent its time, by {@link Stage}. {@link GrpcServerMetrics} creates it for each
+ * call and carries it in the gRPC {@link Context}; the worker task of the call attaches it to its
+ * thread so the repository can record into it without being handed it. Stages are recorded by one
+ * thread at a time, in order, so the fields need no synchronization.
+ */
+public final class RequestTimings {
+
+  /** Stages of a request, recorded as they happen. */
+  public enum Stage {
+    /** From submitting the task to a worker picking it up. */
+    QUEUE_WAIT,
+    /** Waiting for a database connection. */
+    CONNECTION_ACQUIRE,
+    /** Repository calls, less the time waiting for a connection. */
+    QUERY_EXECUTE,
+    /** Encoding and writing response messages. */
+    RESPONSE_SERIALIZE
+  }
+
+  static final Context.Key<RequestTimings> KEY = Context.key("request-timings");
+  private static final Stage[] STAGES = Stage.values();
+  private static final ThreadLocal<RequestTimings> ATTACHED = new ThreadLocal<>();
+
+  private final long[] nanos = new long[STAGES.length];
+  private int recorded;
+
+  /** Timings of the call being handled on this thread, or {@code null} outside of one. */
+  public static RequestTimings current() {
+    RequestTimings attached = ATTACHED.get();
+    return attached != null ? attached : KEY.get();
+  }
+
+  /** Adds {@code nanos} to {@code stage} of the current call, if there is one. */
+  public static void record(final Stage stage, final long nanos) {
+    RequestTimings timings = current();
+    if (timings != null) {
+      timings.add(stage, nanos);
+    }
+  }
+
+  public void add(final Stage stage, final long nanos) {
+    this.nanos[stage.ordinal()] += nanos;
+    recorded |= 1 << stage.ordinal();
+  }
+
+  /** Runs {@code supplier} with these timings attached to the calling thread. */
+  public <T> T attach(final Supplier<T> supplier) {
+    RequestTimings previous = ATTACHED.get();
+    ATTACHED.set(this);
+    try {
+      return supplier.get();
+    } finally {
+      ATTACHED.set(previous);
+    }
+  }
+
+  public boolean recorded(final Stage stage) {
+    return (recorded & (1 << stage.ordinal())) != 0;
+  }
+
+  public long nanos(final Stage stage) {
+    return nanos[stage.ordinal()];
+  }
+
+  /** {@code queue_wait=0.12ms connection_acquire=...} for the stages that were recorded. */
+  public String describe() {
+    StringBuilder out = new StringBuilder();
+    for (Stage stage : STAGES) {
+      if (recorded(stage)) {
+        if (out.length() > 0) {
+          out.append(' ');
+        }
+        out.append(stage.name().toLowerCase(Locale.ROOT))
+            .append('=')
+            .append(String.format(Locale.ROOT, "%.2fms", nanos(stage) / 1e6));
+      }
+    }
+    return out.toString();
+  }
+}
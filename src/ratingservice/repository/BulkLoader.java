@@ -0,0 +1,168 @@
+package ratingservice.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+
+/**
+ * Loads ratings from a CSV or binary {@code COPY} stream in a single transaction, for backfills and
+ * disaster recovery. Rows with columns {@code author_id, mod_id, rate} are streamed into a
+ * temporary table with a bounded buffer, merged into {@code rates} keeping the last row per author
+ * and mod, and {@code mod_rating_counters} is then rebuilt with one aggregate pass.
+ *
+ * <p>Concurrent rating writes are blocked for the duration of the load; reads continue unless
+ * {@code replace} is set, which truncates {@code rates} first.
+ */
+public final class BulkLoader {
+
+  public enum Format {
+    CSV,
+    BINARY
+  }
+
+  private final DataSource dataSource;
+  private final int bufferBytes;
+
+  public BulkLoader(final DataSource dataSource, final int bufferBytes) {
+    if (bufferBytes < 1) {
+      throw new IllegalArgumentException("bufferBytes must be positive");
+    }
+    this.dataSource = dataSource;
+    this.bufferBytes = bufferBytes;
+  }
+
+  /**
+   * @param header whether a CSV stream starts with a header line; ignored for binary input
+   * @param replace delete all existing ratings before loading
+   */
+  public Result load(
+      final InputStream input, final Format format, final boolean header, final boolean replace)
+      throws SQLException, IOException {
+    long startedAt = System.nanoTime();
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        try (Statement stmt = conn.createStatement()) {
+          stmt.execute("LOCK TABLE rates, mod_rating_counters IN SHARE ROW EXCLUSIVE MODE");
+          if (replace) {
+            stmt.execute("TRUNCATE rates");
+          }
+          stmt.execute(
+              """
+              CREATE TEMP TABLE rates_load (
+                  ord BIGSERIAL,
+                  author_id BIGINT NOT NULL,
+                  mod_id BIGINT NOT NULL,
+                  rate BIGINT NOT NULL
+              ) ON COMMIT DROP
+              """);
+        }
+
+        long rowsCopied =
+            conn.unwrap(PGConnection.class)
+                .getCopyAPI()
+                .copyIn(copySql(format, header), input, bufferBytes);
+
+        long rowsLoaded;
+        long modsRebuilt;
+        try (Statement stmt = conn.createStatement()) {
+          long invalidRows;
+          try (ResultSet rs =
+              stmt.executeQuery(
+                  """
+                  SELECT COUNT(*)
+                    FROM rates_load
+                   WHERE author_id <= 0 OR mod_id <= 0 OR rate NOT BETWEEN 1 AND 5
+                  """)) {
+            rs.next();
+            invalidRows = rs.getLong(1);
+          }
+          if (invalidRows > 0) {
+            throw new SQLException(
+                "Bulk load rejected: " + invalidRows + " rows have invalid ids or rates.");
+          }
+          rowsLoaded =
+              stmt.executeLargeUpdate(
+                  """
+                  INSERT INTO rates (author_id, mod_id, rate)
+                  SELECT DISTINCT ON (mod_id, author_id) author_id, mod_id, rate
+                    FROM rates_load
+                   ORDER BY mod_id, author_id, ord DESC
+                  ON CONFLICT (mod_id, author_id) DO UPDATE
+                     SET rate = EXCLUDED.rate
+                  """);
+          stmt.execute("DELETE FROM mod_rating_counters");
+          modsRebuilt =
+              stmt.executeLargeUpdate(
+                  """
+                  INSERT INTO mod_rating_counters (mod_id, total, rate1, rate2, rate3, rate4, rate5)
+                  SELECT mod_id,
+                         SUM(rates),
+                         COALESCE(SUM(rates) FILTER (WHERE rate = 1), 0),
+                         COALESCE(SUM(rates) FILTER (WHERE rate = 2), 0),
+                         COALESCE(SUM(rates) FILTER (WHERE rate = 3), 0),
+                         COALESCE(SUM(rates) FILTER (WHERE rate = 4), 0),
+                         COALESCE(SUM(rates) FILTER (WHERE rate = 5), 0)
+                    FROM (SELECT mod_id, rate, COUNT(*) AS rates
+                            FROM rates
+                           GROUP BY mod_id, rate) per_rate
+                   GROUP BY mod_id
+                  """);
+        }
+        conn.commit();
+        return new Result(
+            rowsCopied, rowsLoaded, modsRebuilt, Duration.ofNanos(System.nanoTime() - startedAt));
+      } catch (SQLException | IOException | RuntimeException e) {
+        try {
+          conn.rollback();
+        } catch (SQLException rollbackError) {
+          e.addSuppressed(rollbackError);
+        }
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    }
+  }
+
+  static String copySql(final Format format, final boolean header) {
+    String options =
+        switch (format) {
+          case CSV -> header ? "FORMAT csv, HEADER true" : "FORMAT csv";
+          case BINARY -> "FORMAT binary";
+        };
+    return "COPY rates_load (author_id, mod_id, rate) FROM STDIN WITH (" + options + ")";
+  }
+
+  /**
+   * @param rowsCopied rows read from the input
+   * @param rowsLoaded ratings inserted or updated after collapsing repeated author and mod pairs
+   * @param modsRebuilt mods with a rebuilt counter row
+   */
+  public record Result(long rowsCopied, long rowsLoaded, long modsRebuilt, Duration elapsed) {
+
+    public double rowsPerSecond() {
+      long nanos = Math.max(1, elapsed.toNanos());
+      return rowsCopied * 1_000_000_000d / nanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.ROOT,
+          "%d rows copied, %d ratings loaded, %d mods rebuilt in %d ms (%.0f rows/s)",
+          rowsCopied,
+          rowsLoaded,
+          modsRebuilt,
+          elapsed.toMillis(),
+          rowsPerSecond());
+    }
+  }
+}
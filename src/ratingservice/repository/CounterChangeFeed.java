@@ -0,0 +1,144 @@
+package ratingservice.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds one dedicated {@code LISTEN mod_rating_counters} connection and reports which mods other
+ * writers changed, including other nodes. Every notification received since the last report is
+ * delivered as one batch on the feed's own thread.
+ *
+ * <p>Notifications sent while the connection is down are lost, so after every (re)connect, and for
+ * changes too large to list, the listener is told that changes may have been missed. A failing
+ * listener is treated like a lost connection: the feed reconnects with exponential backoff and
+ * reports missed changes again.
+ */
+public final class CounterChangeFeed implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CounterChangeFeed.class);
+  static final String CHANNEL = "mod_rating_counters";
+  static final String ALL_MODS = "*";
+  private static final int POLL_MILLIS = 500;
+  private static final Duration MIN_BACKOFF = Duration.ofMillis(100);
+  private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+  private final DataSource dataSource;
+  private final Listener listener;
+  private final Duration minBackoff;
+  private final Duration maxBackoff;
+  private final Thread worker;
+  private volatile boolean closed;
+
+  /** {@code dataSource} should not be pooled: the connection is held for as long as the feed. */
+  public CounterChangeFeed(final DataSource dataSource, final Listener listener) {
+    this(dataSource, listener, MIN_BACKOFF, MAX_BACKOFF);
+  }
+
+  CounterChangeFeed(
+      final DataSource dataSource,
+      final Listener listener,
+      final Duration minBackoff,
+      final Duration maxBackoff) {
+    this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+    this.listener = Objects.requireNonNull(listener, "listener");
+    this.minBackoff = minBackoff;
+    this.maxBackoff = maxBackoff;
+    this.worker = new Thread(this::run, "counter-change-feed");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    worker.interrupt();
+    try {
+      worker.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    long backoffMillis = minBackoff.toMillis();
+    while (!closed) {
+      try (Connection conn = dataSource.getConnection()) {
+        try (Statement stmt = conn.createStatement()) {
+          stmt.execute("LISTEN " + CHANNEL);
+        }
+        listener.changesMissed();
+        backoffMillis = minBackoff.toMillis();
+        PGConnection pgConnection = conn.unwrap(PGConnection.class);
+        while (!closed) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+          if (notifications != null && notifications.length > 0) {
+            deliver(notifications);
+          }
+        }
+      } catch (SQLException | RuntimeException e) {
+        if (closed) {
+          return;
+        }
+        LOGGER.warn("Counter change feed interrupted; reconnecting in {} ms", backoffMillis, e);
+        try {
+          Thread.sleep(backoffMillis);
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+        backoffMillis = Math.min(backoffMillis * 2, maxBackoff.toMillis());
+      }
+    }
+  }
+
+  private void deliver(final PGNotification[] notifications) throws SQLException {
+    Set<Long> modIds = new HashSet<>();
+    for (PGNotification notification : notifications) {
+      if (!parse(notification.getParameter(), modIds)) {
+        listener.changesMissed();
+        return;
+      }
+    }
+    listener.modsChanged(modIds);
+  }
+
+  /** Adds the mod ids of one payload; {@code false} if the payload does not list them. */
+  static boolean parse(final String payload, final Set<Long> modIds) {
+    if (payload == null || payload.isEmpty() || payload.equals(ALL_MODS)) {
+      return false;
+    }
+    int start = 0;
+    while (start <= payload.length()) {
+      int end = payload.indexOf(',', start);
+      if (end < 0) {
+        end = payload.length();
+      }
+      try {
+        modIds.add(Long.parseLong(payload, start, end, 10));
+      } catch (NumberFormatException e) {
+        return false;
+      }
+      start = end + 1;
+    }
+    return true;
+  }
+
+  /** Called from the feed thread only. */
+  public interface Listener {
+    /** Counters of {@code modIds} changed in a committed transaction. */
+    void modsChanged(Set<Long> modIds) throws SQLException;
+
+    /** Counters of any mod may have changed without a report. */
+    void changesMissed() throws SQLException;
+  }
+}
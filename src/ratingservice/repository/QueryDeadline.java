@@ -0,0 +1,116 @@
+package ratingservice.repository;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * How long the queries of one request may run, and the way to abandon them. While it is {@link
+ * #attach attached} to a thread, every statement the {@link Repository} prepares there is refused
+ * once the deadline has passed, otherwise gets the remaining time as its query timeout, and is
+ * cancelled on the server when {@link #cancel} is called.
+ *
+ * <p>JDBC query timeouts have a granularity of seconds, so the timeout is rounded up; callers that
+ * need the exact deadline call {@link #cancel} when it expires.
+ */
+public final class QueryDeadline {
+
+  private static final ThreadLocal<QueryDeadline> ATTACHED = new ThreadLocal<>();
+  private static final String QUERY_CANCELED = "57014";
+
+  private final long deadlineNanos;
+  private final boolean bounded;
+  private final List<Runnable> onCancel = new CopyOnWriteArrayList<>();
+  private volatile boolean cancelled;
+  private volatile Statement running;
+
+  private QueryDeadline(final long deadlineNanos, final boolean bounded) {
+    this.deadlineNanos = deadlineNanos;
+    this.bounded = bounded;
+  }
+
+  /** Expires {@code remainingNanos} from now. */
+  public static QueryDeadline after(final long remainingNanos) {
+    return new QueryDeadline(System.nanoTime() + remainingNanos, true);
+  }
+
+  /** Never expires, but can still be cancelled. */
+  public static QueryDeadline unbounded() {
+    return new QueryDeadline(0, false);
+  }
+
+  /** Time left, {@link Long#MAX_VALUE} when unbounded; zero or less once expired. */
+  public long remainingNanos() {
+    return bounded ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+  }
+
+  public boolean expired() {
+    return cancelled || remainingNanos() <= 0;
+  }
+
+  /** Refuses further statements and cancels the one running, if any. Safe from any thread. */
+  public void cancel() {
+    cancelled = true;
+    Statement statement = running;
+    if (statement != null) {
+      try {
+        statement.cancel();
+      } catch (SQLException ignored) {
+        // The statement completed or was closed in the meantime.
+      }
+    }
+    for (Runnable action : onCancel) {
+      if (onCancel.remove(action)) {
+        action.run();
+      }
+    }
+  }
+
+  /** Runs {@code action} once when this deadline is cancelled; right away if it already is. */
+  public void whenCancelled(final Runnable action) {
+    onCancel.add(action);
+    if (cancelled && onCancel.remove(action)) {
+      action.run();
+    }
+  }
+
+  /** Runs {@code supplier} with this deadline applied to the statements it prepares. */
+  public <T> T attach(final Supplier<T> supplier) {
+    QueryDeadline previous = ATTACHED.get();
+    ATTACHED.set(this);
+    try {
+      return supplier.get();
+    } finally {
+      ATTACHED.set(previous);
+    }
+  }
+
+  /** Whether {@code e} reports a statement cut off by its query timeout or by {@link #cancel}. */
+  public static boolean timedOut(final SQLException e) {
+    return e instanceof SQLTimeoutException || QUERY_CANCELED.equals(e.getSQLState());
+  }
+
+  /** Applies the deadline attached to this thread, if any, to a statement about to run. */
+  static void apply(final Statement statement) throws SQLException {
+    QueryDeadline deadline = ATTACHED.get();
+    if (deadline == null) {
+      return;
+    }
+    deadline.running = statement;
+    if (deadline.cancelled) {
+      throw new SQLException("Request was cancelled", QUERY_CANCELED);
+    }
+    if (deadline.bounded) {
+      long remaining = deadline.remainingNanos();
+      if (remaining <= 0) {
+        throw new SQLTimeoutException("Request deadline expired", QUERY_CANCELED);
+      }
+      long seconds = (remaining + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+      statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, seconds));
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package ratingservice.repository;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive limit on the queries in flight, following the gradient algorithm used for server-side
+ * concurrency limits. Latency is averaged over short windows of completed queries and compared with
+ * a baseline: the latency the database delivers while it keeps up. While they agree, the limit
+ * grows by a fraction of its square root per window. Once the short-term latency rises above the
+ * baseline, the database is queueing and the limit shrinks with the ratio, by up to a tenth per
+ * window. Queries over the limit are rejected at once rather than queued, so the ones admitted keep
+ * the latency of a database that is not overloaded.
+ *
+ * <p>The baseline only learns from windows that show no queueing: those no slower than it, those
+ * that did not use the limit, and those at the minimum limit, where a slower database has to be
+ * accepted as the new normal. Learning from overloaded windows too would let it drift up to the
+ * overloaded latency within a second under sustained load, and the limit with it.
+ */
+public final class QueryLimiter {
+
+  /** Short-term latency may exceed the baseline by this factor before the limit drops. */
+  private static final double TOLERANCE = 1.5;
+
+  /** Weight of a new estimate in the limit. */
+  private static final double SMOOTHING = 0.2;
+
+  private static final int SHORT_WINDOW = 10;
+
+  /** Weight of a short window in the baseline: about the last 600 queries that count. */
+  private static final double BASELINE_WEIGHT = 2.0 / (60 + 1);
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+  private volatile int limit;
+
+  // Guarded by this.
+  private double estimatedLimit;
+  private double baselineRttNanos;
+  private long windowRttNanos;
+  private int windowSamples;
+  private int windowMaxInFlight;
+
+  public QueryLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.limit = (int) estimatedLimit;
+  }
+
+  /**
+   * Takes a slot for one query; every acquired slot must be {@link #release released}.
+   *
+   * @throws RejectedExecutionException when the limit is reached
+   */
+  public void acquire() {
+    while (true) {
+      int current = inFlight.get();
+      int currentLimit = limit;
+      if (current >= currentLimit) {
+        rejected.increment();
+        throw new RejectedExecutionException(
+            "Database concurrency limit of " + currentLimit + " queries reached");
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return;
+      }
+    }
+  }
+
+  /** Frees the slot of a query that took {@code rttNanos}, failed or not. */
+  public void release(final long rttNanos) {
+    int current = inFlight.getAndDecrement();
+    sample(rttNanos, current);
+  }
+
+  private synchronized void sample(final long rttNanos, final int inFlightAtRelease) {
+    windowRttNanos += rttNanos;
+    windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+    if (++windowSamples < SHORT_WINDOW) {
+      return;
+    }
+    double shortRtt = (double) windowRttNanos / windowSamples;
+    int maxInFlight = windowMaxInFlight;
+    windowRttNanos = 0;
+    windowSamples = 0;
+    windowMaxInFlight = 0;
+
+    // Queries that did not use the limit say nothing about it, only about the database.
+    boolean utilized = maxInFlight >= estimatedLimit / 2;
+    if (baselineRttNanos == 0) {
+      baselineRttNanos = shortRtt;
+    } else if (shortRtt <= baselineRttNanos || !utilized || estimatedLimit <= minLimit) {
+      baselineRttNanos += (shortRtt - baselineRttNanos) * BASELINE_WEIGHT;
+    }
+    if (!utilized) {
+      return;
+    }
+    double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * baselineRttNanos / shortRtt));
+    double target =
+        gradient < 1.0 ? estimatedLimit * gradient : estimatedLimit + Math.sqrt(estimatedLimit);
+    double next = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+    limit = (int) estimatedLimit;
+  }
+
+  public int limit() {
+    return limit;
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  public long rejectedCount() {
+    return rejected.sum();
+  }
+}
@@ -1,76 +1,1029 @@
 package ratingservice.repository;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.RejectedExecutionException;
 import javax.sql.DataSource;
+import org.postgresql.PGConnection;
 import ratingservice.constants.Constants;
+import ratingservice.datasource.ReplicaRouter;
+import ratingservice.metrics.Histogram;
+import ratingservice.metrics.RequestTimings;
 import ratingservice.model.Data;
 
 public class Repository {
-  private final DataSource dataSource;
+  /** total followed by rate1..rate5. */
+  private static final int COUNTER_COLUMNS = 6;
+
+  private static final int MAX_UPSERT_ATTEMPTS = 3;
+
+  private static final String UNIQUE_VIOLATION = "23505";
+
+  /**
+   * Applies the staged ratings and returns per-mod counter deltas (total followed by rate1..rate5).
+   * Existing rows are locked in key order so concurrent imports do not deadlock.
+   */
+  private static final String MERGE_STAGED_RATES_SQL =
+      """
+      WITH incoming AS (
+        SELECT DISTINCT ON (mod_id, author_id) mod_id, author_id, rate
+          FROM rates_staging
+         ORDER BY mod_id, author_id, ord DESC
+      ), existing AS (
+        SELECT r.id, r.mod_id, r.author_id, r.rate AS previous_rate, i.rate
+          FROM rates r
+          JOIN incoming i ON i.mod_id = r.mod_id AND i.author_id = r.author_id
+         ORDER BY r.mod_id, r.author_id
+           FOR UPDATE OF r
+      ), updated AS (
+        UPDATE rates
+           SET rate = existing.rate
+          FROM existing
+         WHERE rates.mod_id = existing.mod_id
+           AND rates.id = existing.id
+           AND existing.previous_rate <> existing.rate
+        RETURNING rates.mod_id, existing.previous_rate, rates.rate
+      ), inserted AS (
+        INSERT INTO rates (author_id, mod_id, rate)
+        SELECT i.author_id, i.mod_id, i.rate
+          FROM incoming i
+         WHERE NOT EXISTS (
+                 SELECT 1 FROM existing e WHERE e.mod_id = i.mod_id AND e.author_id = i.author_id)
+        RETURNING mod_id, NULL::BIGINT AS previous_rate, rate
+      ), changes AS (
+        SELECT * FROM updated
+        UNION ALL
+        SELECT * FROM inserted
+      )
+      SELECT mod_id,
+             COUNT(*) FILTER (WHERE previous_rate IS NULL),
+             COUNT(*) FILTER (WHERE rate = 1) - COUNT(*) FILTER (WHERE previous_rate = 1),
+             COUNT(*) FILTER (WHERE rate = 2) - COUNT(*) FILTER (WHERE previous_rate = 2),
+             COUNT(*) FILTER (WHERE rate = 3) - COUNT(*) FILTER (WHERE previous_rate = 3),
+             COUNT(*) FILTER (WHERE rate = 4) - COUNT(*) FILTER (WHERE previous_rate = 4),
+             COUNT(*) FILTER (WHERE rate = 5) - COUNT(*) FILTER (WHERE previous_rate = 5)
+        FROM changes
+       GROUP BY mod_id
+       ORDER BY mod_id
+      """;
+
+  /**
+   * Replaces the author's existing rating or inserts a new one, returning the row id and the rating
+   * it replaced ({@code NULL} for a new row). {@code ON CONFLICT DO UPDATE} cannot report the
+   * replaced value, so the existing row is locked and updated explicitly and the insert only covers
+   * authors rating the mod for the first time. Every reference to {@code rates} is filtered on
+   * {@code mod_id} so only that mod's partition is touched.
+   */
+  private static final String UPSERT_RATE_SQL =
+      """
+      WITH existing AS (
+        SELECT id, rate
+          FROM rates
+         WHERE mod_id = ? AND author_id = ?
+           FOR UPDATE
+      ), updated AS (
+        UPDATE rates
+           SET rate = ?
+          FROM existing
+         WHERE rates.mod_id = ?
+           AND rates.id = existing.id
+        RETURNING rates.id, existing.rate AS previous_rate
+      ), inserted AS (
+        INSERT INTO rates (author_id, mod_id, rate)
+        SELECT ?, ?, ?
+         WHERE NOT EXISTS (SELECT 1 FROM existing)
+        ON CONFLICT (mod_id, author_id) DO NOTHING
+        RETURNING id, NULL::BIGINT AS previous_rate
+      )
+      SELECT id, previous_rate FROM updated
+      UNION ALL
+      SELECT id, previous_rate FROM inserted
+      """;
+
+  /**
+   * Set-based {@link #UPSERT_RATE_SQL} for a batch passed as {@code (mod_id, author_id, rate)}
+   * arrays; a later array element for the same author and mod wins. Returns one row per distinct
+   * author and mod with the row id and the rating it replaced ({@code NULL} for a new row), for the
+   * caller to join back onto its input. The {@code updated} CTE runs although nothing reads it.
+   */
+  private static final String UPSERT_RATES_SQL =
+      """
+      WITH incoming AS (
+        SELECT DISTINCT ON (mod_id, author_id) mod_id, author_id, rate
+          FROM unnest(?::BIGINT[], ?::BIGINT[], ?::BIGINT[])
+               WITH ORDINALITY AS batch (mod_id, author_id, rate, ord)
+         ORDER BY mod_id, author_id, ord DESC
+      ), existing AS (
+        SELECT r.id, r.mod_id, r.author_id, r.rate AS previous_rate, i.rate
+          FROM rates r
+          JOIN incoming i ON i.mod_id = r.mod_id AND i.author_id = r.author_id
+         ORDER BY r.mod_id, r.author_id
+           FOR UPDATE OF r
+      ), updated AS (
+        UPDATE rates
+           SET rate = existing.rate
+          FROM existing
+         WHERE rates.mod_id = existing.mod_id
+           AND rates.id = existing.id
+           AND existing.previous_rate <> existing.rate
+      ), inserted AS (
+        INSERT INTO rates (author_id, mod_id, rate)
+        SELECT i.author_id, i.mod_id, i.rate
+          FROM incoming i
+         WHERE NOT EXISTS (
+                 SELECT 1 FROM existing e WHERE e.mod_id = i.mod_id AND e.author_id = i.author_id)
+        RETURNING id, mod_id, author_id, rate
+      )
+      SELECT mod_id, author_id, id, previous_rate, rate FROM existing
+      UNION ALL
+      SELECT mod_id, author_id, id, NULL::BIGINT, rate FROM inserted
+      """;
+
+  /**
+   * Adds per-mod deltas passed as {@code (mod_id, total, rate1..rate5)} arrays to the counters and
+   * returns the revision the {@code mod_rating_counters_revision} trigger gave each changed row.
+   */
+  private static final String APPLY_COUNTER_DELTAS_SQL =
+      """
+      INSERT INTO mod_rating_counters (mod_id, total, rate1, rate2, rate3, rate4, rate5)
+      SELECT *
+        FROM unnest(?::BIGINT[], ?::BIGINT[], ?::BIGINT[], ?::BIGINT[],
+                    ?::BIGINT[], ?::BIGINT[], ?::BIGINT[])
+      ON CONFLICT (mod_id) DO UPDATE
+         SET total = mod_rating_counters.total + EXCLUDED.total,
+             rate1 = mod_rating_counters.rate1 + EXCLUDED.rate1,
+             rate2 = mod_rating_counters.rate2 + EXCLUDED.rate2,
+             rate3 = mod_rating_counters.rate3 + EXCLUDED.rate3,
+             rate4 = mod_rating_counters.rate4 + EXCLUDED.rate4,
+             rate5 = mod_rating_counters.rate5 + EXCLUDED.rate5
+      RETURNING mod_id, revision
+      """;
+
+  private static final int HISTOGRAM_FETCH_SIZE = 10_000;
+
+  private final ReplicaRouter router;
+  private final CounterListener counterListener;
+  private final QueryLimiter limiter;
+  private final Histogram[] queryLatencyMicros = new Histogram[Query.values().length];
 
   public Repository(final DataSource dataSource) {
-    this.dataSource = dataSource;
+    this(ReplicaRouter.primaryOnly(dataSource));
+  }
+
+  /**
+   * Writes go to the router's primary and summary reads to its replicas; every committed write is
+   * reported back so reads of the same mods stay on the primary within the staleness bound.
+   */
+  public Repository(final ReplicaRouter router) {
+    this(builder(router));
   }
 
+  private Repository(final Builder builder) {
+    this.router = builder.router;
+    this.counterListener = builder.counterListener;
+    this.limiter = builder.limiter;
+    for (int i = 0; i < queryLatencyMicros.length; i++) {
+      queryLatencyMicros[i] = Histogram.exponential(10, 2, 20);
+    }
+  }
+
+  /** Starts a repository on {@code router} with no counter listener and no concurrency limit. */
+  public static Builder builder(final ReplicaRouter router) {
+    return new Builder(router);
+  }
+
+  /**
+   * Time spent in each call of {@code query}, in microseconds, from asking for a connection until
+   * it is returned; failed calls are included.
+   */
+  public Histogram queryLatencyMicros(final Query query) {
+    return queryLatencyMicros[query.ordinal()];
+  }
+
+  /**
+   * Records an author's rating for a mod, replacing their previous rating if there is one, and
+   * returns the id of the author's rating row.
+   */
   public long addRate(final long modId, final long authorId, final int rate) throws SQLException {
-    String sql = "INSERT INTO rates (author_id, mod_id, rate) VALUES (?, ?, ?)";
+    long startedAt = startQuery(Query.ADD_RATE);
+    try {
+      try (Connection conn = writeConnection()) {
+        conn.setAutoCommit(false);
+        try {
+          Map<Long, long[]> deltas = new TreeMap<>();
+          long rateId;
+          try (PreparedStatement stmt = prepare(conn, UPSERT_RATE_SQL)) {
+            rateId = upsertRate(stmt, modId, authorId, rate, deltas);
+          }
+          Map<Long, Long> revisions = applyCounterDeltas(conn, deltas);
+          conn.commit();
+          router.recordWrite(modId);
+          publishDeltas(deltas, revisions);
+          return rateId;
+        } catch (SQLException | RuntimeException e) {
+          rollbackQuietly(conn, e);
+          throw e;
+        } finally {
+          conn.setAutoCommit(true);
+        }
+      }
+    } finally {
+      recordQuery(Query.ADD_RATE, startedAt);
+    }
+  }
 
-    try (Connection conn = dataSource.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-      final int paramRateIndex = 3;
-      stmt.setLong(1, authorId);
-      stmt.setLong(2, modId);
-      stmt.setInt(paramRateIndex, rate);
-      int affectedRows = stmt.executeUpdate();
-      if (affectedRows == 0) {
-        throw new SQLException("Creating rating failed, no rows affected.");
+  public Data getRatingSummary(final long modId) throws SQLException {
+    long startedAt = startQuery(Query.GET_RATING_SUMMARY);
+    try {
+      String sql =
+          """
+          SELECT total, rate1, rate2, rate3, rate4, rate5
+            FROM mod_rating_counters
+           WHERE mod_id = ?
+          """;
+      try (Connection conn = readConnection(modId);
+          PreparedStatement stmt = prepare(conn, sql)) {
+        stmt.setLong(1, modId);
+        try (ResultSet rs = stmt.executeQuery()) {
+          if (rs.next()) {
+            long total = rs.getLong("total");
+            long rate1 = rs.getLong("rate1");
+            long rate2 = rs.getLong("rate2");
+            long rate3 = rs.getLong("rate3");
+            long rate4 = rs.getLong("rate4");
+            long rate5 = rs.getLong("rate5");
+            return new Data(total, rate1, rate2, rate3, rate4, rate5);
+          }
+          return new Data(0, 0, 0, 0, 0, 0);
+        }
       }
-      try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-        if (generatedKeys.next()) {
-          return generatedKeys.getLong(1);
-        } else {
-          throw new SQLException("Creating rating failed, no ID obtained.");
+    } finally {
+      recordQuery(Query.GET_RATING_SUMMARY, startedAt);
+    }
+  }
+
+  /**
+   * Per-rate row counts for one mod. Grouping on {@code rate} lets {@code idx_rates_mod_rate}
+   * answer it with an index-only scan of a single partition.
+   */
+  static final String RATE_HISTOGRAM_SQL =
+      """
+      SELECT rate, COUNT(*) AS rates
+        FROM rates
+       WHERE mod_id = ?
+       GROUP BY rate
+      """;
+
+  /**
+   * Recomputes a mod's summary from {@code rates} instead of reading {@code mod_rating_counters},
+   * for checking the counters against the ratings they summarize.
+   */
+  public Data countRatingSummary(final long modId) throws SQLException {
+    long startedAt = startQuery(Query.COUNT_RATING_SUMMARY);
+    try {
+      long[] counts = new long[COUNTER_COLUMNS];
+      try (Connection conn = readConnection(modId);
+          PreparedStatement stmt = prepare(conn, RATE_HISTOGRAM_SQL)) {
+        stmt.setLong(1, modId);
+        try (ResultSet rs = stmt.executeQuery()) {
+          while (rs.next()) {
+            long rate = rs.getLong("rate");
+            long rates = rs.getLong("rates");
+            counts[0] += rates;
+            if (rate >= Constants.RATE_1 && rate <= Constants.RATE_5) {
+              counts[(int) rate] += rates;
+            }
+          }
         }
       }
+      return new Data(counts[0], counts[1], counts[2], counts[3], counts[4], counts[5]);
+    } finally {
+      recordQuery(Query.COUNT_RATING_SUMMARY, startedAt);
     }
   }
 
-  public Data getRatingSummary(final long modId) throws SQLException {
-    String sql =
-        """
-        SELECT COUNT(*) AS total,
-               SUM(CASE WHEN rate = ? THEN 1 ELSE 0 END) AS rate1,
-               SUM(CASE WHEN rate = ? THEN 1 ELSE 0 END) AS rate2,
-               SUM(CASE WHEN rate = ? THEN 1 ELSE 0 END) AS rate3,
-               SUM(CASE WHEN rate = ? THEN 1 ELSE 0 END) AS rate4,
-               SUM(CASE WHEN rate = ? THEN 1 ELSE 0 END) AS rate5
-          FROM rates
-         WHERE mod_id = ?
-        """;
-    try (Connection conn = dataSource.getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql)) {
-      stmt.setInt(1, Constants.RATE_1);
-      stmt.setInt(2, Constants.RATE_2);
-      stmt.setInt(3, Constants.RATE_3);
-      stmt.setInt(4, Constants.RATE_4);
-      stmt.setInt(5, Constants.RATE_5);
-      stmt.setLong(6, modId);
+  /**
+   * Loads summaries for all given mods in one round trip; mods without ratings map to an all-zero
+   * {@link Data}.
+   */
+  public Map<Long, Data> getRatingSummaries(final Collection<Long> modIds) throws SQLException {
+    return loadRatingSummaries(Query.GET_RATING_SUMMARIES, modIds);
+  }
+
+  /**
+   * {@link #getRatingSummaries} for background publishing of watched mods: it is never rejected by
+   * the {@link QueryLimiter}, so updates are not dropped while the limit is reached.
+   */
+  public Map<Long, Data> getWatchedRatingSummaries(final Collection<Long> modIds)
+      throws SQLException {
+    return loadRatingSummaries(Query.GET_WATCHED_RATING_SUMMARIES, modIds);
+  }
+
+  private Map<Long, Data> loadRatingSummaries(final Query query, final Collection<Long> modIds)
+      throws SQLException {
+    long startedAt = startQuery(query);
+    try {
+      Map<Long, Data> summaries = new LinkedHashMap<>();
+      if (modIds.isEmpty()) {
+        return summaries;
+      }
+      String sql =
+          """
+          SELECT mod_id, total, rate1, rate2, rate3, rate4, rate5
+            FROM mod_rating_counters
+           WHERE mod_id = ANY(?)
+          """;
+      try (Connection conn = readConnection(modIds);
+          PreparedStatement stmt = prepare(conn, sql)) {
+        Array ids = conn.createArrayOf("bigint", modIds.toArray());
+        try {
+          stmt.setArray(1, ids);
+          try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+              summaries.put(
+                  rs.getLong("mod_id"),
+                  new Data(
+                      rs.getLong("total"),
+                      rs.getLong("rate1"),
+                      rs.getLong("rate2"),
+                      rs.getLong("rate3"),
+                      rs.getLong("rate4"),
+                      rs.getLong("rate5")));
+            }
+          }
+        } finally {
+          ids.free();
+        }
+      }
+      Data empty = new Data(0, 0, 0, 0, 0, 0);
+      for (Long modId : modIds) {
+        summaries.putIfAbsent(modId, empty);
+      }
+      return summaries;
+    } finally {
+      recordQuery(query, startedAt);
+    }
+  }
+
+  /**
+   * Upserts all ratings with one statement in one transaction and returns the rating ids in input
+   * order. A later entry for the same author and mod replaces an earlier one.
+   *
+   * <p>A concurrent first-time rating by one of the same authors surfaces as a unique violation;
+   * the batch is then retried, at which point the competing row is visible and gets updated.
+   */
+  public long[] addRates(final List<RateInsert> rates) throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      if (rates.isEmpty()) {
+        return new long[0];
+      }
+      try (Connection conn = writeConnection()) {
+        conn.setAutoCommit(false);
+        try {
+          for (int attempt = 1; ; attempt++) {
+            try {
+              Map<Long, long[]> deltas = new TreeMap<>();
+              long[] rateIds = upsertRates(conn, rates, deltas);
+              Map<Long, Long> revisions = applyCounterDeltas(conn, deltas);
+              conn.commit();
+              recordWrites(rates);
+              publishDeltas(deltas, revisions);
+              return rateIds;
+            } catch (SQLException e) {
+              rollbackQuietly(conn, e);
+              if (!UNIQUE_VIOLATION.equals(e.getSQLState()) || attempt >= MAX_UPSERT_ATTEMPTS) {
+                throw e;
+              }
+            }
+          }
+        } catch (RuntimeException e) {
+          rollbackQuietly(conn, e);
+          throw e;
+        } finally {
+          conn.setAutoCommit(true);
+        }
+      }
+    } finally {
+      recordQuery(Query.ADD_RATES, startedAt);
+    }
+  }
+
+  /**
+   * Runs {@link #UPSERT_RATES_SQL} for {@code rates}, records the counter changes in {@code deltas}
+   * and returns the rating ids in input order.
+   */
+  private static long[] upsertRates(
+      final Connection conn, final List<RateInsert> rates, final Map<Long, long[]> deltas)
+      throws SQLException {
+    Long[] modIds = new Long[rates.size()];
+    Long[] authorIds = new Long[rates.size()];
+    Long[] values = new Long[rates.size()];
+    for (int i = 0; i < modIds.length; i++) {
+      RateInsert rate = rates.get(i);
+      modIds[i] = rate.modId();
+      authorIds[i] = rate.authorId();
+      values[i] = (long) rate.rate();
+    }
+
+    Map<RateKey, Long> idsByKey = new HashMap<>();
+    try (PreparedStatement stmt = prepare(conn, UPSERT_RATES_SQL)) {
+      Array[] arrays = {
+        conn.createArrayOf("bigint", modIds),
+        conn.createArrayOf("bigint", authorIds),
+        conn.createArrayOf("bigint", values)
+      };
+      try {
+        for (int i = 0; i < arrays.length; i++) {
+          stmt.setArray(i + 1, arrays[i]);
+        }
+        try (ResultSet rs = stmt.executeQuery()) {
+          while (rs.next()) {
+            long modId = rs.getLong("mod_id");
+            int rate = (int) rs.getLong("rate");
+            long previousRate = rs.getLong("previous_rate");
+            if (rs.wasNull()) {
+              addDelta(deltas, modId, rate, 1);
+            } else if (previousRate != rate) {
+              addDelta(deltas, modId, rate, 1);
+              addDelta(deltas, modId, (int) previousRate, -1);
+            }
+            idsByKey.put(new RateKey(modId, rs.getLong("author_id")), rs.getLong("id"));
+          }
+        }
+      } finally {
+        for (Array array : arrays) {
+          array.free();
+        }
+      }
+    }
+
+    long[] rateIds = new long[rates.size()];
+    for (int i = 0; i < rateIds.length; i++) {
+      RateInsert rate = rates.get(i);
+      Long rateId = idsByKey.get(new RateKey(rate.modId(), rate.authorId()));
+      if (rateId == null) {
+        throw new SQLException("Upserting ratings failed, no row returned for mod " + rate.modId());
+      }
+      rateIds[i] = rateId;
+    }
+    return rateIds;
+  }
+
+  /**
+   * Runs {@link #UPSERT_RATE_SQL} and records the counter change in {@code deltas}. An empty result
+   * means a concurrent transaction inserted the same author and mod after our snapshot was taken;
+   * the insert waited for it to commit, so the next attempt sees and locks that row.
+   */
+  private static long upsertRate(
+      final PreparedStatement stmt,
+      final long modId,
+      final long authorId,
+      final int rate,
+      final Map<Long, long[]> deltas)
+      throws SQLException {
+    final int paramUpdateRateIndex = 3;
+    final int paramUpdateModIndex = 4;
+    final int paramInsertAuthorIndex = 5;
+    final int paramInsertModIndex = 6;
+    final int paramInsertRateIndex = 7;
+    stmt.setLong(1, modId);
+    stmt.setLong(2, authorId);
+    stmt.setInt(paramUpdateRateIndex, rate);
+    stmt.setLong(paramUpdateModIndex, modId);
+    stmt.setLong(paramInsertAuthorIndex, authorId);
+    stmt.setLong(paramInsertModIndex, modId);
+    stmt.setInt(paramInsertRateIndex, rate);
+    for (int attempt = 0; attempt < MAX_UPSERT_ATTEMPTS; attempt++) {
       try (ResultSet rs = stmt.executeQuery()) {
-        if (rs.next()) {
-          long total = rs.getLong("total");
-          long rate1 = rs.getLong("rate1");
-          long rate2 = rs.getLong("rate2");
-          long rate3 = rs.getLong("rate3");
-          long rate4 = rs.getLong("rate4");
-          long rate5 = rs.getLong("rate5");
-          return new Data(total, rate1, rate2, rate3, rate4, rate5);
+        if (!rs.next()) {
+          continue;
+        }
+        long rateId = rs.getLong("id");
+        long previousRate = rs.getLong("previous_rate");
+        if (rs.wasNull()) {
+          addDelta(deltas, modId, rate, 1);
+        } else if (previousRate != rate) {
+          addDelta(deltas, modId, rate, 1);
+          addDelta(deltas, modId, (int) previousRate, -1);
+        }
+        return rateId;
+      }
+    }
+    throw new SQLException("Upserting rating failed, no row inserted or updated.");
+  }
+
+  /**
+   * Bulk variant of {@link #addRates} for large imports: streams the ratings into a session-local
+   * staging table with {@code COPY} and applies them with set-based statements in one transaction.
+   * A later entry for the same author and mod wins. Returns the number of ratings processed.
+   *
+   * <p>A concurrent first-time rating by one of the same authors surfaces as a unique violation;
+   * the chunk is then retried, at which point the competing row is visible and gets updated.
+   */
+  public int copyRates(final List<RateInsert> rates) throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      if (rates.isEmpty()) {
+        return 0;
+      }
+      try (Connection conn = writeConnection()) {
+        conn.setAutoCommit(false);
+        try {
+          for (int attempt = 1; ; attempt++) {
+            try {
+              Map<Long, long[]> deltas = new TreeMap<>();
+              Map<Long, Long> revisions = copyRatesOnce(conn, rates, deltas);
+              conn.commit();
+              recordWrites(rates);
+              publishDeltas(deltas, revisions);
+              return rates.size();
+            } catch (SQLException e) {
+              rollbackQuietly(conn, e);
+              if (!UNIQUE_VIOLATION.equals(e.getSQLState()) || attempt >= MAX_UPSERT_ATTEMPTS) {
+                throw e;
+              }
+            }
+          }
+        } catch (RuntimeException e) {
+          rollbackQuietly(conn, e);
+          throw e;
+        } finally {
+          conn.setAutoCommit(true);
+        }
+      }
+    } finally {
+      recordQuery(Query.COPY_RATES, startedAt);
+    }
+  }
+
+  /**
+   * Stages and merges {@code rates}, records the counter changes in {@code deltas} and returns the
+   * revisions of the changed counters.
+   */
+  private Map<Long, Long> copyRatesOnce(
+      final Connection conn, final List<RateInsert> rates, final Map<Long, long[]> deltas)
+      throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute(
+          """
+          CREATE TEMP TABLE IF NOT EXISTS rates_staging (
+              ord INT NOT NULL,
+              author_id BIGINT NOT NULL,
+              mod_id BIGINT NOT NULL,
+              rate BIGINT NOT NULL
+          ) ON COMMIT DELETE ROWS
+          """);
+    }
+    StringBuilder rows = new StringBuilder(rates.size() * 32);
+    for (int i = 0; i < rates.size(); i++) {
+      RateInsert rate = rates.get(i);
+      rows.append(i)
+          .append('\t')
+          .append(rate.authorId())
+          .append('\t')
+          .append(rate.modId())
+          .append('\t')
+          .append(rate.rate())
+          .append('\n');
+    }
+    try {
+      conn.unwrap(PGConnection.class)
+          .getCopyAPI()
+          .copyIn(
+              "COPY rates_staging (ord, author_id, mod_id, rate) FROM STDIN",
+              new StringReader(rows.toString()));
+    } catch (IOException e) {
+      throw new SQLException("Copying ratings failed.", e);
+    }
+
+    try (PreparedStatement stmt = prepare(conn, MERGE_STAGED_RATES_SQL);
+        ResultSet rs = stmt.executeQuery()) {
+      while (rs.next()) {
+        long[] delta = new long[COUNTER_COLUMNS];
+        for (int i = 0; i < COUNTER_COLUMNS; i++) {
+          delta[i] = rs.getLong(i + 2);
+        }
+        deltas.put(rs.getLong(1), delta);
+      }
+    }
+    return applyCounterDeltas(conn, deltas);
+  }
+
+  private static void addDelta(
+      final Map<Long, long[]> deltas, final long modId, final int rate, final long amount) {
+    long[] delta = deltas.computeIfAbsent(modId, ignored -> new long[COUNTER_COLUMNS]);
+    delta[0] += amount;
+    if (rate >= Constants.RATE_1 && rate <= Constants.RATE_5) {
+      delta[rate] += amount;
+    }
+  }
+
+  /**
+   * Applies per-mod deltas (total followed by rate1..rate5) to mod_rating_counters and returns the
+   * revision each mod's counters got. Callers pass a sorted map so concurrent transactions lock
+   * counter rows in the same order.
+   */
+  private Map<Long, Long> applyCounterDeltas(final Connection conn, final Map<Long, long[]> deltas)
+      throws SQLException {
+    Map<Long, Long> revisions = new HashMap<>();
+    if (deltas.isEmpty()) {
+      return revisions;
+    }
+    Long[][] columns = new Long[1 + COUNTER_COLUMNS][deltas.size()];
+    int row = 0;
+    for (Map.Entry<Long, long[]> entry : deltas.entrySet()) {
+      columns[0][row] = entry.getKey();
+      long[] delta = entry.getValue();
+      for (int i = 0; i < COUNTER_COLUMNS; i++) {
+        columns[i + 1][row] = delta[i];
+      }
+      row++;
+    }
+    try (PreparedStatement stmt = prepare(conn, APPLY_COUNTER_DELTAS_SQL)) {
+      Array[] arrays = new Array[columns.length];
+      try {
+        for (int i = 0; i < columns.length; i++) {
+          arrays[i] = conn.createArrayOf("bigint", columns[i]);
+          stmt.setArray(i + 1, arrays[i]);
+        }
+        try (ResultSet rs = stmt.executeQuery()) {
+          while (rs.next()) {
+            revisions.put(rs.getLong(1), rs.getLong(2));
+          }
+        }
+      } finally {
+        for (Array array : arrays) {
+          if (array != null) {
+            array.free();
+          }
+        }
+      }
+    }
+    if (revisions.size() != deltas.size()) {
+      throw new SQLException("Updating rating counters failed, no rows affected.");
+    }
+    return revisions;
+  }
+
+  /**
+   * Streams {@code (mod_id, rate, count)} for every rated mod from one grouped scan of {@code
+   * rates} on the primary, ordered by mod.
+   */
+  public void scanRateHistograms(final RateCountConsumer consumer) throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      String sql =
+          """
+          SELECT mod_id, rate, COUNT(*) AS rates
+            FROM rates
+           GROUP BY mod_id, rate
+           ORDER BY mod_id, rate
+          """;
+      try (Connection conn = writeConnection()) {
+        // The driver only fetches in batches inside a transaction.
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = prepare(conn, sql)) {
+          stmt.setFetchSize(HISTOGRAM_FETCH_SIZE);
+          try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+              consumer.accept(rs.getLong("mod_id"), rs.getLong("rate"), rs.getLong("rates"));
+            }
+          }
+          conn.commit();
+        } catch (SQLException | RuntimeException e) {
+          rollbackQuietly(conn, e);
+          throw e;
+        } finally {
+          conn.setAutoCommit(true);
+        }
+      }
+    } finally {
+      recordQuery(Query.SCAN_RATE_HISTOGRAMS, startedAt);
+    }
+  }
+
+  /**
+   * Waits for in-flight counter changes to commit and returns the highest {@code
+   * mod_rating_counters.revision}: every change up to it is committed, and every later one gets a
+   * higher revision. Briefly blocks rating writes while it waits.
+   */
+  public long counterRevision() throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      try (Connection conn = writeConnection()) {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+          stmt.execute("LOCK TABLE mod_rating_counters IN SHARE MODE");
+          long revision;
+          try (ResultSet rs =
+              stmt.executeQuery("SELECT COALESCE(MAX(revision), 0) FROM mod_rating_counters")) {
+            rs.next();
+            revision = rs.getLong(1);
+          }
+          conn.commit();
+          return revision;
+        } catch (SQLException | RuntimeException e) {
+          rollbackQuietly(conn, e);
+          throw e;
+        } finally {
+          conn.setAutoCommit(true);
+        }
+      }
+    } finally {
+      recordQuery(Query.COUNTER_REVISION, startedAt);
+    }
+  }
+
+  /**
+   * Streams the rate1..rate5 counters of every mod whose counters changed after {@code
+   * afterRevision} from the primary; {@code -1} streams them all. The array passed to the consumer
+   * is reused between rows. Returns the highest revision streamed, or {@code afterRevision}.
+   */
+  public long scanRatingCounters(final long afterRevision, final CounterRowConsumer consumer)
+      throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      String sql =
+          """
+          SELECT mod_id, rate1, rate2, rate3, rate4, rate5, revision
+            FROM mod_rating_counters
+           WHERE revision > ?
+          """;
+      long maxRevision = afterRevision;
+      long[] counts = new long[COUNTER_COLUMNS - 1];
+      try (Connection conn = writeConnection()) {
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = prepare(conn, sql)) {
+          stmt.setFetchSize(HISTOGRAM_FETCH_SIZE);
+          stmt.setLong(1, afterRevision);
+          try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+              for (int i = 0; i < counts.length; i++) {
+                counts[i] = rs.getLong(i + 2);
+              }
+              long revision = rs.getLong(7);
+              consumer.accept(rs.getLong(1), counts, revision);
+              maxRevision = Math.max(maxRevision, revision);
+            }
+          }
+          conn.commit();
+        } catch (SQLException | RuntimeException e) {
+          rollbackQuietly(conn, e);
+          throw e;
+        } finally {
+          conn.setAutoCommit(true);
+        }
+      }
+      return maxRevision;
+    } finally {
+      recordQuery(Query.SCAN_RATING_COUNTERS, startedAt);
+    }
+  }
+
+  /**
+   * Streams the rate1..rate5 counters of the given mods from the primary, which has every change a
+   * counter notification reported; mods without counters are skipped. The array passed to the
+   * consumer is reused between rows.
+   */
+  public void readRatingCounters(final Collection<Long> modIds, final CounterRowConsumer consumer)
+      throws SQLException {
+    long startedAt = startQuery(Query.READ_RATING_COUNTERS);
+    try {
+      if (modIds.isEmpty()) {
+        return;
+      }
+      String sql =
+          """
+          SELECT mod_id, rate1, rate2, rate3, rate4, rate5, revision
+            FROM mod_rating_counters
+           WHERE mod_id = ANY(?)
+          """;
+      long[] counts = new long[COUNTER_COLUMNS - 1];
+      try (Connection conn = writeConnection();
+          PreparedStatement stmt = prepare(conn, sql)) {
+        Array ids = conn.createArrayOf("bigint", modIds.toArray());
+        try {
+          stmt.setArray(1, ids);
+          try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+              for (int i = 0; i < counts.length; i++) {
+                counts[i] = rs.getLong(i + 2);
+              }
+              consumer.accept(rs.getLong(1), counts, rs.getLong(7));
+            }
+          }
+        } finally {
+          ids.free();
         }
-        return new Data(0, 0, 0, 0, 0, 0);
       }
+    } finally {
+      recordQuery(Query.READ_RATING_COUNTERS, startedAt);
+    }
+  }
+
+  /**
+   * Reads {@code modIds} from the primary until replicas have caught up, as for this node's own
+   * writes; for mods whose counters changed through other nodes.
+   */
+  public void recordChanges(final Collection<Long> modIds) {
+    for (long modId : modIds) {
+      router.recordWrite(modId);
+    }
+  }
+
+  private void publishDeltas(final Map<Long, long[]> deltas, final Map<Long, Long> revisions) {
+    if (counterListener == null) {
+      return;
+    }
+    for (Map.Entry<Long, long[]> entry : deltas.entrySet()) {
+      long modId = entry.getKey();
+      counterListener.countersChanged(modId, entry.getValue(), revisions.get(modId));
+    }
+  }
+
+  private void recordWrites(final List<RateInsert> rates) {
+    Set<Long> modIds = new HashSet<>();
+    for (RateInsert rate : rates) {
+      if (modIds.add(rate.modId())) {
+        router.recordWrite(rate.modId());
+      }
+    }
+  }
+
+  /** Optional collaborators of a {@link Repository}; each one left unset is disabled. */
+  public static final class Builder {
+
+    private final ReplicaRouter router;
+    private CounterListener counterListener;
+    private QueryLimiter limiter;
+
+    private Builder(final ReplicaRouter router) {
+      this.router = router;
+    }
+
+    /** Told about every committed counter change. */
+    public Builder counterListener(final CounterListener counterListener) {
+      this.counterListener = counterListener;
+      return this;
+    }
+
+    /** Bounds the single-request queries in flight; without it they are unbounded. */
+    public Builder limiter(final QueryLimiter limiter) {
+      this.limiter = limiter;
+      return this;
+    }
+
+    public Repository build() {
+      return new Repository(this);
+    }
+  }
+
+  /** A rating to be inserted by {@link #addRates}. */
+  public record RateInsert(long modId, long authorId, int rate) {}
+
+  private record RateKey(long modId, long authorId) {}
+
+  /** Receives committed counter changes for one mod, in the order of the counter columns. */
+  @FunctionalInterface
+  public interface CounterListener {
+    /**
+     * @param delta change of total followed by rate1..rate5
+     * @param revision {@code mod_rating_counters.revision} of the mod after the change; changes of
+     *     one mod may be reported out of revision order
+     */
+    void countersChanged(long modId, long[] delta, long revision);
+  }
+
+  @FunctionalInterface
+  public interface RateCountConsumer {
+    void accept(long modId, long rate, long count);
+  }
+
+  @FunctionalInterface
+  public interface CounterRowConsumer {
+    /**
+     * @param counts rate1..rate5, only valid for the duration of the call
+     * @param revision {@code mod_rating_counters.revision} the counts were read at
+     */
+    void accept(long modId, long[] counts, long revision);
+  }
+
+  /**
+   * The repository operations timed by {@link #queryLatencyMicros}. Those serving a single request
+   * go through the {@link QueryLimiter}; batched, bulk, background and startup work is never
+   * rejected by it.
+   */
+  public enum Query {
+    ADD_RATE(true),
+    ADD_RATES(false),
+    COPY_RATES(false),
+    GET_RATING_SUMMARY(true),
+    GET_RATING_SUMMARIES(true),
+    GET_WATCHED_RATING_SUMMARIES(false),
+    COUNT_RATING_SUMMARY(true),
+    SCAN_RATE_HISTOGRAMS(false),
+    COUNTER_REVISION(false),
+    SCAN_RATING_COUNTERS(false),
+    READ_RATING_COUNTERS(false);
+
+    private final boolean limited;
+
+    Query(final boolean limited) {
+      this.limited = limited;
+    }
+  }
+
+  /**
+   * Start time of a call of {@code query}, once the limiter admitted it.
+   *
+   * @throws RejectedExecutionException when the limiter is at its limit
+   */
+  private long startQuery(final Query query) {
+    if (query.limited && limiter != null) {
+      limiter.acquire();
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * Records the call in its query histogram and, when it runs for an RPC, as query time of that
+   * RPC; {@link #recordAcquire} takes the connection wait back out of it.
+   */
+  private void recordQuery(final Query query, final long startedAt) {
+    long elapsedNanos = System.nanoTime() - startedAt;
+    if (query.limited && limiter != null) {
+      limiter.release(elapsedNanos);
+    }
+    queryLatencyMicros[query.ordinal()].record(elapsedNanos / 1_000);
+    RequestTimings.record(RequestTimings.Stage.QUERY_EXECUTE, elapsedNanos);
+  }
+
+  private Connection writeConnection() throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      return router.writeConnection();
+    } finally {
+      recordAcquire(startedAt);
+    }
+  }
+
+  private Connection readConnection(final long modId) throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      return router.readConnection(modId);
+    } finally {
+      recordAcquire(startedAt);
+    }
+  }
+
+  private Connection readConnection(final Collection<Long> modIds) throws SQLException {
+    long startedAt = System.nanoTime();
+    try {
+      return router.readConnection(modIds);
+    } finally {
+      recordAcquire(startedAt);
+    }
+  }
+
+  /** Prepares {@code sql} under the {@link QueryDeadline} of the current request, if any. */
+  private static PreparedStatement prepare(final Connection conn, final String sql)
+      throws SQLException {
+    PreparedStatement stmt = conn.prepareStatement(sql);
+    try {
+      QueryDeadline.apply(stmt);
+    } catch (SQLException e) {
+      stmt.close();
+      throw e;
+    }
+    return stmt;
+  }
+
+  private static void recordAcquire(final long startedAt) {
+    long waitNanos = System.nanoTime() - startedAt;
+    RequestTimings.record(RequestTimings.Stage.CONNECTION_ACQUIRE, waitNanos);
+    RequestTimings.record(RequestTimings.Stage.QUERY_EXECUTE, -waitNanos);
+  }
+
+  private static void rollbackQuietly(final Connection conn, final Exception cause) {
+    try {
+      conn.rollback();
+    } catch (SQLException rollbackError) {
+      cause.addSuppressed(rollbackError);
     }
   }
 }
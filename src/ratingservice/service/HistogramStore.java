@@ -0,0 +1,77 @@
+package ratingservice.service;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import ratingservice.model.Data;
+import ratingservice.repository.Repository;
+
+/**
+ * In-memory rating counters for GetRates, warmed once from {@code rates} and then kept current as
+ * the {@link Repository.CounterListener} of the repository that writes ratings.
+ *
+ * <p>Every mod remembers the {@code mod_rating_counters} revision of its last {@link #refresh} and
+ * of the newest change applied since. A change no newer than the last refresh is already part of it
+ * and is dropped; a refresh older than a change already applied would lose that change and is
+ * dropped instead. Either way the notification of the newest change re-reads the mod.
+ */
+public interface HistogramStore extends Repository.CounterListener {
+
+  /** Number of counters {@link #read} fills: rate1..rate5. */
+  int RATES = 5;
+
+  /**
+   * Loads every mod from one grouped scan of {@code rates}. Must run once, before ratings are
+   * written through the repository this store listens to; until then the store answers nothing.
+   */
+  Stats warm(Repository repository) throws SQLException;
+
+  /**
+   * Alternative to {@link #warm} that loads {@code snapshot} and then re-reads only the mods whose
+   * counters changed after it, so startup does not depend on the number of ratings.
+   */
+  Stats restore(RatingSnapshot snapshot, Repository repository) throws IOException, SQLException;
+
+  /**
+   * Copies the rate1..rate5 counts of {@code modId} into {@code counts} without allocating. Returns
+   * {@code false}, leaving {@code counts} undefined, for mods the store cannot answer for.
+   */
+  boolean read(long modId, long[] counts);
+
+  /**
+   * Overwrites the rate1..rate5 counts of {@code modId} with {@code counts} as read from {@code
+   * mod_rating_counters} at {@code revision}, for changes the repository did not report, such as
+   * ratings written through other nodes. Ignored if the mod already holds a newer change.
+   */
+  void refresh(long modId, long[] counts, long revision);
+
+  Stats stats();
+
+  /** {@link #read} wrapped in a {@link Data}, or {@code null}. */
+  default Data get(final long modId) {
+    long[] counts = new long[RATES];
+    return read(modId, counts) ? toData(counts) : null;
+  }
+
+  static Data toData(final long[] counts) {
+    return new Data(
+        counts[0] + counts[1] + counts[2] + counts[3] + counts[4],
+        counts[0],
+        counts[1],
+        counts[2],
+        counts[3],
+        counts[4]);
+  }
+
+  /**
+   * @param capacity mods the table can hold
+   * @param footprintBytes memory held by the table, allocated up front for {@code capacity}
+   * @param overflowed whether a mod has been left out because it did not fit
+   */
+  record Stats(long mods, long capacity, long footprintBytes, boolean overflowed) {
+
+    /** Footprint divided by the mods currently held. */
+    public long bytesPerMod() {
+      return footprintBytes / Math.max(1, mods);
+    }
+  }
+}
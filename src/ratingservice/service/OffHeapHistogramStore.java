@@ -0,0 +1,201 @@
+package ratingservice.service;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import ratingservice.constants.Constants;
+import ratingservice.repository.Repository;
+
+/**
+ * {@link HistogramStore} outside the Java heap for catalogs of tens of millions of mods. Mods are
+ * indexed directly by id: mod {@code n} owns the fixed-width slot of five rate counters and two
+ * revisions at {@code n * 56} bytes, so there are no keys, no probing and nothing for the garbage
+ * collector to trace. Reads take no lock; a counter change holds one of a few striped locks while
+ * it checks the slot's revisions.
+ *
+ * <p>The table is allocated up front for ids {@code 1..maxModId}, about 56 bytes per id, from
+ * direct memory in chunks of at most 1 GiB; raise {@code -XX:MaxDirectMemorySize} to fit it. Mods
+ * with larger ids are left to the database.
+ */
+public final class OffHeapHistogramStore implements HistogramStore {
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+  // Per slot: five counters, the revision of the last refresh, then of the newest change applied.
+  private static final int BASE_REVISION = RATES * Long.BYTES;
+  private static final int TOP_REVISION = BASE_REVISION + Long.BYTES;
+  private static final int SLOT_BYTES = TOP_REVISION + Long.BYTES;
+  private static final int SLOTS_PER_CHUNK = (1 << 30) / SLOT_BYTES;
+  private static final int LOCK_STRIPES = 64;
+
+  private final long maxModId;
+  private final ByteBuffer[] chunks;
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final LongAdder outOfRange = new LongAdder();
+  // Mods with a non-zero counter, kept up to date by every write so stats() need not walk the
+  // table.
+  private final LongAdder ratedMods = new LongAdder();
+  private volatile boolean warmed;
+
+  public OffHeapHistogramStore(final long maxModId) {
+    if (maxModId < 1) {
+      throw new IllegalArgumentException("maxModId must be positive");
+    }
+    long chunkCount = (maxModId + SLOTS_PER_CHUNK) / SLOTS_PER_CHUNK;
+    if (chunkCount > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("maxModId is too large: " + maxModId);
+    }
+    this.maxModId = maxModId;
+    this.chunks = new ByteBuffer[(int) chunkCount];
+    long remaining = maxModId + 1;
+    for (int i = 0; i < chunks.length; i++) {
+      int slots = (int) Math.min(SLOTS_PER_CHUNK, remaining);
+      // Atomic access through the view handle needs 8-byte aligned offsets.
+      chunks[i] =
+          ByteBuffer.allocateDirect(slots * SLOT_BYTES + Long.BYTES)
+              .alignedSlice(Long.BYTES)
+              .order(ByteOrder.nativeOrder());
+      remaining -= slots;
+    }
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  @Override
+  public Stats warm(final Repository repository) throws SQLException {
+    if (warmed) {
+      throw new IllegalStateException("Rating store is already warmed");
+    }
+    repository.scanRateHistograms(
+        (modId, rate, count) -> {
+          if (rate >= Constants.RATE_1 && rate <= Constants.RATE_5) {
+            add(modId, (int) rate, count);
+          }
+        });
+    warmed = true;
+    return stats();
+  }
+
+  @Override
+  public Stats restore(final RatingSnapshot snapshot, final Repository repository)
+      throws IOException, SQLException {
+    if (warmed) {
+      throw new IllegalStateException("Rating store is already warmed");
+    }
+    snapshot.forEach(this::refresh);
+    repository.scanRatingCounters(snapshot.revision(), this::refresh);
+    warmed = true;
+    return stats();
+  }
+
+  @Override
+  public boolean read(final long modId, final long[] counts) {
+    if (!warmed || modId <= 0 || modId > maxModId) {
+      return false;
+    }
+    ByteBuffer chunk = chunks[(int) (modId / SLOTS_PER_CHUNK)];
+    int offset = (int) (modId % SLOTS_PER_CHUNK) * SLOT_BYTES;
+    for (int i = 0; i < RATES; i++) {
+      counts[i] = (long) LONGS.getVolatile(chunk, offset + i * Long.BYTES);
+    }
+    return true;
+  }
+
+  @Override
+  public void countersChanged(final long modId, final long[] delta, final long revision) {
+    if (!inRange(modId)) {
+      return;
+    }
+    ByteBuffer chunk = chunks[(int) (modId / SLOTS_PER_CHUNK)];
+    int offset = (int) (modId % SLOTS_PER_CHUNK) * SLOT_BYTES;
+    synchronized (locks[(int) (modId & (LOCK_STRIPES - 1))]) {
+      if (revision <= (long) LONGS.get(chunk, offset + BASE_REVISION)) {
+        return;
+      }
+      long top = (long) LONGS.get(chunk, offset + TOP_REVISION);
+      LONGS.set(chunk, offset + TOP_REVISION, Math.max(top, revision));
+      boolean wasRated = isRated(chunk, offset);
+      for (int rate = Constants.RATE_1; rate <= Constants.RATE_5; rate++) {
+        if (delta[rate] != 0) {
+          LONGS.getAndAdd(chunk, offset + (rate - 1) * Long.BYTES, delta[rate]);
+        }
+      }
+      countRated(wasRated, isRated(chunk, offset));
+    }
+  }
+
+  @Override
+  public Stats stats() {
+    long footprint = 0;
+    for (ByteBuffer chunk : chunks) {
+      footprint += chunk.capacity();
+    }
+    return new Stats(ratedMods.sum(), maxModId, footprint, outOfRange.sum() > 0);
+  }
+
+  /** Also loads the snapshot and the counters changed after it in {@link #restore}. */
+  @Override
+  public void refresh(final long modId, final long[] counts, final long revision) {
+    if (!inRange(modId)) {
+      return;
+    }
+    ByteBuffer chunk = chunks[(int) (modId / SLOTS_PER_CHUNK)];
+    int offset = (int) (modId % SLOTS_PER_CHUNK) * SLOT_BYTES;
+    synchronized (locks[(int) (modId & (LOCK_STRIPES - 1))]) {
+      if (revision < (long) LONGS.get(chunk, offset + BASE_REVISION)
+          || revision < (long) LONGS.get(chunk, offset + TOP_REVISION)) {
+        return;
+      }
+      LONGS.set(chunk, offset + BASE_REVISION, revision);
+      LONGS.set(chunk, offset + TOP_REVISION, revision);
+      boolean wasRated = isRated(chunk, offset);
+      for (int i = 0; i < RATES; i++) {
+        LONGS.setVolatile(chunk, offset + i * Long.BYTES, counts[i]);
+      }
+      countRated(wasRated, isRated(chunk, offset));
+    }
+  }
+
+  /** Warming only: runs before any change is reported, so revisions stay at zero. */
+  private void add(final long modId, final int rate, final long amount) {
+    if (!inRange(modId)) {
+      return;
+    }
+    ByteBuffer chunk = chunks[(int) (modId / SLOTS_PER_CHUNK)];
+    int offset = (int) (modId % SLOTS_PER_CHUNK) * SLOT_BYTES;
+    boolean wasRated = isRated(chunk, offset);
+    LONGS.getAndAdd(chunk, offset + (rate - 1) * Long.BYTES, amount);
+    countRated(wasRated, isRated(chunk, offset));
+  }
+
+  private static boolean isRated(final ByteBuffer chunk, final int offset) {
+    for (int i = 0; i < RATES; i++) {
+      if ((long) LONGS.getOpaque(chunk, offset + i * Long.BYTES) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void countRated(final boolean wasRated, final boolean rated) {
+    if (rated != wasRated) {
+      ratedMods.add(rated ? 1 : -1);
+    }
+  }
+
+  private boolean inRange(final long modId) {
+    if (modId <= 0) {
+      return false;
+    }
+    if (modId > maxModId) {
+      outOfRange.increment();
+      return false;
+    }
+    return true;
+  }
+}
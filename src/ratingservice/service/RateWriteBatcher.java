@@ -0,0 +1,215 @@
+package ratingservice.service;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratingservice.metrics.Histogram;
+import ratingservice.repository.Repository;
+import ratingservice.repository.Repository.RateInsert;
+
+/**
+ * Collects concurrent ratings and writes them with {@link Repository#addRates} once {@code
+ * maxBatchSize} ratings are pending or the oldest has waited {@code maxDelay}, turning many commits
+ * into one. Each submitter's future completes with its own generated rate id. At most {@code
+ * maxPending} ratings wait for a flush; beyond that submissions are rejected rather than queued.
+ *
+ * <p>Futures of flushed ratings complete on a dedicated completion thread, so whatever callers
+ * chain onto them runs neither on the flusher, delaying the next batch, nor on a request worker
+ * pool that does not account for it.
+ */
+public final class RateWriteBatcher implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RateWriteBatcher.class);
+  private static final long IDLE_POLL_MILLIS = 100;
+  private static final int DEFAULT_PENDING_BATCHES = 64;
+
+  private final Repository repository;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+  private final int maxPending;
+  private final LinkedBlockingQueue<PendingRate> queue;
+  private final Histogram batchSizes = Histogram.exponential(1, 2, 12);
+  private final Histogram flushLatencyMicros = Histogram.exponential(100, 2, 16);
+  private final Thread flusher;
+  private final ExecutorService completer;
+  private volatile boolean closed;
+
+  public RateWriteBatcher(
+      final Repository repository, final int maxBatchSize, final Duration maxDelay) {
+    this(
+        repository,
+        maxBatchSize,
+        maxDelay,
+        (int) Math.min(Integer.MAX_VALUE, (long) maxBatchSize * DEFAULT_PENDING_BATCHES));
+  }
+
+  public RateWriteBatcher(
+      final Repository repository,
+      final int maxBatchSize,
+      final Duration maxDelay,
+      final int maxPending) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be positive");
+    }
+    if (maxPending < 1) {
+      throw new IllegalArgumentException("maxPending must be positive");
+    }
+    this.repository = Objects.requireNonNull(repository, "repository");
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.maxPending = maxPending;
+    this.queue = new LinkedBlockingQueue<>(maxPending);
+    this.completer =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "rate-write-completer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.flusher = new Thread(this::run, "rate-write-batcher");
+    this.flusher.setDaemon(true);
+    this.flusher.start();
+  }
+
+  /**
+   * Queues a rating for the next flush. The future fails with a {@link RejectedExecutionException}
+   * when {@code maxPending} ratings are already waiting.
+   */
+  public CompletableFuture<Long> submit(final long modId, final long authorId, final int rate) {
+    PendingRate pending = new PendingRate(new RateInsert(modId, authorId, rate));
+    if (closed) {
+      pending.future.completeExceptionally(new IllegalStateException("Write batcher is closed"));
+      return pending.future;
+    }
+    if (!queue.offer(pending)) {
+      pending.future.completeExceptionally(
+          new RejectedExecutionException(
+              "Write batch queue is full (" + maxPending + " ratings waiting)"));
+      return pending.future;
+    }
+    if (closed) {
+      // close() may already have drained the queue; make sure this rating is not stranded.
+      failPending(new IllegalStateException("Write batcher is closed"));
+    }
+    return pending.future;
+  }
+
+  /** Number of ratings written per flush. */
+  public Histogram batchSizes() {
+    return batchSizes;
+  }
+
+  /** Time spent in {@link Repository#addRates} per flush, in microseconds. */
+  public Histogram flushLatencyMicros() {
+    return flushLatencyMicros;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      flusher.join(TimeUnit.SECONDS.toMillis(30));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    failPending(new IllegalStateException("Write batcher is closed"));
+    completer.shutdown();
+    try {
+      if (!completer.awaitTermination(5, TimeUnit.SECONDS)) {
+        LOGGER.warn("Rate write completions did not finish within 5 s");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void run() {
+    List<PendingRate> batch = new ArrayList<>(maxBatchSize);
+    while (!closed || !queue.isEmpty()) {
+      try {
+        PendingRate first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+          long remaining = deadline - System.nanoTime();
+          PendingRate next =
+              remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+        flush(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failPending(new IllegalStateException("Write batcher interrupted", e));
+        return;
+      } catch (RuntimeException e) {
+        LOGGER.error("Unexpected failure in rate write batcher", e);
+        batch.forEach(pending -> pending.future.completeExceptionally(e));
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void flush(final List<PendingRate> batch) {
+    List<RateInsert> inserts = new ArrayList<>(batch.size());
+    for (PendingRate pending : batch) {
+      inserts.add(pending.insert);
+    }
+    long startedAt = System.nanoTime();
+    long[] rateIds = null;
+    SQLException failure = null;
+    try {
+      rateIds = repository.addRates(inserts);
+    } catch (SQLException e) {
+      failure = e;
+    }
+    batchSizes.record(batch.size());
+    flushLatencyMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt));
+    List<PendingRate> flushed = List.copyOf(batch);
+    long[] flushedIds = rateIds;
+    SQLException flushFailure = failure;
+    completer.execute(
+        () -> {
+          for (int i = 0; i < flushed.size(); i++) {
+            if (flushFailure != null) {
+              flushed.get(i).future.completeExceptionally(flushFailure);
+            } else {
+              flushed.get(i).future.complete(flushedIds[i]);
+            }
+          }
+        });
+  }
+
+  private void failPending(final Throwable cause) {
+    PendingRate pending;
+    while ((pending = queue.poll()) != null) {
+      pending.future.completeExceptionally(cause);
+    }
+  }
+
+  private static final class PendingRate {
+    private final RateInsert insert;
+    private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+    private PendingRate(final RateInsert insert) {
+      this.insert = insert;
+    }
+  }
+}
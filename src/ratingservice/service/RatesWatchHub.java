@@ -0,0 +1,257 @@
+package ratingservice.service;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ratingservice.model.Data;
+import ratingservice.repository.Repository;
+
+/**
+ * Fans rating summary changes out to WatchRates subscribers.
+ *
+ * <p>Writes only mark a watched mod as changed. A single publisher thread reloads every changed mod
+ * with one query per interval, so a burst of ratings yields at most one update per mod and
+ * interval. Each subscription holds at most one pending update per mod, replacing older ones, so a
+ * subscriber that cannot keep up never grows a queue beyond the mods it watches.
+ */
+public final class RatesWatchHub implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RatesWatchHub.class);
+
+  private final Repository repository;
+  private final ScheduledExecutorService publisher;
+  private final ConcurrentHashMap<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+  private final Set<Long> changedMods = ConcurrentHashMap.newKeySet();
+  private final ConcurrentLinkedQueue<Subscription> joined = new ConcurrentLinkedQueue<>();
+  private volatile boolean closed;
+
+  public RatesWatchHub(final Repository repository, final Duration interval) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+    this.repository = Objects.requireNonNull(repository, "repository");
+    this.publisher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "rates-watch-publisher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long intervalNanos = interval.toNanos();
+    publisher.scheduleWithFixedDelay(
+        this::publishSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Registers a subscriber for the given mods. The current summary of every mod is delivered on the
+   * next publish, followed by updates as ratings change. {@code listener} is called from the
+   * publisher thread whenever the subscription has new pending updates or has been closed.
+   */
+  public Subscription subscribe(
+      final Collection<Long> modIds, final Consumer<Subscription> listener) {
+    Subscription subscription =
+        new Subscription(Collections.unmodifiableSet(new LinkedHashSet<>(modIds)), listener);
+    if (closed) {
+      subscription.closed = true;
+      return subscription;
+    }
+    for (Long modId : subscription.modIds) {
+      subscribers.compute(
+          modId,
+          (ignored, current) -> {
+            Set<Subscription> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            set.add(subscription);
+            return set;
+          });
+    }
+    joined.add(subscription);
+    return subscription;
+  }
+
+  /** Called after a rating for {@code modId} has been committed. */
+  public void markChanged(final long modId) {
+    if (subscribers.containsKey(modId)) {
+      changedMods.add(modId);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    publisher.shutdownNow();
+    Set<Subscription> all = new LinkedHashSet<>();
+    subscribers.values().forEach(all::addAll);
+    subscribers.clear();
+    for (Subscription subscription : all) {
+      subscription.closed = true;
+      notifyListener(subscription);
+    }
+  }
+
+  private void publishSafely() {
+    try {
+      publish();
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to publish rating updates", e);
+    }
+  }
+
+  void publish() {
+    List<Subscription> newSubscriptions = new ArrayList<>();
+    Subscription next;
+    while ((next = joined.poll()) != null) {
+      if (!next.closed) {
+        newSubscriptions.add(next);
+      }
+    }
+    Set<Long> changed = new LinkedHashSet<>();
+    for (Iterator<Long> iterator = changedMods.iterator(); iterator.hasNext(); ) {
+      Long modId = iterator.next();
+      iterator.remove();
+      if (subscribers.containsKey(modId)) {
+        changed.add(modId);
+      }
+    }
+    if (changed.isEmpty() && newSubscriptions.isEmpty()) {
+      return;
+    }
+
+    Set<Long> toLoad = new LinkedHashSet<>(changed);
+    newSubscriptions.forEach(subscription -> toLoad.addAll(subscription.modIds));
+    Map<Long, Data> summaries;
+    try {
+      summaries = repository.getWatchedRatingSummaries(toLoad);
+    } catch (SQLException | RuntimeException e) {
+      LOGGER.warn("Failed to load {} watched rating summaries; retrying", toLoad.size(), e);
+      changedMods.addAll(changed);
+      joined.addAll(newSubscriptions);
+      return;
+    }
+
+    Set<Subscription> updated = new LinkedHashSet<>();
+    for (Long modId : changed) {
+      Set<Subscription> watching = subscribers.get(modId);
+      if (watching == null) {
+        continue;
+      }
+      Data data = summaries.get(modId);
+      for (Subscription subscription : watching) {
+        if (subscription.offer(modId, data)) {
+          updated.add(subscription);
+        }
+      }
+    }
+    for (Subscription subscription : newSubscriptions) {
+      for (Long modId : subscription.modIds) {
+        if (subscription.offer(modId, summaries.get(modId))) {
+          updated.add(subscription);
+        }
+      }
+    }
+    updated.forEach(this::notifyListener);
+  }
+
+  private void notifyListener(final Subscription subscription) {
+    try {
+      subscription.listener.accept(subscription);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Rating watch listener failed", e);
+    }
+  }
+
+  private void unsubscribe(final Subscription subscription) {
+    for (Long modId : subscription.modIds) {
+      subscribers.computeIfPresent(
+          modId,
+          (ignored, current) -> {
+            current.remove(subscription);
+            return current.isEmpty() ? null : current;
+          });
+    }
+  }
+
+  private static boolean sameCounts(final Data left, final Data right) {
+    return left != null
+        && right != null
+        && left.getTotalRates() == right.getTotalRates()
+        && left.getRate1Count() == right.getRate1Count()
+        && left.getRate2Count() == right.getRate2Count()
+        && left.getRate3Count() == right.getRate3Count()
+        && left.getRate4Count() == right.getRate4Count()
+        && left.getRate5Count() == right.getRate5Count();
+  }
+
+  /** A summary waiting to be sent to a subscriber. */
+  public record Update(long modId, Data data) {}
+
+  /** One WatchRates stream. Closing it stops further updates. */
+  public final class Subscription implements AutoCloseable {
+
+    private final Set<Long> modIds;
+    private final Consumer<Subscription> listener;
+    private final LinkedHashMap<Long, Data> pending = new LinkedHashMap<>();
+    private final Map<Long, Data> lastOffered = new HashMap<>();
+    private volatile boolean closed;
+
+    private Subscription(final Set<Long> modIds, final Consumer<Subscription> listener) {
+      this.modIds = modIds;
+      this.listener = Objects.requireNonNull(listener, "listener");
+    }
+
+    public Set<Long> modIds() {
+      return modIds;
+    }
+
+    /** Removes and returns the oldest pending update, or {@code null} if there is none. */
+    public synchronized Update poll() {
+      Iterator<Map.Entry<Long, Data>> iterator = pending.entrySet().iterator();
+      if (!iterator.hasNext()) {
+        return null;
+      }
+      Map.Entry<Long, Data> entry = iterator.next();
+      iterator.remove();
+      return new Update(entry.getKey(), entry.getValue());
+    }
+
+    public boolean isClosed() {
+      return closed;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      unsubscribe(this);
+    }
+
+    /** Replaces any pending update for the mod; identical counts are not sent twice. */
+    private synchronized boolean offer(final long modId, final Data data) {
+      if (closed || sameCounts(lastOffered.get(modId), data)) {
+        return false;
+      }
+      lastOffered.put(modId, data);
+      pending.put(modId, data);
+      return true;
+    }
+  }
+}
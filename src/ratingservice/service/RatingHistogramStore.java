@@ -0,0 +1,219 @@
+package ratingservice.service;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import ratingservice.constants.Constants;
+import ratingservice.repository.Repository;
+
+/**
+ * Rating summaries for every mod held in memory, warmed from {@code rates} at startup and kept
+ * current from the counter changes {@link Repository} commits, so GetRates never waits on the
+ * database. Postgres stays the durable record the store is rebuilt from.
+ *
+ * <p>Mods live in a fixed-capacity open-addressing table of primitive arrays: one key slot, five
+ * rate counters and two revisions per mod, with no per-mod objects. A new mod claims its key slot
+ * with a CAS. Reads take no lock; a counter change holds one of a few striped locks just long
+ * enough to check the slot's revisions and add to its counters. A read racing a changed rating may
+ * see the old rate decremented before the new one is incremented.
+ *
+ * <p>At most {@code maxMods} mods are tracked. Beyond that new mods are left out and the store no
+ * longer answers for mods it does not hold. Changes committed by other processes only show up once
+ * they are passed to {@link #refresh}.
+ */
+public final class RatingHistogramStore implements HistogramStore {
+
+  private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+  private static final long EMPTY = 0;
+  private static final double MAX_LOAD = 0.75;
+  private static final int MAX_SLOTS = 1 << 28;
+  private static final long ARRAY_HEADER_BYTES = 16;
+  private static final int LOCK_STRIPES = 64;
+
+  private final int maxMods;
+  private final int mask;
+  private final long[] keys;
+  private final long[] counts;
+  // Per slot: revision of the last refresh, then of the newest change applied; guarded by locks.
+  private final long[] revisions;
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final AtomicInteger size = new AtomicInteger();
+  private volatile boolean overflowed;
+  private volatile boolean warmed;
+
+  public RatingHistogramStore(final int maxMods) {
+    if (maxMods < 1) {
+      throw new IllegalArgumentException("maxMods must be positive");
+    }
+    long wanted = Math.max(2, (long) Math.ceil(maxMods / MAX_LOAD));
+    if (wanted > MAX_SLOTS) {
+      throw new IllegalArgumentException("maxMods is too large: " + maxMods);
+    }
+    int slots = Integer.highestOneBit((int) wanted - 1) << 1;
+    this.maxMods = maxMods;
+    this.mask = slots - 1;
+    this.keys = new long[slots];
+    this.counts = new long[slots * RATES];
+    this.revisions = new long[slots * 2];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new Object();
+    }
+  }
+
+  @Override
+  public Stats warm(final Repository repository) throws SQLException {
+    if (warmed) {
+      throw new IllegalStateException("Rating store is already warmed");
+    }
+    repository.scanRateHistograms(
+        (modId, rate, count) -> {
+          if (rate >= Constants.RATE_1 && rate <= Constants.RATE_5) {
+            add(modId, (int) rate, count);
+          }
+        });
+    warmed = true;
+    return stats();
+  }
+
+  @Override
+  public Stats restore(final RatingSnapshot snapshot, final Repository repository)
+      throws IOException, SQLException {
+    if (warmed) {
+      throw new IllegalStateException("Rating store is already warmed");
+    }
+    snapshot.forEach(this::refresh);
+    repository.scanRatingCounters(snapshot.revision(), this::refresh);
+    warmed = true;
+    return stats();
+  }
+
+  /** Mods the store does not hold read as unrated, unless a mod has been left out. */
+  @Override
+  public boolean read(final long modId, final long[] counts) {
+    if (!warmed || modId <= 0) {
+      return false;
+    }
+    int slot = find(modId);
+    if (slot < 0) {
+      if (overflowed) {
+        return false;
+      }
+      Arrays.fill(counts, 0, RATES, 0);
+      return true;
+    }
+    int base = slot * RATES;
+    for (int i = 0; i < RATES; i++) {
+      counts[i] = (long) LONGS.getVolatile(this.counts, base + i);
+    }
+    return true;
+  }
+
+  @Override
+  public void countersChanged(final long modId, final long[] delta, final long revision) {
+    if (modId <= 0) {
+      return;
+    }
+    int slot = claim(modId);
+    if (slot < 0) {
+      return;
+    }
+    synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+      if (revision <= revisions[slot * 2]) {
+        return;
+      }
+      revisions[slot * 2 + 1] = Math.max(revisions[slot * 2 + 1], revision);
+      for (int rate = Constants.RATE_1; rate <= Constants.RATE_5; rate++) {
+        if (delta[rate] != 0) {
+          LONGS.getAndAdd(counts, slot * RATES + rate - 1, delta[rate]);
+        }
+      }
+    }
+  }
+
+  @Override
+  public Stats stats() {
+    long footprint =
+        3 * ARRAY_HEADER_BYTES
+            + (long) (keys.length + counts.length + revisions.length) * Long.BYTES;
+    return new Stats(size.get(), maxMods, footprint, overflowed);
+  }
+
+  /** Also loads the snapshot and the counters changed after it in {@link #restore}. */
+  @Override
+  public void refresh(final long modId, final long[] counts, final long revision) {
+    if (modId <= 0) {
+      return;
+    }
+    int slot = claim(modId);
+    if (slot < 0) {
+      return;
+    }
+    synchronized (locks[slot & (LOCK_STRIPES - 1)]) {
+      if (revision < revisions[slot * 2] || revision < revisions[slot * 2 + 1]) {
+        return;
+      }
+      revisions[slot * 2] = revision;
+      revisions[slot * 2 + 1] = revision;
+      int base = slot * RATES;
+      for (int i = 0; i < RATES; i++) {
+        LONGS.setVolatile(this.counts, base + i, counts[i]);
+      }
+    }
+  }
+
+  /** Warming only: runs before any change is reported, so revisions stay at zero. */
+  private void add(final long modId, final int rate, final long amount) {
+    if (modId <= 0) {
+      return;
+    }
+    int slot = claim(modId);
+    if (slot >= 0) {
+      LONGS.getAndAdd(counts, slot * RATES + rate - 1, amount);
+    }
+  }
+
+  private int find(final long modId) {
+    for (int index = hash(modId); ; index = (index + 1) & mask) {
+      long key = (long) LONGS.getAcquire(keys, index);
+      if (key == modId) {
+        return index;
+      }
+      if (key == EMPTY) {
+        return -1;
+      }
+    }
+  }
+
+  /** Slot holding {@code modId}, inserting it if needed; -1 once the store is full. */
+  private int claim(final long modId) {
+    for (int index = hash(modId); ; index = (index + 1) & mask) {
+      long key = (long) LONGS.getAcquire(keys, index);
+      if (key == modId) {
+        return index;
+      }
+      if (key != EMPTY) {
+        continue;
+      }
+      if (size.incrementAndGet() > maxMods) {
+        size.decrementAndGet();
+        overflowed = true;
+        return -1;
+      }
+      long witness = (long) LONGS.compareAndExchange(keys, index, EMPTY, modId);
+      if (witness == EMPTY) {
+        return index;
+      }
+      size.decrementAndGet();
+      if (witness == modId) {
+        return index;
+      }
+    }
+  }
+
+  private int hash(final long modId) {
+    return (int) ((modId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+  }
+}
@@ -0,0 +1,178 @@
+package ratingservice.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.zip.CRC32C;
+import ratingservice.repository.Repository;
+
+/**
+ * File of every mod's rate1..rate5 counters tagged with the {@code mod_rating_counters} revision
+ * they include, so a restarting node maps it and re-reads only the mods changed since instead of
+ * scanning {@code rates}.
+ *
+ * <p>The file is a 32-byte header (magic, version, revision, mod count, CRC-32C of the entries)
+ * followed by one 48-byte entry per mod: the mod id and its five counters, big-endian. It is
+ * written to a temporary file and moved into place, so readers only ever see a complete snapshot.
+ * Delete it after a bulk load that replaces {@code rates}: mods that no longer exist are never
+ * re-read.
+ */
+public final class RatingSnapshot {
+
+  private static final int MAGIC = 0x52534E50;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 32;
+  private static final int ENTRY_BYTES = (1 + HistogramStore.RATES) * Long.BYTES;
+  private static final int ENTRIES_PER_REGION = Integer.MAX_VALUE / ENTRY_BYTES;
+  private static final int WRITE_BUFFER_BYTES = ENTRY_BYTES * 16_384;
+
+  private final Path path;
+  private final long revision;
+  private final long mods;
+
+  private RatingSnapshot(final Path path, final long revision, final long mods) {
+    this.path = path;
+    this.revision = revision;
+    this.mods = mods;
+  }
+
+  /** Counters up to and including this {@code mod_rating_counters} revision are in the file. */
+  public long revision() {
+    return revision;
+  }
+
+  public long mods() {
+    return mods;
+  }
+
+  /** Size of the file on disk. */
+  public long bytes() {
+    return HEADER_BYTES + mods * ENTRY_BYTES;
+  }
+
+  /**
+   * Writes a snapshot of {@code mod_rating_counters} to {@code path}, replacing any previous one.
+   * The counters are streamed from the database rather than copied from a store, which only sees
+   * the ratings written through this node.
+   */
+  public static RatingSnapshot write(final Path path, final Repository repository)
+      throws IOException, SQLException {
+    Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    long revision = repository.counterRevision();
+    long[] written = new long[1];
+    CRC32C crc = new CRC32C();
+    try (FileChannel channel =
+        FileChannel.open(
+            tmp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      channel.position(HEADER_BYTES);
+      ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+      try {
+        repository.scanRatingCounters(
+            -1,
+            (modId, counts, rowRevision) -> {
+              if (!buffer.hasRemaining()) {
+                flush(channel, buffer, crc);
+              }
+              buffer.putLong(modId);
+              for (long count : counts) {
+                buffer.putLong(count);
+              }
+              written[0]++;
+            });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      flush(channel, buffer, crc);
+      buffer
+          .putInt(MAGIC)
+          .putInt(VERSION)
+          .putLong(revision)
+          .putLong(written[0])
+          .putLong(crc.getValue())
+          .flip();
+      channel.write(buffer, 0);
+      channel.force(true);
+    } catch (IOException | SQLException | RuntimeException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return new RatingSnapshot(path, revision, written[0]);
+  }
+
+  /** Reads the header and checks the file is complete and intact before anything is loaded. */
+  public static RatingSnapshot open(final Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) {
+        throw new IOException("Rating snapshot " + path + " is truncated");
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+      if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+        throw new IOException("Rating snapshot " + path + " has an unknown format");
+      }
+      RatingSnapshot snapshot = new RatingSnapshot(path, header.getLong(), header.getLong());
+      long crc = header.getLong();
+      if (snapshot.mods < 0 || channel.size() != snapshot.bytes()) {
+        throw new IOException("Rating snapshot " + path + " does not match its header");
+      }
+      CRC32C actual = new CRC32C();
+      for (long first = 0; first < snapshot.mods; first += ENTRIES_PER_REGION) {
+        actual.update(snapshot.map(channel, first));
+      }
+      if (actual.getValue() != crc) {
+        throw new IOException("Rating snapshot " + path + " is corrupt");
+      }
+      return snapshot;
+    }
+  }
+
+  /**
+   * Streams every entry from the mapped file at the snapshot's {@link #revision}; the array passed
+   * on is reused between mods.
+   */
+  public void forEach(final Repository.CounterRowConsumer consumer) throws IOException {
+    long[] counts = new long[HistogramStore.RATES];
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      for (long first = 0; first < mods; first += ENTRIES_PER_REGION) {
+        MappedByteBuffer region = map(channel, first);
+        while (region.hasRemaining()) {
+          long modId = region.getLong();
+          for (int i = 0; i < counts.length; i++) {
+            counts[i] = region.getLong();
+          }
+          consumer.accept(modId, counts, revision);
+        }
+      }
+    }
+  }
+
+  /** Maps up to {@link #ENTRIES_PER_REGION} entries starting at entry {@code first}. */
+  private MappedByteBuffer map(final FileChannel channel, final long first) throws IOException {
+    long entries = Math.min(ENTRIES_PER_REGION, mods - first);
+    return channel.map(
+        FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * ENTRY_BYTES, entries * ENTRY_BYTES);
+  }
+
+  private static void flush(final FileChannel channel, final ByteBuffer buffer, final CRC32C crc) {
+    buffer.flip();
+    crc.update(buffer.duplicate());
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    buffer.clear();
+  }
+}
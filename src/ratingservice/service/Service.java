@@ -1,103 +1,528 @@
 package ratingservice.service;
 
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import ratingservice.executor.AdmissionControl;
+import ratingservice.logging.RequestContext;
+import ratingservice.metrics.RequestTimings;
 import ratingservice.model.Data;
+import ratingservice.repository.CounterChangeFeed;
+import ratingservice.repository.QueryDeadline;
 import ratingservice.repository.Repository;
 
-public final class Service {
+public final class Service implements CounterChangeFeed.Listener {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Service.class);
-  private static final String MDC_GRPC_METHOD = "grpc_method";
-  private static final String MDC_MOD_ID = "mod_id";
-  private static final String MDC_AUTHOR_ID = "author_id";
-  private static final String MDC_RATE = "rate";
+  private static final ThreadLocal<long[]> STORE_COUNTS =
+      ThreadLocal.withInitial(() -> new long[HistogramStore.RATES]);
 
   private final Repository repository;
   private final Executor executor;
+  private final SummaryCache cache;
+  private final RateWriteBatcher writeBatcher;
+  private final RatesWatchHub watchHub;
+  private final HistogramStore store;
+  private final AdmissionControl admission;
+  private final ConcurrentHashMap<Long, SharedRead> inFlightReads = new ConcurrentHashMap<>();
+  // Highest counter revision the store was resynced to; only used by the change feed thread.
+  private long storeRevision = -1;
 
+  /** A service without cache, batching, watching, store or admission control. */
   public Service(final Repository repository, final Executor executor) {
-    this.repository = Objects.requireNonNull(repository, "repository");
-    this.executor = Objects.requireNonNull(executor, "executor");
+    this(builder(repository, executor));
+  }
+
+  private Service(final Builder builder) {
+    this.repository = builder.repository;
+    this.executor = builder.executor;
+    this.cache = builder.cache;
+    this.writeBatcher = builder.writeBatcher;
+    this.watchHub = builder.watchHub;
+    this.store = builder.store;
+    this.admission = builder.admission;
+  }
+
+  /** Starts a service running its repository work on {@code executor}; every option is off. */
+  public static Builder builder(final Repository repository, final Executor executor) {
+    return new Builder(repository, executor);
   }
 
   public CompletionStage<Integer> rateMod(final long modId, final long authorId, final int rate) {
-    Map<String, String> context = new HashMap<>();
-    context.put(MDC_GRPC_METHOD, "rate_mod");
-    context.put(MDC_MOD_ID, String.valueOf(modId));
-    context.put(MDC_AUTHOR_ID, String.valueOf(authorId));
-    context.put(MDC_RATE, String.valueOf(rate));
+    return rateMod(modId, authorId, rate, null);
+  }
+
+  /**
+   * @param deadline bounds the database work of the call; {@code null} if it has none. Batched
+   *     writes only honour it up to joining a batch, which then runs for every rating in it.
+   */
+  public CompletionStage<Integer> rateMod(
+      final long modId, final long authorId, final int rate, final QueryDeadline deadline) {
+    if (writeBatcher != null) {
+      if (deadline != null && deadline.expired()) {
+        return CompletableFuture.failedFuture(deadlineExpired());
+      }
+      return writeBatcher
+          .submit(modId, authorId, rate)
+          .handle(
+              (generatedId, throwable) ->
+                  RequestContext.rateMod(modId, authorId, rate)
+                      .call(
+                          () -> {
+                            if (throwable != null) {
+                              throw translateRateFailure(modId, authorId, rate, throwable);
+                            }
+                            return completeRate(modId, authorId, rate, generatedId);
+                          }));
+    }
     return runAsync(
-        context,
+        RequestContext.rateMod(modId, authorId, rate),
+        deadline,
         () -> {
+          long generatedId;
           try {
-            long generatedId = repository.addRate(modId, authorId, rate);
-            return Math.toIntExact(generatedId);
+            generatedId = repository.addRate(modId, authorId, rate);
           } catch (SQLException e) {
-            LOGGER.error(
-                "Failed to add rating for mod {} by author {} with rate {}",
-                modId,
-                authorId,
-                rate,
-                e);
+            throw translateRateFailure(modId, authorId, rate, e);
+          }
+          return completeRate(modId, authorId, rate, generatedId);
+        });
+  }
+
+  /**
+   * Writes one chunk of a bulk import with {@link Repository#copyRates} and returns the number of
+   * ratings written.
+   */
+  public CompletionStage<Integer> rateModChunk(final List<Repository.RateInsert> rates) {
+    return runAsync(
+        RequestContext.rateModStream(rates.size()),
+        null,
+        () -> {
+          int written;
+          try {
+            written = repository.copyRates(rates);
+          } catch (SQLException e) {
+            if (QueryDeadline.timedOut(e)) {
+              throw deadlineExceeded(e);
+            }
+            LOGGER.error("Failed to import a chunk of {} ratings", rates.size(), e);
             throw new IllegalStateException(
-                "Database error occurred while adding rating: " + e.getMessage(), e);
-          } catch (ArithmeticException e) {
-            LOGGER.error(
-                "Generated identifier exceeds 32-bit range for mod {} by author {} with rate {}",
-                modId,
-                authorId,
-                rate,
-                e);
-            throw new IllegalStateException("Rate identifier exceeds 32-bit range", e);
+                "Database error occurred while adding ratings: " + e.getMessage(), e);
+          }
+          Set<Long> modIds = new HashSet<>();
+          for (Repository.RateInsert rate : rates) {
+            if (modIds.add(rate.modId())) {
+              markWritten(rate.modId());
+            }
           }
+          return written;
         });
   }
 
+  private int completeRate(
+      final long modId, final long authorId, final int rate, final long generatedId) {
+    markWritten(modId);
+    try {
+      return Math.toIntExact(generatedId);
+    } catch (ArithmeticException e) {
+      LOGGER.error(
+          "Generated identifier exceeds 32-bit range for mod {} by author {} with rate {}",
+          modId,
+          authorId,
+          rate,
+          e);
+      throw new IllegalStateException("Rate identifier exceeds 32-bit range", e);
+    }
+  }
+
+  /**
+   * Drops cached summaries of mods whose counters changed, including ratings written through other
+   * nodes, re-reads their counters into the store and lets watchers of those mods know. The next
+   * reads of those mods go to the primary, so a lagging replica cannot put the old summary back.
+   */
+  @Override
+  public void modsChanged(final Set<Long> modIds) throws SQLException {
+    repository.recordChanges(modIds);
+    if (store != null) {
+      repository.readRatingCounters(modIds, store::refresh);
+    }
+    for (long modId : modIds) {
+      markWritten(modId);
+    }
+  }
+
+  /**
+   * Drops every cached summary and re-reads into the store the counters of every mod changed since
+   * the last time; the first call re-reads them all. Reads after this go to the database or to the
+   * refreshed store.
+   */
+  @Override
+  public void changesMissed() throws SQLException {
+    cache.invalidateAll();
+    inFlightReads.clear();
+    if (store != null) {
+      storeRevision = repository.scanRatingCounters(storeRevision, store::refresh);
+    }
+  }
+
+  private void markWritten(final long modId) {
+    cache.invalidate(modId);
+    inFlightReads.remove(modId);
+    if (watchHub != null) {
+      watchHub.markChanged(modId);
+    }
+  }
+
+  private RuntimeException translateRateFailure(
+      final long modId, final long authorId, final int rate, final Throwable throwable) {
+    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+    if (cause instanceof SQLException e) {
+      if (QueryDeadline.timedOut(e)) {
+        return deadlineExceeded(e);
+      }
+      LOGGER.error(
+          "Failed to add rating for mod {} by author {} with rate {}", modId, authorId, rate, e);
+      return new IllegalStateException(
+          "Database error occurred while adding rating: " + e.getMessage(), e);
+    }
+    if (cause instanceof RuntimeException e) {
+      return e;
+    }
+    return new IllegalStateException("Failed to add rating", cause);
+  }
+
   public CompletionStage<Data> getRatings(final long modId) {
-    Map<String, String> context = new HashMap<>();
-    context.put(MDC_GRPC_METHOD, "get_ratings");
-    context.put(MDC_MOD_ID, String.valueOf(modId));
+    return getRatings(modId, null);
+  }
+
+  /**
+   * Concurrent calls for the same mod share a single database read; a successful {@link #rateMod}
+   * detaches the shared read so later callers observe the write. The shared read belongs to no
+   * single call: it runs without a deadline and is only shed when the worker queue is full. Each
+   * call gives up on it alone when its own deadline passes or is cancelled, and the read is
+   * cancelled once every call waiting for it has given up.
+   *
+   * @param deadline bounds how long the call waits; {@code null} if it has none
+   */
+  public CompletionStage<Data> getRatings(final long modId, final QueryDeadline deadline) {
+    Data stored = fromStore(modId);
+    if (stored != null) {
+      return CompletableFuture.completedFuture(stored);
+    }
+    Data cached = cache.get(modId);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    if (deadline != null && deadline.expired()) {
+      return CompletableFuture.failedFuture(deadlineExpired());
+    }
+    SharedRead read = new SharedRead();
+    SharedRead inFlight;
+    while ((inFlight = inFlightReads.putIfAbsent(modId, read)) != null) {
+      if (inFlight.join()) {
+        return waitFor(modId, inFlight, deadline);
+      }
+      // Every call waiting for it gave up; it is being cancelled.
+      inFlightReads.remove(modId, inFlight);
+    }
+    loadRatings(modId, read.deadline)
+        .whenComplete(
+            (data, throwable) -> {
+              inFlightReads.remove(modId, read);
+              if (throwable != null) {
+                read.result.completeExceptionally(throwable);
+              } else {
+                read.result.complete(data);
+              }
+            });
+    return waitFor(modId, read, deadline);
+  }
+
+  /** The caller's view of {@code read}, failing on its own when {@code deadline} runs out. */
+  private CompletionStage<Data> waitFor(
+      final long modId, final SharedRead read, final QueryDeadline deadline) {
+    CompletableFuture<Data> result = read.result.copy();
+    if (deadline != null) {
+      deadline.whenCancelled(
+          () ->
+              result.completeExceptionally(
+                  new TimeoutException("Request was cancelled while waiting for the database")));
+      long remaining = deadline.remainingNanos();
+      if (remaining != Long.MAX_VALUE) {
+        result.orTimeout(remaining, TimeUnit.NANOSECONDS);
+      }
+    }
+    result.whenComplete(
+        (data, throwable) -> {
+          if (read.leave() && !read.result.isDone()) {
+            inFlightReads.remove(modId, read);
+            read.deadline.cancel();
+          }
+        });
+    return result;
+  }
+
+  private CompletionStage<Data> loadRatings(final long modId, final QueryDeadline deadline) {
+    long cacheToken = cache.token();
+    return runAsync(
+        RequestContext.getRatings(modId),
+        deadline,
+        () -> {
+          try {
+            Data data = repository.getRatingSummary(modId);
+            cache.put(modId, data, cacheToken);
+            return data;
+          } catch (SQLException e) {
+            throw QueryDeadline.timedOut(e) ? deadlineExceeded(e) : new RuntimeException(e);
+          }
+        });
+  }
+
+  public CompletionStage<Map<Long, Data>> getRatingsBatch(final Collection<Long> modIds) {
+    return getRatingsBatch(modIds, null);
+  }
+
+  /**
+   * Returns summaries for every requested mod, answering store and cache hits locally and loading
+   * the rest with a single batched query.
+   *
+   * @param deadline bounds the database work of the call; {@code null} if it has none
+   */
+  public CompletionStage<Map<Long, Data>> getRatingsBatch(
+      final Collection<Long> modIds, final QueryDeadline deadline) {
+    Map<Long, Data> summaries = new LinkedHashMap<>();
+    List<Long> misses = new ArrayList<>();
+    for (Long modId : new LinkedHashSet<>(modIds)) {
+      Data stored = fromStore(modId);
+      if (stored != null) {
+        summaries.put(modId, stored);
+        continue;
+      }
+      Data cached = cache.get(modId);
+      if (cached != null) {
+        summaries.put(modId, cached);
+      } else {
+        misses.add(modId);
+      }
+    }
+    if (misses.isEmpty()) {
+      return CompletableFuture.completedFuture(summaries);
+    }
+    long cacheToken = cache.token();
     return runAsync(
-        context,
+        RequestContext.getRatingsBatch(misses.size()),
+        deadline,
         () -> {
           try {
-            return repository.getRatingSummary(modId);
+            Map<Long, Data> loaded = repository.getRatingSummaries(misses);
+            loaded.forEach((modId, data) -> cache.put(modId, data, cacheToken));
+            summaries.putAll(loaded);
+            return summaries;
           } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw QueryDeadline.timedOut(e) ? deadlineExceeded(e) : new RuntimeException(e);
           }
         });
   }
 
+  /**
+   * Subscribes to summary updates for the given mods; see {@link RatesWatchHub#subscribe}.
+   *
+   * @throws IllegalStateException if watching is not enabled
+   */
+  public RatesWatchHub.Subscription watchRates(
+      final Collection<Long> modIds, final Consumer<RatesWatchHub.Subscription> listener) {
+    if (watchHub == null) {
+      throw new IllegalStateException("Rate watching is not enabled");
+    }
+    return watchHub.subscribe(modIds, listener);
+  }
+
+  /** The store is read into a per-thread buffer; the only allocation is the returned summary. */
+  private Data fromStore(final long modId) {
+    if (store == null) {
+      return null;
+    }
+    long[] counts = STORE_COUNTS.get();
+    return store.read(modId, counts) ? HistogramStore.toData(counts) : null;
+  }
+
+  /**
+   * Runs {@code supplier} on the worker pool. Tasks the pool could not start before {@code
+   * deadline} are shed up front with a {@link RejectedExecutionException}, as are tasks the
+   * executor itself refuses; tasks whose deadline passed while queued fail with a {@link
+   * TimeoutException} without touching the repository. Inside an RPC the task is stamped with its
+   * enqueue time, so the call's {@link RequestTimings} get the queue wait, and carries the timings
+   * to the worker for the repository to record into.
+   */
   private <T> CompletionStage<T> runAsync(
-      final Map<String, String> context, final Supplier<T> supplier) {
-    return CompletableFuture.supplyAsync(() -> withMdc(context, supplier), executor);
+      final RequestContext context, final QueryDeadline deadline, final Supplier<T> supplier) {
+    if (admission != null) {
+      try {
+        admission.admit(deadline == null ? Long.MAX_VALUE : deadline.remainingNanos());
+      } catch (RejectedExecutionException e) {
+        return CompletableFuture.failedFuture(e);
+      }
+    }
+    RequestTimings timings = RequestTimings.current();
+    long enqueuedAt = System.nanoTime();
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> runTask(context, deadline, supplier, timings, enqueuedAt), executor);
+    } catch (RejectedExecutionException e) {
+      if (admission != null) {
+        admission.dequeued();
+      }
+      return CompletableFuture.failedFuture(e);
+    }
   }
 
-  private <T> T withMdc(final Map<String, String> context, final Supplier<T> supplier) {
-    Map<String, String> previous = MDC.getCopyOfContextMap();
+  private <T> T runTask(
+      final RequestContext context,
+      final QueryDeadline deadline,
+      final Supplier<T> supplier,
+      final RequestTimings timings,
+      final long enqueuedAt) {
+    long startedAt = System.nanoTime();
+    if (admission != null) {
+      admission.dequeued();
+    }
     try {
-      MDC.clear();
-      context.forEach(MDC::put);
-      return supplier.get();
+      if (timings != null) {
+        timings.add(RequestTimings.Stage.QUEUE_WAIT, startedAt - enqueuedAt);
+      }
+      if (deadline == null) {
+        return attachTimings(timings, () -> context.call(supplier));
+      }
+      if (deadline.expired()) {
+        throw new CompletionException(deadlineExpired());
+      }
+      return attachTimings(timings, () -> deadline.attach(() -> context.call(supplier)));
     } finally {
-      if (previous == null || previous.isEmpty()) {
-        MDC.clear();
-      } else {
-        MDC.setContextMap(previous);
+      if (admission != null) {
+        admission.finished(System.nanoTime() - startedAt);
       }
     }
   }
 
+  private static <T> T attachTimings(final RequestTimings timings, final Supplier<T> supplier) {
+    return timings == null ? supplier.get() : timings.attach(supplier);
+  }
+
+  private static TimeoutException deadlineExpired() {
+    return new TimeoutException("Request deadline expired before it reached the database");
+  }
+
+  /** A statement cut off by the query timeout or {@link QueryDeadline#cancel}. */
+  private static CompletionException deadlineExceeded(final SQLException e) {
+    TimeoutException timeout =
+        new TimeoutException("Request deadline expired while querying the database");
+    timeout.initCause(e);
+    return new CompletionException(timeout);
+  }
+
+  /** A database read shared by the concurrent {@link #getRatings} calls for one mod. */
+  private static final class SharedRead {
+    private final CompletableFuture<Data> result = new CompletableFuture<>();
+    private final QueryDeadline deadline = QueryDeadline.unbounded();
+    private final AtomicInteger waiters = new AtomicInteger(1);
+
+    /** Adds a waiting call, unless every earlier one has already given up. */
+    private boolean join() {
+      while (true) {
+        int current = waiters.get();
+        if (current == 0) {
+          return false;
+        }
+        if (waiters.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
+    /** Removes a waiting call; returns whether it was the last one. */
+    private boolean leave() {
+      return waiters.decrementAndGet() == 0;
+    }
+  }
+
+  /** Optional collaborators of a {@link Service}; each one left unset is disabled. */
+  public static final class Builder {
+
+    private final Repository repository;
+    private final Executor executor;
+    private SummaryCache cache = SummaryCache.disabled();
+    private RateWriteBatcher writeBatcher;
+    private RatesWatchHub watchHub;
+    private HistogramStore store;
+    private AdmissionControl admission;
+
+    private Builder(final Repository repository, final Executor executor) {
+      this.repository = Objects.requireNonNull(repository, "repository");
+      this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    public Builder cache(final SummaryCache cache) {
+      this.cache = Objects.requireNonNull(cache, "cache");
+      return this;
+    }
+
+    /**
+     * Batches {@link Service#rateMod} inserts; without it each rating is written in its own
+     * transaction.
+     */
+    public Builder writeBatcher(final RateWriteBatcher writeBatcher) {
+      this.writeBatcher = writeBatcher;
+      return this;
+    }
+
+    /**
+     * Receives committed ratings for {@link Service#watchRates}; without it watching is disabled.
+     */
+    public Builder watchHub(final RatesWatchHub watchHub) {
+      this.watchHub = watchHub;
+      return this;
+    }
+
+    /**
+     * Answers reads from memory; it must be the counter listener of the repository so it sees every
+     * write.
+     */
+    public Builder store(final HistogramStore store) {
+      this.store = store;
+      return this;
+    }
+
+    /** Sheds work the executor cannot start in time; without it every task is queued. */
+    public Builder admission(final AdmissionControl admission) {
+      this.admission = admission;
+      return this;
+    }
+
+    public Service build() {
+      return new Service(this);
+    }
+  }
+
   @Override
   public String toString() {
     return "Service{" + "repository=" + repository + '}';
@@ -0,0 +1,171 @@
+package ratingservice.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import ratingservice.model.Data;
+
+/**
+ * Bounded cache of rating summaries keyed by modId with a fixed time-to-live.
+ *
+ * <p>Lookups are lock-free reads of a {@link ConcurrentHashMap}; a hit only sets the entry's
+ * referenced bit. Writers that push the cache over {@code maxEntries} run a CLOCK sweep: the hand
+ * clears referenced bits and evicts the first entry that has not been read since it was last
+ * passed.
+ *
+ * <p>Reads capture a {@link #token()} before going to the database and hand it back to {@link
+ * #put}. An {@link #invalidate} issued in between leaves a tombstone newer than the token, so the
+ * stale result is dropped instead of overwriting the invalidation.
+ */
+public final class SummaryCache {
+
+  private static final SummaryCache DISABLED = new SummaryCache(0, Duration.ZERO);
+
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicLong evictedGeneration = new AtomicLong();
+  private final Object sweepLock = new Object();
+  private Iterator<Map.Entry<Long, Entry>> hand;
+
+  public SummaryCache(final int maxEntries, final Duration ttl) {
+    this(maxEntries, ttl, System::nanoTime);
+  }
+
+  SummaryCache(final int maxEntries, final Duration ttl, final LongSupplier clock) {
+    if (maxEntries < 0) {
+      throw new IllegalArgumentException("maxEntries must not be negative");
+    }
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+  }
+
+  public static SummaryCache disabled() {
+    return DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return maxEntries > 0;
+  }
+
+  public Data get(final long modId) {
+    if (!isEnabled()) {
+      return null;
+    }
+    Entry entry = entries.get(modId);
+    if (entry == null || entry.data == null) {
+      misses.increment();
+      return null;
+    }
+    if (clock.getAsLong() - entry.expiresAt > 0) {
+      if (entries.remove(modId, entry)) {
+        evictions.increment();
+      }
+      misses.increment();
+      return null;
+    }
+    if (!entry.referenced) {
+      entry.referenced = true;
+    }
+    hits.increment();
+    return entry.data;
+  }
+
+  public long token() {
+    return generation.get();
+  }
+
+  public void put(final long modId, final Data data, final long token) {
+    if (!isEnabled()) {
+      return;
+    }
+    entries.compute(
+        modId,
+        (key, existing) -> {
+          // Read inside compute: an evicted tombstone raises evictedGeneration before removal.
+          if (token < evictedGeneration.get()
+              || (existing != null && existing.generation > token)) {
+            return existing;
+          }
+          return new Entry(data, clock.getAsLong() + ttlNanos, generation.get());
+        });
+    evictOverflow();
+  }
+
+  public void invalidate(final long modId) {
+    if (!isEnabled()) {
+      return;
+    }
+    long invalidated = generation.incrementAndGet();
+    entries.put(modId, new Entry(null, clock.getAsLong() + ttlNanos, invalidated));
+    evictOverflow();
+  }
+
+  public void invalidateAll() {
+    if (!isEnabled()) {
+      return;
+    }
+    evictedGeneration.accumulateAndGet(generation.incrementAndGet(), Math::max);
+    entries.clear();
+  }
+
+  public Stats stats() {
+    return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), maxEntries);
+  }
+
+  private void evictOverflow() {
+    if (entries.size() <= maxEntries) {
+      return;
+    }
+    synchronized (sweepLock) {
+      while (entries.size() > maxEntries) {
+        if (hand == null || !hand.hasNext()) {
+          hand = entries.entrySet().iterator();
+          if (!hand.hasNext()) {
+            return;
+          }
+        }
+        Map.Entry<Long, Entry> candidate = hand.next();
+        Entry evicted = candidate.getValue();
+        if (evicted.referenced) {
+          evicted.referenced = false;
+          continue;
+        }
+        if (evicted.data == null) {
+          // Losing a tombstone would let an older read resurrect the entry; refuse such reads.
+          evictedGeneration.accumulateAndGet(evicted.generation, Math::max);
+        }
+        if (entries.remove(candidate.getKey(), evicted)) {
+          evictions.increment();
+        }
+      }
+    }
+  }
+
+  /** Cumulative counters since startup; {@code size} includes pending invalidation markers. */
+  public record Stats(long hits, long misses, long evictions, int size, int maxEntries) {}
+
+  private static final class Entry {
+    private final Data data;
+    private final long expiresAt;
+    private final long generation;
+    // New entries start referenced so the sweep passes over them once before evicting them.
+    private volatile boolean referenced = true;
+
+    private Entry(final Data data, final long expiresAt, final long generation) {
+      this.data = data;
+      this.expiresAt = expiresAt;
+      this.generation = generation;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package ratingservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+final class ConnectionPoolTest {
+
+  private DataSource delegate;
+  private ConnectionPool pool;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    delegate = mock(DataSource.class);
+    when(delegate.getConnection())
+        .thenAnswer(
+            invocation -> {
+              Connection connection = mock(Connection.class);
+              when(connection.getAutoCommit()).thenReturn(true);
+              when(connection.isValid(anyInt())).thenReturn(true);
+              return connection;
+            });
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  void getConnection_shouldReusePhysicalConnectionAfterClose() throws Exception {
+    pool = new ConnectionPool(delegate, options(0, 2, Duration.ofMillis(200)));
+
+    Connection first = pool.getConnection();
+    first.close();
+    Connection second = pool.getConnection();
+    second.close();
+
+    verify(delegate, times(1)).getConnection();
+    ConnectionPool.Stats stats = pool.stats();
+    assertEquals(0, stats.active());
+    assertEquals(1, stats.idle());
+    assertEquals(2, stats.borrowCount());
+  }
+
+  @Test
+  void getConnection_shouldTimeOutWhenPoolExhausted() throws Exception {
+    pool = new ConnectionPool(delegate, options(0, 1, Duration.ofMillis(50)));
+
+    Connection held = pool.getConnection();
+
+    assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+    assertEquals(1, pool.stats().timeoutCount());
+    assertEquals(1, pool.stats().active());
+
+    held.close();
+    pool.getConnection().close();
+  }
+
+  @Test
+  void close_shouldResetUncommittedTransactionBeforeReuse() throws Exception {
+    Connection physical = mock(Connection.class);
+    when(physical.getAutoCommit()).thenReturn(false);
+    when(delegate.getConnection()).thenReturn(physical);
+    pool = new ConnectionPool(delegate, options(0, 1, Duration.ofMillis(200)));
+
+    Connection connection = pool.getConnection();
+    connection.close();
+    connection.close();
+
+    verify(physical).rollback();
+    verify(physical).setAutoCommit(true);
+    assertTrue(connection.isClosed());
+    assertThrows(SQLException.class, connection::createStatement);
+  }
+
+  @Test
+  void getConnection_shouldDiscardConnectionsFailingValidation() throws Exception {
+    Connection stale = mock(Connection.class);
+    when(stale.getAutoCommit()).thenReturn(true);
+    when(stale.isValid(anyInt())).thenReturn(false);
+    Connection fresh = mock(Connection.class);
+    when(delegate.getConnection()).thenReturn(stale, fresh);
+    pool = new ConnectionPool(delegate, options(0, 1, Duration.ofMillis(200)));
+
+    pool.getConnection().close();
+    Thread.sleep(600);
+    Connection connection = pool.getConnection();
+    connection.createStatement();
+
+    verify(stale).close();
+    verify(stale, never()).createStatement();
+    verify(fresh).createStatement();
+  }
+
+  @Test
+  void housekeeping_shouldOpenMinimumIdleConnections() throws Exception {
+    pool = new ConnectionPool(delegate, options(2, 4, Duration.ofMillis(200)));
+
+    long deadline = System.currentTimeMillis() + 2_000;
+    while (pool.stats().idle() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(2, pool.stats().idle());
+    assertEquals(2, pool.stats().total());
+  }
+
+  @Test
+  void getConnection_shouldWaitForConnectionTheHousekeeperIsOpening() throws Exception {
+    CountDownLatch opening = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Connection physical = mock(Connection.class);
+    when(physical.getAutoCommit()).thenReturn(true);
+    when(delegate.getConnection())
+        .thenAnswer(
+            invocation -> {
+              opening.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return physical;
+            });
+    pool = new ConnectionPool(delegate, options(1, 1, Duration.ofSeconds(2)));
+    assertTrue(opening.await(5, TimeUnit.SECONDS));
+
+    Thread releaser =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(100);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              release.countDown();
+            });
+    releaser.start();
+    Connection connection = pool.getConnection();
+    connection.createStatement();
+    releaser.join();
+
+    verify(delegate, times(1)).getConnection();
+    verify(physical).createStatement();
+    assertEquals(0, pool.stats().timeoutCount());
+  }
+
+  private static ConnectionPool.Options options(
+      final int minSize, final int maxSize, final Duration acquireTimeout) {
+    return new ConnectionPool.Options(
+        minSize,
+        maxSize,
+        Duration.ofMinutes(10),
+        Duration.ofMinutes(30),
+        acquireTimeout,
+        Duration.ofSeconds(1),
+        Duration.ofMillis(50));
+  }
+}
@@ -0,0 +1,153 @@
+package ratingservice.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+final class ReplicaRouterTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000_000L);
+  private DataSource primary;
+  private DataSource replicaA;
+  private DataSource replicaB;
+  private ReplicaRouter router;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    primary = dataSource();
+    replicaA = dataSource();
+    replicaB = dataSource();
+    router =
+        new ReplicaRouter(primary, List.of(replicaA, replicaB), Duration.ofMillis(100), now::get);
+  }
+
+  @Test
+  void readConnection_shouldPreferReplicaWithFewestOutstandingConnections() throws Exception {
+    Connection first = router.readConnection(1L);
+    Connection second = router.readConnection(2L);
+
+    assertArrayEquals(new int[] {1, 1}, router.stats().outstanding());
+
+    second.close();
+    Connection third = router.readConnection(3L);
+    Connection fourth = router.readConnection(4L);
+
+    assertArrayEquals(new int[] {1, 2}, router.stats().outstanding());
+    verify(replicaB, times(3)).getConnection();
+    first.close();
+    third.close();
+    fourth.close();
+    second.close();
+    assertArrayEquals(new int[] {0, 0}, router.stats().outstanding());
+    assertEquals(4, router.stats().replicaReads());
+    assertEquals(0, router.stats().primaryReads());
+  }
+
+  @Test
+  void readConnection_shouldUsePrimaryForModWrittenWithinStalenessBound() throws Exception {
+    router.recordWrite(7L);
+
+    router.readConnection(7L).close();
+    router.readConnection(List.of(6L, 7L)).close();
+    router.readConnection(8L).close();
+
+    assertEquals(2, router.stats().primaryReads());
+    assertEquals(1, router.stats().replicaReads());
+
+    now.addAndGet(Duration.ofMillis(100).toNanos());
+    router.readConnection(7L).close();
+
+    assertEquals(2, router.stats().replicaReads());
+  }
+
+  @Test
+  void recordWrite_shouldSweepExpiredWritesOnlyOnceTrackedModsDouble() {
+    for (long modId = 1; modId <= 4_097; modId++) {
+      router.recordWrite(modId);
+    }
+    assertEquals(4_097, router.trackedWrites());
+
+    now.addAndGet(Duration.ofMillis(100).toNanos());
+    for (long modId = 4_098; modId <= 8_194; modId++) {
+      router.recordWrite(modId);
+    }
+    assertEquals(8_194, router.trackedWrites());
+
+    router.recordWrite(8_195L);
+    assertEquals(4_098, router.trackedWrites());
+  }
+
+  @Test
+  void readConnection_shouldFallBackToPrimaryWhenReplicaFails() throws Exception {
+    DataSource broken = mock(DataSource.class);
+    when(broken.getConnection()).thenThrow(new SQLException("replica down"));
+    router = new ReplicaRouter(primary, List.of(broken), Duration.ZERO, now::get);
+
+    router.readConnection(1L).close();
+
+    verify(primary).getConnection();
+    assertEquals(1, router.stats().replicaFailures());
+    assertArrayEquals(new int[] {0}, router.stats().outstanding());
+  }
+
+  @Test
+  void readConnection_shouldKeepFailedReplicaOutOfRotationUntilRetrySucceeds() throws Exception {
+    DataSource flaky = mock(DataSource.class);
+    when(flaky.getConnection())
+        .thenThrow(new SQLException("replica down"))
+        .thenThrow(new SQLException("replica down"))
+        .thenAnswer(invocation -> mock(Connection.class));
+    router = new ReplicaRouter(primary, List.of(flaky), Duration.ZERO, now::get);
+
+    router.readConnection(1L).close();
+    router.readConnection(2L).close();
+
+    assertArrayEquals(new boolean[] {false}, router.stats().inRotation());
+    verify(flaky, times(1)).getConnection();
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    router.readConnection(3L).close();
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    router.readConnection(4L).close();
+
+    verify(flaky, times(2)).getConnection();
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    router.readConnection(5L).close();
+    router.readConnection(6L).close();
+
+    assertArrayEquals(new boolean[] {true}, router.stats().inRotation());
+    assertEquals(2, router.stats().replicaReads());
+    assertEquals(4, router.stats().primaryReads());
+    assertEquals(2, router.stats().replicaFailures());
+  }
+
+  @Test
+  void primaryOnly_shouldServeReadsAndWritesFromPrimary() throws Exception {
+    router = ReplicaRouter.primaryOnly(primary);
+
+    router.readConnection(1L).close();
+    router.writeConnection().close();
+
+    assertEquals(1, router.stats().primaryReads());
+    assertEquals(0, router.stats().replicaReads());
+  }
+
+  private static DataSource dataSource() throws SQLException {
+    DataSource dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    return dataSource;
+  }
+}
@@ -0,0 +1,50 @@
+package ratingservice.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+
+final class AdmissionControlTest {
+
+  @Test
+  void admit_shouldShedWhenQueueIsFull() {
+    AdmissionControl admission = new AdmissionControl(1, 2);
+
+    admission.admit(Long.MAX_VALUE);
+    admission.admit(Long.MAX_VALUE);
+
+    assertThrows(RejectedExecutionException.class, () -> admission.admit(Long.MAX_VALUE));
+    assertEquals(1, admission.shedCount(AdmissionControl.Reason.QUEUE_FULL));
+    admission.dequeued();
+    admission.admit(Long.MAX_VALUE);
+    assertEquals(2, admission.queued());
+  }
+
+  @Test
+  void admit_shouldShedWhenEstimatedWaitExceedsDeadline() {
+    AdmissionControl admission = new AdmissionControl(2, 100);
+    admission.finished(1_000_000);
+    for (int i = 0; i < 4; i++) {
+      admission.admit(Long.MAX_VALUE);
+    }
+
+    assertEquals(2_000_000, admission.estimatedWaitNanos(admission.queued()));
+    assertThrows(RejectedExecutionException.class, () -> admission.admit(1_500_000));
+    assertEquals(1, admission.shedCount(AdmissionControl.Reason.DEADLINE));
+    admission.admit(2_000_000);
+    assertEquals(5, admission.queued());
+  }
+
+  @Test
+  void admit_shouldAlwaysAdmitIntoEmptyQueue() {
+    AdmissionControl admission = new AdmissionControl(1, 10);
+    admission.finished(10_000_000_000L);
+
+    admission.admit(0);
+
+    assertThrows(RejectedExecutionException.class, () -> admission.admit(0));
+    assertEquals(1, admission.queued());
+  }
+}
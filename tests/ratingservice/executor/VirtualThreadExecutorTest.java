@@ -0,0 +1,80 @@
+package ratingservice.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+final class VirtualThreadExecutorTest {
+
+  @Test
+  void execute_shouldRunAtMostMaxConcurrencyTasksAtOnce() throws Exception {
+    VirtualThreadExecutor executor = new VirtualThreadExecutor(2);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(6);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    try {
+      for (int i = 0; i < 6; i++) {
+        executor.execute(
+            () -> {
+              peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              } finally {
+                running.decrementAndGet();
+                done.countDown();
+              }
+            });
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (executor.waitingCount() < 4 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+
+      assertEquals(2, executor.activeCount());
+      assertEquals(4, executor.waitingCount());
+      release.countDown();
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+      assertEquals(2, peak.get());
+      // Permits are released after each task returns, just behind the latch.
+      deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (executor.activeCount() > 0 && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+      assertEquals(0, executor.activeCount());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void execute_shouldRejectAfterShutdown() throws Exception {
+    VirtualThreadExecutor executor = new VirtualThreadExecutor(1);
+
+    executor.shutdown();
+
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+    assertTrue(executor.isShutdown());
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void maxConcurrency_shouldReportConfiguredLimit() {
+    VirtualThreadExecutor executor = new VirtualThreadExecutor(8);
+    try {
+      assertEquals(8, executor.maxConcurrency());
+      assertThrows(IllegalArgumentException.class, () -> new VirtualThreadExecutor(0));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -2,16 +2,26 @@ package ratingservice.handler;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +30,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import rating.Rating;
 import ratingservice.model.Data;
+import ratingservice.repository.Repository;
+import ratingservice.service.RatesWatchHub;
 import ratingservice.service.Service;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +43,14 @@ final class HandlerTest {
   private StreamObserver<Rating.RateModResponse> rateModObserver;
   @Mock
   private StreamObserver<Rating.GetRatesResponse> getRatesObserver;
+  @Mock
+  private StreamObserver<Rating.GetRatesBatchResponse> getRatesBatchObserver;
+  @Mock
+  private ServerCallStreamObserver<Rating.WatchRatesResponse> watchRatesObserver;
+  @Mock
+  private RatesWatchHub.Subscription subscription;
+  @Mock
+  private ServerCallStreamObserver<Rating.RateModStreamResponse> rateModStreamObserver;
 
   private Handler handler;
 
@@ -41,7 +61,8 @@ final class HandlerTest {
 
   @Test
   void rateMod_shouldEmitResponseAndComplete() {
-    when(ratingService.rateMod(1L, 2L, 5)).thenReturn(CompletableFuture.completedFuture(42));
+    when(ratingService.rateMod(eq(1L), eq(2L), eq(5), any()))
+        .thenReturn(CompletableFuture.completedFuture(42));
 
     Rating.RateModRequest request = Rating.RateModRequest.newBuilder()
         .setModId(1L)
@@ -72,12 +93,12 @@ final class HandlerTest {
     Status status = Status.fromThrowable(errorCaptor.getValue());
     assertSame(Status.INVALID_ARGUMENT.getCode(), status.getCode());
     verify(rateModObserver, never()).onCompleted();
-    verify(ratingService, never()).rateMod(anyLong(), anyLong(), anyInt());
+    verify(ratingService, never()).rateMod(anyLong(), anyLong(), anyInt(), any());
   }
 
   @Test
   void rateMod_shouldTranslateServiceIllegalState() {
-    when(ratingService.rateMod(1L, 2L, 1))
+    when(ratingService.rateMod(eq(1L), eq(2L), eq(1), any()))
         .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("state")));
 
     Rating.RateModRequest request = Rating.RateModRequest.newBuilder()
@@ -94,9 +115,47 @@ final class HandlerTest {
     assertSame(Status.FAILED_PRECONDITION.getCode(), status.getCode());
   }
 
+  @Test
+  void rateMod_shouldTranslateShedWorkToResourceExhausted() {
+    when(ratingService.rateMod(eq(1L), eq(2L), eq(2), any()))
+        .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("queue full")));
+
+    Rating.RateModRequest request = Rating.RateModRequest.newBuilder()
+        .setModId(1L)
+        .setAuthorId(2L)
+        .setRate(Rating.Rate.RATE_2)
+        .build();
+
+    handler.rateMod(request, rateModObserver);
+
+    ArgumentCaptor<Throwable> errorCaptor = ArgumentCaptor.forClass(Throwable.class);
+    verify(rateModObserver, timeout(200)).onError(errorCaptor.capture());
+    Status status = Status.fromThrowable(errorCaptor.getValue());
+    assertSame(Status.RESOURCE_EXHAUSTED.getCode(), status.getCode());
+  }
+
+  @Test
+  void rateMod_shouldTranslateExpiredDeadline() {
+    when(ratingService.rateMod(eq(1L), eq(2L), eq(3), any()))
+        .thenReturn(CompletableFuture.failedFuture(new TimeoutException("expired")));
+
+    Rating.RateModRequest request = Rating.RateModRequest.newBuilder()
+        .setModId(1L)
+        .setAuthorId(2L)
+        .setRate(Rating.Rate.RATE_3)
+        .build();
+
+    handler.rateMod(request, rateModObserver);
+
+    ArgumentCaptor<Throwable> errorCaptor = ArgumentCaptor.forClass(Throwable.class);
+    verify(rateModObserver, timeout(200)).onError(errorCaptor.capture());
+    Status status = Status.fromThrowable(errorCaptor.getValue());
+    assertSame(Status.DEADLINE_EXCEEDED.getCode(), status.getCode());
+  }
+
   @Test
   void rateMod_shouldTranslateUnexpectedErrors() {
-    when(ratingService.rateMod(1L, 2L, 4))
+    when(ratingService.rateMod(eq(1L), eq(2L), eq(4), any()))
         .thenReturn(CompletableFuture.failedFuture(new RuntimeException("boom")));
 
     Rating.RateModRequest request = Rating.RateModRequest.newBuilder()
@@ -116,7 +175,8 @@ final class HandlerTest {
   @Test
   void getRates_shouldEmitMappedResponse() {
     Data data = new Data(10, 1, 2, 3, 4, 5);
-    when(ratingService.getRatings(7L)).thenReturn(CompletableFuture.completedFuture(data));
+    when(ratingService.getRatings(eq(7L), any()))
+        .thenReturn(CompletableFuture.completedFuture(data));
 
     Rating.GetRatesRequest request = Rating.GetRatesRequest.newBuilder().setModId(7L).build();
 
@@ -136,7 +196,7 @@ final class HandlerTest {
 
   @Test
   void getRates_shouldTranslateServiceErrors() {
-    when(ratingService.getRatings(9L))
+    when(ratingService.getRatings(eq(9L), any()))
         .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("bad")));
 
     Rating.GetRatesRequest request = Rating.GetRatesRequest.newBuilder().setModId(9L).build();
@@ -148,4 +208,154 @@ final class HandlerTest {
     Status status = Status.fromThrowable(errorCaptor.getValue());
     assertSame(Status.INVALID_ARGUMENT.getCode(), status.getCode());
   }
+
+  @Test
+  void getRatesBatch_shouldEmitSummaryPerMod() {
+    when(ratingService.getRatingsBatch(eq(List.of(7L, 8L)), any()))
+        .thenReturn(CompletableFuture.completedFuture(Map.of(
+            7L, new Data(2, 0, 0, 0, 1, 1),
+            8L, new Data(0, 0, 0, 0, 0, 0))));
+
+    Rating.GetRatesBatchRequest request = Rating.GetRatesBatchRequest.newBuilder()
+        .addModIds(7L)
+        .addModIds(8L)
+        .build();
+
+    handler.getRatesBatch(request, getRatesBatchObserver);
+
+    ArgumentCaptor<Rating.GetRatesBatchResponse> responseCaptor = ArgumentCaptor.forClass(Rating.GetRatesBatchResponse.class);
+    verify(getRatesBatchObserver, timeout(200)).onNext(responseCaptor.capture());
+    Rating.GetRatesBatchResponse response = responseCaptor.getValue();
+    assertEquals(2, response.getRatesCount());
+    assertEquals(2, response.getRatesOrThrow(7L).getRatesTotal());
+    assertEquals(1, response.getRatesOrThrow(7L).getRate5());
+    assertEquals(0, response.getRatesOrThrow(8L).getRatesTotal());
+    verify(getRatesBatchObserver, timeout(200)).onCompleted();
+  }
+
+  @Test
+  void getRatesBatch_shouldRejectNonPositiveModIds() {
+    Rating.GetRatesBatchRequest request = Rating.GetRatesBatchRequest.newBuilder()
+        .addModIds(7L)
+        .addModIds(0L)
+        .build();
+
+    handler.getRatesBatch(request, getRatesBatchObserver);
+
+    ArgumentCaptor<Throwable> errorCaptor = ArgumentCaptor.forClass(Throwable.class);
+    verify(getRatesBatchObserver, timeout(200)).onError(errorCaptor.capture());
+    Status status = Status.fromThrowable(errorCaptor.getValue());
+    assertSame(Status.INVALID_ARGUMENT.getCode(), status.getCode());
+    verify(ratingService, never()).getRatingsBatch(anyList(), any());
+  }
+
+  @Test
+  void watchRates_shouldRejectEmptyModIds() {
+    handler.watchRates(Rating.WatchRatesRequest.getDefaultInstance(), watchRatesObserver);
+
+    ArgumentCaptor<Throwable> errorCaptor = ArgumentCaptor.forClass(Throwable.class);
+    verify(watchRatesObserver).onError(errorCaptor.capture());
+    Status status = Status.fromThrowable(errorCaptor.getValue());
+    assertSame(Status.INVALID_ARGUMENT.getCode(), status.getCode());
+    verify(ratingService, never()).watchRates(anyList(), any());
+  }
+
+  @Test
+  void watchRates_shouldOnlyWriteWhileStreamIsReady() {
+    when(ratingService.watchRates(eq(List.of(7L)), any())).thenReturn(subscription);
+    when(watchRatesObserver.isReady()).thenReturn(false, true);
+    when(subscription.poll())
+        .thenReturn(new RatesWatchHub.Update(7L, new Data(3, 0, 0, 1, 1, 1)), (RatesWatchHub.Update) null);
+
+    Rating.WatchRatesRequest request = Rating.WatchRatesRequest.newBuilder()
+        .addModIds(7L)
+        .build();
+
+    handler.watchRates(request, watchRatesObserver);
+
+    verify(watchRatesObserver, never()).onNext(any());
+    ArgumentCaptor<Runnable> onReadyCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(watchRatesObserver).setOnReadyHandler(onReadyCaptor.capture());
+    verify(watchRatesObserver).setOnCancelHandler(any());
+
+    onReadyCaptor.getValue().run();
+
+    ArgumentCaptor<Rating.WatchRatesResponse> responseCaptor = ArgumentCaptor.forClass(Rating.WatchRatesResponse.class);
+    verify(watchRatesObserver).onNext(responseCaptor.capture());
+    assertEquals(7L, responseCaptor.getValue().getModId());
+    assertEquals(3, responseCaptor.getValue().getRates().getRatesTotal());
+    verify(watchRatesObserver, never()).onCompleted();
+  }
+
+  @Test
+  void rateModStream_shouldAckEachChunkAndSummarize() {
+    Handler chunkingHandler = new Handler(ratingService, 2);
+    when(ratingService.rateModChunk(anyList()))
+        .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<List<?>>getArgument(0).size()));
+
+    StreamObserver<Rating.RateModRequest> requests = chunkingHandler.rateModStream(rateModStreamObserver);
+    requests.onNext(rateModRequest(1L, 10L, Rating.Rate.RATE_5));
+    requests.onNext(rateModRequest(1L, 11L, Rating.Rate.RATE_4));
+    requests.onNext(rateModRequest(2L, 10L, Rating.Rate.RATE_1));
+    requests.onCompleted();
+
+    verify(rateModStreamObserver).disableAutoRequest();
+    verify(ratingService).rateModChunk(List.of(
+        new Repository.RateInsert(1L, 10L, 5),
+        new Repository.RateInsert(1L, 11L, 4)));
+    verify(ratingService).rateModChunk(List.of(new Repository.RateInsert(2L, 10L, 1)));
+
+    ArgumentCaptor<Rating.RateModStreamResponse> responseCaptor = ArgumentCaptor.forClass(Rating.RateModStreamResponse.class);
+    verify(rateModStreamObserver, times(3)).onNext(responseCaptor.capture());
+    List<Rating.RateModStreamResponse> responses = responseCaptor.getAllValues();
+    assertEquals(2, responses.get(0).getChunk().getNextOffset());
+    assertEquals(3, responses.get(1).getChunk().getNextOffset());
+    assertEquals(3, responses.get(2).getSummary().getWritten());
+    assertEquals(2, responses.get(2).getSummary().getChunks());
+    verify(rateModStreamObserver).onCompleted();
+  }
+
+  @Test
+  void rateModStream_shouldStopRequestingWhileWritesAreBehind() {
+    Handler chunkingHandler = new Handler(ratingService, 2);
+    CompletableFuture<Integer> firstChunk = new CompletableFuture<>();
+    when(ratingService.rateModChunk(anyList()))
+        .thenReturn(firstChunk)
+        .thenReturn(CompletableFuture.completedFuture(2));
+
+    StreamObserver<Rating.RateModRequest> requests = chunkingHandler.rateModStream(rateModStreamObserver);
+    for (long authorId = 1; authorId <= 4; authorId++) {
+      requests.onNext(rateModRequest(1L, authorId, Rating.Rate.RATE_3));
+    }
+
+    verify(rateModStreamObserver, times(2)).request(2);
+    verify(ratingService, times(1)).rateModChunk(anyList());
+
+    firstChunk.complete(2);
+
+    verify(rateModStreamObserver, times(3)).request(2);
+    verify(ratingService, times(2)).rateModChunk(anyList());
+  }
+
+  @Test
+  void rateModStream_shouldRejectInvalidRequestWithOffset() {
+    StreamObserver<Rating.RateModRequest> requests = handler.rateModStream(rateModStreamObserver);
+    requests.onNext(rateModRequest(1L, 10L, Rating.Rate.RATE_5));
+    requests.onNext(rateModRequest(1L, 11L, Rating.Rate.RATE_UNSPECIFIED));
+
+    ArgumentCaptor<Throwable> errorCaptor = ArgumentCaptor.forClass(Throwable.class);
+    verify(rateModStreamObserver).onError(errorCaptor.capture());
+    Status status = Status.fromThrowable(errorCaptor.getValue());
+    assertSame(Status.INVALID_ARGUMENT.getCode(), status.getCode());
+    assertTrue(status.getDescription().contains("offset 1"));
+    verify(ratingService, never()).rateModChunk(anyList());
+  }
+
+  private static Rating.RateModRequest rateModRequest(final long modId, final long authorId, final Rating.Rate rate) {
+    return Rating.RateModRequest.newBuilder()
+        .setModId(modId)
+        .setAuthorId(authorId)
+        .setRate(rate)
+        .build();
+  }
 }
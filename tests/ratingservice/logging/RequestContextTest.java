@@ -0,0 +1,106 @@
+package ratingservice.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+final class RequestContextTest {
+
+  private final LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+  private final RequestContextTurboFilter filter = new RequestContextTurboFilter();
+  private final ListAppender<ILoggingEvent> appender =
+      new ListAppender<>() {
+        @Override
+        protected void append(final ILoggingEvent event) {
+          // Events read the MDC lazily; capture it while the request context is still attached.
+          event.prepareForDeferredProcessing();
+          super.append(event);
+        }
+      };
+  private Logger logger;
+
+  @BeforeEach
+  void setUp() {
+    filter.setContext(loggerContext);
+    filter.start();
+    loggerContext.addTurboFilter(filter);
+    appender.setContext(loggerContext);
+    appender.start();
+    logger = loggerContext.getLogger(RequestContextTest.class);
+    logger.setLevel(Level.INFO);
+    logger.setAdditive(false);
+    logger.addAppender(appender);
+  }
+
+  @AfterEach
+  void tearDown() {
+    loggerContext.getTurboFilterList().remove(filter);
+    logger.detachAppender(appender);
+    logger.setLevel(null);
+    logger.setAdditive(true);
+    MDC.clear();
+  }
+
+  @Test
+  void call_shouldNotTouchMdcWhenNothingIsLogged() {
+    RequestContext.rateMod(1L, 2L, 3)
+        .call(
+            () -> {
+              logger.debug("below threshold");
+              assertNull(MDC.get(RequestContext.MDC_GRPC_METHOD));
+              return null;
+            });
+  }
+
+  @Test
+  void call_shouldMaterializeFieldsForEnabledEvents() {
+    RequestContext.rateMod(1L, 2L, 3).call(() -> logWarn("rate failed"));
+
+    Map<String, String> mdc = appender.list.get(0).getMDCPropertyMap();
+    assertEquals("rate_mod", mdc.get(RequestContext.MDC_GRPC_METHOD));
+    assertEquals("1", mdc.get(RequestContext.MDC_MOD_ID));
+    assertEquals("2", mdc.get(RequestContext.MDC_AUTHOR_ID));
+    assertEquals("3", mdc.get(RequestContext.MDC_RATE));
+    assertNull(mdc.get(RequestContext.MDC_MOD_COUNT));
+    assertNull(MDC.get(RequestContext.MDC_GRPC_METHOD));
+    assertNull(RequestContext.current());
+  }
+
+  @Test
+  void call_shouldRestoreOuterContextAfterNestedCall() {
+    RequestContext outer = RequestContext.getRatings(5L);
+
+    outer.call(
+        () -> {
+          logWarn("outer");
+          RequestContext.getRatingsBatch(4).call(() -> logWarn("inner"));
+          assertSame(outer, RequestContext.current());
+          return logWarn("outer again");
+        });
+
+    assertEquals("5", appender.list.get(0).getMDCPropertyMap().get(RequestContext.MDC_MOD_ID));
+    Map<String, String> inner = appender.list.get(1).getMDCPropertyMap();
+    assertEquals("get_ratings_batch", inner.get(RequestContext.MDC_GRPC_METHOD));
+    assertEquals("4", inner.get(RequestContext.MDC_MOD_COUNT));
+    Map<String, String> restored = appender.list.get(2).getMDCPropertyMap();
+    assertEquals("get_ratings", restored.get(RequestContext.MDC_GRPC_METHOD));
+    assertEquals("5", restored.get(RequestContext.MDC_MOD_ID));
+  }
+
+  private Void logWarn(final String message) {
+    logger.warn(message);
+    return null;
+  }
+}
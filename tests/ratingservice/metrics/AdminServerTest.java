@@ -0,0 +1,35 @@
+package ratingservice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+final class AdminServerTest {
+
+  @Test
+  void metrics_shouldServeScrape() throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.gauge("worker_pool_active_threads", "Busy workers.", () -> 2);
+
+    try (AdminServer server = new AdminServer(0, registry)) {
+      HttpClient client = HttpClient.newHttpClient();
+      URI uri = URI.create("http://127.0.0.1:" + server.port() + "/metrics");
+
+      HttpResponse<String> response =
+          client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+      HttpResponse<String> post =
+          client.send(
+              HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build(),
+              HttpResponse.BodyHandlers.ofString());
+
+      assertEquals(200, response.statusCode());
+      assertEquals(AdminServer.CONTENT_TYPE, response.headers().firstValue("Content-Type").get());
+      assertEquals(registry.scrape(), response.body());
+      assertEquals(405, post.statusCode());
+    }
+  }
+}
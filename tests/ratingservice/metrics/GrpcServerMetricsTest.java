@@ -0,0 +1,121 @@
+package ratingservice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+final class GrpcServerMetricsTest {
+
+  private static final String METHOD = "rating.RatingService/GetRates";
+
+  @Test
+  void interceptCall_shouldCountCallsByStatusAndRecordLatency() {
+    MetricsRegistry registry = new MetricsRegistry();
+    GrpcServerMetrics metrics = new GrpcServerMetrics(registry);
+
+    assertNull(metrics.latencyMicros(METHOD));
+    complete(metrics, Status.OK);
+    complete(metrics, Status.OK);
+    complete(metrics, Status.NOT_FOUND);
+
+    assertEquals(3, metrics.latencyMicros(METHOD).snapshot().count());
+    String scrape = registry.scrape();
+    assertTrue(scrape.contains("grpc_server_started_total{method=\"" + METHOD + "\"} 3\n"));
+    assertTrue(
+        scrape.contains("grpc_server_handled_total{method=\"" + METHOD + "\",code=\"OK\"} 2\n"));
+    assertTrue(
+        scrape.contains(
+            "grpc_server_handled_total{method=\"" + METHOD + "\",code=\"NOT_FOUND\"} 1\n"));
+    assertTrue(
+        scrape.contains("grpc_server_handling_seconds_count{method=\"" + METHOD + "\"} 3\n"));
+  }
+
+  @Test
+  void interceptCall_shouldRecordStagesOfTheCall() {
+    MetricsRegistry registry = new MetricsRegistry();
+    GrpcServerMetrics metrics = new GrpcServerMetrics(registry, Duration.ofNanos(1));
+    ServerCall<Object, Object> call = mockCall();
+    ServerCallHandler<Object, Object> next = mockHandler();
+    when(next.startCall(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              RequestTimings.record(RequestTimings.Stage.CONNECTION_ACQUIRE, 2_000);
+              RequestTimings.record(RequestTimings.Stage.QUERY_EXECUTE, 5_000);
+              return null;
+            });
+
+    metrics.interceptCall(call, new Metadata(), next);
+
+    ArgumentCaptor<ServerCall<Object, Object>> wrapped = captor();
+    verify(next).startCall(wrapped.capture(), any(Metadata.class));
+    wrapped.getValue().sendMessage("response");
+    wrapped.getValue().close(Status.OK, new Metadata());
+    verify(call).sendMessage("response");
+
+    assertEquals(
+        0, metrics.stageMicros(METHOD, RequestTimings.Stage.QUEUE_WAIT).snapshot().count());
+    assertEquals(
+        5, metrics.stageMicros(METHOD, RequestTimings.Stage.QUERY_EXECUTE).snapshot().sum());
+    assertEquals(
+        1, metrics.stageMicros(METHOD, RequestTimings.Stage.RESPONSE_SERIALIZE).snapshot().count());
+    assertTrue(
+        registry
+            .scrape()
+            .contains(
+                "grpc_server_stage_seconds_count{method=\""
+                    + METHOD
+                    + "\",stage=\"connection_acquire\"} 1\n"));
+    assertNull(RequestTimings.current());
+  }
+
+  private static void complete(final GrpcServerMetrics metrics, final Status status) {
+    ServerCall<Object, Object> call = mockCall();
+    ServerCallHandler<Object, Object> next = mockHandler();
+    Metadata headers = new Metadata();
+
+    metrics.interceptCall(call, headers, next);
+
+    ArgumentCaptor<ServerCall<Object, Object>> wrapped = captor();
+    verify(next).startCall(wrapped.capture(), same(headers));
+    Metadata trailers = new Metadata();
+    wrapped.getValue().close(status, trailers);
+    verify(call).close(same(status), any(Metadata.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ServerCall<Object, Object> mockCall() {
+    MethodDescriptor.Marshaller<Object> marshaller = mock(MethodDescriptor.Marshaller.class);
+    MethodDescriptor<Object, Object> method =
+        MethodDescriptor.newBuilder(marshaller, marshaller)
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName(METHOD)
+            .build();
+    ServerCall<Object, Object> call = mock(ServerCall.class);
+    when(call.getMethodDescriptor()).thenReturn(method);
+    return call;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ServerCallHandler<Object, Object> mockHandler() {
+    return mock(ServerCallHandler.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ArgumentCaptor<ServerCall<Object, Object>> captor() {
+    return ArgumentCaptor.forClass(ServerCall.class);
+  }
+}
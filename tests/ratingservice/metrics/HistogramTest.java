@@ -0,0 +1,45 @@
+package ratingservice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+final class HistogramTest {
+
+  @Test
+  void record_shouldPlaceValuesInFirstBucketWithGreaterOrEqualBound() {
+    Histogram histogram = new Histogram(1, 10, 100);
+
+    histogram.record(0);
+    histogram.record(1);
+    histogram.record(5);
+    histogram.record(100);
+    histogram.record(1_000);
+
+    Histogram.Snapshot snapshot = histogram.snapshot();
+    assertArrayEquals(new long[] {2, 1, 1, 1}, snapshot.counts());
+    assertEquals(5, snapshot.count());
+    assertEquals(1_106, snapshot.sum());
+  }
+
+  @Test
+  void quantileUpperBound_shouldReturnBucketBoundOrOverflowMarker() {
+    Histogram histogram = Histogram.exponential(1, 10, 3);
+    for (int i = 0; i < 99; i++) {
+      histogram.record(5);
+    }
+    histogram.record(500);
+
+    Histogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(10, snapshot.quantileUpperBound(0.5));
+    assertEquals(10, snapshot.quantileUpperBound(0.99));
+    assertEquals(-1, snapshot.quantileUpperBound(1.0));
+  }
+
+  @Test
+  void constructor_shouldRejectUnsortedBounds() {
+    assertThrows(IllegalArgumentException.class, () -> new Histogram(10, 5));
+  }
+}
@@ -0,0 +1,56 @@
+package ratingservice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+final class MetricsRegistryTest {
+
+  @Test
+  void scrape_shouldRenderFamiliesInTextFormat() {
+    MetricsRegistry registry = new MetricsRegistry();
+    Histogram latency = new Histogram(1_000, 10_000);
+    latency.record(500);
+    latency.record(2_000);
+    latency.record(50_000);
+    registry.gauge("queue_depth", "Queued tasks.", () -> 3);
+    registry.register(
+        "query_seconds",
+        MetricsRegistry.Type.HISTOGRAM,
+        "Query time.",
+        samples ->
+            samples.histogram(
+                MetricsRegistry.label("query", "add_rate"), latency.snapshot(), 1e-6));
+
+    assertEquals(
+        """
+        # HELP queue_depth Queued tasks.
+        # TYPE queue_depth gauge
+        queue_depth 3
+        # HELP query_seconds Query time.
+        # TYPE query_seconds histogram
+        query_seconds_bucket{query="add_rate",le="0.001"} 1
+        query_seconds_bucket{query="add_rate",le="0.01"} 2
+        query_seconds_bucket{query="add_rate",le="+Inf"} 3
+        query_seconds_sum{query="add_rate"} 0.0525
+        query_seconds_count{query="add_rate"} 3
+        """,
+        registry.scrape());
+  }
+
+  @Test
+  void label_shouldEscapeValue() {
+    assertEquals("method=\"a\\\"b\\\\c\\n\"", MetricsRegistry.label("method", "a\"b\\c\n"));
+  }
+
+  @Test
+  void register_shouldRejectDuplicateNames() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.gauge("active", "Active.", () -> 1);
+
+    assertThrows(IllegalArgumentException.class, () -> registry.gauge("active", "Again.", () -> 2));
+    assertTrue(registry.scrape().contains("active 1\n"));
+  }
+}
@@ -0,0 +1,98 @@
+package ratingservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+final class BulkLoaderTest {
+
+  private final DataSource dataSource = mock(DataSource.class);
+  private final Connection connection = mock(Connection.class);
+  private final Statement statement = mock(Statement.class);
+  private final PGConnection pgConnection = mock(PGConnection.class);
+  private final CopyManager copyManager = mock(CopyManager.class);
+  private final ResultSet invalidRows = mock(ResultSet.class);
+  private final InputStream input =
+      new ByteArrayInputStream("1,2,5\n".getBytes(StandardCharsets.UTF_8));
+
+  @BeforeEach
+  void setUp() throws Exception {
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    when(statement.executeQuery(anyString())).thenReturn(invalidRows);
+    when(invalidRows.next()).thenReturn(true);
+  }
+
+  @Test
+  void load_shouldCopyMergeAndRebuildCountersInOneTransaction() throws Exception {
+    when(copyManager.copyIn(anyString(), any(InputStream.class), anyInt())).thenReturn(3L);
+    when(statement.executeLargeUpdate(contains("INSERT INTO rates "))).thenReturn(2L);
+    when(statement.executeLargeUpdate(contains("INSERT INTO mod_rating_counters"))).thenReturn(1L);
+
+    BulkLoader.Result result =
+        new BulkLoader(dataSource, 4096).load(input, BulkLoader.Format.CSV, true, false);
+
+    assertEquals(3L, result.rowsCopied());
+    assertEquals(2L, result.rowsLoaded());
+    assertEquals(1L, result.modsRebuilt());
+
+    InOrder order = inOrder(connection, statement, copyManager);
+    order.verify(connection).setAutoCommit(false);
+    order.verify(statement).execute(contains("LOCK TABLE rates"));
+    order.verify(statement).execute(contains("CREATE TEMP TABLE rates_load"));
+    order
+        .verify(copyManager)
+        .copyIn(
+            "COPY rates_load (author_id, mod_id, rate) FROM STDIN WITH (FORMAT csv, HEADER true)",
+            input,
+            4096);
+    order.verify(statement).executeLargeUpdate(contains("INSERT INTO rates "));
+    order.verify(statement).execute("DELETE FROM mod_rating_counters");
+    order.verify(statement).executeLargeUpdate(contains("INSERT INTO mod_rating_counters"));
+    order.verify(connection).commit();
+    verify(statement, never()).execute("TRUNCATE rates");
+  }
+
+  @Test
+  void load_shouldRollBackWhenRowsAreInvalid() throws Exception {
+    when(invalidRows.getLong(1)).thenReturn(4L);
+
+    SQLException error =
+        assertThrows(
+            SQLException.class,
+            () ->
+                new BulkLoader(dataSource, 4096)
+                    .load(input, BulkLoader.Format.BINARY, false, true));
+
+    assertEquals("Bulk load rejected: 4 rows have invalid ids or rates.", error.getMessage());
+    verify(statement).execute("TRUNCATE rates");
+    verify(copyManager).copyIn(contains("FORMAT binary"), any(InputStream.class), anyInt());
+    verify(statement, never()).executeLargeUpdate(anyString());
+    verify(connection).rollback();
+    verify(connection, never()).commit();
+  }
+}
@@ -0,0 +1,104 @@
+package ratingservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+final class CounterChangeFeedTest {
+
+  private static final PGNotification[] NONE = new PGNotification[0];
+
+  @Test
+  void shouldReportMissedChangesThenBatchNotifiedMods() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    Statement statement = mock(Statement.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    CounterChangeFeed.Listener listener = mock(CounterChangeFeed.Listener.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    PGNotification[] batch = {notification("1,2"), notification("2,3")};
+    when(pgConnection.getNotifications(anyInt())).thenReturn(batch, NONE);
+
+    CounterChangeFeed feed = new CounterChangeFeed(dataSource, listener);
+    try {
+      verify(listener, timeout(5_000)).modsChanged(Set.of(1L, 2L, 3L));
+    } finally {
+      feed.close();
+    }
+
+    verify(statement).execute("LISTEN mod_rating_counters");
+    InOrder order = inOrder(listener);
+    order.verify(listener).changesMissed();
+    order.verify(listener).modsChanged(Set.of(1L, 2L, 3L));
+  }
+
+  @Test
+  void shouldReconnectAndReportMissedChangesAfterOutage() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    Statement statement = mock(Statement.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    CounterChangeFeed.Listener listener = mock(CounterChangeFeed.Listener.class);
+
+    when(dataSource.getConnection())
+        .thenThrow(new SQLException("connection refused"))
+        .thenReturn(connection);
+    when(connection.createStatement()).thenReturn(statement);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    PGNotification[] everything = {notification("*")};
+    when(pgConnection.getNotifications(anyInt()))
+        .thenThrow(new SQLException("connection reset"))
+        .thenReturn(everything, NONE);
+
+    CounterChangeFeed feed =
+        new CounterChangeFeed(dataSource, listener, Duration.ofMillis(1), Duration.ofMillis(10));
+    try {
+      verify(listener, timeout(5_000).times(3)).changesMissed();
+    } finally {
+      feed.close();
+    }
+
+    verify(dataSource, times(3)).getConnection();
+    verify(connection, times(2)).close();
+  }
+
+  @Test
+  void parse_shouldReadModIdsOrRejectPayload() {
+    Set<Long> modIds = new HashSet<>();
+
+    assertTrue(CounterChangeFeed.parse("7,42,7", modIds));
+    assertEquals(Set.of(7L, 42L), modIds);
+    assertFalse(CounterChangeFeed.parse("*", modIds));
+    assertFalse(CounterChangeFeed.parse("", modIds));
+    assertFalse(CounterChangeFeed.parse("1,x", modIds));
+  }
+
+  private static PGNotification notification(final String payload) {
+    PGNotification notification = mock(PGNotification.class);
+    when(notification.getName()).thenReturn(CounterChangeFeed.CHANNEL);
+    when(notification.getParameter()).thenReturn(payload);
+    return notification;
+  }
+}
@@ -0,0 +1,96 @@
+package ratingservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+final class QueryLimiterTest {
+
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+  @Test
+  void acquire_shouldRejectAtLimit() {
+    QueryLimiter limiter = new QueryLimiter(2, 1, 10);
+
+    limiter.acquire();
+    limiter.acquire();
+
+    assertThrows(RejectedExecutionException.class, limiter::acquire);
+    assertEquals(1, limiter.rejectedCount());
+    limiter.release(FAST);
+    limiter.acquire();
+    assertEquals(2, limiter.inFlight());
+  }
+
+  @Test
+  void release_shouldShrinkLimitWhenLatencyRises() {
+    QueryLimiter limiter = new QueryLimiter(40, 2, 40);
+    runAtLimit(limiter, 30, FAST);
+    assertEquals(40, limiter.limit());
+
+    runAtLimit(limiter, 5, SLOW);
+
+    assertTrue(limiter.limit() < 30, "limit " + limiter.limit());
+    assertTrue(limiter.limit() >= 2);
+  }
+
+  @Test
+  void release_shouldNotLearnOverloadedLatency() {
+    QueryLimiter limiter = new QueryLimiter(40, 10, 40);
+    runAtLimit(limiter, 30, FAST);
+
+    runAtLimit(limiter, 20, SLOW);
+
+    assertEquals(10, limiter.limit());
+  }
+
+  @Test
+  void release_shouldAcceptSlowerDatabaseAtMinimumLimit() {
+    QueryLimiter limiter = new QueryLimiter(40, 2, 40);
+    runAtLimit(limiter, 30, FAST);
+
+    runAtLimit(limiter, 2_000, SLOW);
+
+    assertTrue(limiter.limit() > 10, "limit " + limiter.limit());
+  }
+
+  @Test
+  void release_shouldGrowLimitWhileLatencyHolds() {
+    QueryLimiter limiter = new QueryLimiter(4, 2, 100);
+
+    runAtLimit(limiter, 30, FAST);
+
+    assertTrue(limiter.limit() > 10, "limit " + limiter.limit());
+  }
+
+  @Test
+  void release_shouldKeepLimitWhenItIsNotUsed() {
+    QueryLimiter limiter = new QueryLimiter(40, 2, 100);
+
+    for (int i = 0; i < 1_000; i++) {
+      limiter.acquire();
+      limiter.release(i < 500 ? FAST : SLOW);
+    }
+
+    assertEquals(40, limiter.limit());
+  }
+
+  /** Fills every slot, then completes them all with {@code rttNanos}, {@code rounds} times. */
+  private static void runAtLimit(
+      final QueryLimiter limiter, final int rounds, final long rttNanos) {
+    for (int round = 0; round < rounds; round++) {
+      int slots = limiter.limit();
+      for (int i = 0; i < slots; i++) {
+        limiter.acquire();
+      }
+      for (int i = 0; i < slots; i++) {
+        limiter.release(rttNanos);
+      }
+    }
+  }
+}
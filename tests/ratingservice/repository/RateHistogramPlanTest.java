@@ -0,0 +1,57 @@
+package ratingservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.postgresql.ds.PGSimpleDataSource;
+
+/**
+ * Checks the plan of {@link Repository#RATE_HISTOGRAM_SQL} against a migrated database given as a
+ * JDBC URL in {@code TEST_DATABASE_URL}; skipped when it is not set. Nothing is written.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+final class RateHistogramPlanTest {
+
+  @Test
+  void rateHistogram_shouldBeIndexOnlyScanOfOnePartition() throws Exception {
+    PGSimpleDataSource dataSource = new PGSimpleDataSource();
+    dataSource.setURL(System.getenv("TEST_DATABASE_URL"));
+
+    List<String> plan = new ArrayList<>();
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        try (Statement stmt = conn.createStatement()) {
+          // An empty table would otherwise be read sequentially whatever indexes exist.
+          stmt.execute("SET LOCAL enable_seqscan = off");
+          stmt.execute("SET LOCAL enable_bitmapscan = off");
+        }
+        try (PreparedStatement stmt =
+            conn.prepareStatement("EXPLAIN " + Repository.RATE_HISTOGRAM_SQL)) {
+          stmt.setLong(1, 42L);
+          try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+              plan.add(rs.getString(1));
+            }
+          }
+        }
+      } finally {
+        conn.rollback();
+      }
+    }
+
+    String text = String.join("\n", plan);
+    List<String> scans = plan.stream().filter(line -> line.contains(" Scan ")).toList();
+    assertEquals(1, scans.size(), text);
+    assertTrue(scans.get(0).contains("Index Only Scan using"), text);
+    assertTrue(scans.get(0).contains(" on rates_p"), text);
+  }
+}
@@ -1,87 +1,231 @@
 package ratingservice.repository;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.Reader;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import ratingservice.datasource.ReplicaRouter;
 
 final class RepositoryTest {
 
   @Test
-  void addRate_shouldInsertAndReturnGeneratedId() throws Exception {
+  void addRate_shouldInsertNewRatingAndIncrementCounters() throws Exception {
     DataSource dataSource = mock(DataSource.class);
     Connection connection = mock(Connection.class);
     PreparedStatement statement = mock(PreparedStatement.class);
-    ResultSet generatedKeys = mock(ResultSet.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
 
     when(dataSource.getConnection()).thenReturn(connection);
-    when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS)))
-        .thenReturn(statement);
-    when(statement.executeUpdate()).thenReturn(1);
-    when(statement.getGeneratedKeys()).thenReturn(generatedKeys);
-    when(generatedKeys.next()).thenReturn(true);
-    when(generatedKeys.getLong(1)).thenReturn(77L);
+    when(connection.prepareStatement(contains("WITH existing"))).thenReturn(statement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getLong("id")).thenReturn(77L);
+    when(resultSet.wasNull()).thenReturn(true);
+    List<long[]> counters = stubCounterUpsert(connection, countersStatement, mock(Array.class), 1L);
 
     Repository repository = new Repository(dataSource);
     long rateId = repository.addRate(5L, 3L, 4);
 
     assertEquals(77L, rateId);
+    assertArrayEquals(new long[] {5, 1, 0, 0, 0, 1, 0}, counters.get(0));
 
-    InOrder order = inOrder(statement, generatedKeys);
-    order.verify(statement).setLong(1, 3L);
-    order.verify(statement).setLong(2, 5L);
+    InOrder order = inOrder(connection, statement, countersStatement);
+    order.verify(connection).setAutoCommit(false);
+    order.verify(statement).setLong(1, 5L);
+    order.verify(statement).setLong(2, 3L);
     order.verify(statement).setInt(3, 4);
-    order.verify(statement).executeUpdate();
-    order.verify(statement).getGeneratedKeys();
-    order.verify(generatedKeys).next();
-    order.verify(generatedKeys).getLong(1);
+    order.verify(statement).setLong(4, 5L);
+    order.verify(statement).setLong(5, 3L);
+    order.verify(statement).setLong(6, 5L);
+    order.verify(statement).setInt(7, 4);
+    order.verify(statement).executeQuery();
+    order.verify(countersStatement).executeQuery();
+    order.verify(connection).commit();
+    order.verify(connection).setAutoCommit(true);
+  }
+
+  @Test
+  void addRate_shouldReportCommittedCounterChange() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    Repository.CounterListener listener = mock(Repository.CounterListener.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("WITH existing"))).thenReturn(statement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getLong("id")).thenReturn(77L);
+    when(resultSet.getLong("previous_rate")).thenReturn(2L);
+    stubCounterUpsert(connection, countersStatement, mock(Array.class), 41L);
+
+    Repository repository =
+        Repository.builder(ReplicaRouter.primaryOnly(dataSource)).counterListener(listener).build();
+    repository.addRate(5L, 3L, 4);
+
+    InOrder order = inOrder(connection, listener);
+    order.verify(connection).commit();
+    order.verify(listener).countersChanged(5L, new long[] {0, 0, -1, 0, 1, 0}, 41L);
   }
 
   @Test
-  void addRate_shouldThrowWhenNoRowsAffected() throws Exception {
+  void addRate_shouldMoveCountersWhenAuthorChangesRating() throws Exception {
     DataSource dataSource = mock(DataSource.class);
     Connection connection = mock(Connection.class);
     PreparedStatement statement = mock(PreparedStatement.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
 
     when(dataSource.getConnection()).thenReturn(connection);
-    when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS)))
-        .thenReturn(statement);
-    when(statement.executeUpdate()).thenReturn(0);
+    when(connection.prepareStatement(contains("WITH existing"))).thenReturn(statement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getLong("id")).thenReturn(12L);
+    when(resultSet.getLong("previous_rate")).thenReturn(2L);
+    when(resultSet.wasNull()).thenReturn(false);
+    List<long[]> counters = stubCounterUpsert(connection, countersStatement, mock(Array.class), 1L);
+
+    Repository repository = new Repository(dataSource);
+    long rateId = repository.addRate(5L, 3L, 4);
+
+    assertEquals(12L, rateId);
+    assertArrayEquals(new long[] {5, 0, 0, -1, 0, 1, 0}, counters.get(0));
+    verify(connection).commit();
+  }
+
+  @Test
+  void addRate_shouldLeaveCountersWhenRatingIsUnchanged() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("WITH existing"))).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getLong("id")).thenReturn(12L);
+    when(resultSet.getLong("previous_rate")).thenReturn(4L);
+
+    Repository repository = new Repository(dataSource);
+
+    assertEquals(12L, repository.addRate(5L, 3L, 4));
+    verify(connection, never()).prepareStatement(contains("mod_rating_counters"));
+    verify(connection).commit();
+  }
+
+  @Test
+  void addRate_shouldRetryWhenConcurrentInsertWins() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet conflicted = mock(ResultSet.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("WITH existing"))).thenReturn(statement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(statement.executeQuery()).thenReturn(conflicted, resultSet);
+    when(conflicted.next()).thenReturn(false);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getLong("id")).thenReturn(31L);
+    when(resultSet.getLong("previous_rate")).thenReturn(5L);
+    List<long[]> counters = stubCounterUpsert(connection, countersStatement, mock(Array.class), 1L);
+
+    Repository repository = new Repository(dataSource);
+
+    assertEquals(31L, repository.addRate(5L, 3L, 1));
+    verify(statement, times(2)).executeQuery();
+    assertArrayEquals(new long[] {5, 0, 1, 0, 0, 0, -1}, counters.get(0));
+    verify(connection).commit();
+  }
+
+  @Test
+  void addRate_shouldFailWhenUpsertKeepsConflicting() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(false);
 
     Repository repository = new Repository(dataSource);
 
     assertThrows(SQLException.class, () -> repository.addRate(1L, 2L, 3));
+    verify(statement, times(3)).executeQuery();
+    verify(connection).rollback();
+    verify(connection, never()).commit();
   }
 
   @Test
-  void addRate_shouldThrowWhenNoGeneratedKey() throws Exception {
+  void addRate_shouldRollbackWhenCountersUpdateFails() throws Exception {
     DataSource dataSource = mock(DataSource.class);
     Connection connection = mock(Connection.class);
     PreparedStatement statement = mock(PreparedStatement.class);
-    ResultSet generatedKeys = mock(ResultSet.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
 
     when(dataSource.getConnection()).thenReturn(connection);
-    when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS)))
-        .thenReturn(statement);
-    when(statement.executeUpdate()).thenReturn(1);
-    when(statement.getGeneratedKeys()).thenReturn(generatedKeys);
-    when(generatedKeys.next()).thenReturn(false);
+    when(connection.prepareStatement(contains("WITH existing"))).thenReturn(statement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true);
+    when(resultSet.getLong("id")).thenReturn(77L);
+    when(resultSet.wasNull()).thenReturn(true);
+    when(countersStatement.executeQuery()).thenThrow(new SQLException("deadlock", "40P01"));
 
     Repository repository = new Repository(dataSource);
 
     assertThrows(SQLException.class, () -> repository.addRate(1L, 2L, 3));
+    verify(connection).rollback();
+    verify(connection, never()).commit();
+    verify(connection).setAutoCommit(true);
   }
 
   @Test
@@ -113,17 +257,73 @@ final class RepositoryTest {
     assertEquals(2L, data.getRate5Count());
 
     InOrder order = inOrder(statement, resultSet);
-    order.verify(statement).setInt(1, ratingservice.constants.Constants.RATE_1);
-    order.verify(statement).setInt(2, ratingservice.constants.Constants.RATE_2);
-    order.verify(statement).setInt(3, ratingservice.constants.Constants.RATE_3);
-    order.verify(statement).setInt(4, ratingservice.constants.Constants.RATE_4);
-    order.verify(statement).setInt(5, ratingservice.constants.Constants.RATE_5);
-    order.verify(statement).setLong(6, 11L);
+    order.verify(statement).setLong(1, 11L);
     order.verify(statement).executeQuery();
     order.verify(resultSet).next();
     order.verify(resultSet).getLong("total");
   }
 
+  @Test
+  void getRatingSummary_shouldRunUnderAttachedDeadline() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    Repository repository = new Repository(dataSource);
+    QueryDeadline deadline = QueryDeadline.after(TimeUnit.MILLISECONDS.toNanos(1_500));
+    deadline.attach(
+        () -> {
+          try {
+            return repository.getRatingSummary(11L);
+          } catch (SQLException e) {
+            throw new AssertionError(e);
+          }
+        });
+    deadline.cancel();
+
+    verify(statement).setQueryTimeout(2);
+    verify(statement).cancel();
+  }
+
+  @Test
+  void getRatingSummary_shouldRefuseExpiredDeadline() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+    Repository repository = new Repository(dataSource);
+    SQLException failure =
+        QueryDeadline.after(0)
+            .attach(() -> assertThrows(SQLException.class, () -> repository.getRatingSummary(1L)));
+
+    assertTrue(failure instanceof SQLTimeoutException);
+    verify(statement, never()).executeQuery();
+    verify(statement).close();
+  }
+
+  @Test
+  void getRatingSummary_shouldBeRejectedAtConcurrencyLimit() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    QueryLimiter limiter = new QueryLimiter(1, 1, 1);
+    limiter.acquire();
+
+    Repository repository =
+        Repository.builder(ReplicaRouter.primaryOnly(dataSource)).limiter(limiter).build();
+
+    assertThrows(RejectedExecutionException.class, () -> repository.getRatingSummary(1L));
+    verify(dataSource, never()).getConnection();
+    assertEquals(
+        0, repository.queryLatencyMicros(Repository.Query.GET_RATING_SUMMARY).snapshot().count());
+  }
+
   @Test
   void getRatingSummary_shouldReturnZeroDataWhenNoRows() throws Exception {
     DataSource dataSource = mock(DataSource.class);
@@ -146,4 +346,394 @@ final class RepositoryTest {
     assertEquals(0L, data.getRate4Count());
     assertEquals(0L, data.getRate5Count());
   }
+
+  @Test
+  void countRatingSummary_shouldSumGroupedRates() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("GROUP BY rate"))).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getLong("rate")).thenReturn(2L, 5L);
+    when(resultSet.getLong("rates")).thenReturn(3L, 4L);
+
+    Repository repository = new Repository(dataSource);
+    ratingservice.model.Data data = repository.countRatingSummary(11L);
+
+    verify(statement).setLong(1, 11L);
+    assertEquals(
+        1, repository.queryLatencyMicros(Repository.Query.COUNT_RATING_SUMMARY).snapshot().count());
+    assertEquals(7L, data.getTotalRates());
+    assertEquals(0L, data.getRate1Count());
+    assertEquals(3L, data.getRate2Count());
+    assertEquals(4L, data.getRate5Count());
+  }
+
+  @Test
+  void getRatingSummaries_shouldQueryOnceAndFillMissingMods() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    Array array = mock(Array.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(array);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getLong("mod_id")).thenReturn(1L);
+    when(resultSet.getLong("total")).thenReturn(3L);
+    when(resultSet.getLong("rate5")).thenReturn(3L);
+
+    Repository repository = new Repository(dataSource);
+    Map<Long, ratingservice.model.Data> summaries = repository.getRatingSummaries(List.of(1L, 2L));
+
+    assertEquals(2, summaries.size());
+    assertEquals(3L, summaries.get(1L).getRate5Count());
+    assertEquals(0L, summaries.get(2L).getTotalRates());
+    verify(statement).setArray(1, array);
+    verify(statement, times(1)).executeQuery();
+    verify(array).free();
+  }
+
+  @Test
+  void getRatingSummaries_shouldSkipQueryForEmptyInput() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+
+    Repository repository = new Repository(dataSource);
+
+    assertTrue(repository.getRatingSummaries(List.of()).isEmpty());
+    verify(dataSource, never()).getConnection();
+  }
+
+  @Test
+  void addRates_shouldUpsertBatchInOneStatementAndAggregateCounterDeltas() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    Array array = mock(Array.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("unnest"))).thenReturn(statement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, true, true, false);
+    when(resultSet.getLong("mod_id")).thenReturn(9L, 4L, 9L);
+    when(resultSet.getLong("author_id")).thenReturn(1L, 2L, 3L);
+    when(resultSet.getLong("id")).thenReturn(10L, 11L, 12L);
+    when(resultSet.getLong("rate")).thenReturn(5L, 1L, 5L);
+    when(resultSet.getLong("previous_rate")).thenReturn(0L, 0L, 3L);
+    when(resultSet.wasNull()).thenReturn(true, true, false);
+    List<long[]> counters = stubCounterUpsert(connection, countersStatement, array, 1L);
+
+    Repository repository = new Repository(dataSource);
+    long[] rateIds =
+        repository.addRates(
+            List.of(
+                new Repository.RateInsert(9L, 1L, 4),
+                new Repository.RateInsert(4L, 2L, 1),
+                new Repository.RateInsert(9L, 3L, 5),
+                new Repository.RateInsert(9L, 1L, 5)));
+
+    assertArrayEquals(new long[] {10L, 11L, 12L, 10L}, rateIds);
+    verify(statement, times(1)).executeQuery();
+    verify(connection).createArrayOf("bigint", new Object[] {9L, 4L, 9L, 9L});
+    verify(connection).createArrayOf("bigint", new Object[] {1L, 2L, 3L, 1L});
+    verify(connection).createArrayOf("bigint", new Object[] {4L, 1L, 5L, 5L});
+    verify(array, times(3 + 7)).free();
+    assertEquals(2, counters.size());
+    assertArrayEquals(new long[] {4, 1, 1, 0, 0, 0, 0}, counters.get(0));
+    assertArrayEquals(new long[] {9, 1, 0, 0, -1, 0, 2}, counters.get(1));
+
+    InOrder order = inOrder(connection, countersStatement);
+    order.verify(countersStatement).executeQuery();
+    order.verify(connection).commit();
+  }
+
+  @Test
+  void addRates_shouldRetryBatchAfterUniqueViolation() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("unnest"))).thenReturn(statement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(statement.executeQuery())
+        .thenThrow(new SQLException("duplicate key", "23505"))
+        .thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getLong("mod_id")).thenReturn(9L);
+    when(resultSet.getLong("author_id")).thenReturn(1L);
+    when(resultSet.getLong("id")).thenReturn(10L);
+    when(resultSet.getLong("rate")).thenReturn(5L);
+    when(resultSet.getLong("previous_rate")).thenReturn(4L);
+    stubCounterUpsert(connection, countersStatement, mock(Array.class), 1L);
+
+    Repository repository = new Repository(dataSource);
+
+    assertArrayEquals(
+        new long[] {10L}, repository.addRates(List.of(new Repository.RateInsert(9L, 1L, 5))));
+    verify(statement, times(2)).executeQuery();
+    verify(connection).rollback();
+    verify(connection).commit();
+  }
+
+  @Test
+  void addRates_shouldRollbackWhenUpsertFails() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(mock(Array.class));
+    when(statement.executeQuery()).thenThrow(new SQLException("serialization failure", "40001"));
+
+    Repository repository = new Repository(dataSource);
+
+    assertThrows(
+        SQLException.class,
+        () ->
+            repository.addRates(
+                List.of(
+                    new Repository.RateInsert(1L, 1L, 5), new Repository.RateInsert(1L, 2L, 4))));
+    verify(statement, times(1)).executeQuery();
+    verify(connection).rollback();
+    verify(connection, never()).commit();
+  }
+
+  @Test
+  void copyRates_shouldStageWithCopyAndApplyMergedDeltas() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    Statement createStatement = mock(Statement.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    CopyManager copyManager = mock(CopyManager.class);
+    PreparedStatement mergeStatement = mock(PreparedStatement.class);
+    PreparedStatement countersStatement = mock(PreparedStatement.class);
+    ResultSet deltas = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(createStatement);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    when(connection.prepareStatement(contains("rates_staging"))).thenReturn(mergeStatement);
+    when(connection.prepareStatement(contains("mod_rating_counters")))
+        .thenReturn(countersStatement);
+    when(mergeStatement.executeQuery()).thenReturn(deltas);
+    when(deltas.next()).thenReturn(true, false);
+    when(deltas.getLong(1)).thenReturn(9L);
+    when(deltas.getLong(2)).thenReturn(1L);
+    when(deltas.getLong(3)).thenReturn(0L);
+    when(deltas.getLong(4)).thenReturn(-1L);
+    when(deltas.getLong(5)).thenReturn(0L);
+    when(deltas.getLong(6)).thenReturn(0L);
+    when(deltas.getLong(7)).thenReturn(2L);
+    List<long[]> counters = stubCounterUpsert(connection, countersStatement, mock(Array.class), 1L);
+
+    Repository repository = new Repository(dataSource);
+    int written =
+        repository.copyRates(
+            List.of(new Repository.RateInsert(9L, 1L, 5), new Repository.RateInsert(9L, 2L, 5)));
+
+    assertEquals(2, written);
+    ArgumentCaptor<Reader> rows = ArgumentCaptor.forClass(Reader.class);
+    verify(copyManager).copyIn(contains("COPY rates_staging"), rows.capture());
+    assertEquals("0\t1\t9\t5\n1\t2\t9\t5\n", readAll(rows.getValue()));
+
+    assertArrayEquals(new long[] {9, 1, 0, -1, 0, 0, 2}, counters.get(0));
+
+    InOrder order = inOrder(connection, countersStatement);
+    order.verify(countersStatement).executeQuery();
+    order.verify(connection).commit();
+  }
+
+  @Test
+  void copyRates_shouldRetryChunkAfterUniqueViolation() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    Statement createStatement = mock(Statement.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    CopyManager copyManager = mock(CopyManager.class);
+    PreparedStatement mergeStatement = mock(PreparedStatement.class);
+    ResultSet deltas = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.createStatement()).thenReturn(createStatement);
+    when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    when(connection.prepareStatement(anyString())).thenReturn(mergeStatement);
+    when(mergeStatement.executeQuery())
+        .thenThrow(new SQLException("duplicate key", "23505"))
+        .thenReturn(deltas);
+    when(deltas.next()).thenReturn(false);
+
+    Repository repository = new Repository(dataSource);
+
+    assertEquals(1, repository.copyRates(List.of(new Repository.RateInsert(9L, 1L, 5))));
+    verify(copyManager, times(2)).copyIn(anyString(), any(Reader.class));
+    verify(connection).rollback();
+    verify(connection).commit();
+  }
+
+  @Test
+  void scanRatingCounters_shouldStreamModsChangedAfterRevision() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("WHERE revision > ?"))).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, true, false);
+    when(resultSet.getLong(1)).thenReturn(4L, 8L);
+    when(resultSet.getLong(2)).thenReturn(1L, 0L);
+    when(resultSet.getLong(6)).thenReturn(0L, 3L);
+    when(resultSet.getLong(7)).thenReturn(57L, 42L);
+
+    Repository repository = new Repository(dataSource);
+    List<long[]> rows = new ArrayList<>();
+    long revision =
+        repository.scanRatingCounters(
+            40L,
+            (modId, counts, rowRevision) -> {
+              long[] row = new long[2 + counts.length];
+              row[0] = modId;
+              System.arraycopy(counts, 0, row, 1, counts.length);
+              row[row.length - 1] = rowRevision;
+              rows.add(row);
+            });
+
+    verify(statement).setLong(1, 40L);
+    verify(connection).commit();
+    assertEquals(57L, revision);
+    assertArrayEquals(new long[] {4, 1, 0, 0, 0, 0, 57}, rows.get(0));
+    assertArrayEquals(new long[] {8, 0, 0, 0, 0, 3, 42}, rows.get(1));
+  }
+
+  @Test
+  void readRatingCounters_shouldReadGivenModsFromPrimary() throws Exception {
+    DataSource primary = mock(DataSource.class);
+    DataSource replica = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    Array array = mock(Array.class);
+
+    when(primary.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(contains("mod_id = ANY(?)"))).thenReturn(statement);
+    when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(array);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getLong(1)).thenReturn(4L);
+    when(resultSet.getLong(3)).thenReturn(2L);
+
+    Repository repository =
+        new Repository(new ReplicaRouter(primary, List.of(replica), Duration.ofSeconds(5)));
+    List<long[]> rows = new ArrayList<>();
+    repository.readRatingCounters(
+        List.of(4L, 5L),
+        (modId, counts, revision) -> {
+          long[] row = new long[1 + counts.length];
+          row[0] = modId;
+          System.arraycopy(counts, 0, row, 1, counts.length);
+          rows.add(row);
+        });
+
+    verify(replica, never()).getConnection();
+    verify(statement).setArray(1, array);
+    verify(array).free();
+    assertEquals(1, rows.size());
+    assertArrayEquals(new long[] {4, 0, 2, 0, 0, 0}, rows.get(0));
+  }
+
+  @Test
+  void recordChanges_shouldReadChangedModsFromPrimary() throws Exception {
+    DataSource primary = mock(DataSource.class);
+    DataSource replica = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+
+    when(primary.getConnection()).thenReturn(connection);
+    when(replica.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+
+    Repository repository =
+        new Repository(new ReplicaRouter(primary, List.of(replica), Duration.ofSeconds(5)));
+    repository.recordChanges(List.of(4L));
+    repository.getRatingSummary(4L);
+
+    verify(primary).getConnection();
+    verify(replica, never()).getConnection();
+
+    repository.getRatingSummary(5L);
+
+    verify(replica).getConnection();
+  }
+
+  /**
+   * Answers the counter upsert with a {@code (mod_id, revision)} row per mod it was given and
+   * returns the {@code (mod_id, total, rate1..rate5)} rows of the last upsert.
+   */
+  private static List<long[]> stubCounterUpsert(
+      final Connection connection,
+      final PreparedStatement countersStatement,
+      final Array array,
+      final long revision)
+      throws SQLException {
+    List<Object[]> arrays = new ArrayList<>();
+    List<long[]> rows = new ArrayList<>();
+    int[] row = {-1};
+    ResultSet upserted = mock(ResultSet.class);
+    when(connection.createArrayOf(eq("bigint"), any(Object[].class)))
+        .thenAnswer(
+            invocation -> {
+              arrays.add(invocation.getArgument(1));
+              return array;
+            });
+    when(countersStatement.executeQuery())
+        .thenAnswer(
+            invocation -> {
+              int first = arrays.size() - 7;
+              rows.clear();
+              for (int i = 0; i < arrays.get(first).length; i++) {
+                long[] values = new long[7];
+                for (int column = 0; column < values.length; column++) {
+                  values[column] = (Long) arrays.get(first + column)[i];
+                }
+                rows.add(values);
+              }
+              row[0] = -1;
+              return upserted;
+            });
+    when(upserted.next()).thenAnswer(invocation -> ++row[0] < rows.size());
+    when(upserted.getLong(1)).thenAnswer(invocation -> rows.get(row[0])[0]);
+    when(upserted.getLong(2)).thenReturn(revision);
+    return rows;
+  }
+
+  private static String readAll(final Reader reader) throws Exception {
+    StringBuilder text = new StringBuilder();
+    char[] buffer = new char[256];
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      text.append(buffer, 0, read);
+    }
+    return text.toString();
+  }
 }
@@ -0,0 +1,163 @@
+package ratingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import ratingservice.repository.Repository;
+
+final class OffHeapHistogramStoreTest {
+
+  @Test
+  void warm_shouldLoadGroupedCounts() throws Exception {
+    OffHeapHistogramStore store = new OffHeapHistogramStore(10);
+
+    HistogramStore.Stats stats =
+        store.warm(repositoryWith(new long[][] {{1, 2, 3}, {1, 5, 4}, {9, 1, 1}}));
+
+    assertEquals(2, stats.mods());
+    assertEquals(10, stats.capacity());
+    assertTrue(stats.footprintBytes() >= 11 * 40);
+    assertEquals(7, store.get(1L).getTotalRates());
+    assertCounts(store, 1L, 0, 3, 0, 0, 4);
+    assertCounts(store, 9L, 1, 0, 0, 0, 0);
+    assertCounts(store, 4L, 0, 0, 0, 0, 0);
+  }
+
+  @Test
+  void read_shouldAnswerNothingBeforeWarm() throws Exception {
+    OffHeapHistogramStore store = new OffHeapHistogramStore(10);
+
+    assertNull(store.get(1L));
+
+    store.warm(repositoryWith(new long[0][]));
+    assertThrows(IllegalStateException.class, () -> store.warm(repositoryWith(new long[0][])));
+  }
+
+  @Test
+  void countersChanged_shouldMoveChangedRating() throws Exception {
+    OffHeapHistogramStore store = new OffHeapHistogramStore(10);
+    store.warm(repositoryWith(new long[][] {{10, 2, 1}}));
+
+    store.countersChanged(10L, new long[] {0, 0, -1, 0, 1, 0}, 1L);
+    store.countersChanged(10L, new long[] {1, 1, 0, 0, 0, 0}, 2L);
+
+    assertCounts(store, 10L, 1, 0, 0, 1, 0);
+  }
+
+  @Test
+  void refresh_shouldOverwriteCounters() throws Exception {
+    OffHeapHistogramStore store = new OffHeapHistogramStore(10);
+    store.warm(repositoryWith(new long[][] {{10, 2, 1}}));
+
+    store.refresh(10L, new long[] {0, 0, 4, 0, 0}, 1L);
+
+    assertCounts(store, 10L, 0, 0, 4, 0, 0);
+  }
+
+  @Test
+  void read_shouldDeferToDatabaseForIdsBeyondTable() throws Exception {
+    OffHeapHistogramStore store = new OffHeapHistogramStore(5);
+    store.warm(repositoryWith(new long[][] {{6, 1, 1}}));
+
+    store.countersChanged(7L, new long[] {1, 1, 0, 0, 0, 0}, 3L);
+
+    assertFalse(store.read(6L, new long[HistogramStore.RATES]));
+    assertFalse(store.read(0L, new long[HistogramStore.RATES]));
+    assertTrue(store.stats().overflowed());
+    assertEquals(0, store.stats().mods());
+  }
+
+  @Test
+  void countersChanged_shouldNotLoseConcurrentRatingsOfSameMod() throws Exception {
+    OffHeapHistogramStore store = new OffHeapHistogramStore(20_000);
+    store.warm(repositoryWith(new long[0][]));
+    int threads = 8;
+    int perThread = 10_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int rate = t % 5 + 1;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  long[] delta = new long[6];
+                  delta[0] = 1;
+                  delta[rate] = 1;
+                  for (int i = 0; i < perThread; i++) {
+                    store.countersChanged(7L, delta, i + 1);
+                    store.countersChanged(10_000L + i, delta, i + 1);
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals((long) threads * perThread, store.get(7L).getTotalRates());
+    assertEquals(2L * perThread, store.get(7L).getRate1Count());
+    assertEquals(perThread + 1, store.stats().mods());
+  }
+
+  @Test
+  void refresh_shouldOrderAgainstChangesByRevision() throws Exception {
+    OffHeapHistogramStore store = new OffHeapHistogramStore(10);
+    store.warm(repositoryWith(new long[0][]));
+
+    // A re-read at revision 5 already counts the change committed at 5.
+    store.refresh(3L, new long[] {0, 0, 1, 0, 0}, 5L);
+    store.countersChanged(3L, new long[] {1, 0, 0, 1, 0, 0}, 5L);
+    store.countersChanged(3L, new long[] {1, 0, 0, 0, 1, 0}, 7L);
+    store.refresh(3L, new long[] {0, 0, 1, 0, 0}, 6L);
+
+    assertCounts(store, 3L, 0, 0, 1, 1, 0);
+  }
+
+  @Test
+  void constructor_shouldRejectNonPositiveCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new OffHeapHistogramStore(0));
+  }
+
+  private static Repository repositoryWith(final long[][] rows) throws Exception {
+    Repository repository = mock(Repository.class);
+    doAnswer(
+            invocation -> {
+              Repository.RateCountConsumer consumer = invocation.getArgument(0);
+              for (long[] row : rows) {
+                consumer.accept(row[0], row[1], row[2]);
+              }
+              return null;
+            })
+        .when(repository)
+        .scanRateHistograms(any());
+    return repository;
+  }
+
+  private static void assertCounts(
+      final HistogramStore store, final long modId, final long... expected) {
+    long[] counts = new long[HistogramStore.RATES];
+    assertTrue(store.read(modId, counts));
+    assertArrayEquals(expected, counts);
+  }
+}
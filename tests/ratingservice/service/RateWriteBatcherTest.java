@@ -0,0 +1,123 @@
+package ratingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ratingservice.repository.Repository;
+import ratingservice.repository.Repository.RateInsert;
+
+@ExtendWith(MockitoExtension.class)
+final class RateWriteBatcherTest {
+
+  @Mock private Repository repository;
+
+  private RateWriteBatcher batcher;
+
+  @AfterEach
+  void tearDown() {
+    if (batcher != null) {
+      batcher.close();
+    }
+  }
+
+  @Test
+  void submit_shouldFlushFullBatchAsOneWrite() throws Exception {
+    when(repository.addRates(anyList())).thenReturn(new long[] {100L, 101L, 102L});
+    batcher = new RateWriteBatcher(repository, 3, Duration.ofSeconds(5));
+
+    CompletableFuture<Long> first = batcher.submit(1L, 1L, 5);
+    CompletableFuture<Long> second = batcher.submit(2L, 2L, 4);
+    CompletableFuture<Long> third = batcher.submit(1L, 3L, 3);
+
+    assertEquals(100L, first.get(1, TimeUnit.SECONDS));
+    assertEquals(101L, second.get(1, TimeUnit.SECONDS));
+    assertEquals(102L, third.get(1, TimeUnit.SECONDS));
+    verify(repository, times(1))
+        .addRates(
+            List.of(
+                new RateInsert(1L, 1L, 5), new RateInsert(2L, 2L, 4), new RateInsert(1L, 3L, 3)));
+    assertEquals(1, batcher.batchSizes().snapshot().count());
+    assertEquals(3, batcher.batchSizes().snapshot().sum());
+  }
+
+  @Test
+  void submit_shouldFlushPartialBatchAfterMaxDelay() throws Exception {
+    when(repository.addRates(List.of(new RateInsert(1L, 1L, 5)))).thenReturn(new long[] {7L});
+    batcher = new RateWriteBatcher(repository, 100, Duration.ofMillis(10));
+
+    assertEquals(7L, batcher.submit(1L, 1L, 5).get(1, TimeUnit.SECONDS));
+    assertEquals(1, batcher.flushLatencyMicros().snapshot().count());
+  }
+
+  @Test
+  void submit_shouldFailEveryCallerWhenFlushFails() throws Exception {
+    SQLException failure = new SQLException("Connection lost", "08006");
+    when(repository.addRates(anyList())).thenThrow(failure);
+    batcher = new RateWriteBatcher(repository, 2, Duration.ofSeconds(5));
+
+    CompletableFuture<Long> first = batcher.submit(1L, 1L, 5);
+    CompletableFuture<Long> second = batcher.submit(2L, 2L, 4);
+
+    ExecutionException error =
+        assertThrows(ExecutionException.class, () -> first.get(1, TimeUnit.SECONDS));
+    assertSame(failure, error.getCause());
+    assertThrows(ExecutionException.class, () -> second.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void submit_shouldRejectBeyondMaxPending() throws Exception {
+    CountDownLatch flushing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(repository.addRates(anyList()))
+        .thenAnswer(
+            invocation -> {
+              flushing.countDown();
+              release.await();
+              return new long[] {1L};
+            });
+    batcher = new RateWriteBatcher(repository, 1, Duration.ZERO, 1);
+
+    CompletableFuture<Long> first = batcher.submit(1L, 1L, 5);
+    assertTrue(flushing.await(1, TimeUnit.SECONDS));
+    CompletableFuture<Long> second = batcher.submit(1L, 2L, 5);
+    CompletableFuture<Long> third = batcher.submit(1L, 3L, 5);
+
+    ExecutionException error =
+        assertThrows(ExecutionException.class, () -> third.get(1, TimeUnit.SECONDS));
+    assertSame(RejectedExecutionException.class, error.getCause().getClass());
+    release.countDown();
+    assertEquals(1L, first.get(1, TimeUnit.SECONDS));
+    assertEquals(1L, second.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void submit_shouldRejectAfterClose() {
+    batcher = new RateWriteBatcher(repository, 2, Duration.ofMillis(10));
+    batcher.close();
+
+    CompletableFuture<Long> future = batcher.submit(1L, 1L, 5);
+
+    ExecutionException error =
+        assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+    assertSame(IllegalStateException.class, error.getCause().getClass());
+  }
+}
@@ -0,0 +1,186 @@
+package ratingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ratingservice.datasource.ReplicaRouter;
+import ratingservice.model.Data;
+import ratingservice.repository.QueryLimiter;
+import ratingservice.repository.Repository;
+
+final class RatesWatchHubTest {
+
+  private final Repository repository = mock(Repository.class);
+  private final AtomicInteger notifications = new AtomicInteger();
+  // A long interval keeps the background publisher out of the way; tests call publish() directly.
+  private final RatesWatchHub hub = new RatesWatchHub(repository, Duration.ofHours(1));
+
+  @AfterEach
+  void tearDown() {
+    hub.close();
+  }
+
+  @Test
+  void subscribe_shouldDeliverCurrentSummariesOnNextPublish() throws Exception {
+    when(repository.getWatchedRatingSummaries(Set.of(1L, 2L)))
+        .thenReturn(Map.of(1L, new Data(1, 1, 0, 0, 0, 0), 2L, new Data(2, 0, 2, 0, 0, 0)));
+
+    RatesWatchHub.Subscription subscription =
+        hub.subscribe(List.of(1L, 2L), ignored -> notifications.incrementAndGet());
+    hub.publish();
+
+    assertEquals(1, notifications.get());
+    assertEquals(1L, subscription.poll().modId());
+    assertEquals(2L, subscription.poll().data().getRate2Count());
+    assertNull(subscription.poll());
+  }
+
+  @Test
+  void markChanged_shouldCoalesceBurstIntoOneUpdatePerMod() throws Exception {
+    when(repository.getWatchedRatingSummaries(any()))
+        .thenReturn(Map.of(1L, new Data(1, 1, 0, 0, 0, 0)))
+        .thenReturn(Map.of(1L, new Data(3, 1, 0, 0, 2, 0)));
+    RatesWatchHub.Subscription subscription =
+        hub.subscribe(List.of(1L), ignored -> notifications.incrementAndGet());
+    hub.publish();
+    subscription.poll();
+
+    hub.markChanged(1L);
+    hub.markChanged(1L);
+    hub.markChanged(1L);
+    hub.publish();
+
+    verify(repository, times(2)).getWatchedRatingSummaries(any());
+    assertEquals(3L, subscription.poll().data().getTotalRates());
+    assertNull(subscription.poll());
+  }
+
+  @Test
+  void publish_shouldKeepOnlyLatestPendingUpdateForSlowSubscriber() throws Exception {
+    when(repository.getWatchedRatingSummaries(any()))
+        .thenReturn(Map.of(1L, new Data(1, 1, 0, 0, 0, 0)))
+        .thenReturn(Map.of(1L, new Data(2, 1, 1, 0, 0, 0)))
+        .thenReturn(Map.of(1L, new Data(3, 1, 1, 1, 0, 0)));
+    RatesWatchHub.Subscription subscription = hub.subscribe(List.of(1L), ignored -> {});
+
+    hub.publish();
+    hub.markChanged(1L);
+    hub.publish();
+    hub.markChanged(1L);
+    hub.publish();
+
+    assertEquals(3L, subscription.poll().data().getTotalRates());
+    assertNull(subscription.poll());
+  }
+
+  @Test
+  void publish_shouldSkipUnchangedCounts() throws Exception {
+    when(repository.getWatchedRatingSummaries(any()))
+        .thenReturn(Map.of(1L, new Data(1, 1, 0, 0, 0, 0)));
+    RatesWatchHub.Subscription subscription =
+        hub.subscribe(List.of(1L), ignored -> notifications.incrementAndGet());
+    hub.publish();
+    subscription.poll();
+
+    hub.markChanged(1L);
+    hub.publish();
+
+    assertEquals(1, notifications.get());
+    assertNull(subscription.poll());
+  }
+
+  @Test
+  void markChanged_shouldIgnoreUnwatchedAndUnsubscribedMods() throws Exception {
+    when(repository.getWatchedRatingSummaries(any()))
+        .thenReturn(Map.of(1L, new Data(0, 0, 0, 0, 0, 0)));
+    RatesWatchHub.Subscription subscription = hub.subscribe(List.of(1L), ignored -> {});
+    hub.publish();
+    subscription.close();
+
+    hub.markChanged(1L);
+    hub.markChanged(2L);
+    hub.publish();
+
+    verify(repository, times(1)).getWatchedRatingSummaries(any());
+  }
+
+  @Test
+  void publish_shouldLoadSummariesWhileQueryLimiterRejects() throws Exception {
+    DataSource dataSource = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    ResultSet resultSet = mock(ResultSet.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(mock(Array.class));
+    when(statement.executeQuery()).thenReturn(resultSet);
+    when(resultSet.next()).thenReturn(true, false);
+    when(resultSet.getLong("mod_id")).thenReturn(1L);
+    when(resultSet.getLong("total")).thenReturn(2L);
+    QueryLimiter limiter = new QueryLimiter(1, 1, 1);
+    limiter.acquire();
+    Repository limited =
+        Repository.builder(ReplicaRouter.primaryOnly(dataSource)).limiter(limiter).build();
+
+    try (RatesWatchHub limitedHub = new RatesWatchHub(limited, Duration.ofHours(1))) {
+      RatesWatchHub.Subscription subscription = limitedHub.subscribe(List.of(1L), ignored -> {});
+      limitedHub.publish();
+
+      assertEquals(2L, subscription.poll().data().getTotalRates());
+      assertEquals(1, limiter.inFlight());
+    }
+  }
+
+  @Test
+  void publish_shouldRetryChangesAfterRuntimeFailure() throws Exception {
+    when(repository.getWatchedRatingSummaries(any()))
+        .thenReturn(Map.of(1L, new Data(1, 1, 0, 0, 0, 0)))
+        .thenThrow(new RejectedExecutionException("limit reached"))
+        .thenReturn(Map.of(1L, new Data(2, 1, 1, 0, 0, 0)));
+    RatesWatchHub.Subscription subscription = hub.subscribe(List.of(1L), ignored -> {});
+    hub.publish();
+    subscription.poll();
+
+    hub.markChanged(1L);
+    hub.publish();
+    assertNull(subscription.poll());
+    hub.publish();
+
+    assertEquals(2L, subscription.poll().data().getTotalRates());
+  }
+
+  @Test
+  void close_shouldCloseSubscriptionsAndNotifyListeners() throws Exception {
+    RatesWatchHub.Subscription subscription =
+        hub.subscribe(List.of(1L), ignored -> notifications.incrementAndGet());
+
+    hub.close();
+
+    assertTrue(subscription.isClosed());
+    assertEquals(1, notifications.get());
+    hub.publish();
+    verify(repository, never()).getWatchedRatingSummaries(any());
+  }
+}
@@ -0,0 +1,172 @@
+package ratingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import ratingservice.model.Data;
+import ratingservice.repository.Repository;
+
+final class RatingHistogramStoreTest {
+
+  @Test
+  void warm_shouldLoadGroupedCounts() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(10);
+
+    HistogramStore.Stats stats =
+        store.warm(repositoryWith(new long[][] {{1, 2, 3}, {1, 5, 4}, {9, 1, 1}}));
+
+    assertEquals(2, stats.mods());
+    assertCounts(store.get(1L), 7, 0, 3, 0, 0, 4);
+    assertCounts(store.get(9L), 1, 1, 0, 0, 0, 0);
+    assertCounts(store.get(4L), 0, 0, 0, 0, 0, 0);
+    assertTrue(stats.bytesPerMod() > 0);
+  }
+
+  @Test
+  void get_shouldAnswerNothingBeforeWarm() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(10);
+    store.countersChanged(1L, new long[] {1, 0, 0, 0, 0, 1}, 1L);
+
+    assertNull(store.get(1L));
+
+    store.warm(repositoryWith(new long[0][]));
+    assertThrows(IllegalStateException.class, () -> store.warm(repositoryWith(new long[0][])));
+  }
+
+  @Test
+  void countersChanged_shouldMoveChangedRating() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(10);
+    store.warm(repositoryWith(new long[][] {{3, 2, 1}}));
+
+    store.countersChanged(3L, new long[] {0, 0, -1, 0, 1, 0}, 2L);
+    store.countersChanged(3L, new long[] {1, 1, 0, 0, 0, 0}, 3L);
+
+    assertCounts(store.get(3L), 2, 1, 0, 0, 1, 0);
+  }
+
+  @Test
+  void refresh_shouldOverwriteCountersOfKnownAndNewMods() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(10);
+    store.warm(repositoryWith(new long[][] {{3, 2, 1}}));
+
+    store.refresh(3L, new long[] {0, 0, 4, 0, 0}, 1L);
+    store.refresh(5L, new long[] {1, 0, 0, 0, 2}, 1L);
+
+    assertCounts(store.get(3L), 4, 0, 0, 4, 0, 0);
+    assertCounts(store.get(5L), 3, 1, 0, 0, 0, 2);
+  }
+
+  @Test
+  void get_shouldDeferToDatabaseForModsLeftOutWhenFull() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(2);
+    store.warm(repositoryWith(new long[][] {{1, 1, 1}, {2, 1, 1}}));
+
+    store.countersChanged(3L, new long[] {1, 1, 0, 0, 0, 0}, 4L);
+
+    assertNull(store.get(3L));
+    assertNull(store.get(4L));
+    assertCounts(store.get(2L), 1, 1, 0, 0, 0, 0);
+    assertTrue(store.stats().overflowed());
+  }
+
+  @Test
+  void countersChanged_shouldNotLoseConcurrentRatingsOfSameMod() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(1_000);
+    store.warm(repositoryWith(new long[0][]));
+    int threads = 8;
+    int perThread = 10_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int rate = t % 5 + 1;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  long[] delta = new long[6];
+                  delta[0] = 1;
+                  delta[rate] = 1;
+                  for (int i = 0; i < perThread; i++) {
+                    store.countersChanged(7L, delta, i + 1);
+                    store.countersChanged(100L + i, delta, i + 1);
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals((long) threads * perThread, store.get(7L).getTotalRates());
+    assertEquals(1_000, store.stats().mods());
+    assertEquals(2L * perThread, store.get(7L).getRate1Count());
+  }
+
+  @Test
+  void refresh_shouldOrderAgainstChangesByRevision() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(10);
+    store.warm(repositoryWith(new long[0][]));
+
+    // A re-read at revision 5 already counts the change committed at 5.
+    store.refresh(3L, new long[] {0, 0, 1, 0, 0}, 5L);
+    store.countersChanged(3L, new long[] {1, 0, 0, 1, 0, 0}, 5L);
+    store.countersChanged(3L, new long[] {1, 0, 0, 0, 1, 0}, 7L);
+    store.refresh(3L, new long[] {0, 0, 1, 0, 0}, 6L);
+
+    assertCounts(store.get(3L), 2, 0, 0, 1, 1, 0);
+  }
+
+  @Test
+  void constructor_shouldRejectNonPositiveCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new RatingHistogramStore(0));
+  }
+
+  private static Repository repositoryWith(final long[][] rows) throws Exception {
+    Repository repository = mock(Repository.class);
+    doAnswer(
+            invocation -> {
+              Repository.RateCountConsumer consumer = invocation.getArgument(0);
+              for (long[] row : rows) {
+                consumer.accept(row[0], row[1], row[2]);
+              }
+              return null;
+            })
+        .when(repository)
+        .scanRateHistograms(any());
+    return repository;
+  }
+
+  private static void assertCounts(
+      final Data data,
+      final long total,
+      final long rate1,
+      final long rate2,
+      final long rate3,
+      final long rate4,
+      final long rate5) {
+    assertEquals(total, data.getTotalRates());
+    assertEquals(rate1, data.getRate1Count());
+    assertEquals(rate2, data.getRate2Count());
+    assertEquals(rate3, data.getRate3Count());
+    assertEquals(rate4, data.getRate4Count());
+    assertEquals(rate5, data.getRate5Count());
+  }
+}
@@ -0,0 +1,120 @@
+package ratingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ratingservice.repository.Repository;
+
+final class RatingSnapshotTest {
+
+  @TempDir Path dir;
+
+  @Test
+  void write_shouldRoundTripCountersAndRevision() throws Exception {
+    Path path = dir.resolve("ratings.snapshot");
+    Repository repository =
+        repositoryWith(120L, new long[][] {{3, 1, 0, 2, 0, 7}, {11, 0, 0, 0, 4, 0}});
+
+    RatingSnapshot written = RatingSnapshot.write(path, repository);
+    RatingSnapshot snapshot = RatingSnapshot.open(path);
+
+    assertEquals(120L, snapshot.revision());
+    assertEquals(2, snapshot.mods());
+    assertEquals(written.bytes(), Files.size(path));
+    assertFalse(Files.exists(dir.resolve("ratings.snapshot.tmp")));
+    List<long[]> rows = new ArrayList<>();
+    snapshot.forEach((modId, counts, revision) -> rows.add(row(modId, counts)));
+    assertArrayEquals(new long[] {3, 1, 0, 2, 0, 7}, rows.get(0));
+    assertArrayEquals(new long[] {11, 0, 0, 0, 4, 0}, rows.get(1));
+    verify(repository).scanRatingCounters(eq(-1L), any());
+  }
+
+  @Test
+  void open_shouldRejectCorruptOrTruncatedFiles() throws Exception {
+    Path path = dir.resolve("ratings.snapshot");
+    RatingSnapshot.write(path, repositoryWith(5L, new long[][] {{1, 1, 1, 1, 1, 1}}));
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.seek(file.length() - 1);
+      file.write(9);
+    }
+
+    assertThrows(IOException.class, () -> RatingSnapshot.open(path));
+
+    try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.setLength(file.length() - 8);
+    }
+    assertThrows(IOException.class, () -> RatingSnapshot.open(path));
+  }
+
+  @Test
+  void restore_shouldLoadSnapshotThenReplayLaterChanges() throws Exception {
+    Path path = dir.resolve("ratings.snapshot");
+    RatingSnapshot.write(
+        path, repositoryWith(50L, new long[][] {{1, 1, 0, 0, 0, 0}, {2, 0, 0, 0, 0, 3}}));
+    Repository repository = mock(Repository.class);
+    doAnswer(
+            invocation -> {
+              Repository.CounterRowConsumer consumer = invocation.getArgument(1);
+              consumer.accept(2L, new long[] {0, 0, 0, 1, 3}, 51L);
+              consumer.accept(5L, new long[] {0, 2, 0, 0, 0}, 53L);
+              return 53L;
+            })
+        .when(repository)
+        .scanRatingCounters(eq(50L), any());
+
+    for (HistogramStore store :
+        List.of(new RatingHistogramStore(10), new OffHeapHistogramStore(10))) {
+      HistogramStore.Stats stats = store.restore(RatingSnapshot.open(path), repository);
+
+      assertEquals(3, stats.mods());
+      assertEquals(1, store.get(1L).getRate1Count());
+      assertEquals(4, store.get(2L).getTotalRates());
+      assertEquals(1, store.get(2L).getRate4Count());
+      assertEquals(2, store.get(5L).getRate2Count());
+      assertThrows(IllegalStateException.class, () -> store.warm(repository));
+    }
+  }
+
+  private static Repository repositoryWith(final long revision, final long[][] rows)
+      throws Exception {
+    Repository repository = mock(Repository.class);
+    when(repository.counterRevision()).thenReturn(revision);
+    doAnswer(
+            invocation -> {
+              Repository.CounterRowConsumer consumer = invocation.getArgument(1);
+              long[] counts = new long[HistogramStore.RATES];
+              for (long[] row : rows) {
+                System.arraycopy(row, 1, counts, 0, counts.length);
+                consumer.accept(row[0], counts, revision);
+              }
+              return revision;
+            })
+        .when(repository)
+        .scanRatingCounters(anyLong(), any());
+    return repository;
+  }
+
+  private static long[] row(final long modId, final long[] counts) {
+    long[] row = new long[1 + counts.length];
+    row[0] = modId;
+    System.arraycopy(counts, 0, row, 1, counts.length);
+    return row;
+  }
+}
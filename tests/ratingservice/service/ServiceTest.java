@@ -1,26 +1,51 @@
 package ratingservice.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ratingservice.executor.AdmissionControl;
+import ratingservice.metrics.RequestTimings;
 import ratingservice.model.Data;
+import ratingservice.repository.QueryDeadline;
 import ratingservice.repository.Repository;
 
 @ExtendWith(MockitoExtension.class)
@@ -157,6 +182,378 @@ class ServiceTest {
     assertEquals(sqlException, cause.getCause());
   }
 
+  @Test
+  void testGetRatingsServedFromCache() throws Exception {
+    Service cachingService =
+        Service.builder(mockRepository, executor)
+            .cache(new SummaryCache(10, Duration.ofMinutes(1)))
+            .build();
+    when(mockRepository.getRatingSummary(1L)).thenReturn(new Data(1L, 1L, 0L, 0L, 0L, 0L));
+
+    await(cachingService.getRatings(1L));
+    Data result = await(cachingService.getRatings(1L));
+
+    assertEquals(1L, result.getTotalRates());
+    verify(mockRepository, times(1)).getRatingSummary(1L);
+  }
+
+  @Test
+  void testRateModInvalidatesCachedSummary() throws Exception {
+    Service cachingService =
+        Service.builder(mockRepository, executor)
+            .cache(new SummaryCache(10, Duration.ofMinutes(1)))
+            .build();
+    when(mockRepository.getRatingSummary(1L))
+        .thenReturn(new Data(1L, 1L, 0L, 0L, 0L, 0L), new Data(2L, 1L, 0L, 0L, 0L, 1L));
+    when(mockRepository.addRate(1L, 2L, 5)).thenReturn(3L);
+
+    await(cachingService.getRatings(1L));
+    await(cachingService.rateMod(1L, 2L, 5));
+    Data result = await(cachingService.getRatings(1L));
+
+    assertEquals(2L, result.getTotalRates());
+    verify(mockRepository, times(2)).getRatingSummary(1L);
+  }
+
+  @Test
+  void testChangesFromOtherNodesInvalidateCachedSummaries() throws Exception {
+    Service cachingService =
+        Service.builder(mockRepository, executor)
+            .cache(new SummaryCache(10, Duration.ofMinutes(1)))
+            .build();
+    when(mockRepository.getRatingSummary(anyLong())).thenReturn(new Data(1L, 1L, 0L, 0L, 0L, 0L));
+
+    await(cachingService.getRatings(1L));
+    await(cachingService.getRatings(2L));
+    await(cachingService.getRatings(3L));
+    cachingService.modsChanged(Set.of(1L));
+    await(cachingService.getRatings(1L));
+    await(cachingService.getRatings(2L));
+    cachingService.changesMissed();
+    await(cachingService.getRatings(2L));
+    await(cachingService.getRatings(3L));
+
+    verify(mockRepository, times(2)).getRatingSummary(1L);
+    verify(mockRepository, times(2)).getRatingSummary(2L);
+    verify(mockRepository, times(2)).getRatingSummary(3L);
+    verify(mockRepository).recordChanges(Set.of(1L));
+  }
+
+  @Test
+  void testChangesFromOtherNodesRefreshStore() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(10);
+    store.warm(mockRepository);
+    Service storeService = Service.builder(mockRepository, executor).store(store).build();
+    doAnswer(
+            invocation -> {
+              invocation
+                  .<Repository.CounterRowConsumer>getArgument(1)
+                  .accept(1L, new long[] {0, 0, 0, 2, 1}, 5L);
+              return null;
+            })
+        .when(mockRepository)
+        .readRatingCounters(eq(Set.of(1L)), any());
+    when(mockRepository.scanRatingCounters(anyLong(), any()))
+        .thenAnswer(
+            invocation -> {
+              invocation
+                  .<Repository.CounterRowConsumer>getArgument(1)
+                  .accept(2L, new long[] {1, 0, 0, 0, 0}, 7L);
+              return 7L;
+            })
+        .thenReturn(9L);
+
+    storeService.modsChanged(Set.of(1L));
+    storeService.changesMissed();
+    storeService.changesMissed();
+
+    assertEquals(3L, await(storeService.getRatings(1L)).getTotalRates());
+    assertEquals(1L, await(storeService.getRatings(2L)).getRate1Count());
+    InOrder order = inOrder(mockRepository);
+    order.verify(mockRepository).scanRatingCounters(eq(-1L), any());
+    order.verify(mockRepository).scanRatingCounters(eq(7L), any());
+    verify(mockRepository, never()).getRatingSummary(anyLong());
+  }
+
+  @Test
+  void testConcurrentGetRatingsShareOneRead() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(mockRepository.getRatingSummary(1L))
+        .thenAnswer(
+            invocation -> {
+              release.await(1, TimeUnit.SECONDS);
+              return new Data(3L, 0L, 0L, 3L, 0L, 0L);
+            });
+
+    CompletionStage<Data> first = service.getRatings(1L);
+    CompletionStage<Data> second = service.getRatings(1L);
+    release.countDown();
+
+    assertEquals(3L, await(first).getRate3Count());
+    assertEquals(3L, await(second).getRate3Count());
+    verify(mockRepository, times(1)).getRatingSummary(1L);
+  }
+
+  @Test
+  void testShortDeadlineOfLeaderDoesNotFailFollower() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(mockRepository.getRatingSummary(1L))
+        .thenAnswer(
+            invocation -> {
+              release.await(5, TimeUnit.SECONDS);
+              return new Data(2L, 0L, 0L, 0L, 2L, 0L);
+            });
+
+    CompletionStage<Data> leader =
+        service.getRatings(1L, QueryDeadline.after(TimeUnit.MILLISECONDS.toNanos(50)));
+    CompletionStage<Data> follower =
+        service.getRatings(1L, QueryDeadline.after(TimeUnit.SECONDS.toNanos(10)));
+    ExecutionException expired = assertThrows(ExecutionException.class, () -> await(leader));
+    release.countDown();
+
+    assertTrue(expired.getCause() instanceof TimeoutException);
+    assertEquals(2L, await(follower).getRate4Count());
+    verify(mockRepository, times(1)).getRatingSummary(1L);
+  }
+
+  @Test
+  void testSharedReadIsAbandonedOnceEveryWaiterCancels() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(mockRepository.getRatingSummary(1L))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return new Data(1L, 1L, 0L, 0L, 0L, 0L);
+            });
+    QueryDeadline first = QueryDeadline.unbounded();
+    QueryDeadline second = QueryDeadline.unbounded();
+
+    CompletionStage<Data> cancelled = service.getRatings(1L, first);
+    CompletionStage<Data> waiting = service.getRatings(1L, second);
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    first.cancel();
+    ExecutionException abandoned = assertThrows(ExecutionException.class, () -> await(cancelled));
+    second.cancel();
+    assertThrows(ExecutionException.class, () -> await(waiting));
+    CompletionStage<Data> fresh = service.getRatings(1L);
+    release.countDown();
+
+    assertTrue(abandoned.getCause() instanceof TimeoutException);
+    assertEquals(1L, await(fresh).getTotalRates());
+    verify(mockRepository, times(2)).getRatingSummary(1L);
+  }
+
+  @Test
+  void testGetRatingsAfterFailedSharedReadStartsNewRead() throws Exception {
+    when(mockRepository.getRatingSummary(1L))
+        .thenThrow(new SQLException("Connection lost", "08006"))
+        .thenReturn(new Data(1L, 1L, 0L, 0L, 0L, 0L));
+
+    assertThrows(ExecutionException.class, () -> await(service.getRatings(1L)));
+    Data result = await(service.getRatings(1L));
+
+    assertEquals(1L, result.getTotalRates());
+    verify(mockRepository, times(2)).getRatingSummary(1L);
+  }
+
+  @Test
+  void testGetRatingsBatchLoadsOnlyCacheMisses() throws Exception {
+    Service cachingService =
+        Service.builder(mockRepository, executor)
+            .cache(new SummaryCache(10, Duration.ofMinutes(1)))
+            .build();
+    when(mockRepository.getRatingSummary(1L)).thenReturn(new Data(1L, 1L, 0L, 0L, 0L, 0L));
+    when(mockRepository.getRatingSummaries(List.of(2L, 3L)))
+        .thenReturn(
+            Map.of(2L, new Data(2L, 0L, 2L, 0L, 0L, 0L), 3L, new Data(0L, 0L, 0L, 0L, 0L, 0L)));
+
+    await(cachingService.getRatings(1L));
+    Map<Long, Data> result = await(cachingService.getRatingsBatch(List.of(1L, 2L, 3L, 2L)));
+
+    assertEquals(3, result.size());
+    assertEquals(1L, result.get(1L).getRate1Count());
+    assertEquals(2L, result.get(2L).getRate2Count());
+    assertEquals(0L, result.get(3L).getTotalRates());
+    verify(mockRepository, times(1)).getRatingSummaries(List.of(2L, 3L));
+  }
+
+  @Test
+  void testRateModThroughWriteBatcher() throws Exception {
+    when(mockRepository.addRates(List.of(new Repository.RateInsert(1L, 2L, 5))))
+        .thenReturn(new long[] {9L});
+    try (RateWriteBatcher batcher =
+        new RateWriteBatcher(mockRepository, 10, Duration.ofMillis(5))) {
+      Service batchingService =
+          Service.builder(mockRepository, executor).writeBatcher(batcher).build();
+
+      int result = await(batchingService.rateMod(1L, 2L, 5));
+
+      assertEquals(9, result);
+      verify(mockRepository, never()).addRate(anyLong(), anyLong(), anyInt());
+    }
+  }
+
+  @Test
+  void testRateModThroughWriteBatcherCompletesWithoutWorkerPool() throws Exception {
+    when(mockRepository.addRates(anyList())).thenReturn(new long[] {9L});
+    Executor saturated =
+        task -> {
+          throw new RejectedExecutionException("worker queue is full");
+        };
+    try (RateWriteBatcher batcher =
+        new RateWriteBatcher(mockRepository, 10, Duration.ofMillis(5))) {
+      Service batchingService =
+          Service.builder(mockRepository, saturated).writeBatcher(batcher).build();
+
+      assertEquals(9, await(batchingService.rateMod(1L, 2L, 5)));
+    }
+  }
+
+  @Test
+  void testRateModThroughWriteBatcherTranslatesSqlErrors() throws Exception {
+    SQLException sqlException = new SQLException("Constraint violation", "23505");
+    when(mockRepository.addRates(anyList())).thenThrow(sqlException);
+    try (RateWriteBatcher batcher =
+        new RateWriteBatcher(mockRepository, 10, Duration.ofMillis(5))) {
+      Service batchingService =
+          Service.builder(mockRepository, executor).writeBatcher(batcher).build();
+
+      ExecutionException exception =
+          assertThrows(ExecutionException.class, () -> await(batchingService.rateMod(1L, 2L, 5)));
+
+      assertTrue(exception.getCause() instanceof IllegalStateException);
+      assertEquals(sqlException, exception.getCause().getCause());
+    }
+  }
+
+  @Test
+  void testRateModPublishesToWatchers() throws Exception {
+    when(mockRepository.addRate(4L, 2L, 5)).thenReturn(1L);
+    when(mockRepository.getWatchedRatingSummaries(anyCollection()))
+        .thenReturn(Map.of(4L, new Data(0, 0, 0, 0, 0, 0)))
+        .thenReturn(Map.of(4L, new Data(1, 0, 0, 0, 0, 1)));
+    try (RatesWatchHub hub = new RatesWatchHub(mockRepository, Duration.ofHours(1))) {
+      Service watchedService = Service.builder(mockRepository, executor).watchHub(hub).build();
+      RatesWatchHub.Subscription subscription =
+          watchedService.watchRates(List.of(4L), ignored -> {});
+      hub.publish();
+      subscription.poll();
+
+      await(watchedService.rateMod(4L, 2L, 5));
+      hub.publish();
+
+      assertEquals(1L, subscription.poll().data().getRate5Count());
+    }
+  }
+
+  @Test
+  void testGetRatingsServedFromStore() throws Exception {
+    RatingHistogramStore store = new RatingHistogramStore(10);
+    store.warm(mockRepository);
+    store.countersChanged(1L, new long[] {1, 0, 0, 0, 1, 0}, 1L);
+    service = Service.builder(mockRepository, executor).store(store).build();
+
+    Data data = await(service.getRatings(1L));
+    Map<Long, Data> batch = await(service.getRatingsBatch(List.of(1L, 2L)));
+
+    assertEquals(1L, data.getRate4Count());
+    assertEquals(0L, batch.get(2L).getTotalRates());
+    verify(mockRepository, never()).getRatingSummary(anyLong());
+    verify(mockRepository, never()).getRatingSummaries(anyCollection());
+  }
+
+  @Test
+  void testRunAsyncShedsTasksBeyondQueueDepth() throws Exception {
+    AdmissionControl admission = new AdmissionControl(1, 1);
+    service = Service.builder(mockRepository, executor).admission(admission).build();
+    when(mockRepository.getRatingSummary(1L)).thenReturn(new Data(0L, 0L, 0L, 0L, 0L, 0L));
+    CountDownLatch release = new CountDownLatch(1);
+    executor.execute(
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+
+    CompletionStage<Data> queued = service.getRatings(1L);
+    ExecutionException shed =
+        assertThrows(ExecutionException.class, () -> await(service.getRatings(2L)));
+    release.countDown();
+
+    assertTrue(shed.getCause() instanceof RejectedExecutionException);
+    assertEquals(0L, await(queued).getTotalRates());
+    assertEquals(1, admission.shedCount(AdmissionControl.Reason.QUEUE_FULL));
+    assertEquals(0, admission.queued());
+    verify(mockRepository, never()).getRatingSummary(2L);
+  }
+
+  @Test
+  void testExpiredDeadlineSkipsRepository() throws Exception {
+    QueryDeadline cancelled = QueryDeadline.unbounded();
+    cancelled.cancel();
+
+    ExecutionException expired =
+        assertThrows(
+            ExecutionException.class, () -> await(service.getRatings(1L, QueryDeadline.after(-1))));
+    ExecutionException abandoned =
+        assertThrows(ExecutionException.class, () -> await(service.rateMod(1L, 2L, 5, cancelled)));
+
+    assertTrue(expired.getCause() instanceof TimeoutException);
+    assertTrue(abandoned.getCause() instanceof TimeoutException);
+    verify(mockRepository, never()).getRatingSummary(anyLong());
+    verify(mockRepository, never()).addRate(anyLong(), anyLong(), anyInt());
+  }
+
+  @Test
+  void testStatementCutOffByDeadlineFailsWithTimeout() throws Exception {
+    SQLTimeoutException timedOut = new SQLTimeoutException("query timed out", "57014");
+    SQLException cancelled = new SQLException("canceling statement due to user request", "57014");
+    when(mockRepository.getRatingSummary(1L)).thenThrow(timedOut);
+    when(mockRepository.getRatingSummaries(List.of(2L))).thenThrow(cancelled);
+    when(mockRepository.addRate(1L, 2L, 5)).thenThrow(cancelled);
+    QueryDeadline deadline = QueryDeadline.after(TimeUnit.SECONDS.toNanos(5));
+
+    ExecutionException read =
+        assertThrows(ExecutionException.class, () -> await(service.getRatings(1L, deadline)));
+    ExecutionException batch =
+        assertThrows(
+            ExecutionException.class, () -> await(service.getRatingsBatch(List.of(2L), deadline)));
+    ExecutionException write =
+        assertThrows(ExecutionException.class, () -> await(service.rateMod(1L, 2L, 5, deadline)));
+
+    assertTrue(read.getCause() instanceof TimeoutException);
+    assertSame(timedOut, read.getCause().getCause());
+    assertTrue(batch.getCause() instanceof TimeoutException);
+    assertTrue(write.getCause() instanceof TimeoutException);
+    assertSame(cancelled, write.getCause().getCause());
+  }
+
+  @Test
+  void testRunAsyncCarriesRequestTimingsToTheWorker() throws Exception {
+    RequestTimings timings = new RequestTimings();
+    AtomicReference<RequestTimings> seenByRepository = new AtomicReference<>();
+    when(mockRepository.getRatingSummary(1L))
+        .thenAnswer(
+            invocation -> {
+              seenByRepository.set(RequestTimings.current());
+              return new Data(0L, 0L, 0L, 0L, 0L, 0L);
+            });
+
+    await(timings.attach(() -> service.getRatings(1L)));
+
+    assertSame(timings, seenByRepository.get());
+    assertTrue(timings.recorded(RequestTimings.Stage.QUEUE_WAIT));
+  }
+
+  @Test
+  void testWatchRatesRequiresHub() {
+    assertThrows(IllegalStateException.class, () -> service.watchRates(List.of(1L), ignored -> {}));
+  }
+
   @Test
   void testToString() {
     String result = service.toString();
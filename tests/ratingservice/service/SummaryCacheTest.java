@@ -0,0 +1,121 @@
+package ratingservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import ratingservice.model.Data;
+
+final class SummaryCacheTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void get_shouldReturnCachedValueUntilTtlExpires() {
+    SummaryCache cache = new SummaryCache(10, Duration.ofNanos(100), clock::get);
+    Data data = new Data(1, 1, 0, 0, 0, 0);
+
+    cache.put(1L, data, cache.token());
+
+    assertSame(data, cache.get(1L));
+    clock.addAndGet(101);
+    assertNull(cache.get(1L));
+
+    SummaryCache.Stats stats = cache.stats();
+    assertEquals(1, stats.hits());
+    assertEquals(1, stats.misses());
+    assertEquals(1, stats.evictions());
+  }
+
+  @Test
+  void put_shouldEvictEntriesNotReadSinceTheLastSweep() {
+    SummaryCache cache = new SummaryCache(2, Duration.ofMinutes(1), clock::get);
+
+    cache.put(1L, new Data(1, 1, 0, 0, 0, 0), cache.token());
+    cache.put(2L, new Data(1, 0, 1, 0, 0, 0), cache.token());
+    cache.put(3L, new Data(1, 0, 0, 1, 0, 0), cache.token());
+    assertNull(cache.get(1L));
+    assertEquals(2, cache.stats().size());
+
+    cache.get(3L);
+    cache.put(4L, new Data(1, 0, 0, 0, 1, 0), cache.token());
+
+    assertNull(cache.get(2L));
+    assertEquals(1L, cache.get(3L).getRate3Count());
+    assertEquals(1L, cache.get(4L).getRate4Count());
+    assertEquals(2, cache.stats().evictions());
+  }
+
+  @Test
+  void put_shouldStayWithinMaxEntriesUnderConcurrentWriters() throws Exception {
+    SummaryCache cache = new SummaryCache(64, Duration.ofMinutes(1), clock::get);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> writers = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        long offset = t * 1_000L;
+        writers.add(
+            executor.submit(
+                () -> {
+                  for (long modId = offset; modId < offset + 1_000; modId++) {
+                    cache.put(modId, new Data(1, 1, 0, 0, 0, 0), cache.token());
+                    cache.get(modId);
+                  }
+                }));
+      }
+      for (Future<?> writer : writers) {
+        writer.get(5, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    SummaryCache.Stats stats = cache.stats();
+    assertEquals(64, stats.size());
+    assertEquals(4_000 - 64, stats.evictions());
+  }
+
+  @Test
+  void put_shouldDropReadsStartedBeforeInvalidation() {
+    SummaryCache cache = new SummaryCache(10, Duration.ofMinutes(1), clock::get);
+
+    long staleToken = cache.token();
+    cache.invalidate(1L);
+    cache.put(1L, new Data(1, 1, 0, 0, 0, 0), staleToken);
+
+    assertNull(cache.get(1L));
+
+    cache.put(1L, new Data(2, 2, 0, 0, 0, 0), cache.token());
+    assertEquals(2L, cache.get(1L).getTotalRates());
+  }
+
+  @Test
+  void put_shouldDropReadsStartedBeforeInvalidateAll() {
+    SummaryCache cache = new SummaryCache(10, Duration.ofMinutes(1), clock::get);
+
+    long staleToken = cache.token();
+    cache.invalidateAll();
+    cache.put(1L, new Data(1, 1, 0, 0, 0, 0), staleToken);
+
+    assertNull(cache.get(1L));
+  }
+
+  @Test
+  void disabledCache_shouldNeverStoreValues() {
+    SummaryCache cache = SummaryCache.disabled();
+
+    cache.put(1L, new Data(1, 1, 0, 0, 0, 0), cache.token());
+
+    assertNull(cache.get(1L));
+    assertEquals(0, cache.stats().misses());
+  }
+}